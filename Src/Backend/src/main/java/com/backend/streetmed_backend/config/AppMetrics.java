@@ -0,0 +1,100 @@
+package com.backend.streetmed_backend.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Timers for the service hot paths.
+ * Every operation is recorded on the one "app.operation" timer with the same tags:
+ * endpoint (the operation, e.g. "order.create"), role (of the caller, "none" if not known),
+ * outcome (success, client_error, server_error or error) and exception (simple class name or "none"),
+ * so dashboards can slice every path the same way. Counts come with the timer.
+ * Response sizes of content endpoints go on "app.response.bytes", tagged by the same endpoint.
+ */
+@Component
+public class AppMetrics {
+
+    public static final String OPERATION_TIMER = "app.operation";
+    public static final String RESPONSE_BYTES = "app.response.bytes";
+    public static final String NO_ROLE = "none";
+
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public AppMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public Timer.Sample start() {
+        return Timer.start(meterRegistry);
+    }
+
+    public void stop(Timer.Sample sample, String endpoint, String role, String outcome) {
+        stop(sample, endpoint, role, outcome, null);
+    }
+
+    /**
+     * Stop a sample with the outcome taken from the response status
+     */
+    public <T extends ResponseEntity<?>> T stop(Timer.Sample sample, String endpoint, String role, T response) {
+        stop(sample, endpoint, role, outcomeOf(response), null);
+        return response;
+    }
+
+    /**
+     * Time an operation; a thrown exception is recorded as outcome "error" and rethrown
+     */
+    public <T> T time(String endpoint, String role, Supplier<T> operation) {
+        Timer.Sample sample = start();
+        try {
+            T result = operation.get();
+            stop(sample, endpoint, role, "success", null);
+            return result;
+        } catch (RuntimeException | Error e) {
+            stop(sample, endpoint, role, "error", e);
+            throw e;
+        }
+    }
+
+    /**
+     * Record the size of a response body
+     */
+    public void recordBytes(String endpoint, long bytes) {
+        DistributionSummary.builder(RESPONSE_BYTES)
+                .description("Response body sizes of content endpoints")
+                .baseUnit("bytes")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry)
+                .record(bytes);
+    }
+
+    public static String outcomeOf(ResponseEntity<?> response) {
+        if (response == null) {
+            return "error";
+        }
+        int status = response.getStatusCode().value();
+        if (status >= 500) {
+            return "server_error";
+        }
+        if (status >= 400) {
+            return "client_error";
+        }
+        return "success";
+    }
+
+    private void stop(Timer.Sample sample, String endpoint, String role, String outcome, Throwable exception) {
+        sample.stop(Timer.builder(OPERATION_TIMER)
+                .description("Latency of service hot paths")
+                .tag("endpoint", endpoint)
+                .tag("role", role != null ? role : NO_ROLE)
+                .tag("outcome", outcome)
+                .tag("exception", exception != null ? exception.getClass().getSimpleName() : "none")
+                .register(meterRegistry));
+    }
+}
@@ -1,77 +1,118 @@
 package com.backend.streetmed_backend.config;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
 import org.springframework.scheduling.annotation.EnableAsync;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.Semaphore;
 
+/**
+ * Executors for the CompletableFuture controllers and background work, built through
+ * {@link ExecutorRegistry} so each is named, bounded and instrumented.
+ * By default: fixed thread pools that reject when their queue is full.
+ * With spring.threads.virtual.enabled=true (Java 21+): a virtual thread per task, with a shared
+ * bulkhead sized to the Hikari pool instead of a queue; Spring Boot itself then runs Tomcat's
+ * request threads on virtual threads too.
+ */
 @Configuration
 @EnableAsync
 public class AsyncConfig {
 
+    private static final Logger logger = LoggerFactory.getLogger(AsyncConfig.class);
+
+    private static final RejectedExecutionHandler REJECT_WHEN_BUSY = (r, e) -> {
+        throw new RuntimeException("Server is too busy, please try again later");
+    };
+
+    private final ExecutorRegistry executorRegistry;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int databasePoolSize;
+
+    @Value("${app.execution.bulkhead-wait-ms:2000}")
+    private long bulkheadWaitMillis;
+
+    // Shared by the virtual-thread executors; they all draw on the same connection pool
+    private Semaphore databaseBulkhead;
+
+    @Autowired
+    public AsyncConfig(ExecutorRegistry executorRegistry) {
+        this.executorRegistry = executorRegistry;
+    }
+
     @Bean(name = "authExecutor")
     public Executor authExecutor() {
-        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(5);      // Increased from 2
-        executor.setMaxPoolSize(10);      // Increased from 6
-        executor.setQueueCapacity(100);   // Increased from 50
-        executor.setThreadNamePrefix("Auth-");
-
-        // Configure rejection policy
-        executor.setRejectedExecutionHandler((r, e) -> {
-            throw new RuntimeException("Server is too busy, please try again later");
-        });
-
-        // Wait for tasks to complete on shutdown
-        executor.setWaitForTasksToCompleteOnShutdown(true);
-        executor.setAwaitTerminationSeconds(20);
-
-        executor.initialize();
-        return executor;
+        if (isVirtualMode()) {
+            return virtualExecutor("Auth");
+        }
+        return executorRegistry.threadPool("Auth", 5, 10, 100, 20, REJECT_WHEN_BUSY);
     }
 
     @Bean(name = "readOnlyExecutor")
     public Executor readOnlyExecutor() {
-        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        if (isVirtualMode()) {
+            return virtualExecutor("ReadOnly");
+        }
         // More threads for read operations since MySQL handles concurrent readers well
-        executor.setCorePoolSize(8);      // Increased from 3
-        executor.setMaxPoolSize(15);      // Increased from 6
-        executor.setQueueCapacity(200);   // Increased from 100
-        executor.setThreadNamePrefix("ReadOnly-");
+        return executorRegistry.threadPool("ReadOnly", 8, 15, 200, 20, REJECT_WHEN_BUSY);
+    }
+
+    /**
+     * Cargo image resizing: CPU-bound, so always a small platform pool whatever the execution mode.
+     * Images rejected when the queue is full are picked up later by the unprocessed-image sweep.
+     */
+    @Bean(name = "imageProcessingExecutor")
+    public Executor imageProcessingExecutor(@Value("${cargo.image.variants.threads:2}") int threads,
+                                            @Value("${cargo.image.variants.queue-capacity:100}") int queueCapacity) {
+        return executorRegistry.threadPool("ImageProcessing", threads, threads, queueCapacity, 30, REJECT_WHEN_BUSY);
+    }
 
-        executor.setRejectedExecutionHandler((r, e) -> {
-            throw new RuntimeException("Server is too busy, please try again later");
-        });
+    /**
+     * One thread, so low-stock index refreshes and the events they publish keep commit order
+     */
+    @Bean(name = "stockEventExecutor")
+    public Executor stockEventExecutor() {
+        return executorRegistry.threadPool("StockEvents", 1, 1, 1000, 10, REJECT_WHEN_BUSY);
+    }
+
+    /**
+     * Writes to low-stock SSE streams, so a slow dashboard never holds up the StockEvents thread.
+     * Each subscriber has at most one drain task queued or running, so the queue only has to
+     * hold one task per subscriber.
+     */
+    @Bean(name = "lowStockSseExecutor")
+    public Executor lowStockSseExecutor(@Value("${cargo.low-stock.sse-max-subscribers:50}") int maxSubscribers) {
+        return executorRegistry.threadPool("LowStockSse", 2, 4, maxSubscribers, 30, REJECT_WHEN_BUSY);
+    }
 
-        executor.setWaitForTasksToCompleteOnShutdown(true);
-        executor.setAwaitTerminationSeconds(20);
+    private boolean isVirtualMode() {
+        return virtualThreads;
+    }
 
-        executor.initialize();
-        return executor;
+    private synchronized Executor virtualExecutor(String name) {
+        requireVirtualThreads();
+        if (databaseBulkhead == null) {
+            databaseBulkhead = new Semaphore(databasePoolSize);
+            logger.info("Virtual-thread execution mode: bulkhead of {} permits, {} ms max wait",
+                    databasePoolSize, bulkheadWaitMillis);
+        }
+        return executorRegistry.instrument(name, new BulkheadExecutor(
+                new VirtualThreadTaskExecutor(name + "-"), databaseBulkhead, bulkheadWaitMillis));
     }
 
-    @Bean(name = "emailExecutor")
-    public Executor emailExecutor() {
-        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        // Dedicated thread pool for email operations
-        executor.setCorePoolSize(3);       // Increased from 2
-        executor.setMaxPoolSize(6);        // Increased from 4
-        executor.setQueueCapacity(100);    // Increased from 50
-        executor.setThreadNamePrefix("Email-");
-
-        // Use a more lenient rejection policy for emails
-        executor.setRejectedExecutionHandler((r, e) -> {
-            // Log the rejection but don't throw an exception
-            // This prevents email failures from affecting the main application
-            System.err.println("Email task rejected: queue full");
-        });
-
-        // Shutdown configuration
-        executor.setWaitForTasksToCompleteOnShutdown(true);
-        executor.setAwaitTerminationSeconds(60); // Give emails more time to complete on shutdown
-
-        executor.initialize();
-        return executor;
+    private static void requireVirtualThreads() {
+        if (Runtime.version().feature() < 21) {
+            throw new IllegalStateException("spring.threads.virtual.enabled=true requires Java 21 or newer, running on "
+                    + Runtime.version());
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,75 @@
+package com.backend.streetmed_backend.config;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executor that admits at most as many concurrent tasks as the shared semaphore has permits.
+ * Used in virtual-thread mode, where threads are unlimited and the real limit is the database
+ * connection pool: a caller waits up to the configured time for a permit and is then turned
+ * away with the same "Server is too busy" error the fixed pools give when their queue is full.
+ * Only outermost submissions take a permit: a task that is already running inside the bulkhead
+ * (e.g. a controller future handing off to authExecutor) submits without one, since waiting for
+ * a permit it may be holding itself could stall until the wait runs out and reject the request.
+ */
+public class BulkheadExecutor implements Executor {
+    // Set on threads running a task admitted by any bulkhead
+    private static final ThreadLocal<Boolean> INSIDE_BULKHEAD = new ThreadLocal<>();
+
+    private final Executor delegate;
+    private final Semaphore permits;
+    private final long maxWaitMillis;
+
+    public BulkheadExecutor(Executor delegate, Semaphore permits, long maxWaitMillis) {
+        this.delegate = delegate;
+        this.permits = permits;
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (Boolean.TRUE.equals(INSIDE_BULKHEAD.get())) {
+            delegate.execute(() -> runInside(task));
+            return;
+        }
+
+        // Acquire on the caller so a rejection surfaces to it, as with a full pool queue
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Server is too busy, please try again later");
+        }
+        if (!acquired) {
+            throw new RuntimeException("Server is too busy, please try again later");
+        }
+
+        try {
+            delegate.execute(() -> {
+                try {
+                    runInside(task);
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private static void runInside(Runnable task) {
+        INSIDE_BULKHEAD.set(Boolean.TRUE);
+        try {
+            task.run();
+        } finally {
+            INSIDE_BULKHEAD.remove();
+        }
+    }
+
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+}
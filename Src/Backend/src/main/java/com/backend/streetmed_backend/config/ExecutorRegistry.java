@@ -0,0 +1,93 @@
+package com.backend.streetmed_backend.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionHandler;
+
+/**
+ * Central place where the application's executors are built and monitored.
+ * Every pool is named and bounded, propagates MDC context to its tasks and keeps
+ * {@link ExecutorStats}. Pools created here are returned as beans by {@link AsyncConfig},
+ * so Spring shuts them down gracefully (waiting for running tasks) on close.
+ */
+@Component
+public class ExecutorRegistry {
+    private static final Logger logger = LoggerFactory.getLogger(ExecutorRegistry.class);
+
+    private final Map<String, ExecutorStats> stats = new ConcurrentHashMap<>();
+
+    /**
+     * Create a bounded, instrumented thread pool
+     *
+     * @param onRejected called (after counting) when the pool and its queue are full
+     */
+    public ThreadPoolTaskExecutor threadPool(String name, int corePoolSize, int maxPoolSize, int queueCapacity,
+                                             int awaitTerminationSeconds, RejectedExecutionHandler onRejected) {
+        ExecutorStats poolStats = register(name);
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix(name + "-");
+        executor.setTaskDecorator(poolStats::decorate);
+        executor.setRejectedExecutionHandler((r, e) -> {
+            poolStats.recordRejected();
+            onRejected.rejectedExecution(r, e);
+        });
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(awaitTerminationSeconds);
+        executor.initialize();
+
+        logger.info("Executor {}: core {}, max {}, queue {}", name, corePoolSize, maxPoolSize, queueCapacity);
+        return executor;
+    }
+
+    /**
+     * Instrument an executor that is not a thread pool (e.g. virtual threads)
+     */
+    public Executor instrument(String name, Executor executor) {
+        ExecutorStats poolStats = register(name);
+        return task -> {
+            try {
+                executor.execute(poolStats.decorate(task));
+            } catch (RuntimeException e) {
+                poolStats.recordRejected();
+                throw e;
+            }
+        };
+    }
+
+    public ExecutorStats getStats(String name) {
+        return stats.get(name);
+    }
+
+    public Collection<ExecutorStats> getAllStats() {
+        return stats.values();
+    }
+
+    /**
+     * Per-executor metrics for monitoring
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        stats.forEach((name, poolStats) -> metrics.put(name, poolStats.snapshot()));
+        return metrics;
+    }
+
+    private ExecutorStats register(String name) {
+        ExecutorStats poolStats = new ExecutorStats(name);
+        if (stats.putIfAbsent(name, poolStats) != null) {
+            throw new IllegalStateException("Executor already registered: " + name);
+        }
+        return poolStats;
+    }
+}
@@ -0,0 +1,166 @@
+package com.backend.streetmed_backend.config;
+
+import org.slf4j.MDC;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and latency histograms for one named executor.
+ * {@link #decorate(Runnable)} wraps each task at submission: it carries the submitter's MDC
+ * context over to the worker thread and records queue wait and run time.
+ */
+public class ExecutorStats {
+    private final String name;
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder started = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final AtomicInteger running = new AtomicInteger();
+    private final Histogram queueWait = new Histogram();
+    private final Histogram runTime = new Histogram();
+
+    ExecutorStats(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Wrap a task for MDC propagation and timing
+     */
+    public Runnable decorate(Runnable task) {
+        submitted.increment();
+        Map<String, String> context = MDC.getCopyOfContextMap();
+        long submittedAt = System.nanoTime();
+        return () -> {
+            long startedAt = System.nanoTime();
+            queueWait.record(startedAt - submittedAt);
+            started.increment();
+            running.incrementAndGet();
+
+            Map<String, String> previous = MDC.getCopyOfContextMap();
+            if (context != null) {
+                MDC.setContextMap(context);
+            } else {
+                MDC.clear();
+            }
+            try {
+                task.run();
+                completed.increment();
+            } catch (RuntimeException | Error e) {
+                failed.increment();
+                throw e;
+            } finally {
+                running.decrementAndGet();
+                runTime.record(System.nanoTime() - startedAt);
+                if (previous != null) {
+                    MDC.setContextMap(previous);
+                } else {
+                    MDC.clear();
+                }
+            }
+        };
+    }
+
+    void recordRejected() {
+        rejected.increment();
+    }
+
+    public int getActive() {
+        return running.get();
+    }
+
+    public long getQueued() {
+        // Rejected tasks were decorated (counted as submitted) but never start
+        return Math.max(0, submitted.sum() - started.sum() - rejected.sum());
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public long getCompleted() {
+        return completed.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    Histogram getQueueWait() {
+        return queueWait;
+    }
+
+    Histogram getRunTime() {
+        return runTime;
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("active", getActive());
+        snapshot.put("queued", getQueued());
+        snapshot.put("completed", completed.sum());
+        snapshot.put("failed", failed.sum());
+        snapshot.put("rejected", rejected.sum());
+        snapshot.put("queueWaitMillis", queueWait.snapshot());
+        snapshot.put("runTimeMillis", runTime.snapshot());
+        return snapshot;
+    }
+
+    /**
+     * Fixed-bucket latency histogram (upper bounds in milliseconds)
+     */
+    static class Histogram {
+        private static final long[] BOUNDS_MILLIS = {1, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000};
+
+        private final LongAdder[] buckets = new LongAdder[BOUNDS_MILLIS.length + 1];
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+
+        Histogram() {
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        void record(long nanos) {
+            long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+            int i = 0;
+            while (i < BOUNDS_MILLIS.length && millis > BOUNDS_MILLIS[i]) {
+                i++;
+            }
+            buckets[i].increment();
+            count.increment();
+            totalNanos.add(nanos);
+        }
+
+        long count() {
+            return count.sum();
+        }
+
+        double totalNanos() {
+            return totalNanos.sum();
+        }
+
+        Map<String, Object> snapshot() {
+            Map<String, Object> snapshot = new LinkedHashMap<>();
+            long n = count.sum();
+            snapshot.put("count", n);
+            snapshot.put("avg", n == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalNanos.sum() / n));
+            Map<String, Long> histogram = new LinkedHashMap<>();
+            for (int i = 0; i < BOUNDS_MILLIS.length; i++) {
+                histogram.put("le" + BOUNDS_MILLIS[i], buckets[i].sum());
+            }
+            histogram.put("inf", buckets[BOUNDS_MILLIS.length].sum());
+            snapshot.put("buckets", histogram);
+            return snapshot;
+        }
+    }
+}
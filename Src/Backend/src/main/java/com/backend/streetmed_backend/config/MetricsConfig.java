@@ -0,0 +1,108 @@
+package com.backend.streetmed_backend.config;
+
+import com.backend.streetmed_backend.security.EcdhKeyPairPool;
+import com.backend.streetmed_backend.security.PasswordHash;
+import com.backend.streetmed_backend.service.cargoService.CargoContentCache;
+import com.backend.streetmed_backend.service.cargoService.CargoStockIndex;
+import com.backend.streetmed_backend.service.cargoService.LowStockNotifier;
+import com.backend.streetmed_backend.util.ByteWeightedLruCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meter binders for application components that keep their own statistics.
+ * Hikari pool metrics (hikaricp.*), Hibernate statistics (hibernate.*) and the
+ * ThreadPoolTaskExecutor beans (executor.*) are bound by Spring Boot's actuator
+ * auto-configuration; these add what it cannot see, such as the virtual-thread executors.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Counters, gauges and queue-wait/run timers for every executor in the registry
+     */
+    @Bean
+    public MeterBinder executorRegistryMetrics(ExecutorRegistry executorRegistry) {
+        return registry -> {
+            for (ExecutorStats stats : executorRegistry.getAllStats()) {
+                String name = stats.getName();
+                Gauge.builder("app.executor.active", stats, ExecutorStats::getActive)
+                        .tag("executor", name).register(registry);
+                Gauge.builder("app.executor.queued", stats, ExecutorStats::getQueued)
+                        .tag("executor", name).register(registry);
+                FunctionCounter.builder("app.executor.completed", stats, ExecutorStats::getCompleted)
+                        .tag("executor", name).register(registry);
+                FunctionCounter.builder("app.executor.failed", stats, ExecutorStats::getFailed)
+                        .tag("executor", name).register(registry);
+                FunctionCounter.builder("app.executor.rejected", stats, ExecutorStats::getRejected)
+                        .tag("executor", name).register(registry);
+                FunctionTimer.builder("app.executor.queue.wait", stats.getQueueWait(),
+                                ExecutorStats.Histogram::count, ExecutorStats.Histogram::totalNanos,
+                                TimeUnit.NANOSECONDS)
+                        .tag("executor", name).register(registry);
+                FunctionTimer.builder("app.executor.run", stats.getRunTime(),
+                                ExecutorStats.Histogram::count, ExecutorStats.Histogram::totalNanos,
+                                TimeUnit.NANOSECONDS)
+                        .tag("executor", name).register(registry);
+            }
+        };
+    }
+
+    /**
+     * Depths of the security pools that sit in front of the handshake and login paths
+     */
+    @Bean
+    public MeterBinder securityPoolMetrics(EcdhKeyPairPool keyPairPool, PasswordHash passwordHash) {
+        return registry -> {
+            Gauge.builder("app.security.ecdh.pool.size", keyPairPool, EcdhKeyPairPool::size)
+                    .description("Pre-generated ECDH key pairs ready for handshakes")
+                    .register(registry);
+            Gauge.builder("app.security.password.queue", passwordHash, PasswordHash::getQueueDepth)
+                    .description("Password hashes waiting for a hashing thread")
+                    .register(registry);
+        };
+    }
+
+    /**
+     * Hit, miss and eviction counts and the byte weight of the cargo content cache
+     */
+    @Bean
+    public MeterBinder contentCacheMetrics(CargoContentCache contentCache) {
+        ByteWeightedLruCache<String, CargoContentCache.CachedContent> cache = contentCache.getCache();
+        return registry -> {
+            FunctionCounter.builder("app.cache.gets", cache, ByteWeightedLruCache::getHits)
+                    .tag("cache", "cargo").tag("result", "hit").register(registry);
+            FunctionCounter.builder("app.cache.gets", cache, ByteWeightedLruCache::getMisses)
+                    .tag("cache", "cargo").tag("result", "miss").register(registry);
+            FunctionCounter.builder("app.cache.puts", cache, ByteWeightedLruCache::getPuts)
+                    .tag("cache", "cargo").register(registry);
+            FunctionCounter.builder("app.cache.evictions", cache, ByteWeightedLruCache::getEvictions)
+                    .tag("cache", "cargo").register(registry);
+            Gauge.builder("app.cache.size", cache, ByteWeightedLruCache::size)
+                    .tag("cache", "cargo").register(registry);
+            Gauge.builder("app.cache.weight", cache, ByteWeightedLruCache::weight)
+                    .tag("cache", "cargo").baseUnit("bytes").register(registry);
+        };
+    }
+
+    /**
+     * Items below their minimum quantity and open low-stock dashboard streams
+     */
+    @Bean
+    public MeterBinder lowStockMetrics(CargoStockIndex stockIndex, LowStockNotifier notifier) {
+        return registry -> {
+            Gauge.builder("app.cargo.low_stock.items", stockIndex, index -> index.getLowStock().size())
+                    .description("Available cargo items at or below their minimum quantity")
+                    .register(registry);
+            Gauge.builder("app.cargo.low_stock.subscribers", notifier, LowStockNotifier::getSubscriberCount)
+                    .description("Open low-stock event streams")
+                    .register(registry);
+        };
+    }
+}
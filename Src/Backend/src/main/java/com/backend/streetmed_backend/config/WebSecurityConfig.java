@@ -1,11 +1,19 @@
 package com.backend.streetmed_backend.config;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
@@ -13,6 +21,7 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -29,6 +38,44 @@ public class WebSecurityConfig {
     @Value("${cors.allowed-origins:http://localhost:3000,http://localhost:3001,https://localhost:3000}")
     private String corsAllowedOrigins;
 
+    @Value("${security.metrics.scrape-username:prometheus}")
+    private String scrapeUsername;
+
+    @Value("${security.metrics.scrape-password:}")
+    private String scrapePassword;
+
+    /**
+     * Actuator endpoints: health stays public for load balancers; metrics and the Prometheus
+     * scrape reveal endpoint names, roles and error rates, so they need HTTP Basic credentials
+     * (security.metrics.scrape-username/password). Without a configured password they are closed.
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain actuatorSecurityFilterChain(HttpSecurity http) throws Exception {
+        List<UserDetails> scrapers = new ArrayList<>();
+        if (scrapePassword != null && !scrapePassword.isBlank()) {
+            scrapers.add(User.withUsername(scrapeUsername)
+                    .password(PasswordEncoderFactories.createDelegatingPasswordEncoder().encode(scrapePassword))
+                    .roles("METRICS")
+                    .build());
+        } else {
+            logger.warn("security.metrics.scrape-password is not set: actuator metrics endpoints are closed");
+        }
+
+        http
+                .securityMatcher(EndpointRequest.toAnyEndpoint())
+                .csrf(csrf -> csrf.disable())
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .authorizeHttpRequests(auth -> auth
+                        .requestMatchers(EndpointRequest.to(HealthEndpoint.class)).permitAll()
+                        .anyRequest().hasRole("METRICS"))
+                .httpBasic(Customizer.withDefaults())
+                .userDetailsService(new InMemoryUserDetailsManager(scrapers));
+
+        logger.info("✓ Actuator: health public, other endpoints require the METRICS role");
+        return http.build();
+    }
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         logger.info("╔══════════════════════════════════════════════════════════════╗");
@@ -74,7 +121,6 @@ public class WebSecurityConfig {
                                     "/api/admin/**",
                                     "/api/feedback/**",
                                     "/health",
-                                    "/actuator/**",
                                     "/swagger-ui/**",
                                     "/v3/api-docs/**",
                                     "/error"
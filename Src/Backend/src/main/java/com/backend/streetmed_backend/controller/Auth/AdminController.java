@@ -165,4 +165,38 @@ public class AdminController {
             return adminService.getUserStatistics(request);
         }, readOnlyExecutor);
     }
-}
\ No newline at end of file
+
+    @Operation(summary = "Start the password migration",
+            description = "Hashes any plain-text passwords left in the users table, in the background")
+    @PostMapping("/password-migration/start")
+    public ResponseEntity<Map<String, Object>> startPasswordMigration(
+            @RequestHeader("Admin-Username") String adminUsername,
+            @RequestHeader("Authentication-Status") String authStatus,
+            HttpServletRequest httpRequest) {
+
+        if (tlsService.isHttpsRequired(httpRequest, true)) {
+            return ResponseUtil.httpsRequired("Admin operations require secure HTTPS connection");
+        }
+
+        PasswordMigrationRequest request = new PasswordMigrationRequest(adminUsername, authStatus);
+        return adminService.startPasswordMigration(request);
+    }
+
+    @Operation(summary = "Get password migration status")
+    @GetMapping("/password-migration/status")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> getPasswordMigrationStatus(
+            @RequestHeader("Admin-Username") String adminUsername,
+            @RequestHeader("Authentication-Status") String authStatus,
+            HttpServletRequest httpRequest) {
+
+        if (tlsService.isHttpsRequired(httpRequest, true)) {
+            return CompletableFuture.completedFuture(
+                    ResponseUtil.httpsRequired("Admin operations require secure HTTPS connection"));
+        }
+
+        return CompletableFuture.supplyAsync(() -> {
+            PasswordMigrationRequest request = new PasswordMigrationRequest(adminUsername, authStatus);
+            return adminService.getPasswordMigrationStatus(request);
+        }, readOnlyExecutor);
+    }
+}
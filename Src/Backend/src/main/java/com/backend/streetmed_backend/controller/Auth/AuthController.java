@@ -56,48 +56,35 @@ public class AuthController {
     @PostMapping("/register")
     public CompletableFuture<ResponseEntity<?>> register(
             @RequestHeader(value = "X-Session-ID", required = false) String sessionId,
-            @RequestBody String body,
+            @RequestBody RegisterRequest body,
             HttpServletRequest request) {
 
         if (!tlsService.isSecureConnection(request)) {
             logger.warn("⚠️ User registration over insecure HTTP connection");
         }
 
-        return CompletableFuture.supplyAsync(() -> {
-            Map<String, String> userData;
-            try {
-                userData = requestResponseUtil.parseRequestBody(sessionId, body, "registration");
-            } catch (Exception e) {
-                throw new RuntimeException(e);
-            }
-            RegisterRequest registerRequest = new RegisterRequest(userData, sessionId,
-                    tlsService.isSecureConnection(request));
-            return authService.register(registerRequest);
-        }, authExecutor);
+        body.setSessionId(sessionId);
+        body.setSecure(tlsService.isSecureConnection(request));
+        return authService.register(body);
     }
 
     @Operation(summary = "User login")
     @PostMapping("/login")
     public CompletableFuture<ResponseEntity<?>> login(
             @RequestHeader(value = "X-Session-ID", required = false) String sessionId,
-            @RequestBody String body,
+            @RequestBody LoginRequest body,
             HttpServletRequest request) {
 
         if (!tlsService.isSecureConnection(request)) {
             logger.warn("⚠️ User login over insecure HTTP connection");
         }
 
+        // Look the user up on the read-only pool, then continue on the hashing pool without blocking it
         return CompletableFuture.supplyAsync(() -> {
-            Map<String, String> credentials;
-            try {
-                credentials = requestResponseUtil.parseRequestBody(sessionId, body, "login");
-            } catch (Exception e) {
-                throw new RuntimeException(e);
-            }
-            LoginRequest loginRequest = new LoginRequest(credentials, sessionId,
-                    tlsService.isSecureConnection(request));
-            return authService.login(loginRequest);
-        }, readOnlyExecutor);
+            body.setSessionId(sessionId);
+            body.setSecure(tlsService.isSecureConnection(request));
+            return authService.login(body);
+        }, readOnlyExecutor).thenCompose(response -> response);
     }
 
     @Operation(summary = "Update username")
@@ -105,7 +92,7 @@ public class AuthController {
     public CompletableFuture<ResponseEntity<?>> updateUsername(
             @RequestHeader(value = "X-Session-ID", required = false) String sessionId,
             @RequestHeader(value = "X-Auth-Token", required = false) String authToken,
-            @RequestBody String body,
+            @RequestBody UpdateUsernameRequest body,
             HttpServletRequest request) {
 
         if (tlsService.isHttpsRequired(request, false)) {
@@ -114,15 +101,10 @@ public class AuthController {
         }
 
         return CompletableFuture.supplyAsync(() -> {
-            Map<String, String> updateData;
-            try {
-                updateData = requestResponseUtil.parseRequestBody(sessionId, body, "username update");
-            } catch (Exception e) {
-                throw new RuntimeException(e);
-            }
-            UpdateUsernameRequest updateRequest = new UpdateUsernameRequest(updateData, authToken, sessionId,
-                    tlsService.isSecureConnection(request));
-            return authService.updateUsername(updateRequest);
+            body.setAuthToken(authToken);
+            body.setSessionId(sessionId);
+            body.setSecure(tlsService.isSecureConnection(request));
+            return authService.updateUsername(body);
         }, authExecutor);
     }
 
@@ -131,7 +113,7 @@ public class AuthController {
     public CompletableFuture<ResponseEntity<?>> updatePhone(
             @RequestHeader(value = "X-Session-ID", required = false) String sessionId,
             @RequestHeader(value = "X-Auth-Token", required = false) String authToken,
-            @RequestBody String body,
+            @RequestBody UpdatePhoneRequest body,
             HttpServletRequest request) {
 
         if (tlsService.isHttpsRequired(request, false)) {
@@ -140,15 +122,10 @@ public class AuthController {
         }
 
         return CompletableFuture.supplyAsync(() -> {
-            Map<String, String> updateData;
-            try {
-                updateData = requestResponseUtil.parseRequestBody(sessionId, body, "phone update");
-            } catch (Exception e) {
-                throw new RuntimeException(e);
-            }
-            UpdatePhoneRequest updateRequest = new UpdatePhoneRequest(updateData, authToken, sessionId,
-                    tlsService.isSecureConnection(request));
-            return authService.updatePhone(updateRequest);
+            body.setAuthToken(authToken);
+            body.setSessionId(sessionId);
+            body.setSecure(tlsService.isSecureConnection(request));
+            return authService.updatePhone(body);
         }, authExecutor);
     }
 
@@ -157,7 +134,7 @@ public class AuthController {
     public CompletableFuture<ResponseEntity<?>> updatePassword(
             @RequestHeader(value = "X-Session-ID", required = false) String sessionId,
             @RequestHeader(value = "X-Auth-Token", required = false) String authToken,
-            @RequestBody String body,
+            @RequestBody UpdatePasswordRequest body,
             HttpServletRequest request) {
 
         if (!tlsService.isSecureConnection(request)) {
@@ -168,15 +145,10 @@ public class AuthController {
         }
 
         return CompletableFuture.supplyAsync(() -> {
-            Map<String, String> updateData = null;
-            try {
-                updateData = requestResponseUtil.parseRequestBody(sessionId, body, "password update");
-            } catch (Exception e) {
-                throw new RuntimeException(e);
-            }
-            UpdatePasswordRequest updateRequest = new UpdatePasswordRequest(updateData, authToken, sessionId,
-                    tlsService.isSecureConnection(request));
-            return authService.updatePassword(updateRequest);
+            body.setAuthToken(authToken);
+            body.setSessionId(sessionId);
+            body.setSecure(tlsService.isSecureConnection(request));
+            return authService.updatePassword(body);
         }, authExecutor);
     }
 
@@ -185,7 +157,7 @@ public class AuthController {
     public CompletableFuture<ResponseEntity<?>> updateEmail(
             @RequestHeader(value = "X-Session-ID", required = false) String sessionId,
             @RequestHeader(value = "X-Auth-Token", required = false) String authToken,
-            @RequestBody String body,
+            @RequestBody UpdateEmailRequest body,
             HttpServletRequest request) {
 
         if (tlsService.isHttpsRequired(request, false)) {
@@ -194,15 +166,10 @@ public class AuthController {
         }
 
         return CompletableFuture.supplyAsync(() -> {
-            Map<String, String> updateData;
-            try {
-                updateData = requestResponseUtil.parseRequestBody(sessionId, body, "email update");
-            } catch (Exception e) {
-                throw new RuntimeException(e);
-            }
-            UpdateEmailRequest updateRequest = new UpdateEmailRequest(updateData, authToken, sessionId,
-                    tlsService.isSecureConnection(request));
-            return authService.updateEmail(updateRequest);
+            body.setAuthToken(authToken);
+            body.setSessionId(sessionId);
+            body.setSecure(tlsService.isSecureConnection(request));
+            return authService.updateEmail(body);
         }, authExecutor);
     }
 
@@ -211,23 +178,14 @@ public class AuthController {
     public CompletableFuture<ResponseEntity<?>> updateName(
             @RequestHeader(value = "X-Session-ID", required = false) String sessionId,
             @RequestHeader(value = "X-Auth-Token", required = false) String authToken,
-            @RequestBody String body,
+            @RequestBody UpdateNameRequest body,
             HttpServletRequest request) {
 
         return CompletableFuture.supplyAsync(() -> {
-            Map<String, String> updateData;
-            try {
-                updateData = requestResponseUtil.parseRequestBody(sessionId, body, "name update");
-            } catch (Exception e) {
-                logger.error("Failed to parse name update request", e);
-                return requestResponseUtil.buildEncryptedResponse(sessionId,
-                        ResponseUtil.badRequest("Invalid request format"));
-            }
-
             try {
-                String userIdStr = updateData.get("userId");
-                String firstName = updateData.get("firstName");
-                String lastName = updateData.get("lastName");
+                String userIdStr = body.getUserId();
+                String firstName = body.getFirstName();
+                String lastName = body.getLastName();
 
                 if (userIdStr == null || userIdStr.trim().isEmpty()) {
                     return requestResponseUtil.buildEncryptedResponse(sessionId,
@@ -1,6 +1,7 @@
 package com.backend.streetmed_backend.controller.Auth;
 
 import com.backend.streetmed_backend.entity.user_entity.User;
+import com.backend.streetmed_backend.security.ExpiringCodeStore;
 import com.backend.streetmed_backend.security.TLSService;
 import com.backend.streetmed_backend.service.EmailService;
 import com.backend.streetmed_backend.service.UserService;
@@ -19,13 +20,11 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.time.LocalDateTime;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
-import java.util.concurrent.ConcurrentHashMap;
 
 @Tag(name = "Password Recovery", description = "APIs for password recovery and reset")
 @RestController
@@ -34,64 +33,26 @@ public class PasswordRecoveryController {
 
     private static final Logger logger = LoggerFactory.getLogger(PasswordRecoveryController.class);
     private static final int RESET_TOKEN_EXPIRY_MINUTES = 30;
+    private static final String RESET_TOKEN_NAMESPACE = "reset";
 
     private final UserService userService;
     private final EmailService emailService;
     private final Executor authExecutor;
     private final TLSService tlsService;
-    private final ConcurrentHashMap<String, ResetTokenInfo> resetTokens = new ConcurrentHashMap<>();
-
-    private static class ResetTokenInfo {
-        public final Integer userId;
-        public final LocalDateTime expiryTime;
-        public final String email;
-
-        public ResetTokenInfo(Integer userId, String email) {
-            this.userId = userId;
-            this.email = email;
-            this.expiryTime = LocalDateTime.now().plusMinutes(RESET_TOKEN_EXPIRY_MINUTES);
-        }
-
-        public boolean isExpired() {
-            return LocalDateTime.now().isAfter(expiryTime);
-        }
-    }
+    private final ExpiringCodeStore codeStore;
 
     @Autowired
     public PasswordRecoveryController(
             UserService userService,
             EmailService emailService,
             @Qualifier("authExecutor") Executor authExecutor,
-            TLSService tlsService) {
+            TLSService tlsService,
+            ExpiringCodeStore codeStore) {
         this.userService = userService;
         this.emailService = emailService;
         this.authExecutor = authExecutor;
         this.tlsService = tlsService;
-        startTokenCleanupTask();
-    }
-
-    private void startTokenCleanupTask() {
-        CompletableFuture.runAsync(() -> {
-            while (true) {
-                try {
-                    Thread.sleep(60000);
-                    int removed = 0;
-                    for (Map.Entry<String, ResetTokenInfo> entry : resetTokens.entrySet()) {
-                        if (entry.getValue().isExpired()) {
-                            resetTokens.remove(entry.getKey());
-                            removed++;
-                        }
-                    }
-                    if (removed > 0) {
-                        logger.info("Cleaned up {} expired reset tokens", removed);
-                    }
-                } catch (InterruptedException e) {
-                    logger.error("Token cleanup task interrupted", e);
-                    Thread.currentThread().interrupt();
-                    break;
-                }
-            }
-        });
+        this.codeStore = codeStore;
     }
 
     @Operation(summary = "Request password reset",
@@ -184,18 +145,21 @@ public class PasswordRecoveryController {
                     return ResponseUtil.notFound("User not found");
                 }
 
-                boolean isValidOtp = emailService.verifyOtp(email, otp);
-                if (!isValidOtp) {
+                ExpiringCodeStore.Verification verification = emailService.checkOtp(email, otp);
+                if (verification.getStatus() == ExpiringCodeStore.Status.LOCKED) {
+                    return ResponseUtil.badRequest("Too many invalid attempts. Please try again later.");
+                }
+                if (!verification.isValid()) {
                     logger.warn("Invalid OTP attempt for email: {}", email);
                     return ResponseUtil.badRequest("Invalid or expired OTP");
                 }
 
                 String resetToken = UUID.randomUUID().toString();
-                ResetTokenInfo tokenInfo = new ResetTokenInfo(user.getUserId(), email);
-                resetTokens.put(resetToken, tokenInfo);
+                codeStore.put(RESET_TOKEN_NAMESPACE, resetToken, null, user.getUserId() + ":" + email,
+                        RESET_TOKEN_EXPIRY_MINUTES * 60_000L);
 
-                logger.info("Reset token generated for user: {} (expires at: {})",
-                        user.getUserId(), tokenInfo.expiryTime);
+                logger.info("Reset token generated for user: {} (expires in {} minutes)",
+                        user.getUserId(), RESET_TOKEN_EXPIRY_MINUTES);
 
                 Map<String, Object> response = new HashMap<>();
                 response.put("resetToken", resetToken);
@@ -241,29 +205,27 @@ public class PasswordRecoveryController {
                     return ResponseUtil.badRequest("Reset token and new password are required");
                 }
 
-                ResetTokenInfo tokenInfo = resetTokens.get(resetToken);
-                if (tokenInfo == null) {
-                    logger.warn("Invalid reset token attempted");
-                    return ResponseUtil.unauthorized("Invalid reset token");
-                }
-
-                if (tokenInfo.isExpired()) {
-                    logger.warn("Expired reset token attempted for user: {}", tokenInfo.userId);
-                    resetTokens.remove(resetToken);
-                    return ResponseUtil.unauthorized("Reset token has expired. Please request a new one.");
-                }
-
+                // Checked first so a rejected password does not use up the token
                 if (newPassword.length() < 8) {
                     return ResponseUtil.badRequest("Password must be at least 8 characters long");
                 }
 
-                userService.updatePassword(tokenInfo.userId, newPassword);
-                logger.info("Password reset successfully for user: {}", tokenInfo.userId);
+                // Taken atomically before the password changes, so concurrent requests cannot both use it;
+                // expired tokens are dropped by the store, so they read as unknown
+                String tokenData = codeStore.consume(RESET_TOKEN_NAMESPACE, resetToken);
+                if (tokenData == null) {
+                    logger.warn("Invalid or expired reset token attempted");
+                    return ResponseUtil.unauthorized("Invalid or expired reset token. Please request a new one.");
+                }
+                int separator = tokenData.indexOf(':');
+                Integer userId = Integer.valueOf(tokenData.substring(0, separator));
+                String email = tokenData.substring(separator + 1);
 
-                resetTokens.remove(resetToken);
+                userService.updatePassword(userId, newPassword);
+                logger.info("Password reset successfully for user: {}", userId);
 
                 try {
-                    emailService.sendPasswordChangeConfirmation(tokenInfo.email);
+                    emailService.sendPasswordChangeConfirmation(email);
                 } catch (Exception e) {
                     logger.error("Failed to send password change confirmation email", e);
                 }
@@ -286,7 +248,7 @@ public class PasswordRecoveryController {
         Map<String, Object> status = new HashMap<>();
         status.put("currentConnectionSecure", tlsService.isSecureConnection(request));
         status.put("httpsRequired", tlsService.isHttpsRequired(request, false));
-        status.put("activeTokens", resetTokens.size());
+        status.put("activeTokens", codeStore.count(RESET_TOKEN_NAMESPACE));
         status.put("tokenExpiryMinutes", RESET_TOKEN_EXPIRY_MINUTES);
         return ResponseEntity.ok(status);
     }
@@ -1,16 +1,24 @@
 package com.backend.streetmed_backend.controller.Inventory;
 
+import com.backend.streetmed_backend.dto.cargo.BulkInventoryUpdateRequest;
 import com.backend.streetmed_backend.entity.CargoItem;
+import com.backend.streetmed_backend.service.cargoService.BulkUpdateReport;
+import com.backend.streetmed_backend.service.cargoService.CargoContentCache;
 import com.backend.streetmed_backend.service.cargoService.CargoItemService;
+import com.backend.streetmed_backend.service.cargoService.LowStockNotifier;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
@@ -21,12 +29,15 @@ import java.util.concurrent.Executor;
 @RequestMapping("/api/cargo")
 public class CargoController {
     private final CargoItemService cargoItemService;
+    private final LowStockNotifier lowStockNotifier;
     private final Executor asyncExecutor;
 
     @Autowired
     public CargoController(CargoItemService cargoItemService,
+                           LowStockNotifier lowStockNotifier,
                            @Qualifier("authExecutor") Executor asyncExecutor) {
         this.cargoItemService = cargoItemService;
+        this.lowStockNotifier = lowStockNotifier;
         this.asyncExecutor = asyncExecutor;
     }
 
@@ -93,11 +104,26 @@ public class CargoController {
         }, asyncExecutor);
     }
 
+    /**
+     * The catalog JSON comes from the content cache; its ETag changes with every stock or item
+     * change, so clients revalidate with If-None-Match and usually get an empty 304.
+     */
     @Operation(summary = "Get all cargo items")
     @GetMapping("/items")
-    public CompletableFuture<ResponseEntity<List<CargoItem>>> getAllItems() {
-        return CompletableFuture.supplyAsync(() ->
-                ResponseEntity.ok(cargoItemService.getAllItems()), asyncExecutor);
+    public CompletableFuture<ResponseEntity<byte[]>> getAllItems(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return CompletableFuture.supplyAsync(() -> {
+            CargoContentCache.CachedContent catalog = cargoItemService.getCatalog();
+            if (matches(ifNoneMatch, catalog.getEtag())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(catalog.getEtag()).cacheControl(CacheControl.noCache()).build();
+            }
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .eTag(catalog.getEtag())
+                    .cacheControl(CacheControl.noCache())
+                    .body(catalog.getData());
+        }, asyncExecutor);
     }
 
     @Operation(summary = "Get low stock items")
@@ -114,6 +140,92 @@ public class CargoController {
         }, asyncExecutor);
     }
 
+    /**
+     * Server-Sent Events: a "snapshot" of the items currently low, then a "low-stock" event each
+     * time an item falls to its minimum quantity (type LOW) or rises back above it (RECOVERED)
+     */
+    @Operation(summary = "Subscribe to low stock events")
+    @GetMapping(value = "/items/low-stock/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<?> streamLowStockEvents(
+            @RequestHeader("Admin-Username") String adminUsername,
+            @RequestHeader("Authentication-Status") String authStatus) {
+
+        if (!"true".equals(authStatus)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        try {
+            return ResponseEntity.ok(lowStockNotifier.subscribe());
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    /**
+     * Set the stock of many items and sizes in one request. The response has a result per line;
+     * with allOrNothing nothing is written unless every line is valid.
+     */
+    @Operation(summary = "Bulk update inventory quantities")
+    @PostMapping("/items/bulk-update")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> bulkUpdateQuantities(
+            @RequestBody BulkInventoryUpdateRequest request,
+            @RequestHeader("Admin-Username") String adminUsername,
+            @RequestHeader("Authentication-Status") String authStatus) {
+
+        return CompletableFuture.supplyAsync(() -> {
+            if (!"true".equals(authStatus)) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                        .body(Map.of("status", "error", "message", "Not authenticated"));
+            }
+            try {
+                BulkUpdateReport report = cargoItemService.batchUpdateQuantities(
+                        request.getUpdates(), Boolean.TRUE.equals(request.getAllOrNothing()));
+                return bulkUpdateResponse(report);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(Map.of("status", "error", "message", e.getMessage()));
+            }
+        }, asyncExecutor);
+    }
+
+    /**
+     * Bulk update from a spreadsheet export: a CSV file with a header row naming the itemId
+     * (or name), size and quantity columns
+     */
+    @Operation(summary = "Bulk update inventory quantities from a CSV file")
+    @PostMapping("/items/bulk-update/csv")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> bulkUpdateFromCsv(
+            @RequestPart("file") MultipartFile file,
+            @RequestParam(value = "allOrNothing", defaultValue = "false") boolean allOrNothing,
+            @RequestHeader("Admin-Username") String adminUsername,
+            @RequestHeader("Authentication-Status") String authStatus) {
+
+        return CompletableFuture.supplyAsync(() -> {
+            if (!"true".equals(authStatus)) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                        .body(Map.of("status", "error", "message", "Not authenticated"));
+            }
+            try {
+                return bulkUpdateResponse(cargoItemService.batchUpdateFromCsv(file, allOrNothing));
+            } catch (IllegalArgumentException | IOException e) {
+                return ResponseEntity.badRequest().body(Map.of("status", "error", "message", e.getMessage()));
+            }
+        }, asyncExecutor);
+    }
+
+    private static ResponseEntity<Map<String, Object>> bulkUpdateResponse(BulkUpdateReport report) {
+        if (!report.isApplied()) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "status", "error",
+                    "message", "No inventory was updated",
+                    "report", report
+            ));
+        }
+        return ResponseEntity.ok(Map.of(
+                "status", "success",
+                "message", report.getUpdated() + " of " + report.getTotal() + " lines updated",
+                "report", report
+        ));
+    }
+
     @Operation(summary = "Delete cargo item")
     @DeleteMapping("/items/{id}")
     public CompletableFuture<ResponseEntity<Map<String, Object>>> deleteItem(
@@ -144,4 +256,19 @@ public class CargoController {
         }, asyncExecutor);
     }
 
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
\ No newline at end of file
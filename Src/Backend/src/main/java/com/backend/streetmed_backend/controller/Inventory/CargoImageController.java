@@ -1,24 +1,58 @@
 package com.backend.streetmed_backend.controller.Inventory;
 
+import com.backend.streetmed_backend.config.AppMetrics;
 import com.backend.streetmed_backend.entity.CargoImage;
+import com.backend.streetmed_backend.repository.Cargo.CargoImageInfo;
+import com.backend.streetmed_backend.service.cargoService.CargoContentCache;
 import com.backend.streetmed_backend.service.cargoService.CargoImageService;
+import com.backend.streetmed_backend.service.cargoService.ImageStore;
+import com.backend.streetmed_backend.service.cargoService.ImageVariant;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.ZoneId;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/cargo/images")
 public class CargoImageController {
 
+    // Tomcat's sendfile hand-off: the connector copies the file region to the socket itself
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
     private final CargoImageService cargoImageService;
+    private final AppMetrics appMetrics;
+    private final CargoContentCache contentCache;
+    private final CacheControl cacheControl;
 
     @Autowired
-    public CargoImageController(CargoImageService cargoImageService) {
+    public CargoImageController(CargoImageService cargoImageService, AppMetrics appMetrics,
+                                CargoContentCache contentCache,
+                                @Value("${cargo.image.cache-max-age-seconds:86400}") long cacheMaxAgeSeconds) {
         this.cargoImageService = cargoImageService;
+        this.appMetrics = appMetrics;
+        this.contentCache = contentCache;
+        // An image id always refers to the same bytes; clients revalidate with the ETag after max-age
+        this.cacheControl = CacheControl.maxAge(cacheMaxAgeSeconds, TimeUnit.SECONDS).cachePublic();
     }
 
     @PostMapping(value = "/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
@@ -50,15 +84,94 @@ public class CargoImageController {
         }
     }
 
+    /**
+     * Serve an image with ETag/Last-Modified validation and Range support.
+     * ?variant=thumb or ?variant=medium serves the resized JPEG; until it has been generated the
+     * original is served with no-cache, so clients pick up the variant on their next request.
+     * Images up to cargo.cache.max-entry-bytes are kept in the content cache; larger full GETs of
+     * file-backed images are handed to the connector's sendfile when available.
+     */
     @GetMapping("/{imageId}")
-    public ResponseEntity<?> getImage(@PathVariable Integer imageId) {
+    public ResponseEntity<?> getImage(@PathVariable Integer imageId,
+                                      @RequestParam(value = "variant", required = false) String variant,
+                                      HttpServletRequest request) {
+        Timer.Sample sample = appMetrics.start();
+        String endpoint = "cargo.image";
         try {
-            CargoImage image = cargoImageService.getImage(imageId);
-            return ResponseEntity.ok()
-                    .contentType(MediaType.parseMediaType(image.getContentType()))
-                    .body(image.getData());
+            ImageVariant requested;
+            try {
+                requested = ImageVariant.fromParameter(variant);
+            } catch (IllegalArgumentException e) {
+                return appMetrics.stop(sample, endpoint, AppMetrics.NO_ROLE, ResponseEntity.badRequest().body(Map.of(
+                        "status", "error",
+                        "message", e.getMessage()
+                )));
+            }
+
+            if (requested != null) {
+                endpoint = "cargo.image." + requested.getKey();
+            }
+            CargoContentCache.CachedContent cached = contentCache.getImage(imageId, requested);
+            if (cached != null) {
+                return appMetrics.stop(sample, endpoint, AppMetrics.NO_ROLE, serveCached(request, endpoint, cached));
+            }
+
+            CargoImageInfo image = null;
+            CacheControl caching = cacheControl;
+            if (requested != null) {
+                image = cargoImageService.findVariantInfo(imageId, requested).orElse(null);
+                if (image == null) {
+                    caching = CacheControl.noCache();
+                }
+            }
+            if (image == null) {
+                image = cargoImageService.getImageInfo(imageId);
+            }
+            String etag = ImageStore.etag(image);
+            long lastModified = image.getUploadDate().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+            if (isNotModified(request, etag, lastModified)) {
+                return appMetrics.stop(sample, endpoint, AppMetrics.NO_ROLE,
+                        ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                                .eTag(etag).lastModified(lastModified).cacheControl(caching).build());
+            }
+
+            Resource content = cargoImageService.openImage(image);
+            // Fallback originals are not cached under the variant; the variant replaces them once generated
+            if (caching == cacheControl && contentCache.accepts(image.getSize())) {
+                byte[] data;
+                try (InputStream in = content.getInputStream()) {
+                    data = in.readAllBytes();
+                }
+                cached = new CargoContentCache.CachedContent(data, image.getContentType(), etag, lastModified);
+                contentCache.putImage(imageId, requested, cached);
+                return appMetrics.stop(sample, endpoint, AppMetrics.NO_ROLE, serveCached(request, endpoint, cached));
+            }
+
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .contentType(mediaType(image.getContentType()))
+                    .eTag(etag)
+                    .lastModified(lastModified)
+                    .cacheControl(caching)
+                    .header(HttpHeaders.ACCEPT_RANGES, "bytes");
+            if (request.getHeader(HttpHeaders.RANGE) == null && image.getSize() != null) {
+                appMetrics.recordBytes(endpoint, image.getSize());
+            }
+
+            if (canSendfile(request, content)) {
+                File file = content.getFile();
+                long length = file.length();
+                request.setAttribute(SENDFILE_FILENAME, file.getCanonicalPath());
+                request.setAttribute(SENDFILE_START, 0L);
+                request.setAttribute(SENDFILE_END, length);
+                return appMetrics.stop(sample, endpoint, AppMetrics.NO_ROLE,
+                        response.contentLength(length).build());
+            }
+
+            // Range requests are answered with 206 by Spring's resource region support
+            return appMetrics.stop(sample, endpoint, AppMetrics.NO_ROLE, response.body(content));
         } catch (Exception e) {
-            return ResponseEntity.notFound().build();
+            return appMetrics.stop(sample, endpoint, AppMetrics.NO_ROLE, ResponseEntity.notFound().build());
         }
     }
 
@@ -87,4 +200,61 @@ public class CargoImageController {
             ));
         }
     }
-}
\ No newline at end of file
+
+    private ResponseEntity<?> serveCached(HttpServletRequest request, String endpoint,
+                                          CargoContentCache.CachedContent cached) {
+        if (isNotModified(request, cached.getEtag(), cached.getLastModified())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(cached.getEtag()).lastModified(cached.getLastModified()).cacheControl(cacheControl).build();
+        }
+        if (request.getHeader(HttpHeaders.RANGE) == null) {
+            appMetrics.recordBytes(endpoint, cached.getData().length);
+        }
+        return ResponseEntity.ok()
+                .contentType(mediaType(cached.getContentType()))
+                .eTag(cached.getEtag())
+                .lastModified(cached.getLastModified())
+                .cacheControl(cacheControl)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .body(new ByteArrayResource(cached.getData()));
+    }
+
+    private static boolean isNotModified(HttpServletRequest request, String etag, long lastModified) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2);
+                }
+                if (tag.equals("*") || tag.equals(etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        try {
+            long ifModifiedSince = request.getDateHeader(HttpHeaders.IF_MODIFIED_SINCE);
+            // HTTP dates have second precision
+            return ifModifiedSince != -1 && lastModified / 1000 <= ifModifiedSince / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static boolean canSendfile(HttpServletRequest request, Resource content) throws IOException {
+        return "GET".equals(request.getMethod())
+                && request.getHeader(HttpHeaders.RANGE) == null
+                && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))
+                && content.isFile()
+                && content.getFile().isFile();
+    }
+
+    private static MediaType mediaType(String contentType) {
+        try {
+            return MediaType.parseMediaType(contentType);
+        } catch (InvalidMediaTypeException e) {
+            return MediaType.APPLICATION_OCTET_STREAM;
+        }
+    }
+}
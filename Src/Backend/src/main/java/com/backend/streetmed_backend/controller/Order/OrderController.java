@@ -4,11 +4,11 @@ import com.backend.streetmed_backend.dto.order.*;
 import com.backend.streetmed_backend.entity.order_entity.Order;
 import com.backend.streetmed_backend.entity.order_entity.OrderAssignment;
 import com.backend.streetmed_backend.entity.order_entity.OrderItem;
-import com.backend.streetmed_backend.repository.Order.OrderItemRepository;
 import com.backend.streetmed_backend.repository.Order.OrderRepository;
 import com.backend.streetmed_backend.security.TLSService;
 import com.backend.streetmed_backend.service.orderService.OrderManagementService;
 import com.backend.streetmed_backend.service.orderService.OrderAssignmentService;
+import com.backend.streetmed_backend.service.orderService.OrderExportService;
 import com.backend.streetmed_backend.service.orderService.OrderService;
 import com.backend.streetmed_backend.service.orderService.OrderRateLimitService;
 import com.backend.streetmed_backend.util.ResponseUtil;
@@ -19,10 +19,16 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
@@ -38,6 +44,7 @@ public class OrderController {
     private final OrderManagementService orderManagementService;
     private final OrderAssignmentService orderAssignmentService;
     private final OrderService orderService;
+    private final OrderExportService orderExportService;
     private final TLSService tlsService;
     private final Executor authExecutor;
     private final Executor readOnlyExecutor;
@@ -45,19 +52,18 @@ public class OrderController {
     @Autowired
     private OrderRepository orderRepository;
 
-    @Autowired
-    private OrderItemRepository orderItemRepository;
-
     @Autowired
     public OrderController(OrderManagementService orderManagementService,
                            OrderAssignmentService orderAssignmentService,
                            OrderService orderService,
+                           OrderExportService orderExportService,
                            TLSService tlsService,
                            @Qualifier("authExecutor") Executor authExecutor,
                            @Qualifier("readOnlyExecutor") Executor readOnlyExecutor) {
         this.orderManagementService = orderManagementService;
         this.orderAssignmentService = orderAssignmentService;
         this.orderService = orderService;
+        this.orderExportService = orderExportService;
         this.tlsService = tlsService;
         this.authExecutor = authExecutor;
         this.readOnlyExecutor = readOnlyExecutor;
@@ -80,8 +86,8 @@ public class OrderController {
         }
 
         // Method 3: Query parameter-based authentication (for stateless/multi-instance)
-        // This is acceptable for read-only GET operations when user info is provided
-        if (Boolean.TRUE.equals(authenticated) && userId != null && userId > 0 && userRole != null) {
+        // Only needed while tokens live in one instance; a shared token store validates them everywhere
+        if (!tlsService.isTokenStoreShared() && Boolean.TRUE.equals(authenticated) && userId != null && userId > 0 && userRole != null) {
             logger.debug("Using query parameter authentication for userId: {}, role: {}", userId, userRole);
             return true;
         }
@@ -99,8 +105,8 @@ public class OrderController {
             return true;
         }
 
-        // Method 2: Check via provided userRole parameter
-        if (userRole != null) {
+        // Method 2: Check via provided userRole parameter (not trusted once tokens are shared)
+        if (userRole != null && !tlsService.isTokenStoreShared()) {
             for (String role : requiredRoles) {
                 if (role.equalsIgnoreCase(userRole)) {
                     return true;
@@ -151,9 +157,8 @@ public class OrderController {
                     orderMap.put("latitude", order.getLatitude());
                     orderMap.put("longitude", order.getLongitude());
 
-                    // Add order items
-                    List<OrderItem> items = orderItemRepository.findByOrderId(order.getOrderId());
-                    orderMap.put("orderItems", items);
+                    // Add order items (fetched together with the orders)
+                    orderMap.put("orderItems", order.getOrderItems());
 
                     orderList.add(orderMap);
                 }
@@ -554,6 +559,12 @@ public class OrderController {
             @RequestParam(required = false) Boolean authenticated,
             @RequestParam(required = false) Integer userId,
             @RequestParam(required = false) String userRole,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) Integer roundId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
             @RequestHeader(value = "Admin-Username", required = false) String adminUsername,
             @RequestHeader(value = "Authentication-Status", required = false) String authStatus,
             @RequestHeader(value = "X-Auth-Token", required = false) String authToken,
@@ -584,10 +595,66 @@ public class OrderController {
 
         return CompletableFuture.supplyAsync(() -> {
             GetAllOrdersRequest request = new GetAllOrdersRequest(authenticated, userId, userRole);
+            request.setLimit(limit);
+            request.setCursor(cursor);
+            request.setStatus(status);
+            request.setRoundId(roundId);
+            request.setFrom(from);
+            request.setTo(to);
             return orderManagementService.getAllOrders(request);
         }, readOnlyExecutor);
     }
 
+    @Operation(summary = "Export orders as NDJSON or CSV (Admin)")
+    @GetMapping("/export")
+    public ResponseEntity<?> exportOrders(
+            @RequestParam(required = false) Boolean authenticated,
+            @RequestParam(required = false) Integer userId,
+            @RequestParam(required = false) String userRole,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) Integer roundId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestHeader(value = "Authentication-Status", required = false) String authStatus,
+            @RequestHeader(value = "X-Auth-Token", required = false) String authToken,
+            HttpServletRequest httpRequest) {
+
+        if (tlsService.isHttpsRequired(httpRequest, true)) {
+            return ResponseUtil.httpsRequired("Admin operations require secure HTTPS connection");
+        }
+
+        if (!isValidAuthentication(authToken, authStatus, authenticated, userId, userRole)) {
+            return ResponseUtil.unauthorized("Authentication required");
+        }
+
+        if (!hasRequiredRole(authToken, userRole, "ADMIN")) {
+            return ResponseUtil.forbidden("Admin role required");
+        }
+
+        OrderExportService.ExportFormat exportFormat;
+        try {
+            exportFormat = OrderExportService.ExportFormat.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseUtil.badRequest("Unsupported export format: " + format);
+        }
+
+        MediaType contentType = exportFormat == OrderExportService.ExportFormat.CSV
+                ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                : new MediaType("application", "x-ndjson", StandardCharsets.UTF_8);
+        String fileName = "orders." + (exportFormat == OrderExportService.ExportFormat.CSV ? "csv" : "ndjson");
+
+        logger.info("Exporting orders as {} - userId: {}", exportFormat, userId);
+
+        StreamingResponseBody body = out ->
+                orderExportService.exportOrders(out, exportFormat, status, roundId, from, to);
+
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(body);
+    }
+
     @Operation(summary = "Update order status (Admin)")
     @PutMapping("/{orderId}/status")
     public CompletableFuture<ResponseEntity<Map<String, Object>>> updateOrderStatus(
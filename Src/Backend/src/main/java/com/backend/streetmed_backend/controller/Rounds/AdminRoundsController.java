@@ -905,7 +905,7 @@ public class AdminRoundsController {
                     return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(errorResponse);
                 }
 
-                List<Order> unassignedOrders = orderRepository.findByRoundIdIsNullAndStatus("PENDING");
+                List<Order> unassignedOrders = orderRepository.findWithItemsByRoundIdIsNullAndStatus("PENDING");
 
                 List<Map<String, Object>> orderList = new ArrayList<>();
                 for (Order order : unassignedOrders) {
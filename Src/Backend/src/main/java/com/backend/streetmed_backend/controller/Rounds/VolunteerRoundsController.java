@@ -1,12 +1,11 @@
 package com.backend.streetmed_backend.controller.Rounds;
 
 import com.backend.streetmed_backend.entity.order_entity.Order;
-import com.backend.streetmed_backend.entity.order_entity.OrderAssignment;
 import com.backend.streetmed_backend.entity.rounds_entity.Rounds;
 import com.backend.streetmed_backend.entity.rounds_entity.RoundSignup;
-import com.backend.streetmed_backend.repository.Order.OrderAssignmentRepository;
 import com.backend.streetmed_backend.repository.Order.OrderRepository;
 import com.backend.streetmed_backend.service.orderService.OrderService;
+import com.backend.streetmed_backend.service.orderService.RoundBoardService;
 import com.backend.streetmed_backend.service.roundService.RoundsService;
 import com.backend.streetmed_backend.service.roundService.RoundSignupService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -33,22 +32,21 @@ public class VolunteerRoundsController {
     private final RoundSignupService roundSignupService;
     private final Executor asyncExecutor;
     private final OrderService orderService;
-
+    private final RoundBoardService roundBoardService;
 
     @Autowired
     private OrderRepository orderRepository;
 
-    @Autowired
-    private OrderAssignmentRepository orderAssignmentRepository;
-
     @Autowired
     public VolunteerRoundsController(RoundsService roundsService,
                                      RoundSignupService roundSignupService,
                                      OrderService orderService,
+                                     RoundBoardService roundBoardService,
                                      @Qualifier("authExecutor") Executor asyncExecutor) {
         this.roundsService = roundsService;
         this.roundSignupService = roundSignupService;
         this.orderService = orderService;
+        this.roundBoardService = roundBoardService;
         this.asyncExecutor = asyncExecutor;
     }
 
@@ -255,37 +253,8 @@ public class VolunteerRoundsController {
                             .body(Map.of("status", "error", "message", "You are not confirmed for this round"));
                 }
 
-                // Get all orders for this round
-                List<Order> roundOrders = orderRepository.findActiveOrdersByRoundId(roundId);
-
-                List<Map<String, Object>> orderList = new ArrayList<>();
-                for (Order order : roundOrders) {
-                    Map<String, Object> orderInfo = new HashMap<>();
-                    orderInfo.put("orderId", order.getOrderId());
-                    orderInfo.put("status", order.getStatus());
-                    orderInfo.put("deliveryAddress", order.getDeliveryAddress());
-                    orderInfo.put("phoneNumber", order.getPhoneNumber());
-                    orderInfo.put("notes", order.getNotes());
-                    orderInfo.put("requestTime", order.getRequestTime());
-                    orderInfo.put("items", order.getOrderItems());
-
-                    // Check if this volunteer has accepted this order
-                    Optional<OrderAssignment> assignment =
-                            orderAssignmentRepository.findByOrderIdAndVolunteerId(order.getOrderId(), userId);
-
-                    if (assignment.isPresent()) {
-                        orderInfo.put("myAssignment", true);
-                        orderInfo.put("assignmentStatus", assignment.get().getStatus());
-                        orderInfo.put("assignmentId", assignment.get().getAssignmentId());
-                    } else {
-                        // Check if another volunteer has it
-                        Optional<OrderAssignment> otherAssignment =
-                                orderAssignmentRepository.findActiveAssignmentForOrder(order.getOrderId());
-                        orderInfo.put("assignedToOther", otherAssignment.isPresent());
-                    }
-
-                    orderList.add(orderInfo);
-                }
+                // Build the board from bulk queries rather than per-order assignment lookups
+                List<Map<String, Object>> orderList = roundBoardService.getRoundBoard(roundId, userId);
 
                 Map<String, Object> response = new HashMap<>();
                 response.put("status", "success");
@@ -1,23 +1,31 @@
 package com.backend.streetmed_backend.dto.auth;
 
-import java.util.Map;
+import com.backend.streetmed_backend.util.EncryptedPayload;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
+/**
+ * Login credentials; username may also be an email address
+ */
+@EncryptedPayload
 public class LoginRequest {
-    private Map<String, String> credentials;
+    private String username;
+    private String password;
+
+    // Set by the controller from headers, not read from the body
     private String sessionId;
     private boolean isSecure;
 
-    public LoginRequest(Map<String, String> credentials, String sessionId, boolean isSecure) {
-        this.credentials = credentials;
-        this.sessionId = sessionId;
-        this.isSecure = isSecure;
-    }
-
     // Getters and setters
-    public Map<String, String> getCredentials() { return credentials; }
-    public void setCredentials(Map<String, String> credentials) { this.credentials = credentials; }
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+    public String getPassword() { return password; }
+    public void setPassword(String password) { this.password = password; }
+    @JsonIgnore
     public String getSessionId() { return sessionId; }
+    @JsonIgnore
     public void setSessionId(String sessionId) { this.sessionId = sessionId; }
+    @JsonIgnore
     public boolean isSecure() { return isSecure; }
+    @JsonIgnore
     public void setSecure(boolean secure) { isSecure = secure; }
 }
@@ -1,23 +1,43 @@
 package com.backend.streetmed_backend.dto.auth;
 
-import java.util.Map;
+import com.backend.streetmed_backend.util.EncryptedPayload;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
+/**
+ * New user registration data
+ */
+@EncryptedPayload
 public class RegisterRequest {
-    private Map<String, String> userData;
+    private String username;
+    private String email;
+    private String password;
+    private String phone;
+    private String firstName;
+    private String lastName;
+
+    // Set by the controller from headers, not read from the body
     private String sessionId;
     private boolean isSecure;
 
-    public RegisterRequest(Map<String, String> userData, String sessionId, boolean isSecure) {
-        this.userData = userData;
-        this.sessionId = sessionId;
-        this.isSecure = isSecure;
-    }
-
     // Getters and setters
-    public Map<String, String> getUserData() { return userData; }
-    public void setUserData(Map<String, String> userData) { this.userData = userData; }
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+    public String getEmail() { return email; }
+    public void setEmail(String email) { this.email = email; }
+    public String getPassword() { return password; }
+    public void setPassword(String password) { this.password = password; }
+    public String getPhone() { return phone; }
+    public void setPhone(String phone) { this.phone = phone; }
+    public String getFirstName() { return firstName; }
+    public void setFirstName(String firstName) { this.firstName = firstName; }
+    public String getLastName() { return lastName; }
+    public void setLastName(String lastName) { this.lastName = lastName; }
+    @JsonIgnore
     public String getSessionId() { return sessionId; }
+    @JsonIgnore
     public void setSessionId(String sessionId) { this.sessionId = sessionId; }
+    @JsonIgnore
     public boolean isSecure() { return isSecure; }
+    @JsonIgnore
     public void setSecure(boolean secure) { isSecure = secure; }
 }
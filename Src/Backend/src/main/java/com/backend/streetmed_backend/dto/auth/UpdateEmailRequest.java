@@ -1,50 +1,39 @@
 package com.backend.streetmed_backend.dto.auth;
 
-import java.util.Map;
+import com.backend.streetmed_backend.util.EncryptedPayload;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
+/**
+ * Email change request
+ */
+@EncryptedPayload
 public class UpdateEmailRequest {
-    private Map<String, String> updateData;
+    private String userId;
+    private String currentPassword;
+    private String newEmail;
+
+    // Set by the controller from headers, not read from the body
     private String authToken;
     private String sessionId;
     private boolean isSecure;
 
-    public UpdateEmailRequest(Map<String, String> updateData, String authToken,
-                              String sessionId, boolean isSecure) {
-        this.updateData = updateData;
-        this.authToken = authToken;
-        this.sessionId = sessionId;
-        this.isSecure = isSecure;
-    }
-
-    public Map<String, String> getUpdateData() {
-        return updateData;
-    }
-
-    public void setUpdateData(Map<String, String> updateData) {
-        this.updateData = updateData;
-    }
-
-    public String getAuthToken() {
-        return authToken;
-    }
-
-    public void setAuthToken(String authToken) {
-        this.authToken = authToken;
-    }
-
-    public String getSessionId() {
-        return sessionId;
-    }
-
-    public void setSessionId(String sessionId) {
-        this.sessionId = sessionId;
-    }
-
-    public boolean isSecure() {
-        return isSecure;
-    }
-
-    public void setSecure(boolean secure) {
-        isSecure = secure;
-    }
+    // Getters and setters
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+    public String getCurrentPassword() { return currentPassword; }
+    public void setCurrentPassword(String currentPassword) { this.currentPassword = currentPassword; }
+    public String getNewEmail() { return newEmail; }
+    public void setNewEmail(String newEmail) { this.newEmail = newEmail; }
+    @JsonIgnore
+    public String getAuthToken() { return authToken; }
+    @JsonIgnore
+    public void setAuthToken(String authToken) { this.authToken = authToken; }
+    @JsonIgnore
+    public String getSessionId() { return sessionId; }
+    @JsonIgnore
+    public void setSessionId(String sessionId) { this.sessionId = sessionId; }
+    @JsonIgnore
+    public boolean isSecure() { return isSecure; }
+    @JsonIgnore
+    public void setSecure(boolean secure) { isSecure = secure; }
 }
@@ -0,0 +1,39 @@
+package com.backend.streetmed_backend.dto.auth;
+
+import com.backend.streetmed_backend.util.EncryptedPayload;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * First/last name change request
+ */
+@EncryptedPayload
+public class UpdateNameRequest {
+    private String userId;
+    private String firstName;
+    private String lastName;
+
+    // Set by the controller from headers, not read from the body
+    private String authToken;
+    private String sessionId;
+    private boolean isSecure;
+
+    // Getters and setters
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+    public String getFirstName() { return firstName; }
+    public void setFirstName(String firstName) { this.firstName = firstName; }
+    public String getLastName() { return lastName; }
+    public void setLastName(String lastName) { this.lastName = lastName; }
+    @JsonIgnore
+    public String getAuthToken() { return authToken; }
+    @JsonIgnore
+    public void setAuthToken(String authToken) { this.authToken = authToken; }
+    @JsonIgnore
+    public String getSessionId() { return sessionId; }
+    @JsonIgnore
+    public void setSessionId(String sessionId) { this.sessionId = sessionId; }
+    @JsonIgnore
+    public boolean isSecure() { return isSecure; }
+    @JsonIgnore
+    public void setSecure(boolean secure) { isSecure = secure; }
+}
@@ -1,50 +1,39 @@
 package com.backend.streetmed_backend.dto.auth;
 
-import java.util.Map;
+import com.backend.streetmed_backend.util.EncryptedPayload;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
+/**
+ * Phone number change request
+ */
+@EncryptedPayload
 public class UpdatePhoneRequest {
-    private Map<String, String> updateData;
+    private String userId;
+    private String currentPassword;
+    private String newPhone;
+
+    // Set by the controller from headers, not read from the body
     private String authToken;
     private String sessionId;
     private boolean isSecure;
 
-    public UpdatePhoneRequest(Map<String, String> updateData, String authToken,
-                              String sessionId, boolean isSecure) {
-        this.updateData = updateData;
-        this.authToken = authToken;
-        this.sessionId = sessionId;
-        this.isSecure = isSecure;
-    }
-
-    public Map<String, String> getUpdateData() {
-        return updateData;
-    }
-
-    public void setUpdateData(Map<String, String> updateData) {
-        this.updateData = updateData;
-    }
-
-    public String getAuthToken() {
-        return authToken;
-    }
-
-    public void setAuthToken(String authToken) {
-        this.authToken = authToken;
-    }
-
-    public String getSessionId() {
-        return sessionId;
-    }
-
-    public void setSessionId(String sessionId) {
-        this.sessionId = sessionId;
-    }
-
-    public boolean isSecure() {
-        return isSecure;
-    }
-
-    public void setSecure(boolean secure) {
-        isSecure = secure;
-    }
-}
\ No newline at end of file
+    // Getters and setters
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+    public String getCurrentPassword() { return currentPassword; }
+    public void setCurrentPassword(String currentPassword) { this.currentPassword = currentPassword; }
+    public String getNewPhone() { return newPhone; }
+    public void setNewPhone(String newPhone) { this.newPhone = newPhone; }
+    @JsonIgnore
+    public String getAuthToken() { return authToken; }
+    @JsonIgnore
+    public void setAuthToken(String authToken) { this.authToken = authToken; }
+    @JsonIgnore
+    public String getSessionId() { return sessionId; }
+    @JsonIgnore
+    public void setSessionId(String sessionId) { this.sessionId = sessionId; }
+    @JsonIgnore
+    public boolean isSecure() { return isSecure; }
+    @JsonIgnore
+    public void setSecure(boolean secure) { isSecure = secure; }
+}
@@ -1,28 +1,36 @@
 package com.backend.streetmed_backend.dto.auth;
 
-import java.util.Map;
+import com.backend.streetmed_backend.util.EncryptedPayload;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
+/**
+ * Username change request
+ */
+@EncryptedPayload
 public class UpdateUsernameRequest {
-    private Map<String, String> updateData;
+    private String userId;
+    private String newUsername;
+
+    // Set by the controller from headers, not read from the body
     private String authToken;
     private String sessionId;
     private boolean isSecure;
 
-    public UpdateUsernameRequest(Map<String, String> updateData, String authToken,
-                                 String sessionId, boolean isSecure) {
-        this.updateData = updateData;
-        this.authToken = authToken;
-        this.sessionId = sessionId;
-        this.isSecure = isSecure;
-    }
-
     // Getters and setters
-    public Map<String, String> getUpdateData() { return updateData; }
-    public void setUpdateData(Map<String, String> updateData) { this.updateData = updateData; }
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+    public String getNewUsername() { return newUsername; }
+    public void setNewUsername(String newUsername) { this.newUsername = newUsername; }
+    @JsonIgnore
     public String getAuthToken() { return authToken; }
+    @JsonIgnore
     public void setAuthToken(String authToken) { this.authToken = authToken; }
+    @JsonIgnore
     public String getSessionId() { return sessionId; }
+    @JsonIgnore
     public void setSessionId(String sessionId) { this.sessionId = sessionId; }
+    @JsonIgnore
     public boolean isSecure() { return isSecure; }
+    @JsonIgnore
     public void setSecure(boolean secure) { isSecure = secure; }
 }
@@ -0,0 +1,16 @@
+package com.backend.streetmed_backend.dto.cargo;
+
+import com.backend.streetmed_backend.service.cargoService.InventoryUpdate;
+
+import java.util.List;
+
+public class BulkInventoryUpdateRequest {
+    private Boolean allOrNothing;
+    private List<InventoryUpdate> updates;
+
+    public Boolean getAllOrNothing() { return allOrNothing; }
+    public void setAllOrNothing(Boolean allOrNothing) { this.allOrNothing = allOrNothing; }
+
+    public List<InventoryUpdate> getUpdates() { return updates; }
+    public void setUpdates(List<InventoryUpdate> updates) { this.updates = updates; }
+}
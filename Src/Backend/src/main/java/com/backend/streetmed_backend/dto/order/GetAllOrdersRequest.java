@@ -1,10 +1,22 @@
 package com.backend.streetmed_backend.dto.order;
 
+import java.time.LocalDateTime;
+
 public class GetAllOrdersRequest {
     private Boolean authenticated;
     private Integer userId;
     private String userRole;
 
+    // Optional keyset pagination: page size and the cursor returned with the previous page
+    private Integer limit;
+    private String cursor;
+
+    // Optional filters
+    private String status;
+    private Integer roundId;
+    private LocalDateTime from;
+    private LocalDateTime to;
+
     public GetAllOrdersRequest() {}
 
     public GetAllOrdersRequest(Boolean authenticated, Integer userId, String userRole) {
@@ -37,4 +49,52 @@ public class GetAllOrdersRequest {
     public void setUserRole(String userRole) {
         this.userRole = userRole;
     }
+
+    public Integer getLimit() {
+        return limit;
+    }
+
+    public void setLimit(Integer limit) {
+        this.limit = limit;
+    }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Integer getRoundId() {
+        return roundId;
+    }
+
+    public void setRoundId(Integer roundId) {
+        this.roundId = roundId;
+    }
+
+    public LocalDateTime getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDateTime from) {
+        this.from = from;
+    }
+
+    public LocalDateTime getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDateTime to) {
+        this.to = to;
+    }
 }
\ No newline at end of file
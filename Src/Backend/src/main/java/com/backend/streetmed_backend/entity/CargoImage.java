@@ -4,7 +4,9 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "cargo_images")
+@Table(name = "cargo_images",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"variant_of", "variant"}),
+        indexes = @Index(name = "idx_cargo_images_processing", columnList = "processing_status"))
 public class CargoImage {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -16,10 +18,19 @@ public class CargoImage {
     @Column(name = "content_type", nullable = false)
     private String contentType;
 
+    // Empty when the image is kept by the filesystem store (see storageKey)
     @Lob
     @Column(name = "data", nullable = false, columnDefinition = "LONGBLOB")
     private byte[] data;
 
+    // SHA-256 of the image bytes, used as the ETag
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    // Content-addressed file name in the filesystem store; null for images kept in this table
+    @Column(name = "storage_key", length = 64)
+    private String storageKey;
+
     @Column(name = "size")
     private Long size;
 
@@ -29,6 +40,29 @@ public class CargoImage {
     @Column(name = "cargo_item_id")
     private Integer cargoItemId;
 
+    // Pixel dimensions, recorded when the image is processed
+    @Column(name = "width")
+    private Integer width;
+
+    @Column(name = "height")
+    private Integer height;
+
+    // For a resized copy: the original image id and the variant name ("thumb", "medium")
+    @Column(name = "variant_of")
+    private Integer variantOf;
+
+    @Column(name = "variant", length = 16)
+    private String variant;
+
+    // Variant generation for originals; null for rows stored before variants existed (treated as pending)
+    @Enumerated(EnumType.STRING)
+    @Column(name = "processing_status", length = 16)
+    private ProcessingStatus processingStatus;
+
+    public enum ProcessingStatus {
+        PENDING, READY, FAILED, SKIPPED
+    }
+
     // Default constructor
     public CargoImage() {
         this.uploadDate = LocalDateTime.now();
@@ -67,6 +101,22 @@ public class CargoImage {
         this.data = data;
     }
 
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    public String getStorageKey() {
+        return storageKey;
+    }
+
+    public void setStorageKey(String storageKey) {
+        this.storageKey = storageKey;
+    }
+
     public Long getSize() {
         return size;
     }
@@ -91,6 +141,46 @@ public class CargoImage {
         this.cargoItemId = cargoItemId;
     }
 
+    public Integer getWidth() {
+        return width;
+    }
+
+    public void setWidth(Integer width) {
+        this.width = width;
+    }
+
+    public Integer getHeight() {
+        return height;
+    }
+
+    public void setHeight(Integer height) {
+        this.height = height;
+    }
+
+    public Integer getVariantOf() {
+        return variantOf;
+    }
+
+    public void setVariantOf(Integer variantOf) {
+        this.variantOf = variantOf;
+    }
+
+    public String getVariant() {
+        return variant;
+    }
+
+    public void setVariant(String variant) {
+        this.variant = variant;
+    }
+
+    public ProcessingStatus getProcessingStatus() {
+        return processingStatus;
+    }
+
+    public void setProcessingStatus(ProcessingStatus processingStatus) {
+        this.processingStatus = processingStatus;
+    }
+
     @Override
     public String toString() {
         return "CargoImage{" +
@@ -98,8 +188,11 @@ public class CargoImage {
                 ", filename='" + filename + '\'' +
                 ", contentType='" + contentType + '\'' +
                 ", size=" + size +
+                ", storageKey='" + storageKey + '\'' +
                 ", uploadDate=" + uploadDate +
                 ", cargoItemId=" + cargoItemId +
+                ", variantOf=" + variantOf +
+                ", variant='" + variant + '\'' +
                 '}';
     }
 }
\ No newline at end of file
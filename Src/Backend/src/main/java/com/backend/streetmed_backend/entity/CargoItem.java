@@ -7,7 +7,11 @@ import java.util.Map;
 
 @Entity
 @Table(name = "cargo_items")
+@NamedEntityGraph(name = CargoItem.GRAPH_INVENTORY, attributeNodes = @NamedAttributeNode("sizeQuantities"))
 public class CargoItem {
+    // Fetch plan that joins the per-size quantities
+    public static final String GRAPH_INVENTORY = "CargoItem.inventory";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Integer id;
@@ -24,7 +28,7 @@ public class CargoItem {
     private Integer quantity;
 
     // For clothes sizes
-    @ElementCollection(fetch = FetchType.EAGER)  // Change to EAGER loading
+    @ElementCollection(fetch = FetchType.LAZY)  // Loaded through the inventory entity graph
     @CollectionTable(
             name = "cargo_item_sizes",
             joinColumns = @JoinColumn(name = "cargo_item_id")
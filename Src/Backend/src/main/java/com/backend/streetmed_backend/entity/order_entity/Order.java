@@ -7,7 +7,13 @@ import java.util.List;
 
 @Entity
 @Table(name = "orders")
+@NamedEntityGraph(name = Order.GRAPH_SUMMARY)
+@NamedEntityGraph(name = Order.GRAPH_DETAIL, attributeNodes = @NamedAttributeNode("orderItems"))
 public class Order {
+    // Fetch plans: "summary" loads only the order row, "detail" joins its items
+    public static final String GRAPH_SUMMARY = "Order.summary";
+    public static final String GRAPH_DETAIL = "Order.detail";
+
     public enum OrderType {
         CLIENT,
         GUEST
@@ -69,7 +75,7 @@ public class Order {
     @Column(name = "assigned_volunteer_id")
     private Integer assignedVolunteerId;
 
-    @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private List<OrderItem> orderItems = new ArrayList<>();
 
     @Column(name = "client_ip_address")
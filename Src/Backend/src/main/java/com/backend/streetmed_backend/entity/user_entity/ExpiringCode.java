@@ -0,0 +1,94 @@
+package com.backend.streetmed_backend.entity.user_entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "expiring_codes",
+        indexes = {
+                @Index(name = "idx_expiring_codes_expires_at", columnList = "expires_at")
+        })
+public class ExpiringCode {
+
+    // "<namespace>:<SHA-256 of key>"
+    @Id
+    @Column(name = "code_key", length = 191)
+    private String codeKey;
+
+    // SHA-256 of the code, null for entries that only carry data
+    @Column(name = "code_hash", length = 64)
+    private String codeHash;
+
+    @Column(name = "data", length = 500)
+    private String data;
+
+    // Failed attempts for the key; kept across re-issued codes until attempts_expire_at
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "attempts_expire_at")
+    private LocalDateTime attemptsExpireAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    // Default constructor
+    public ExpiringCode() {
+    }
+
+    public ExpiringCode(String codeKey, String codeHash, String data, LocalDateTime expiresAt) {
+        this.codeKey = codeKey;
+        this.codeHash = codeHash;
+        this.data = data;
+        this.expiresAt = expiresAt;
+    }
+
+    // Getters and Setters
+    public String getCodeKey() {
+        return codeKey;
+    }
+
+    public void setCodeKey(String codeKey) {
+        this.codeKey = codeKey;
+    }
+
+    public String getCodeHash() {
+        return codeHash;
+    }
+
+    public void setCodeHash(String codeHash) {
+        this.codeHash = codeHash;
+    }
+
+    public String getData() {
+        return data;
+    }
+
+    public void setData(String data) {
+        this.data = data;
+    }
+
+    public Integer getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(Integer attempts) {
+        this.attempts = attempts;
+    }
+
+    public LocalDateTime getAttemptsExpireAt() {
+        return attemptsExpireAt;
+    }
+
+    public void setAttemptsExpireAt(LocalDateTime attemptsExpireAt) {
+        this.attemptsExpireAt = attemptsExpireAt;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
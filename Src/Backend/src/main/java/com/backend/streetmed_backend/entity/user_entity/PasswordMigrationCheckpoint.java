@@ -0,0 +1,93 @@
+package com.backend.streetmed_backend.entity.user_entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "password_migration_checkpoints")
+public class PasswordMigrationCheckpoint {
+
+    public enum Status {
+        RUNNING,
+        COMPLETED
+    }
+
+    @Id
+    @Column(name = "job_name", length = 64)
+    private String jobName;
+
+    // Highest user id whose password has been processed
+    @Column(name = "last_user_id", nullable = false)
+    private Integer lastUserId = 0;
+
+    @Column(name = "migrated_count", nullable = false)
+    private Long migratedCount = 0L;
+
+    @Column(name = "skipped_count", nullable = false)
+    private Long skippedCount = 0L;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 16, nullable = false)
+    private Status status = Status.RUNNING;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Default constructor
+    public PasswordMigrationCheckpoint() {
+    }
+
+    public PasswordMigrationCheckpoint(String jobName) {
+        this.jobName = jobName;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public String getJobName() {
+        return jobName;
+    }
+
+    public void setJobName(String jobName) {
+        this.jobName = jobName;
+    }
+
+    public Integer getLastUserId() {
+        return lastUserId;
+    }
+
+    public void setLastUserId(Integer lastUserId) {
+        this.lastUserId = lastUserId;
+    }
+
+    public Long getMigratedCount() {
+        return migratedCount;
+    }
+
+    public void setMigratedCount(Long migratedCount) {
+        this.migratedCount = migratedCount;
+    }
+
+    public Long getSkippedCount() {
+        return skippedCount;
+    }
+
+    public void setSkippedCount(Long skippedCount) {
+        this.skippedCount = skippedCount;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,16 @@
+package com.backend.streetmed_backend.repository.Cargo;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cargo image metadata without the data column, for serving and deleting images
+ */
+public interface CargoImageInfo {
+    Integer getId();
+    String getFilename();
+    String getContentType();
+    Long getSize();
+    LocalDateTime getUploadDate();
+    String getContentHash();
+    String getStorageKey();
+}
@@ -1,13 +1,43 @@
 package com.backend.streetmed_backend.repository.Cargo;
 
 import com.backend.streetmed_backend.entity.CargoImage;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface CargoImageRepository extends JpaRepository<CargoImage, Integer> {
     Optional<CargoImage> findByCargoItemId(Integer cargoItemId);
     void deleteByCargoItemId(Integer cargoItemId);
-}
\ No newline at end of file
+
+    Optional<CargoImageInfo> findInfoById(Integer id);
+    List<CargoImageInfo> findInfoByCargoItemId(Integer cargoItemId);
+    long countByStorageKey(String storageKey);
+
+    Optional<CargoImageInfo> findInfoByVariantOfAndVariant(Integer variantOf, String variant);
+    List<CargoImageInfo> findInfoByVariantOfIn(Collection<Integer> variantOf);
+
+    /**
+     * Originals whose variants have not been generated yet (null: stored before variants existed)
+     */
+    @Query("SELECT i.id FROM CargoImage i WHERE i.variantOf IS NULL " +
+           "AND (i.processingStatus IS NULL OR i.processingStatus = :pending) ORDER BY i.id")
+    List<Integer> findUnprocessedIds(@Param("pending") CargoImage.ProcessingStatus pending, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE CargoImage i SET i.processingStatus = :status, i.width = :width, i.height = :height " +
+           "WHERE i.id = :id")
+    int updateProcessing(@Param("id") Integer id,
+                         @Param("status") CargoImage.ProcessingStatus status,
+                         @Param("width") Integer width,
+                         @Param("height") Integer height);
+}
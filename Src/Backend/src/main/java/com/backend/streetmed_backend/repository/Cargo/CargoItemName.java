@@ -0,0 +1,9 @@
+package com.backend.streetmed_backend.repository.Cargo;
+
+/**
+ * Id and name of a cargo item, used to build the in-memory catalog index
+ */
+public interface CargoItemName {
+    Integer getId();
+    String getName();
+}
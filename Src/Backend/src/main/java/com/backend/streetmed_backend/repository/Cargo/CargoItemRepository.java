@@ -1,30 +1,61 @@
 package com.backend.streetmed_backend.repository.Cargo;
 
 import com.backend.streetmed_backend.entity.CargoItem;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface CargoItemRepository extends JpaRepository<CargoItem, Integer> {
+    // Catalog listings are serialized with their sizes, so they use the inventory graph
+    @Override
+    @EntityGraph(CargoItem.GRAPH_INVENTORY)
+    List<CargoItem> findAll();
+
+    // Item with its size quantities; plain findById leaves them unloaded
+    @EntityGraph(CargoItem.GRAPH_INVENTORY)
+    Optional<CargoItem> findWithSizesById(Integer id);
+
+    @EntityGraph(CargoItem.GRAPH_INVENTORY)
+    List<CargoItem> findWithSizesByIdIn(Collection<Integer> ids);
+
+    @Query("SELECT c.id AS id, c.name AS name FROM CargoItem c")
+    List<CargoItemName> findAllNames();
+
+    @Query("SELECT c.id AS id, c.name AS name, c.quantity AS quantity, c.minQuantity AS minQuantity, " +
+           "c.isAvailable AS isAvailable FROM CargoItem c")
+    List<CargoStockLevel> findAllStockLevels();
+
+    @Query("SELECT c.id AS id, c.name AS name, c.quantity AS quantity, c.minQuantity AS minQuantity, " +
+           "c.isAvailable AS isAvailable FROM CargoItem c WHERE c.id IN :ids")
+    List<CargoStockLevel> findStockLevelsByIdIn(@Param("ids") Collection<Integer> ids);
+
     List<CargoItem> findByCategory(String category);
 
+    @EntityGraph(CargoItem.GRAPH_INVENTORY)
     List<CargoItem> findByIsAvailableTrue();
 
     List<CargoItem> findByQuantityLessThanEqual(Integer quantity);
 
+    @EntityGraph(CargoItem.GRAPH_INVENTORY)
     @Query("SELECT c FROM CargoItem c WHERE c.quantity <= c.minQuantity AND c.isAvailable = true")
     List<CargoItem> findLowStockItems();
 
+    @EntityGraph(CargoItem.GRAPH_INVENTORY)
     @Query("SELECT c FROM CargoItem c WHERE :size IN (SELECT key(s) FROM c.sizeQuantities s)")
     List<CargoItem> findItemsBySize(@Param("size") String size);
 
+    @EntityGraph(CargoItem.GRAPH_INVENTORY)
     List<CargoItem> findByNameContainingIgnoreCase(String name);
 
+    @EntityGraph(CargoItem.GRAPH_INVENTORY)
     List<CargoItem> findByCategoryAndIsAvailableTrue(String category);
 
     boolean existsByNameIgnoreCase(String name);
-}
\ No newline at end of file
+}
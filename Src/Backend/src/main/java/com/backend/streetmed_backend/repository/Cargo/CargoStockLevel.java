@@ -0,0 +1,12 @@
+package com.backend.streetmed_backend.repository.Cargo;
+
+/**
+ * Stock figures of a cargo item, used to keep the in-memory low-stock index
+ */
+public interface CargoStockLevel {
+    Integer getId();
+    String getName();
+    Integer getQuantity();
+    Integer getMinQuantity();
+    Boolean getIsAvailable();
+}
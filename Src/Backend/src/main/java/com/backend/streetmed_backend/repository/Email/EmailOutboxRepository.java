@@ -0,0 +1,26 @@
+package com.backend.streetmed_backend.repository.Email;
+
+import com.backend.streetmed_backend.entity.email_entity.EmailOutboxMessage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutboxMessage, Long> {
+
+    boolean existsByDedupKeyAndCreatedAtAfter(String dedupKey, LocalDateTime since);
+
+    long countByStatusIn(Collection<EmailOutboxMessage.Status> statuses);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM EmailOutboxMessage m WHERE m.status IN :statuses AND m.createdAt < :before")
+    int deleteByStatusInAndCreatedAtBefore(@Param("statuses") Collection<EmailOutboxMessage.Status> statuses,
+                                           @Param("before") LocalDateTime before);
+}
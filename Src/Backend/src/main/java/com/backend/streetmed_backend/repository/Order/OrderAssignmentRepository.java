@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -48,4 +49,8 @@ public interface OrderAssignmentRepository extends JpaRepository<OrderAssignment
     long countActiveOrdersForRound(@Param("roundId") Integer roundId);
 
     List<OrderAssignment> findByVolunteerId(Integer volunteerId);
+
+    // Load every assignment for a set of orders in one statement
+    @Query("SELECT a FROM OrderAssignment a WHERE a.orderId IN :orderIds")
+    List<OrderAssignment> findByOrderIdIn(@Param("orderIds") Collection<Integer> orderIds);
 }
\ No newline at end of file
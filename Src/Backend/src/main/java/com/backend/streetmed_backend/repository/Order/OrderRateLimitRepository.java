@@ -27,6 +27,9 @@ public interface OrderRateLimitRepository extends JpaRepository<OrderRateLimit,
     @Query("SELECT o FROM OrderRateLimit o WHERE o.ipAddress = :ipAddress ORDER BY o.requestTimestamp DESC")
     List<OrderRateLimit> findRecentByIpAddress(@Param("ipAddress") String ipAddress);
 
+    @Query("SELECT o FROM OrderRateLimit o WHERE o.requestTimestamp > :sinceTime")
+    List<OrderRateLimit> findSince(@Param("sinceTime") LocalDateTime sinceTime);
+
     @Modifying
     @Transactional
     @Query("DELETE FROM OrderRateLimit o WHERE o.requestTimestamp < :beforeTime")
@@ -1,8 +1,10 @@
 package com.backend.streetmed_backend.repository.Order;
 
 import com.backend.streetmed_backend.entity.order_entity.Order;
+import com.backend.streetmed_backend.repository.Rounds.RoundCount;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.jpa.repository.Lock;
@@ -11,6 +13,7 @@ import org.springframework.stereotype.Repository;
 import jakarta.persistence.LockModeType;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,6 +26,7 @@ public interface OrderRepository extends JpaRepository<Order, Integer> {
             "ORDER BY o.requestTime ASC")
     Page<Order> findPendingOrdersPrioritized(Pageable pageable);
 
+    @EntityGraph(Order.GRAPH_SUMMARY)
     @Query("SELECT o FROM Order o WHERE o.roundId IS NULL " +
             "AND o.status IN ('PENDING', 'PENDING_ACCEPT') " +
             "ORDER BY o.requestTime ASC")
@@ -30,6 +34,7 @@ public interface OrderRepository extends JpaRepository<Order, Integer> {
 
     // Pessimistic locking for concurrency control
     @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @EntityGraph(Order.GRAPH_SUMMARY)
     @Query("SELECT o FROM Order o WHERE o.orderId = :orderId")
     Optional<Order> findByIdWithLock(@Param("orderId") Integer orderId);
 
@@ -53,20 +58,44 @@ public interface OrderRepository extends JpaRepository<Order, Integer> {
     @Query("SELECT COUNT(o) FROM Order o WHERE o.clientIpAddress = :ipAddress AND o.status = 'PENDING'")
     Long countPendingOrdersByIpAddress(@Param("ipAddress") String ipAddress);
 
+    @EntityGraph(Order.GRAPH_SUMMARY)
     @Query("SELECT o FROM Order o WHERE o.clientIpAddress = :ipAddress AND o.requestTime > :sinceTime")
     List<Order> findOrdersByIpAddressSince(@Param("ipAddress") String ipAddress,
                                            @Param("sinceTime") LocalDateTime sinceTime);
 
+    // Order with its items, for call sites that return the items to the client
+    @EntityGraph(Order.GRAPH_DETAIL)
+    Optional<Order> findWithItemsByOrderId(Integer orderId);
+
     // Existing methods
     List<Order> findByRoundIdIsNullOrderByRequestTimeAsc();
+
+    @EntityGraph(Order.GRAPH_SUMMARY)
     List<Order> findByRoundId(Integer roundId);
+
+    @EntityGraph(Order.GRAPH_DETAIL)
+    List<Order> findWithItemsByRoundId(Integer roundId);
+
     long countByRoundId(Integer roundId);
+
+    // Count orders for many rounds at once, grouped by round
+    @Query("SELECT o.roundId AS roundId, COUNT(o) AS total FROM Order o " +
+            "WHERE o.roundId IN :roundIds GROUP BY o.roundId")
+    List<RoundCount> countByRoundIds(@Param("roundIds") Collection<Integer> roundIds);
+    @EntityGraph(Order.GRAPH_DETAIL)
     List<Order> findByUserIdOrderByRequestTimeDesc(Integer userId);
     /**
      * Find unassigned orders with specific status
      */
+    @EntityGraph(Order.GRAPH_SUMMARY)
     List<Order> findByRoundIdIsNullAndStatus(String status);
 
+    /**
+     * Find unassigned orders with specific status, items included
+     */
+    @EntityGraph(Order.GRAPH_DETAIL)
+    List<Order> findWithItemsByRoundIdIsNullAndStatus(String status);
+
     /**
      * Get order count and capacity info for a round
      */
@@ -78,4 +107,36 @@ public interface OrderRepository extends JpaRepository<Order, Integer> {
 
     @Query("SELECT o FROM Order o WHERE o.roundId = :roundId AND o.status != 'CANCELLED'")
     List<Order> findActiveOrdersByRoundId(@Param("roundId") Integer roundId);
+
+    /**
+     * Same as findActiveOrdersByRoundId but joins the order items in the same statement,
+     * so building a round board does not issue one item select per order
+     */
+    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.orderItems " +
+            "WHERE o.roundId = :roundId AND o.status != 'CANCELLED'")
+    List<Order> findActiveOrdersWithItemsByRoundId(@Param("roundId") Integer roundId);
+
+    /**
+     * Keyset page of order IDs ordered by request_time DESC, order_id DESC.
+     * Every filter is optional; pass a null cursorTime for the first page.
+     */
+    @Query("SELECT o.orderId FROM Order o WHERE " +
+            "(:status IS NULL OR o.status = :status) " +
+            "AND (:roundId IS NULL OR o.roundId = :roundId) " +
+            "AND (:fromTime IS NULL OR o.requestTime >= :fromTime) " +
+            "AND (:toTime IS NULL OR o.requestTime < :toTime) " +
+            "AND (:cursorTime IS NULL OR o.requestTime < :cursorTime " +
+            "     OR (o.requestTime = :cursorTime AND o.orderId < :cursorId)) " +
+            "ORDER BY o.requestTime DESC, o.orderId DESC")
+    List<Integer> findOrderIdsPage(@Param("status") String status,
+                                   @Param("roundId") Integer roundId,
+                                   @Param("fromTime") LocalDateTime fromTime,
+                                   @Param("toTime") LocalDateTime toTime,
+                                   @Param("cursorTime") LocalDateTime cursorTime,
+                                   @Param("cursorId") Integer cursorId,
+                                   Pageable pageable);
+
+    // Load a page of orders with their items in one statement
+    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.orderItems WHERE o.orderId IN :orderIds")
+    List<Order> findAllWithItemsByIdIn(@Param("orderIds") Collection<Integer> orderIds);
 }
\ No newline at end of file
@@ -0,0 +1,26 @@
+package com.backend.streetmed_backend.repository.Rounds;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Projection for "GROUP BY round_id" count queries
+ */
+public interface RoundCount {
+
+    Integer getRoundId();
+
+    Long getTotal();
+
+    /**
+     * Index grouped counts by round ID. Rounds with no rows are absent from the map.
+     */
+    static Map<Integer, Long> toMap(List<RoundCount> counts) {
+        Map<Integer, Long> byRound = new HashMap<>();
+        for (RoundCount count : counts) {
+            byRound.put(count.getRoundId(), count.getTotal());
+        }
+        return byRound;
+    }
+}
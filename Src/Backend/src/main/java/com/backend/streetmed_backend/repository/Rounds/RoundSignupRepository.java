@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,6 +28,12 @@ public interface RoundSignupRepository extends JpaRepository<RoundSignup, Intege
     @Query("SELECT COUNT(rs) FROM RoundSignup rs WHERE rs.roundId = :roundId AND rs.status = 'CONFIRMED' AND rs.role = 'VOLUNTEER'")
     long countConfirmedVolunteersForRound(@Param("roundId") Integer roundId);
 
+    // Count confirmed participants for many rounds at once, grouped by round
+    @Query("SELECT rs.roundId AS roundId, COUNT(rs) AS total FROM RoundSignup rs " +
+            "WHERE rs.roundId IN :roundIds AND rs.status = 'CONFIRMED' AND rs.role = 'VOLUNTEER' " +
+            "GROUP BY rs.roundId")
+    List<RoundCount> countConfirmedVolunteersByRound(@Param("roundIds") Collection<Integer> roundIds);
+
     // Find team lead for a round (if exists)
     @Query("SELECT rs FROM RoundSignup rs WHERE rs.roundId = :roundId AND rs.role = 'TEAM_LEAD' AND rs.status = 'CONFIRMED'")
     Optional<RoundSignup> findTeamLeadForRound(@Param("roundId") Integer roundId);
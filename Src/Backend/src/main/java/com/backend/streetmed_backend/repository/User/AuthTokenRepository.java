@@ -0,0 +1,20 @@
+package com.backend.streetmed_backend.repository.User;
+
+import com.backend.streetmed_backend.entity.user_entity.AuthToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface AuthTokenRepository extends JpaRepository<AuthToken, String> {
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM AuthToken t WHERE t.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,31 @@
+package com.backend.streetmed_backend.repository.User;
+
+import com.backend.streetmed_backend.entity.user_entity.ExpiringCode;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface ExpiringCodeRepository extends JpaRepository<ExpiringCode, String> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM ExpiringCode c WHERE c.codeKey = :codeKey")
+    Optional<ExpiringCode> findForUpdate(@Param("codeKey") String codeKey);
+
+    @Query("SELECT COUNT(c) FROM ExpiringCode c WHERE c.codeKey LIKE CONCAT(:namespace, ':%') AND c.expiresAt > :now")
+    long countLive(@Param("namespace") String namespace, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ExpiringCode c WHERE c.expiresAt < :now " +
+            "AND (c.attemptsExpireAt IS NULL OR c.attemptsExpireAt < :now)")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
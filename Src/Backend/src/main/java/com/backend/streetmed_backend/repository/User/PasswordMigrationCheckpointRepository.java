@@ -0,0 +1,9 @@
+package com.backend.streetmed_backend.repository.User;
+
+import com.backend.streetmed_backend.entity.user_entity.PasswordMigrationCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PasswordMigrationCheckpointRepository extends JpaRepository<PasswordMigrationCheckpoint, String> {
+}
@@ -3,8 +3,11 @@ package com.backend.streetmed_backend.repository.User;
 
 import com.backend.streetmed_backend.entity.user_entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -14,4 +17,7 @@ public interface UserRepository extends JpaRepository<User, Integer> {
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
     boolean existsByRole(String role);
+
+    @Query("SELECT u.email FROM User u WHERE u.role = :role AND u.email IS NOT NULL AND u.email <> ''")
+    List<String> findEmailsByRole(@Param("role") String role);
 }
\ No newline at end of file
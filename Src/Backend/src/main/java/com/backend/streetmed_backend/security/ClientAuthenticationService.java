@@ -2,35 +2,26 @@ package com.backend.streetmed_backend.security;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
-import java.nio.charset.StandardCharsets;
-import java.security.InvalidKeyException;
-import java.security.NoSuchAlgorithmException;
-import java.util.Base64;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-
 @Service
 public class ClientAuthenticationService {
     private static final Logger logger = LoggerFactory.getLogger(ClientAuthenticationService.class);
 
-    // Map to store registered clients with their shared secrets
-    private final Map<String, String> clientSecrets = new ConcurrentHashMap<>();
+    // Registered clients with their secrets; checks signatures and replays
+    private final ClientSignatureVerifier signatureVerifier;
 
-    // Map to track which client initiated which session
-    private final Map<String, String> sessionClients = new ConcurrentHashMap<>();
+    // Tracks which client initiated which session
+    private final SessionRegistry sessionRegistry;
 
     // Timestamp tolerance in milliseconds (5 minutes)
-    private static final long TIMESTAMP_TOLERANCE_MS = 5 * 60 * 1000;
-
-    @Value("${security.client.authentication.key:street-med-client-authentication-key}")
-    private String clientAuthenticationKey;
+    static final long TIMESTAMP_TOLERANCE_MS = 5 * 60 * 1000;
 
-    public ClientAuthenticationService() {
+    @Autowired
+    public ClientAuthenticationService(SessionRegistry sessionRegistry, ClientSignatureVerifier signatureVerifier) {
+        this.sessionRegistry = sessionRegistry;
+        this.signatureVerifier = signatureVerifier;
         // Register known clients
         registerClient("street-med-frontend-local", "local-development-secret");
         registerClient("street-med-frontend-prod", "production-client-secret");
@@ -41,7 +32,7 @@ public class ClientAuthenticationService {
      * Register a new client with its secret
      */
     public void registerClient(String clientId, String clientSecret) {
-        clientSecrets.put(clientId, clientSecret);
+        signatureVerifier.registerClient(clientId, clientSecret);
         logger.info("Registered client: {}", clientId);
     }
 
@@ -49,7 +40,7 @@ public class ClientAuthenticationService {
      * Associate a session ID with a client ID
      */
     public void associateClientWithSession(String sessionId, String clientId) {
-        sessionClients.put(sessionId, clientId);
+        sessionRegistry.getOrCreate(sessionId).setClientId(clientId);
         logger.info("Associated session {} with client {}", sessionId, clientId);
     }
 
@@ -57,7 +48,8 @@ public class ClientAuthenticationService {
      * Validate if the client ID for a session matches
      */
     public boolean validateSessionClient(String sessionId, String clientId) {
-        String associatedClientId = sessionClients.get(sessionId);
+        SessionRegistry.Session session = sessionRegistry.get(sessionId);
+        String associatedClientId = session != null ? session.getClientId() : null;
 
         // If no client is associated yet, allow it (first request)
         if (associatedClientId == null) {
@@ -82,7 +74,7 @@ public class ClientAuthenticationService {
         }
 
         // Check if client ID is provided and registered
-        if (clientId == null || !clientSecrets.containsKey(clientId)) {
+        if (!signatureVerifier.isRegistered(clientId)) {
             logger.warn("Unknown client ID: {}", clientId);
             return false;
         }
@@ -100,8 +92,8 @@ public class ClientAuthenticationService {
             return false;
         }
 
-        // Check signature
-        if (signature == null || !isSignatureValid(clientId, timestamp, signature)) {
+        // Check signature (a replayed signature is rejected too)
+        if (signature == null || !signatureVerifier.verify(clientId, Long.parseLong(timestamp), signature)) {
             logger.warn("Invalid signature for client {}", clientId);
             return false;
         }
@@ -125,30 +117,6 @@ public class ClientAuthenticationService {
         }
     }
 
-    /**
-     * Validate the client's signature
-     */
-    private boolean isSignatureValid(String clientId, String timestamp, String signature) {
-        try {
-            // In a real implementation, you would use the client's secret
-            // For now, we'll use a shared key for all clients
-            String data = clientId + ":" + timestamp;
-
-            Mac hmac = Mac.getInstance("HmacSHA256");
-            SecretKeySpec secretKey = new SecretKeySpec(
-                    clientAuthenticationKey.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
-            hmac.init(secretKey);
-
-            byte[] hash = hmac.doFinal(data.getBytes(StandardCharsets.UTF_8));
-            String calculatedSignature = Base64.getEncoder().encodeToString(hash);
-
-            return calculatedSignature.equals(signature);
-        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
-            logger.error("Error validating signature: {}", e.getMessage());
-            return false;
-        }
-    }
-
     /**
      * Check if we're in development environment
      */
@@ -0,0 +1,76 @@
+package com.backend.streetmed_backend.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.HexFormat;
+
+/**
+ * Keyed hashes (HMAC-SHA256) for the codes and keys of an {@link ExpiringCodeStore}.
+ * A six-digit code has only a million values, so a plain digest of it can be reversed by trying
+ * them all; without auth.code.hmac-key a leaked table or heap dump reveals nothing.
+ * When the key is not configured a random one is generated at startup, which only suits the
+ * in-memory store: codes hashed with it do not survive a restart or verify on another instance.
+ */
+@Component
+public class CodeHasher {
+    private static final Logger logger = LoggerFactory.getLogger(CodeHasher.class);
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final SecretKeySpec key;
+    private final boolean configured;
+    // Mac is not thread-safe and costly to look up, so each thread keeps its own
+    private final ThreadLocal<Mac> mac;
+
+    public CodeHasher(@Value("${auth.code.hmac-key:}") String configuredKey) {
+        this.configured = configuredKey != null && !configuredKey.isBlank();
+        byte[] keyBytes;
+        if (configured) {
+            keyBytes = configuredKey.getBytes(StandardCharsets.UTF_8);
+        } else {
+            keyBytes = new byte[32];
+            new SecureRandom().nextBytes(keyBytes);
+            logger.info("auth.code.hmac-key is not set, hashing codes with a key generated for this run");
+        }
+        this.key = new SecretKeySpec(keyBytes, ALGORITHM);
+        this.mac = ThreadLocal.withInitial(this::newMac);
+    }
+
+    /**
+     * Whether the key comes from configuration, i.e. is the same on every instance and across restarts
+     */
+    public boolean isConfigured() {
+        return configured;
+    }
+
+    public String hash(String value) {
+        return HexFormat.of().formatHex(mac.get().doFinal(String.valueOf(value).getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Constant-time comparison of a submitted code against a stored hash
+     */
+    public boolean matches(String storedHash, String code) {
+        return MessageDigest.isEqual(storedHash.getBytes(StandardCharsets.US_ASCII),
+                hash(code).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private Mac newMac() {
+        try {
+            Mac instance = Mac.getInstance(ALGORITHM);
+            instance.init(key);
+            return instance;
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException(ALGORITHM + " not available", e);
+        }
+    }
+}
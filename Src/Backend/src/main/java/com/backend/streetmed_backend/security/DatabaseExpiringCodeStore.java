@@ -0,0 +1,165 @@
+package com.backend.streetmed_backend.security;
+
+import com.backend.streetmed_backend.entity.user_entity.ExpiringCode;
+import com.backend.streetmed_backend.repository.User.ExpiringCodeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Code store backed by the shared expiring_codes table, so a code issued by one instance can be
+ * verified on another. Issuing, verifying and consuming lock the row, which keeps attempt
+ * counting exact when requests for the same key arrive at several instances at once.
+ */
+@Component
+@ConditionalOnProperty(name = "auth.code.store", havingValue = "database")
+public class DatabaseExpiringCodeStore implements ExpiringCodeStore {
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseExpiringCodeStore.class);
+
+    private final ExpiringCodeRepository codeRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final CodeHasher codeHasher;
+    private final int maxAttempts;
+
+    @Autowired
+    public DatabaseExpiringCodeStore(ExpiringCodeRepository codeRepository,
+                                     TransactionTemplate transactionTemplate,
+                                     CodeHasher codeHasher,
+                                     @Value("${auth.code.max-attempts:5}") int maxAttempts) {
+        if (!codeHasher.isConfigured()) {
+            // A per-run key would make codes unverifiable on other instances and after a restart
+            throw new IllegalStateException("auth.code.store=database requires auth.code.hmac-key to be set");
+        }
+        this.codeRepository = codeRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.codeHasher = codeHasher;
+        this.maxAttempts = maxAttempts;
+    }
+
+    @Override
+    public void put(String namespace, String key, String code, String data, long ttlMillis) {
+        String entryKey = entryKey(namespace, key);
+        String codeHash = code != null ? codeHasher.hash(code) : null;
+        transactionTemplate.executeWithoutResult(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime expiresAt = now.plusNanos(ttlMillis * 1_000_000);
+            ExpiringCode entry = codeRepository.findForUpdate(entryKey).orElse(null);
+            if (entry == null) {
+                entry = new ExpiringCode(entryKey, codeHash, data, expiresAt);
+            } else {
+                entry.setCodeHash(codeHash);
+                entry.setData(data);
+                entry.setExpiresAt(expiresAt);
+            }
+            // Failed attempts stay with the key until their window ends, so re-issuing gives no fresh guesses
+            if (entry.getAttempts() == 0 || !isAttemptWindowOpen(entry, now)) {
+                entry.setAttempts(0);
+                entry.setAttemptsExpireAt(expiresAt);
+            }
+            codeRepository.save(entry);
+        });
+    }
+
+    @Override
+    public Verification verify(String namespace, String key, String code) {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            Optional<ExpiringCode> row = codeRepository.findForUpdate(entryKey(namespace, key));
+            if (row.isEmpty()) {
+                return new Verification(Status.EXPIRED, null, 0);
+            }
+            ExpiringCode entry = row.get();
+            boolean codeLive = entry.getExpiresAt().isAfter(now);
+            if (!codeLive && !isAttemptWindowOpen(entry, now)) {
+                codeRepository.delete(entry);
+                return new Verification(Status.EXPIRED, null, 0);
+            }
+            if (entry.getAttempts() >= maxAttempts) {
+                return new Verification(Status.LOCKED, null, 0);
+            }
+            if (!codeLive) {
+                return new Verification(Status.EXPIRED, null, 0);
+            }
+            if (entry.getCodeHash() != null && code != null && codeHasher.matches(entry.getCodeHash(), code)) {
+                codeRepository.delete(entry);
+                return new Verification(Status.VALID, entry.getData(), 0);
+            }
+            int attempts = entry.getAttempts() + 1;
+            entry.setAttempts(attempts);
+            if (attempts >= maxAttempts) {
+                // Drop the code but keep the row as a lock until the attempt window ends
+                entry.setCodeHash(null);
+                entry.setData(null);
+                entry.setExpiresAt(now);
+                codeRepository.save(entry);
+                return new Verification(Status.LOCKED, null, 0);
+            }
+            codeRepository.save(entry);
+            return new Verification(Status.INVALID, null, maxAttempts - attempts);
+        });
+    }
+
+    @Override
+    public String find(String namespace, String key) {
+        return codeRepository.findById(entryKey(namespace, key))
+                .filter(entry -> entry.getExpiresAt().isAfter(LocalDateTime.now()))
+                .map(ExpiringCode::getData)
+                .orElse(null);
+    }
+
+    @Override
+    public String consume(String namespace, String key) {
+        return transactionTemplate.execute(status -> {
+            // The row lock makes a concurrent consume wait, then find nothing
+            Optional<ExpiringCode> row = codeRepository.findForUpdate(entryKey(namespace, key));
+            if (row.isEmpty() || !row.get().getExpiresAt().isAfter(LocalDateTime.now())) {
+                return null;
+            }
+            codeRepository.delete(row.get());
+            return row.get().getData();
+        });
+    }
+
+    @Override
+    public void remove(String namespace, String key) {
+        codeRepository.deleteById(entryKey(namespace, key));
+    }
+
+    @Override
+    public long count(String namespace) {
+        return codeRepository.countLive(namespace, LocalDateTime.now());
+    }
+
+    @Override
+    public boolean isShared() {
+        return true;
+    }
+
+    /**
+     * Delete expired rows (every minute)
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void deleteExpiredCodes() {
+        int deleted = codeRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            logger.debug("Deleted {} expired codes", deleted);
+        }
+    }
+
+    private static boolean isAttemptWindowOpen(ExpiringCode entry, LocalDateTime now) {
+        return entry.getAttemptsExpireAt() != null && entry.getAttemptsExpireAt().isAfter(now);
+    }
+
+    // Keys are hashed too: they fit the column whatever their length, and the table holds no raw tokens
+    private String entryKey(String namespace, String key) {
+        return namespace + ":" + codeHasher.hash(key);
+    }
+}
@@ -0,0 +1,137 @@
+package com.backend.streetmed_backend.security;
+
+import com.backend.streetmed_backend.entity.user_entity.AuthToken;
+import com.backend.streetmed_backend.repository.User.AuthTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Token store backed by the shared auth_tokens table, so every instance can validate every token.
+ * Rows are keyed by the SHA-256 of the token, so a leaked table or backup holds no usable tokens.
+ * Lookups go through a short-lived near-cache; a token revoked on another instance stays valid
+ * here for at most the near-cache TTL.
+ */
+@Component
+@ConditionalOnProperty(name = "auth.token.store", havingValue = "database")
+public class DatabaseTokenStore implements TokenStore {
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseTokenStore.class);
+
+    private static final int MAX_CACHED_TOKENS = 100_000;
+    // Unknown tokens are remembered briefly so a bad token cannot force a query per request
+    private static final long NEGATIVE_CACHE_MILLIS = 5_000;
+
+    private final AuthTokenRepository authTokenRepository;
+    private final long ttlMillis;
+    private final long nearCacheMillis;
+    private final Map<String, CachedToken> nearCache = new ConcurrentHashMap<>();
+
+    @Autowired
+    public DatabaseTokenStore(AuthTokenRepository authTokenRepository,
+                              @Value("${auth.token.ttl-minutes:1440}") long ttlMinutes,
+                              @Value("${auth.token.near-cache-seconds:30}") long nearCacheSeconds) {
+        this.authTokenRepository = authTokenRepository;
+        this.ttlMillis = ttlMinutes * 60_000;
+        this.nearCacheMillis = nearCacheSeconds * 1000;
+    }
+
+    @Override
+    public void store(String token, Integer userId, String role) {
+        long now = System.currentTimeMillis();
+        TokenRecord record = new TokenRecord(userId, role, now + ttlMillis);
+        authTokenRepository.save(new AuthToken(TokenStore.hash(token), userId, role, toDateTime(record.getExpiresAtMillis())));
+        nearCache.put(token, new CachedToken(record, now + nearCacheMillis));
+    }
+
+    @Override
+    public TokenRecord find(String token) {
+        long now = System.currentTimeMillis();
+        CachedToken cached = nearCache.get(token);
+        if (cached == null || cached.validUntilMillis <= now) {
+            cached = load(token, now);
+        }
+
+        TokenRecord record = cached.record;
+        if (record == null || record.isExpired(now)) {
+            return null;
+        }
+        return record;
+    }
+
+    @Override
+    public void remove(String token) {
+        nearCache.remove(token);
+        authTokenRepository.deleteById(TokenStore.hash(token));
+    }
+
+    @Override
+    public boolean isShared() {
+        return true;
+    }
+
+    /**
+     * Drop stale near-cache entries (every minute)
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void evictNearCache() {
+        long now = System.currentTimeMillis();
+        nearCache.values().removeIf(cached -> cached.validUntilMillis <= now);
+    }
+
+    /**
+     * Delete expired token rows (every 10 minutes)
+     */
+    @Scheduled(fixedDelay = 600000)
+    public void deleteExpiredTokens() {
+        int deleted = authTokenRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            logger.info("Deleted {} expired auth tokens", deleted);
+        }
+    }
+
+    private CachedToken load(String token, long now) {
+        Optional<AuthToken> row = authTokenRepository.findById(TokenStore.hash(token));
+        CachedToken cached;
+        if (row.isPresent()) {
+            AuthToken authToken = row.get();
+            long expiresAt = authToken.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            TokenRecord record = new TokenRecord(authToken.getUserId(), authToken.getRole(), expiresAt);
+            cached = new CachedToken(record, Math.min(now + nearCacheMillis, expiresAt));
+        } else {
+            cached = new CachedToken(null, now + NEGATIVE_CACHE_MILLIS);
+        }
+
+        if (nearCache.size() >= MAX_CACHED_TOKENS) {
+            evictNearCache();
+        }
+        if (nearCache.size() < MAX_CACHED_TOKENS) {
+            nearCache.put(token, cached);
+        }
+        return cached;
+    }
+
+    private static LocalDateTime toDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    private static class CachedToken {
+        final TokenRecord record;
+        final long validUntilMillis;
+
+        CachedToken(TokenRecord record, long validUntilMillis) {
+            this.record = record;
+            this.validUntilMillis = validUntilMillis;
+        }
+    }
+}
@@ -1,23 +1,44 @@
 package com.backend.streetmed_backend.security;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import javax.crypto.KeyAgreement;
 import java.security.*;
 import java.security.spec.*;
 import java.util.Base64;
-import java.util.HashMap;
-import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 @Service
 public class ECDHService {
     private final Logger logger = LoggerFactory.getLogger(ECDHService.class);
-    private final Map<String, KeyPair> sessionKeyPairs = new HashMap<>();
+    private final SessionRegistry sessionRegistry;
+    private final EcdhKeyPairPool keyPairPool;
     private static final String ALGORITHM = "EC";
-    private static final String CURVE = "secp256r1"; // NIST P-256 curve
     private static final String KEY_AGREEMENT_ALGORITHM = "ECDH";
 
+    // Provider lookup is costly; both objects are reusable once re-initialised
+    private static final ThreadLocal<KeyFactory> KEY_FACTORY = ThreadLocal.withInitial(() -> {
+        try {
+            return KeyFactory.getInstance(ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+    private static final ThreadLocal<KeyAgreement> KEY_AGREEMENT = ThreadLocal.withInitial(() -> {
+        try {
+            return KeyAgreement.getInstance(KEY_AGREEMENT_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    @Autowired
+    public ECDHService(SessionRegistry sessionRegistry, EcdhKeyPairPool keyPairPool) {
+        this.sessionRegistry = sessionRegistry;
+        this.keyPairPool = keyPairPool;
+    }
+
     /**
      * Generates a new key pair for a session and returns the public key.
      *
@@ -26,12 +47,8 @@ public class ECDHService {
      */
     public String generateKeyPair(String sessionId) {
         try {
-            KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance(ALGORITHM);
-            ECGenParameterSpec ecSpec = new ECGenParameterSpec(CURVE);
-            keyPairGenerator.initialize(ecSpec, new SecureRandom());
-
-            KeyPair keyPair = keyPairGenerator.generateKeyPair();
-            sessionKeyPairs.put(sessionId, keyPair);
+            KeyPair keyPair = keyPairPool.take();
+            sessionRegistry.startHandshake(sessionId, keyPair);
 
             byte[] publicKeyBytes = keyPair.getPublic().getEncoded();
             return Base64.getEncoder().encodeToString(publicKeyBytes);
@@ -50,19 +67,19 @@ public class ECDHService {
      */
     public String computeSharedSecret(String sessionId, String clientPublicKeyBase64) {
         try {
-            KeyPair serverKeyPair = sessionKeyPairs.get(sessionId);
+            SessionRegistry.Session session = sessionRegistry.get(sessionId);
+            KeyPair serverKeyPair = session != null ? session.getKeyPair() : null;
             if (serverKeyPair == null) {
                 throw new IllegalStateException("No key pair found for session: " + sessionId);
             }
 
             // Decode client's public key
             byte[] clientPublicKeyBytes = Base64.getDecoder().decode(clientPublicKeyBase64);
-            KeyFactory keyFactory = KeyFactory.getInstance(ALGORITHM);
             X509EncodedKeySpec keySpec = new X509EncodedKeySpec(clientPublicKeyBytes);
-            PublicKey clientPublicKey = keyFactory.generatePublic(keySpec);
+            PublicKey clientPublicKey = KEY_FACTORY.get().generatePublic(keySpec);
 
-            // Perform key agreement
-            KeyAgreement keyAgreement = KeyAgreement.getInstance(KEY_AGREEMENT_ALGORITHM);
+            // Perform key agreement (init resets any previous state)
+            KeyAgreement keyAgreement = KEY_AGREEMENT.get();
             keyAgreement.init(serverKeyPair.getPrivate());
             keyAgreement.doPhase(clientPublicKey, true);
 
@@ -82,7 +99,8 @@ public class ECDHService {
      * @return true if session key pair exists
      */
     public boolean hasKeyPair(String sessionId) {
-        return sessionKeyPairs.containsKey(sessionId);
+        SessionRegistry.Session session = sessionRegistry.get(sessionId);
+        return session != null && session.getKeyPair() != null;
     }
 
     /**
@@ -91,6 +109,6 @@ public class ECDHService {
      * @param sessionId Unique session identifier
      */
     public void removeKeyPair(String sessionId) {
-        sessionKeyPairs.remove(sessionId);
+        sessionRegistry.remove(sessionId);
     }
 }
\ No newline at end of file
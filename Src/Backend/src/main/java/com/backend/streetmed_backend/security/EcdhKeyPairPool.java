@@ -0,0 +1,140 @@
+package com.backend.streetmed_backend.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.SecureRandom;
+import java.security.spec.ECGenParameterSpec;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool of pre-generated P-256 key pairs for the ECDH handshake, so a burst of handshakes
+ * (e.g. at the start of a shift) does not generate keys on request threads.
+ * Handshakes take pairs lock-free; a scheduled task tops the pool back up. The target depth
+ * follows the observed handshake rate: enough pairs to cover one refill interval plus headroom,
+ * between the configured minimum and maximum. Each pair is handed out once.
+ */
+@Component
+public class EcdhKeyPairPool {
+    private static final Logger logger = LoggerFactory.getLogger(EcdhKeyPairPool.class);
+
+    private static final String ALGORITHM = "EC";
+    private static final String CURVE = "secp256r1"; // NIST P-256 curve
+    private static final long REFILL_INTERVAL_MILLIS = 500;
+    // Weight of the latest interval in the handshake rate average
+    private static final double RATE_SMOOTHING = 0.3;
+    // Pool covers this many refill intervals at the observed rate
+    private static final int HEADROOM_INTERVALS = 4;
+
+    private static final ThreadLocal<KeyPairGenerator> GENERATOR = ThreadLocal.withInitial(() -> {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance(ALGORITHM);
+            generator.initialize(new ECGenParameterSpec(CURVE), new SecureRandom());
+            return generator;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("EC key generation not available", e);
+        }
+    });
+
+    private final ConcurrentLinkedQueue<KeyPair> pool = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger depth = new AtomicInteger();
+    private final int minSize;
+    private final int maxSize;
+
+    private final AtomicLong taken = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong generated = new AtomicLong();
+
+    // Only touched by the refill task
+    private long takenAtLastRefill;
+    private double handshakesPerInterval;
+    private volatile int targetSize;
+
+    public EcdhKeyPairPool(@Value("${security.ecdh.pool.min-size:8}") int minSize,
+                           @Value("${security.ecdh.pool.max-size:256}") int maxSize) {
+        this.minSize = Math.max(0, minSize);
+        this.maxSize = Math.max(this.minSize, maxSize);
+        this.targetSize = this.minSize;
+    }
+
+    /**
+     * Take a fresh key pair, generating one inline if the pool is empty
+     */
+    public KeyPair take() {
+        taken.incrementAndGet();
+        KeyPair keyPair = pool.poll();
+        if (keyPair != null) {
+            depth.decrementAndGet();
+            hits.incrementAndGet();
+            return keyPair;
+        }
+        misses.incrementAndGet();
+        return generate();
+    }
+
+    /**
+     * Re-estimate the handshake rate and top the pool up to the new target
+     */
+    @Scheduled(fixedDelay = REFILL_INTERVAL_MILLIS)
+    public void refill() {
+        long takenNow = taken.get();
+        long lastInterval = takenNow - takenAtLastRefill;
+        takenAtLastRefill = takenNow;
+        handshakesPerInterval = RATE_SMOOTHING * lastInterval + (1 - RATE_SMOOTHING) * handshakesPerInterval;
+
+        int target = (int) Math.ceil(handshakesPerInterval * HEADROOM_INTERVALS);
+        targetSize = Math.max(minSize, Math.min(maxSize, target));
+
+        int added = 0;
+        try {
+            while (depth.get() < targetSize) {
+                pool.offer(generate());
+                depth.incrementAndGet();
+                added++;
+            }
+        } catch (RuntimeException e) {
+            logger.error("Error refilling ECDH key pair pool: {}", e.getMessage());
+        }
+        // Shrink back after a burst; surplus pairs were never handed out
+        while (depth.get() > targetSize && pool.poll() != null) {
+            depth.decrementAndGet();
+        }
+        if (added > 0) {
+            logger.debug("Added {} key pairs to ECDH pool (depth {}, target {})", added, depth.get(), targetSize);
+        }
+    }
+
+    public int size() {
+        return depth.get();
+    }
+
+    /**
+     * Counters for monitoring
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("depth", depth.get());
+        metrics.put("targetSize", targetSize);
+        metrics.put("hits", hits.get());
+        metrics.put("misses", misses.get());
+        metrics.put("generated", generated.get());
+        return metrics;
+    }
+
+    private KeyPair generate() {
+        KeyPair keyPair = GENERATOR.get().generateKeyPair();
+        generated.incrementAndGet();
+        return keyPair;
+    }
+}
@@ -5,13 +5,21 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.Cipher;
+import javax.crypto.CipherInputStream;
+import javax.crypto.CipherOutputStream;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
-import java.nio.ByteBuffer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.MessageDigest;
 import java.security.SecureRandom;
+import java.util.Arrays;
 import java.util.Base64;
+import java.util.HexFormat;
 
 @Component
 public class EncryptionUtil {
@@ -21,8 +29,15 @@ public class EncryptionUtil {
     private static final int GCM_IV_LENGTH = 12;
     private static final int GCM_TAG_LENGTH = 128; // in bits
 
-    // Simple boolean to control logging
-    private static boolean logEnabled = true;
+    // Shared, thread-safe IV source
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    // Cipher lookup is costly and Cipher is not thread-safe, so each thread keeps its own for the
+    // one-shot encrypt/decrypt calls. Streams get a Cipher of their own (see newCipher).
+    private static final ThreadLocal<Cipher> CIPHER = ThreadLocal.withInitial(EncryptionUtil::newCipher);
+
+    // Payload logging (sizes and digests only, at DEBUG); off by default
+    private static volatile boolean logEnabled = false;
 
     /**
      * Derives an AES key from the ECDH shared secret using SHA-256
@@ -44,34 +59,25 @@ public class EncryptionUtil {
      */
     public String encrypt(String data, SecretKey key) {
         try {
-            if (logEnabled) {
-                logger.info("Encrypting data (plaintext): {}", data);
-            }
-
-            byte[] dataBytes = data.getBytes("UTF-8");
+            byte[] dataBytes = data.getBytes(StandardCharsets.UTF_8);
 
-            // Generate random IV
-            SecureRandom random = new SecureRandom();
+            // Random 96-bit IV; keys are per session, so collisions are not a practical concern
             byte[] iv = new byte[GCM_IV_LENGTH];
-            random.nextBytes(iv);
+            RANDOM.nextBytes(iv);
 
-            // Initialize cipher for encryption
-            Cipher cipher = Cipher.getInstance(ALGORITHM);
-            GCMParameterSpec gcmSpec = new GCMParameterSpec(GCM_TAG_LENGTH, iv);
-            cipher.init(Cipher.ENCRYPT_MODE, key, gcmSpec);
+            Cipher cipher = CIPHER.get();
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(GCM_TAG_LENGTH, iv));
 
-            // Encrypt
-            byte[] encryptedData = cipher.doFinal(dataBytes);
+            // Write IV and ciphertext into one buffer instead of concatenating afterwards
+            byte[] output = new byte[GCM_IV_LENGTH + cipher.getOutputSize(dataBytes.length)];
+            System.arraycopy(iv, 0, output, 0, GCM_IV_LENGTH);
+            int written = cipher.doFinal(dataBytes, 0, dataBytes.length, output, GCM_IV_LENGTH);
 
-            // Concatenate IV and encrypted data
-            ByteBuffer byteBuffer = ByteBuffer.allocate(iv.length + encryptedData.length);
-            byteBuffer.put(iv);
-            byteBuffer.put(encryptedData);
-
-            String result = Base64.getEncoder().encodeToString(byteBuffer.array());
+            String result = Base64.getEncoder().encodeToString(
+                    written + GCM_IV_LENGTH == output.length ? output : Arrays.copyOf(output, written + GCM_IV_LENGTH));
 
             if (logEnabled) {
-                logger.info("Encrypted data (ciphertext): {}", result);
+                logger.debug("Encrypted {} bytes into {} chars (sha256 {})", dataBytes.length, result.length(), digestOf(dataBytes));
             }
 
             return result;
@@ -86,38 +92,78 @@ public class EncryptionUtil {
      */
     public String decrypt(String encryptedData, SecretKey key) {
         try {
+            byte[] encryptedBytes = Base64.getDecoder().decode(encryptedData);
+            if (encryptedBytes.length < GCM_IV_LENGTH) {
+                throw new IllegalArgumentException("Encrypted payload is too short");
+            }
+
+            // IV and ciphertext are read in place from the decoded buffer
+            Cipher cipher = CIPHER.get();
+            cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(GCM_TAG_LENGTH, encryptedBytes, 0, GCM_IV_LENGTH));
+            byte[] decryptedData = cipher.doFinal(encryptedBytes, GCM_IV_LENGTH, encryptedBytes.length - GCM_IV_LENGTH);
+
             if (logEnabled) {
-                logger.info("Decrypting data (ciphertext): {}", encryptedData);
+                logger.debug("Decrypted {} chars into {} bytes (sha256 {})", encryptedData.length(), decryptedData.length, digestOf(decryptedData));
             }
 
-            byte[] encryptedBytes = Base64.getDecoder().decode(encryptedData);
+            return new String(decryptedData, StandardCharsets.UTF_8);
+        } catch (Exception e) {
+            logger.error("Error decrypting data: {}", e.getMessage());
+            throw new RuntimeException("Error decrypting data", e);
+        }
+    }
 
-            // Extract IV
-            ByteBuffer byteBuffer = ByteBuffer.wrap(encryptedBytes);
-            byte[] iv = new byte[GCM_IV_LENGTH];
-            byteBuffer.get(iv);
+    /**
+     * Wraps an output stream so that everything written to it is encrypted and Base64 encoded in
+     * the same format as {@link #encrypt}. Closing the returned stream writes the GCM tag and the
+     * Base64 padding, and closes {@code out}. The stream owns its Cipher, so encrypt/decrypt calls
+     * made while it is open (e.g. by a serializer writing into it) cannot reset it.
+     */
+    public OutputStream encryptingStream(OutputStream out, SecretKey key) throws GeneralSecurityException, IOException {
+        byte[] iv = new byte[GCM_IV_LENGTH];
+        RANDOM.nextBytes(iv);
 
-            // Extract cipher text
-            byte[] cipherText = new byte[byteBuffer.remaining()];
-            byteBuffer.get(cipherText);
+        Cipher cipher = newCipher();
+        cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(GCM_TAG_LENGTH, iv));
 
-            // Initialize cipher for decryption
-            Cipher cipher = Cipher.getInstance(ALGORITHM);
-            GCMParameterSpec gcmSpec = new GCMParameterSpec(GCM_TAG_LENGTH, iv);
-            cipher.init(Cipher.DECRYPT_MODE, key, gcmSpec);
+        OutputStream base64 = Base64.getEncoder().wrap(out);
+        base64.write(iv);
+        return new CipherOutputStream(base64, cipher);
+    }
 
-            // Decrypt
-            byte[] decryptedData = cipher.doFinal(cipherText);
-            String result = new String(decryptedData, "UTF-8");
+    /**
+     * Wraps a stream of Base64 text produced by {@link #encrypt} (or by a client using the same
+     * format) and returns the decrypted bytes. Like {@link #encryptingStream}, it owns its Cipher.
+     */
+    public InputStream decryptingStream(InputStream in, SecretKey key) throws GeneralSecurityException, IOException {
+        InputStream decoded = Base64.getDecoder().wrap(in);
+        byte[] iv = decoded.readNBytes(GCM_IV_LENGTH);
+        if (iv.length < GCM_IV_LENGTH) {
+            throw new IOException("Encrypted payload is too short");
+        }
 
-            if (logEnabled) {
-                logger.info("Decrypted data (plaintext): {}", result);
-            }
+        Cipher cipher = newCipher();
+        cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(GCM_TAG_LENGTH, iv));
+        return new CipherInputStream(decoded, cipher);
+    }
 
-            return result;
+    private static Cipher newCipher() {
+        try {
+            return Cipher.getInstance(ALGORITHM);
         } catch (Exception e) {
-            logger.error("Error decrypting data: {}", e.getMessage());
-            throw new RuntimeException("Error decrypting data", e);
+            throw new IllegalStateException("AES-GCM is not available", e);
+        }
+    }
+
+    /**
+     * Short SHA-256 fingerprint of a payload, so logs can correlate messages without their content
+     */
+    private static String digestOf(byte[] data) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(data);
+            return HexFormat.of().formatHex(hash, 0, 8);
+        } catch (Exception e) {
+            return "n/a";
         }
     }
 
@@ -0,0 +1,86 @@
+package com.backend.streetmed_backend.security;
+
+/**
+ * Short-lived codes (password recovery OTPs, reset tokens), each stored under a namespace and key
+ * with optional attached data. Codes are kept as keyed hashes ({@link CodeHasher}) and compared in constant time.
+ * Wrong guesses are counted per key, not per code: the count carries over when a new code is
+ * issued for the key and only resets once the attempt window (the lifetime of the first code
+ * issued in it) ends or a code is verified. After auth.code.max-attempts failures the key is
+ * locked for the rest of the window. Implementations are selected with auth.code.store
+ * ("memory" or "database").
+ */
+public interface ExpiringCodeStore {
+
+    enum Status {
+        VALID,
+        INVALID,
+        EXPIRED, // also returned for unknown keys
+        LOCKED
+    }
+
+    /**
+     * Outcome of a {@link #verify} call; data is only set when the code was valid
+     */
+    final class Verification {
+        private final Status status;
+        private final String data;
+        private final int remainingAttempts;
+
+        public Verification(Status status, String data, int remainingAttempts) {
+            this.status = status;
+            this.data = data;
+            this.remainingAttempts = remainingAttempts;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public boolean isValid() {
+            return status == Status.VALID;
+        }
+
+        public String getData() {
+            return data;
+        }
+
+        public int getRemainingAttempts() {
+            return remainingAttempts;
+        }
+    }
+
+    /**
+     * Store a code, replacing any previous one for the key (its failed attempts are kept)
+     */
+    void put(String namespace, String key, String code, String data, long ttlMillis);
+
+    /**
+     * Check a code; a valid code is consumed, a wrong one uses up an attempt for the key
+     */
+    Verification verify(String namespace, String key, String code);
+
+    /**
+     * @return the data of the live entry, or null if unknown or expired (no attempt is counted)
+     */
+    String find(String namespace, String key);
+
+    /**
+     * Remove the live entry and return its data in one atomic step, so two concurrent callers
+     * cannot both use it (e.g. a reset token)
+     *
+     * @return the data of the entry, or null if unknown, expired or already consumed
+     */
+    String consume(String namespace, String key);
+
+    void remove(String namespace, String key);
+
+    /**
+     * Live entries in the namespace
+     */
+    long count(String namespace);
+
+    /**
+     * Whether every instance of the application sees the same codes
+     */
+    boolean isShared();
+}
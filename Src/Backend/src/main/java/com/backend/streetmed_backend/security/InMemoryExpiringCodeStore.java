@@ -0,0 +1,194 @@
+package com.backend.streetmed_backend.security;
+
+import com.backend.streetmed_backend.util.TimerWheel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Default code store: entries live in this JVM and expire through a timer wheel.
+ * An entry outlives its code while it still carries failed attempts for the key.
+ * The number of entries is capped so a flood of recovery requests cannot exhaust memory.
+ */
+@Component
+@ConditionalOnProperty(name = "auth.code.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryExpiringCodeStore implements ExpiringCodeStore {
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryExpiringCodeStore.class);
+
+    private final Map<String, CodeEntry> entries = new ConcurrentHashMap<>();
+    // 10 s ticks, 512 slots: one turn covers the 15 and 30 minute lifetimes in use
+    private final TimerWheel<String> expiryWheel = new TimerWheel<>(10_000, 512, System.currentTimeMillis());
+    private final CodeHasher codeHasher;
+    private final int maxAttempts;
+    private final int maxEntries;
+
+    public InMemoryExpiringCodeStore(CodeHasher codeHasher,
+                                     @Value("${auth.code.max-attempts:5}") int maxAttempts,
+                                     @Value("${auth.code.max-entries:100000}") int maxEntries) {
+        this.codeHasher = codeHasher;
+        this.maxAttempts = maxAttempts;
+        this.maxEntries = maxEntries;
+    }
+
+    @Override
+    public void put(String namespace, String key, String code, String data, long ttlMillis) {
+        String entryKey = entryKey(namespace, key);
+        if (entries.size() >= maxEntries && !entries.containsKey(entryKey)) {
+            expireCodes();
+            if (entries.size() >= maxEntries) {
+                throw new RuntimeException("Too many pending codes, please try again later");
+            }
+        }
+        long now = System.currentTimeMillis();
+        long expiresAt = now + ttlMillis;
+        String codeHash = code != null ? codeHasher.hash(code) : null;
+        CodeEntry entry = entries.compute(entryKey, (k, previous) -> {
+            // Failed attempts stay with the key until their window ends, so re-issuing gives no fresh guesses
+            if (previous != null && previous.attempts > 0 && now < previous.attemptsExpireAtMillis) {
+                return new CodeEntry(codeHash, data, expiresAt, previous.attempts, previous.attemptsExpireAtMillis);
+            }
+            return new CodeEntry(codeHash, data, expiresAt, 0, expiresAt);
+        });
+        expiryWheel.schedule(entryKey, entry.removableAtMillis());
+    }
+
+    @Override
+    public Verification verify(String namespace, String key, String code) {
+        long now = System.currentTimeMillis();
+        Verification[] result = new Verification[1];
+        // compute() serializes concurrent guesses for the same key
+        entries.compute(entryKey(namespace, key), (entryKey, entry) -> {
+            if (entry == null || entry.isRemovable(now)) {
+                result[0] = new Verification(Status.EXPIRED, null, 0);
+                return null;
+            }
+            if (entry.attempts >= maxAttempts) {
+                result[0] = new Verification(Status.LOCKED, null, 0);
+                return entry;
+            }
+            if (!entry.isCodeLive(now)) {
+                result[0] = new Verification(Status.EXPIRED, null, 0);
+                return entry;
+            }
+            if (entry.codeHash != null && code != null && codeHasher.matches(entry.codeHash, code)) {
+                result[0] = new Verification(Status.VALID, entry.data, 0);
+                return null;
+            }
+            int attempts = entry.attempts + 1;
+            if (attempts >= maxAttempts) {
+                result[0] = new Verification(Status.LOCKED, null, 0);
+                // Drop the code but remember the lock until the attempt window ends
+                return new CodeEntry(null, null, now, attempts, entry.attemptsExpireAtMillis);
+            }
+            result[0] = new Verification(Status.INVALID, null, maxAttempts - attempts);
+            return new CodeEntry(entry.codeHash, entry.data, entry.expiresAtMillis, attempts, entry.attemptsExpireAtMillis);
+        });
+        return result[0];
+    }
+
+    @Override
+    public String find(String namespace, String key) {
+        String entryKey = entryKey(namespace, key);
+        CodeEntry entry = entries.get(entryKey);
+        if (entry == null) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        if (entry.isRemovable(now)) {
+            entries.remove(entryKey, entry);
+            return null;
+        }
+        return entry.isCodeLive(now) ? entry.data : null;
+    }
+
+    @Override
+    public String consume(String namespace, String key) {
+        long now = System.currentTimeMillis();
+        String[] data = new String[1];
+        entries.computeIfPresent(entryKey(namespace, key), (entryKey, entry) -> {
+            if (entry.isCodeLive(now)) {
+                data[0] = entry.data;
+                return null;
+            }
+            return entry.isRemovable(now) ? null : entry;
+        });
+        return data[0];
+    }
+
+    @Override
+    public void remove(String namespace, String key) {
+        entries.remove(entryKey(namespace, key));
+    }
+
+    @Override
+    public long count(String namespace) {
+        String prefix = namespace + ":";
+        long now = System.currentTimeMillis();
+        return entries.entrySet().stream()
+                .filter(e -> e.getKey().startsWith(prefix) && e.getValue().isCodeLive(now))
+                .count();
+    }
+
+    @Override
+    public boolean isShared() {
+        return false;
+    }
+
+    /**
+     * Drop entries whose slot on the wheel has come due (every 10 seconds)
+     */
+    @Scheduled(fixedDelay = 10000)
+    public void expireCodes() {
+        long now = System.currentTimeMillis();
+        int expired = 0;
+        for (String entryKey : expiryWheel.advance(now)) {
+            CodeEntry entry = entries.get(entryKey);
+            // The code may have been used or re-issued since it was scheduled
+            if (entry != null && entry.isRemovable(now) && entries.remove(entryKey, entry)) {
+                expired++;
+            }
+        }
+        if (expired > 0) {
+            logger.debug("Expired {} codes, {} live", expired, entries.size());
+        }
+    }
+
+    private static String entryKey(String namespace, String key) {
+        return namespace + ":" + key;
+    }
+
+    private static class CodeEntry {
+        final String codeHash;
+        final String data;
+        final long expiresAtMillis;
+        final int attempts;
+        final long attemptsExpireAtMillis;
+
+        CodeEntry(String codeHash, String data, long expiresAtMillis, int attempts, long attemptsExpireAtMillis) {
+            this.codeHash = codeHash;
+            this.data = data;
+            this.expiresAtMillis = expiresAtMillis;
+            this.attempts = attempts;
+            this.attemptsExpireAtMillis = attemptsExpireAtMillis;
+        }
+
+        boolean isCodeLive(long nowMillis) {
+            return nowMillis < expiresAtMillis;
+        }
+
+        // Neither the code nor the attempt count is needed any more
+        boolean isRemovable(long nowMillis) {
+            return nowMillis >= removableAtMillis();
+        }
+
+        long removableAtMillis() {
+            return Math.max(expiresAtMillis, attemptsExpireAtMillis);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.backend.streetmed_backend.security;
+
+import com.backend.streetmed_backend.util.TimerWheel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Default token store: one record per token in this JVM, expired through a timer wheel.
+ * Tokens are not shared between instances and do not survive a restart.
+ */
+@Component
+@ConditionalOnProperty(name = "auth.token.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryTokenStore implements TokenStore {
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryTokenStore.class);
+
+    private final Map<String, TokenRecord> tokens = new ConcurrentHashMap<>();
+    private final TimerWheel<String> expiryWheel = new TimerWheel<>(60_000, 512, System.currentTimeMillis());
+    private final long ttlMillis;
+
+    public InMemoryTokenStore(@Value("${auth.token.ttl-minutes:1440}") long ttlMinutes) {
+        this.ttlMillis = ttlMinutes * 60_000;
+    }
+
+    @Override
+    public void store(String token, Integer userId, String role) {
+        long expiresAt = System.currentTimeMillis() + ttlMillis;
+        tokens.put(token, new TokenRecord(userId, role, expiresAt));
+        expiryWheel.schedule(token, expiresAt);
+    }
+
+    @Override
+    public TokenRecord find(String token) {
+        TokenRecord record = tokens.get(token);
+        if (record == null) {
+            return null;
+        }
+        if (record.isExpired(System.currentTimeMillis())) {
+            tokens.remove(token, record);
+            return null;
+        }
+        return record;
+    }
+
+    @Override
+    public void remove(String token) {
+        tokens.remove(token);
+    }
+
+    @Override
+    public boolean isShared() {
+        return false;
+    }
+
+    /**
+     * Drop tokens whose slot on the wheel has come due (every minute)
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void expireTokens() {
+        long now = System.currentTimeMillis();
+        int expired = 0;
+        for (String token : expiryWheel.advance(now)) {
+            TokenRecord record = tokens.get(token);
+            // The token may have been removed or re-issued since it was scheduled
+            if (record != null && record.isExpired(now) && tokens.remove(token, record)) {
+                expired++;
+            }
+        }
+        if (expired > 0) {
+            logger.debug("Expired {} auth tokens, {} live", expired, tokens.size());
+        }
+    }
+
+    public int size() {
+        return tokens.size();
+    }
+}
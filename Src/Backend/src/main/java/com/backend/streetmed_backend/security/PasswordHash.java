@@ -1,21 +1,241 @@
 package com.backend.streetmed_backend.security;
 
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Component;
 
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * BCrypt hashing on a dedicated pool sized to the CPU count, so a burst of logins cannot
+ * occupy the auth executor's threads with hashing and starve token checks.
+ * Request paths use {@link #hashAsync(String)} and {@link #verifyAsync(String, String)} and
+ * compose on the result, so no caller thread waits while BCrypt runs.
+ * The queue is bounded: when it is full, the returned future fails fast with "Server is too busy".
+ * At startup the BCrypt cost is calibrated to the target verification time on this host,
+ * unless {@code security.password.bcrypt.cost} pins it. {@link #needsRehash(String)} tells
+ * callers when a stored hash was made with a lower cost.
+ */
 @Component
 public class PasswordHash {
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHash.class);
+
+    private static final int MIN_COST = 10; // BCryptPasswordEncoder default; never calibrate below it
+    private static final int MAX_COST = 14;
+    private static final int CALIBRATION_ROUNDS = 3;
+
     private final BCryptPasswordEncoder passwordEncoder;
+    private final int cost;
+    private final ThreadPoolExecutor hashingExecutor;
+
+    private final OperationStats hashStats = new OperationStats();
+    private final OperationStats verifyStats = new OperationStats();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public PasswordHash(@Value("${security.password.bcrypt.cost:0}") int configuredCost,
+                        @Value("${security.password.bcrypt.target-ms:100}") long targetMillis,
+                        @Value("${security.password.hashing.queue-capacity:64}") int queueCapacity) {
+        this.cost = configuredCost > 0 ? configuredCost : calibrate(targetMillis);
+        this.passwordEncoder = new BCryptPasswordEncoder(cost);
 
-    public PasswordHash() {
-        this.passwordEncoder = new BCryptPasswordEncoder();
+        int threads = Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.hashingExecutor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "PasswordHash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, (r, e) -> {
+                    rejected.incrementAndGet();
+                    throw new RejectedExecutionException("Server is too busy, please try again later");
+                });
+        logger.info("Password hashing: BCrypt cost {}, {} threads, queue capacity {}", cost, threads, queueCapacity);
     }
 
+    /**
+     * Hash on the hashing pool; the future completes on a hashing thread
+     */
+    public CompletableFuture<String> hashAsync(String plainTextPassword) {
+        return submit(hashStats, () -> passwordEncoder.encode(plainTextPassword));
+    }
+
+    /**
+     * Verify on the hashing pool; the future completes on a hashing thread
+     */
+    public CompletableFuture<Boolean> verifyAsync(String plainTextPassword, String hashedPassword) {
+        return submit(verifyStats, () -> passwordEncoder.matches(plainTextPassword, hashedPassword));
+    }
+
+    /**
+     * Blocking form of {@link #hashAsync(String)} for callers off the login path (admin tools, startup)
+     */
     public String hashPassword(String plainTextPassword) {
-        return passwordEncoder.encode(plainTextPassword);
+        return join(hashAsync(plainTextPassword));
     }
 
+    /**
+     * Blocking form of {@link #verifyAsync(String, String)} for callers off the login path
+     */
     public boolean verifyPassword(String plainTextPassword, String hashedPassword) {
-        return passwordEncoder.matches(plainTextPassword, hashedPassword);
+        return join(verifyAsync(plainTextPassword, hashedPassword));
+    }
+
+    /**
+     * Hash on the calling thread, for batch jobs that run on their own bounded pool
+     * and must not compete with logins for the hashing queue
+     */
+    public String hashPasswordOnCurrentThread(String plainTextPassword) {
+        long start = System.nanoTime();
+        try {
+            return passwordEncoder.encode(plainTextPassword);
+        } finally {
+            hashStats.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Whether the hash should be replaced with one made at the current cost.
+     * Only lower costs are upgraded: instances calibrated to different costs would otherwise
+     * keep rehashing the same users back and forth.
+     */
+    public boolean needsRehash(String hashedPassword) {
+        int hashCost = costOf(hashedPassword);
+        return hashCost > 0 && hashCost < cost;
+    }
+
+    /**
+     * Whether the value looks like a BCrypt hash ($2a$, $2b$ or $2y$ with a cost)
+     */
+    public static boolean isBCryptHash(String value) {
+        return costOf(value) > 0;
+    }
+
+    public int getCost() {
+        return cost;
+    }
+
+    public int getQueueDepth() {
+        return hashingExecutor.getQueue().size();
+    }
+
+    /**
+     * Latency and queue figures for monitoring
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("cost", cost);
+        metrics.put("poolSize", hashingExecutor.getPoolSize());
+        metrics.put("activeThreads", hashingExecutor.getActiveCount());
+        metrics.put("queueDepth", hashingExecutor.getQueue().size());
+        metrics.put("rejected", rejected.get());
+        metrics.put("hash", hashStats.snapshot());
+        metrics.put("verify", verifyStats.snapshot());
+        return metrics;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashingExecutor.shutdown();
+    }
+
+    private <T> CompletableFuture<T> submit(OperationStats stats, Supplier<T> operation) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                long start = System.nanoTime();
+                try {
+                    return operation.get();
+                } finally {
+                    stats.record(System.nanoTime() - start);
+                }
+            }, hashingExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Smallest cost whose median verification time reaches the target
+     */
+    private static int calibrate(long targetMillis) {
+        int calibrated = MIN_COST;
+        while (calibrated < MAX_COST && medianMillis(calibrated) < targetMillis) {
+            calibrated++;
+        }
+        return calibrated;
+    }
+
+    private static long medianMillis(int cost) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(cost);
+        String hash = encoder.encode("calibration-password");
+        long[] samples = new long[CALIBRATION_ROUNDS];
+        for (int i = 0; i < CALIBRATION_ROUNDS; i++) {
+            long start = System.nanoTime();
+            encoder.matches("calibration-password", hash);
+            samples[i] = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        }
+        Arrays.sort(samples);
+        return samples[CALIBRATION_ROUNDS / 2];
+    }
+
+    // "$2a$10$..." -> 10; 0 if the value is not a BCrypt hash
+    private static int costOf(String hash) {
+        if (hash == null || hash.length() < 7 || hash.charAt(0) != '$' || hash.charAt(1) != '2'
+                || hash.charAt(3) != '$' || hash.charAt(6) != '$') {
+            return 0;
+        }
+        char variant = hash.charAt(2);
+        char tens = hash.charAt(4);
+        char units = hash.charAt(5);
+        if ((variant != 'a' && variant != 'b' && variant != 'y')
+                || !Character.isDigit(tens) || !Character.isDigit(units)) {
+            return 0;
+        }
+        return (tens - '0') * 10 + (units - '0');
+    }
+
+    private static class OperationStats {
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong totalNanos = new AtomicLong();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        void record(long nanos) {
+            count.incrementAndGet();
+            totalNanos.addAndGet(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        Map<String, Object> snapshot() {
+            long n = count.get();
+            Map<String, Object> snapshot = new HashMap<>();
+            snapshot.put("count", n);
+            snapshot.put("avgMillis", n == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalNanos.get() / n));
+            snapshot.put("maxMillis", TimeUnit.NANOSECONDS.toMillis(maxNanos.get()));
+            return snapshot;
+        }
     }
-}
\ No newline at end of file
+}
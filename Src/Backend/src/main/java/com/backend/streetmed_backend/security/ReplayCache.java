@@ -0,0 +1,73 @@
+package com.backend.streetmed_backend.security;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers recently accepted requests, by client id and timestamp, so a captured request cannot
+ * be replayed while its timestamp is still inside the tolerance window.
+ * Entries are filed by the request timestamp into a ring of fixed-width buckets covering the
+ * window; a bucket is cleared when the ring wraps onto it, so there is no sweep and each check
+ * is O(1). Each bucket holds at most {@code maxPerBucket} entries.
+ */
+class ReplayCache {
+    private final long bucketMillis;
+    private final int maxPerBucket;
+    private final Bucket[] ring;
+
+    ReplayCache(long windowMillis, long bucketMillis, int maxPerBucket) {
+        this.bucketMillis = bucketMillis;
+        this.maxPerBucket = maxPerBucket;
+        // Tolerance applies on both sides of now, plus one bucket for the edges
+        int slots = (int) (2 * windowMillis / bucketMillis) + 2;
+        this.ring = new Bucket[slots];
+        for (int i = 0; i < slots; i++) {
+            ring[i] = new Bucket();
+        }
+    }
+
+    /**
+     * Record the request if it has not been seen yet
+     * @return true if the request is new, false if it is a replay or the bucket is full
+     */
+    boolean markIfNew(String clientId, long timestamp) {
+        long epoch = Math.floorDiv(timestamp, bucketMillis);
+        Bucket bucket = ring[(int) Math.floorMod(epoch, (long) ring.length)];
+        Set<String> seen = bucket.entriesFor(epoch);
+        if (seen == null) {
+            // The slot already holds a newer window; the timestamp is too old to be accepted
+            return false;
+        }
+        if (seen.size() >= maxPerBucket) {
+            return false;
+        }
+        return seen.add(clientId + ':' + timestamp);
+    }
+
+    int size() {
+        int total = 0;
+        for (Bucket bucket : ring) {
+            total += bucket.entries.size();
+        }
+        return total;
+    }
+
+    private static class Bucket {
+        private volatile long epoch = Long.MIN_VALUE;
+        private volatile Set<String> entries = ConcurrentHashMap.newKeySet();
+
+        Set<String> entriesFor(long requestedEpoch) {
+            long current = epoch;
+            if (current == requestedEpoch) {
+                return entries;
+            }
+            synchronized (this) {
+                if (epoch < requestedEpoch) {
+                    entries = ConcurrentHashMap.newKeySet();
+                    epoch = requestedEpoch;
+                }
+                return epoch == requestedEpoch ? entries : null;
+            }
+        }
+    }
+}
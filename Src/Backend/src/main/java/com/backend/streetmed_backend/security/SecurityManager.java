@@ -1,10 +1,10 @@
 package com.backend.streetmed_backend.security;
 
+import com.backend.streetmed_backend.config.AppMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
@@ -22,14 +22,12 @@ public class SecurityManager {
     private final ECDHService ecdhService;
     private final EncryptionUtil encryptionUtil;
 
-    // Store derived session keys
-    private final Map<String, SecretKey> sessionKeys = new ConcurrentHashMap<>();
-
-    // Map to track when sessions were created (or last used)
-    private final Map<String, Long> sessionTimestamps = new ConcurrentHashMap<>();
-
-    // Session attributes storage
-    private final Map<String, Map<String, Object>> sessionAttributes = new ConcurrentHashMap<>();
+    // Derived keys, attributes and expiry for every session
+    private final SessionRegistry sessionRegistry;
+    private final EcdhKeyPairPool keyPairPool;
+    private final ClientSignatureVerifier signatureVerifier;
+    private final PasswordHash passwordHash;
+    private final AppMetrics appMetrics;
 
     // Configuration for migration
     @Value("${security.use.custom.encryption:true}")
@@ -38,12 +36,18 @@ public class SecurityManager {
     @Value("${server.ssl.enabled:false}")
     private boolean tlsEnabled;
 
-    private static final long SESSION_TIMEOUT_MILLIS = 30 * 60 * 1000; // 30 minutes
-
     @Autowired
-    public SecurityManager(ECDHService ecdhService, EncryptionUtil encryptionUtil) {
+    public SecurityManager(ECDHService ecdhService, EncryptionUtil encryptionUtil,
+                           SessionRegistry sessionRegistry, EcdhKeyPairPool keyPairPool,
+                           ClientSignatureVerifier signatureVerifier, PasswordHash passwordHash,
+                           AppMetrics appMetrics) {
         this.ecdhService = ecdhService;
         this.encryptionUtil = encryptionUtil;
+        this.sessionRegistry = sessionRegistry;
+        this.keyPairPool = keyPairPool;
+        this.signatureVerifier = signatureVerifier;
+        this.passwordHash = passwordHash;
+        this.appMetrics = appMetrics;
         logger.info("SecurityManager initialized - Custom Encryption: {}, TLS: {}",
                 useCustomEncryption, tlsEnabled);
     }
@@ -56,7 +60,7 @@ public class SecurityManager {
             // In TLS-only mode, sessions are always "ready"
             return true;
         }
-        return sessionKeys.containsKey(sessionId);
+        return sessionKey(sessionId) != null;
     }
 
     /**
@@ -66,7 +70,7 @@ public class SecurityManager {
         if (!useCustomEncryption) {
             return null; // No key needed in TLS-only mode
         }
-        return sessionKeys.get(sessionId);
+        return sessionKey(sessionId);
     }
 
     /**
@@ -76,15 +80,17 @@ public class SecurityManager {
     public void completeHandshake(String sessionId, String clientPublicKey) {
         if (!useCustomEncryption) {
             logger.debug("Skipping handshake in TLS-only mode for session: {}", sessionId);
-            sessionTimestamps.put(sessionId, System.currentTimeMillis());
+            sessionRegistry.getOrCreate(sessionId);
             return;
         }
 
         try {
-            String sharedSecret = ecdhService.computeSharedSecret(sessionId, clientPublicKey);
-            SecretKey key = encryptionUtil.deriveKey(sharedSecret);
-            sessionKeys.put(sessionId, key);
-            sessionTimestamps.put(sessionId, System.currentTimeMillis());
+            appMetrics.time("security.handshake", AppMetrics.NO_ROLE, () -> {
+                String sharedSecret = ecdhService.computeSharedSecret(sessionId, clientPublicKey);
+                SecretKey key = encryptionUtil.deriveKey(sharedSecret);
+                sessionRegistry.completeHandshake(sessionId, key);
+                return key;
+            });
             logger.info("Handshake completed and session key derived for session: {}", sessionId);
         } catch (Exception e) {
             logger.error("Failed to complete handshake: {}", e.getMessage(), e);
@@ -102,7 +108,7 @@ public class SecurityManager {
             return data;
         }
 
-        SecretKey key = sessionKeys.get(sessionId);
+        SecretKey key = sessionKey(sessionId);
         if (key == null) {
             logger.error("No key found for session: {}", sessionId);
             throw new IllegalStateException("Session key not found: " + sessionId);
@@ -120,7 +126,7 @@ public class SecurityManager {
             return encryptedData;
         }
 
-        SecretKey key = sessionKeys.get(sessionId);
+        SecretKey key = sessionKey(sessionId);
         if (key == null) {
             logger.error("No key found for session: {}", sessionId);
             throw new IllegalStateException("Session key not found: " + sessionId);
@@ -132,30 +138,23 @@ public class SecurityManager {
      * Store session attribute
      */
     public void setSessionAttribute(String sessionId, String key, Object value) {
-        sessionAttributes.computeIfAbsent(sessionId, k -> new ConcurrentHashMap<>())
-                .put(key, value);
-        // Update last access time
-        sessionTimestamps.put(sessionId, System.currentTimeMillis());
+        // Also updates the session's last access time
+        sessionRegistry.getOrCreate(sessionId).setAttribute(key, value);
     }
 
     /**
      * Get session attribute
      */
     public Object getSessionAttribute(String sessionId, String key) {
-        Map<String, Object> attrs = sessionAttributes.get(sessionId);
-        return attrs != null ? attrs.get(key) : null;
+        SessionRegistry.Session session = sessionRegistry.get(sessionId);
+        return session != null ? session.getAttribute(key) : null;
     }
 
     /**
      * Removes all data associated with a session.
      */
     public void removeSession(String sessionId) {
-        sessionKeys.remove(sessionId);
-        sessionTimestamps.remove(sessionId);
-        sessionAttributes.remove(sessionId);
-        if (useCustomEncryption) {
-            ecdhService.removeKeyPair(sessionId);
-        }
+        sessionRegistry.remove(sessionId);
         logger.info("Session data removed for session: {}", sessionId);
     }
 
@@ -187,29 +186,17 @@ public class SecurityManager {
         Map<String, Object> status = new ConcurrentHashMap<>();
         status.put("customEncryptionEnabled", useCustomEncryption);
         status.put("tlsEnabled", tlsEnabled);
-        status.put("activeSessions", sessionKeys.size());
+        status.put("activeSessions", sessionRegistry.size());
+        status.put("sessions", sessionRegistry.getMetrics());
+        status.put("ecdhKeyPool", keyPairPool.getMetrics());
+        status.put("clientSignatures", signatureVerifier.getMetrics());
+        status.put("passwordHashing", passwordHash.getMetrics());
         status.put("mode", useCustomEncryption ? "HYBRID" : "TLS_ONLY");
         return status;
     }
 
-    /**
-     * Scheduled cleanup task that runs every 5 minutes
-     * to remove sessions that have exceeded the timeout.
-     */
-    @Scheduled(fixedRate = 5 * 60 * 1000) // every 5 minutes
-    public void cleanupExpiredSessions() {
-        long currentTime = System.currentTimeMillis();
-        int cleanedCount = 0;
-
-        for (Map.Entry<String, Long> entry : sessionTimestamps.entrySet()) {
-            if (currentTime - entry.getValue() > SESSION_TIMEOUT_MILLIS) {
-                removeSession(entry.getKey());
-                cleanedCount++;
-            }
-        }
-
-        if (cleanedCount > 0) {
-            logger.info("Cleaned up {} expired sessions", cleanedCount);
-        }
+    private SecretKey sessionKey(String sessionId) {
+        SessionRegistry.Session session = sessionRegistry.get(sessionId);
+        return session != null ? session.getSecretKey() : null;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,302 @@
+package com.backend.streetmed_backend.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.backend.streetmed_backend.util.TimerWheel;
+
+import javax.crypto.SecretKey;
+import java.security.KeyPair;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Single home for handshake/encryption session state (ECDH key pair, derived key, client id,
+ * attributes), shared by ECDHService, SecurityManager and ClientAuthenticationService.
+ * Lookups go straight to a ConcurrentHashMap and mark the session as used by writing its
+ * volatile last-access time, so request threads never wait on each other. Each session sits on a
+ * timer wheel at its idle deadline and is re-checked lazily when that slot comes due, so the sweep
+ * only looks at sessions that may have expired. When the cap is hit, sessions are evicted from the
+ * head of a creation-order queue, giving a second chance to those used since they were last passed
+ * over (CLOCK, an approximation of least recently used).
+ */
+@Component
+public class SessionRegistry {
+    private static final Logger logger = LoggerFactory.getLogger(SessionRegistry.class);
+
+    private static final long SESSION_TIMEOUT_MILLIS = 30 * 60 * 1000; // 30 minutes
+
+    private final int maxSessions;
+    private final ConcurrentHashMap<String, Session> sessions = new ConcurrentHashMap<>(256);
+    // 10 s ticks, 256 slots: one turn covers the 30 minute idle timeout
+    private final TimerWheel<Session> expiryWheel = new TimerWheel<>(10_000, 256, System.currentTimeMillis());
+    // Sessions in creation order; removed sessions stay queued until passed over or compacted away
+    private final Queue<Session> evictionQueue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    // Only one thread evicts at a time; the others go ahead while the cap is briefly exceeded
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    private final AtomicLong handshakesStarted = new AtomicLong();
+    private final AtomicLong handshakesCompleted = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+
+    public SessionRegistry(@Value("${security.session.max-sessions:10000}") int maxSessions) {
+        this.maxSessions = maxSessions;
+    }
+
+    /**
+     * State of one session; fields are set as the handshake progresses
+     */
+    public static class Session {
+        private final String id;
+        private volatile KeyPair keyPair;
+        private volatile SecretKey secretKey;
+        private volatile String clientId;
+        private volatile Map<String, Object> attributes;
+        private volatile long lastAccess;
+        // Set on use, cleared when the evictor passes the session over
+        private volatile boolean referenced;
+
+        Session(String id, long now) {
+            this.id = id;
+            this.lastAccess = now;
+        }
+
+        public KeyPair getKeyPair() {
+            return keyPair;
+        }
+
+        public SecretKey getSecretKey() {
+            return secretKey;
+        }
+
+        public String getClientId() {
+            return clientId;
+        }
+
+        public void setClientId(String clientId) {
+            this.clientId = clientId;
+        }
+
+        public Object getAttribute(String key) {
+            Map<String, Object> attrs = attributes;
+            return attrs != null ? attrs.get(key) : null;
+        }
+
+        public synchronized void setAttribute(String key, Object value) {
+            // Most sessions never store attributes, so the map is created on first use
+            if (attributes == null) {
+                attributes = new ConcurrentHashMap<>();
+            }
+            attributes.put(key, value);
+        }
+    }
+
+    /**
+     * Get the session and mark it as used, or null if unknown or expired
+     */
+    public Session get(String sessionId) {
+        if (sessionId == null) {
+            return null;
+        }
+        Session session = sessions.get(sessionId);
+        if (session == null) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        if (now - session.lastAccess > SESSION_TIMEOUT_MILLIS) {
+            if (sessions.remove(sessionId, session)) {
+                expirations.incrementAndGet();
+            }
+            return null;
+        }
+        touch(session, now);
+        return session;
+    }
+
+    /**
+     * Get the session, creating it if needed, and mark it as used
+     */
+    public Session getOrCreate(String sessionId) {
+        long now = System.currentTimeMillis();
+        Session session = sessions.get(sessionId);
+        if (session != null && now - session.lastAccess <= SESSION_TIMEOUT_MILLIS) {
+            touch(session, now);
+            return session;
+        }
+        Session[] created = new Session[1];
+        session = sessions.compute(sessionId, (id, current) -> {
+            if (current != null && now - current.lastAccess <= SESSION_TIMEOUT_MILLIS) {
+                touch(current, now);
+                return current;
+            }
+            created[0] = new Session(id, now);
+            return created[0];
+        });
+        if (created[0] != null) {
+            expiryWheel.schedule(created[0], now + SESSION_TIMEOUT_MILLIS);
+            evictionQueue.offer(created[0]);
+            queued.incrementAndGet();
+            if (sessions.size() > maxSessions) {
+                evictOverCap();
+            }
+        }
+        return session;
+    }
+
+    /**
+     * Start a handshake: store the server key pair for the session
+     */
+    public void startHandshake(String sessionId, KeyPair keyPair) {
+        getOrCreate(sessionId).keyPair = keyPair;
+        handshakesStarted.incrementAndGet();
+    }
+
+    /**
+     * Finish a handshake: keep the derived key and drop the key pair, which is no longer needed
+     */
+    public void completeHandshake(String sessionId, SecretKey secretKey) {
+        Session session = getOrCreate(sessionId);
+        session.secretKey = secretKey;
+        session.keyPair = null;
+        handshakesCompleted.incrementAndGet();
+    }
+
+    public void remove(String sessionId) {
+        sessions.remove(sessionId);
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    /**
+     * Counters for monitoring
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("liveSessions", size());
+        metrics.put("maxSessions", maxSessions);
+        metrics.put("handshakesStarted", handshakesStarted.get());
+        metrics.put("handshakesCompleted", handshakesCompleted.get());
+        metrics.put("evictions", evictions.get());
+        metrics.put("expirations", expirations.get());
+        return metrics;
+    }
+
+    /**
+     * Remove sessions whose slot on the wheel has come due and that are still idle (every 10 seconds)
+     */
+    @Scheduled(fixedDelay = 10000)
+    public void expireIdleSessions() {
+        long now = System.currentTimeMillis();
+        int expired = 0;
+        for (Session session : expiryWheel.advance(now)) {
+            if (sessions.get(session.id) != session) {
+                // Already removed, evicted or replaced; its replacement has its own wheel entry
+                continue;
+            }
+            long deadline = session.lastAccess + SESSION_TIMEOUT_MILLIS;
+            if (deadline > now) {
+                // Used since it was scheduled: move it to its current deadline
+                expiryWheel.schedule(session, deadline);
+            } else if (sessions.remove(session.id, session)) {
+                expired++;
+            }
+        }
+        if (expired > 0) {
+            expirations.addAndGet(expired);
+            logger.info("Cleaned up {} expired sessions", expired);
+        }
+        // Drop removed sessions from the eviction queue once they make up most of it
+        if (queued.get() > 2 * sessions.size() + 64) {
+            compactEvictionQueue();
+        }
+    }
+
+    // Only write the shared fields when they change, so hot sessions are not written on every read
+    private static void touch(Session session, long now) {
+        if (session.lastAccess != now) {
+            session.lastAccess = now;
+        }
+        if (!session.referenced) {
+            session.referenced = true;
+        }
+    }
+
+    private boolean isLive(Session session) {
+        return sessions.get(session.id) == session;
+    }
+
+    /**
+     * Evict down to 90% of the cap, so a steady stream of new sessions at the cap pays for the
+     * eviction once per batch rather than once per session. Sessions are taken from the head of the
+     * queue; one used since it was last passed over goes back to the tail instead.
+     */
+    private void evictOverCap() {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            int excess = sessions.size() - maxSessions * 9 / 10;
+            // Every session gets at most one second chance, so two turns of the queue always suffice
+            int budget = 2 * queued.get();
+            int evicted = 0;
+            while (evicted < excess && budget-- > 0) {
+                Session session = evictionQueue.poll();
+                if (session == null) {
+                    break;
+                }
+                if (!isLive(session)) {
+                    queued.decrementAndGet();
+                } else if (session.referenced) {
+                    session.referenced = false;
+                    evictionQueue.offer(session);
+                } else {
+                    queued.decrementAndGet();
+                    if (sessions.remove(session.id, session)) {
+                        evicted++;
+                    }
+                }
+            }
+            evictions.addAndGet(evicted);
+            logger.debug("Evicted {} least recently used sessions", evicted);
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * One turn of the queue, keeping live sessions in order and dropping the rest
+     */
+    private void compactEvictionQueue() {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            for (int remaining = queued.get(); remaining > 0; remaining--) {
+                Session session = evictionQueue.poll();
+                if (session == null) {
+                    break;
+                }
+                if (isLive(session)) {
+                    evictionQueue.offer(session);
+                } else {
+                    queued.decrementAndGet();
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+}
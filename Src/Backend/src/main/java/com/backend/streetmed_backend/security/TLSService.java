@@ -3,12 +3,10 @@ package com.backend.streetmed_backend.security;
 import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-
 /**
  * Centralized authentication service to handle token validation and TLS checks
  * Eliminates redundancy across controllers
@@ -18,9 +16,8 @@ public class TLSService {
 
     private static final Logger logger = LoggerFactory.getLogger(TLSService.class);
 
-    // Shared token stores - in production, use Redis or database
-    private static final Map<String, Integer> TOKEN_USER_MAP = new ConcurrentHashMap<>();
-    private static final Map<String, String> TOKEN_ROLE_MAP = new ConcurrentHashMap<>();
+    // Token storage (in-memory or shared table, see auth.token.store)
+    private final TokenStore tokenStore;
 
     @Value("${server.ssl.enabled:false}")
     private boolean sslEnabled;
@@ -37,12 +34,16 @@ public class TLSService {
     @Value("${auth.dev.token.enabled:true}")
     private boolean devTokenEnabled;
 
+    @Autowired
+    public TLSService(TokenStore tokenStore) {
+        this.tokenStore = tokenStore;
+    }
+
     /**
      * Store authentication token
      */
     public void storeToken(String token, Integer userId, String role) {
-        TOKEN_USER_MAP.put(token, userId);
-        TOKEN_ROLE_MAP.put(token, role);
+        tokenStore.store(token, userId, role);
         logger.debug("Token stored for user {} with role {}", userId, role);
     }
 
@@ -50,10 +51,10 @@ public class TLSService {
      * Remove authentication token
      */
     public void removeToken(String token) {
-        Integer userId = TOKEN_USER_MAP.remove(token);
-        TOKEN_ROLE_MAP.remove(token);
-        if (userId != null) {
-            logger.debug("Token removed for user {}", userId);
+        TokenStore.TokenRecord record = tokenStore.find(token);
+        tokenStore.remove(token);
+        if (record != null) {
+            logger.debug("Token removed for user {}", record.getUserId());
         }
     }
 
@@ -61,14 +62,16 @@ public class TLSService {
      * Get user ID from token
      */
     public Integer getUserIdFromToken(String token) {
-        return TOKEN_USER_MAP.get(token);
+        TokenStore.TokenRecord record = token != null ? tokenStore.find(token) : null;
+        return record != null ? record.getUserId() : null;
     }
 
     /**
      * Get role from token
      */
     public String getRoleFromToken(String token) {
-        return TOKEN_ROLE_MAP.get(token);
+        TokenStore.TokenRecord record = token != null ? tokenStore.find(token) : null;
+        return record != null ? record.getRole() : null;
     }
 
     /**
@@ -85,14 +88,14 @@ public class TLSService {
             return false;
         }
 
-        return TOKEN_USER_MAP.containsKey(authToken);
+        return tokenStore.find(authToken) != null;
     }
 
     /**
      * Validate if user has required role
      */
     public boolean hasRole(String authToken, String... requiredRoles) {
-        String userRole = TOKEN_ROLE_MAP.get(authToken);
+        String userRole = getRoleFromToken(authToken);
         if (userRole == null) {
             return false;
         }
@@ -105,6 +108,13 @@ public class TLSService {
         return false;
     }
 
+    /**
+     * Whether tokens issued by any instance can be validated here
+     */
+    public boolean isTokenStoreShared() {
+        return tokenStore.isShared();
+    }
+
     /**
      * Check if connection is secure (HTTPS)
      */
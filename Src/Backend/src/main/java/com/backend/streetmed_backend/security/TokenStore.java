@@ -0,0 +1,71 @@
+package com.backend.streetmed_backend.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Storage for issued auth tokens, used by TLSService.
+ * Implementations are selected with auth.token.store ("memory" or "database").
+ */
+public interface TokenStore {
+
+    /**
+     * User id and role bound to a token
+     */
+    final class TokenRecord {
+        private final int userId;
+        private final String role;
+        private final long expiresAtMillis;
+
+        public TokenRecord(int userId, String role, long expiresAtMillis) {
+            this.userId = userId;
+            // Only a handful of distinct roles exist; share the instances
+            this.role = role != null ? role.intern() : null;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+
+        public int getUserId() {
+            return userId;
+        }
+
+        public String getRole() {
+            return role;
+        }
+
+        public long getExpiresAtMillis() {
+            return expiresAtMillis;
+        }
+
+        public boolean isExpired(long nowMillis) {
+            return nowMillis >= expiresAtMillis;
+        }
+    }
+
+    void store(String token, Integer userId, String role);
+
+    /**
+     * @return the live record for the token, or null if unknown or expired
+     */
+    TokenRecord find(String token);
+
+    void remove(String token);
+
+    /**
+     * Whether every instance of the application sees the same tokens
+     */
+    boolean isShared();
+
+    /**
+     * SHA-256 of a token, the form in which shared stores keep it
+     */
+    static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.backend.streetmed_backend.service;
+
+import com.backend.streetmed_backend.entity.user_entity.PasswordMigrationCheckpoint;
+import com.backend.streetmed_backend.repository.User.PasswordMigrationCheckpointRepository;
+import com.backend.streetmed_backend.security.PasswordHash;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hashes any plain-text passwords left in the users table.
+ * Users are read in pages ordered by id (id and password only); values that are already BCrypt
+ * hashes are skipped, the rest are hashed on a small dedicated pool, and each page is written
+ * with one JDBC batch in the same transaction that advances the checkpoint row. A run that
+ * dies part way resumes after the last committed page on the next start.
+ */
+@Service
+public class PasswordMigrationJob {
+    private static final Logger logger = LoggerFactory.getLogger(PasswordMigrationJob.class);
+
+    private static final String JOB_NAME = "bcrypt-password-migration";
+
+    private static final String PAGE_SQL =
+            "SELECT user_id, password FROM users WHERE user_id > ? ORDER BY user_id LIMIT ?";
+    // Only replace the value that was read, in case the password changed meanwhile
+    private static final String UPDATE_SQL =
+            "UPDATE users SET password = ? WHERE user_id = ? AND password = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordMigrationCheckpointRepository checkpointRepository;
+    private final PasswordHash passwordHash;
+
+    private final int chunkSize;
+    private final int threads;
+    private final boolean runOnStartup;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile PasswordMigrationCheckpoint lastCheckpoint;
+    private volatile long startedAtMillis;
+    private volatile long scannedThisRun;
+    private volatile long migratedThisRun;
+
+    @Autowired
+    public PasswordMigrationJob(JdbcTemplate jdbcTemplate,
+                                TransactionTemplate transactionTemplate,
+                                PasswordMigrationCheckpointRepository checkpointRepository,
+                                PasswordHash passwordHash,
+                                @Value("${security.password.migration.chunk-size:500}") int chunkSize,
+                                @Value("${security.password.migration.threads:2}") int threads,
+                                @Value("${security.password.migration.run-on-startup:false}") boolean runOnStartup) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.checkpointRepository = checkpointRepository;
+        this.passwordHash = passwordHash;
+        this.chunkSize = chunkSize;
+        this.threads = Math.max(1, threads);
+        this.runOnStartup = runOnStartup;
+    }
+
+    /**
+     * Start on boot if configured, or resume a run that did not complete
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeOnStartup() {
+        PasswordMigrationCheckpoint checkpoint = checkpointRepository.findById(JOB_NAME).orElse(null);
+        if (checkpoint != null && checkpoint.getStatus() == PasswordMigrationCheckpoint.Status.RUNNING) {
+            logger.info("Resuming password migration after user id {}", checkpoint.getLastUserId());
+            start();
+        } else if (runOnStartup) {
+            start();
+        }
+    }
+
+    /**
+     * Start the job in the background
+     * @return false if it is already running
+     */
+    public boolean start() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        Thread worker = new Thread(() -> {
+            try {
+                run();
+            } catch (Exception e) {
+                logger.error("Password migration stopped: {}", e.getMessage(), e);
+            } finally {
+                running.set(false);
+            }
+        }, "PasswordMigration");
+        worker.setDaemon(true);
+        worker.start();
+        return true;
+    }
+
+    /**
+     * Progress and throughput for monitoring
+     */
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new HashMap<>();
+        status.put("running", running.get());
+        PasswordMigrationCheckpoint checkpoint = lastCheckpoint;
+        if (checkpoint != null) {
+            status.put("status", checkpoint.getStatus().name());
+            status.put("lastUserId", checkpoint.getLastUserId());
+            status.put("migrated", checkpoint.getMigratedCount());
+            status.put("skipped", checkpoint.getSkippedCount());
+            status.put("updatedAt", checkpoint.getUpdatedAt());
+        }
+        long elapsedMillis = System.currentTimeMillis() - startedAtMillis;
+        status.put("scannedThisRun", scannedThisRun);
+        status.put("usersPerSecond", startedAtMillis == 0 || elapsedMillis == 0 ? 0 : scannedThisRun * 1000 / elapsedMillis);
+        status.put("hashesPerSecond", startedAtMillis == 0 || elapsedMillis == 0 ? 0 : migratedThisRun * 1000 / elapsedMillis);
+        return status;
+    }
+
+    private void run() throws InterruptedException {
+        PasswordMigrationCheckpoint checkpoint = checkpointRepository.findById(JOB_NAME)
+                .orElseGet(() -> new PasswordMigrationCheckpoint(JOB_NAME));
+        if (checkpoint.getStatus() == PasswordMigrationCheckpoint.Status.COMPLETED) {
+            // A fresh run over a migrated table only re-reads it; BCrypt values are skipped
+            checkpoint.setLastUserId(0);
+            checkpoint.setMigratedCount(0L);
+            checkpoint.setSkippedCount(0L);
+        }
+        checkpoint.setStatus(PasswordMigrationCheckpoint.Status.RUNNING);
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+        checkpoint = checkpointRepository.save(checkpoint);
+        lastCheckpoint = checkpoint;
+
+        startedAtMillis = System.currentTimeMillis();
+        scannedThisRun = 0;
+        migratedThisRun = 0;
+        Integer totalUsers = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM users WHERE user_id > ?", Integer.class, checkpoint.getLastUserId());
+        logger.info("Password migration started after user id {} ({} users to scan)",
+                checkpoint.getLastUserId(), totalUsers);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService hashingPool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "PasswordMigration-Hash-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            while (true) {
+                List<UserPassword> page = jdbcTemplate.query(PAGE_SQL,
+                        (rs, rowNum) -> new UserPassword(rs.getInt("user_id"), rs.getString("password")),
+                        checkpoint.getLastUserId(), chunkSize);
+                if (page.isEmpty()) {
+                    break;
+                }
+                checkpoint = processPage(page, checkpoint, hashingPool);
+                lastCheckpoint = checkpoint;
+                logger.info("Password migration: {} of {} users scanned, {} migrated, {} skipped",
+                        scannedThisRun, totalUsers, checkpoint.getMigratedCount(), checkpoint.getSkippedCount());
+            }
+        } finally {
+            hashingPool.shutdownNow();
+        }
+
+        checkpoint.setStatus(PasswordMigrationCheckpoint.Status.COMPLETED);
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+        lastCheckpoint = checkpointRepository.save(checkpoint);
+        logger.info("Password migration completed: {} migrated, {} skipped in {} ms",
+                checkpoint.getMigratedCount(), checkpoint.getSkippedCount(),
+                System.currentTimeMillis() - startedAtMillis);
+    }
+
+    private PasswordMigrationCheckpoint processPage(List<UserPassword> page, PasswordMigrationCheckpoint checkpoint,
+                                                    ExecutorService hashingPool) throws InterruptedException {
+        List<UserPassword> plainText = new ArrayList<>();
+        for (UserPassword row : page) {
+            if (row.password != null && !PasswordHash.isBCryptHash(row.password)) {
+                plainText.add(row);
+            }
+        }
+
+        List<Future<String>> hashes = new ArrayList<>(plainText.size());
+        for (UserPassword row : plainText) {
+            hashes.add(hashingPool.submit(() -> passwordHash.hashPasswordOnCurrentThread(row.password)));
+        }
+        List<Object[]> updates = new ArrayList<>(plainText.size());
+        for (int i = 0; i < plainText.size(); i++) {
+            UserPassword row = plainText.get(i);
+            try {
+                updates.add(new Object[]{hashes.get(i).get(), row.userId, row.password});
+            } catch (ExecutionException e) {
+                throw new RuntimeException("Error hashing password for user " + row.userId, e.getCause());
+            }
+        }
+
+        int lastUserId = page.get(page.size() - 1).userId;
+        long skipped = page.size() - plainText.size();
+        PasswordMigrationCheckpoint current = checkpoint;
+        PasswordMigrationCheckpoint saved = transactionTemplate.execute(status -> {
+            if (!updates.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+            }
+            current.setLastUserId(lastUserId);
+            current.setMigratedCount(current.getMigratedCount() + updates.size());
+            current.setSkippedCount(current.getSkippedCount() + skipped);
+            current.setUpdatedAt(LocalDateTime.now());
+            return checkpointRepository.save(current);
+        });
+
+        scannedThisRun += page.size();
+        migratedThisRun += updates.size();
+        return saved;
+    }
+
+    private static class UserPassword {
+        final int userId;
+        final String password;
+
+        UserPassword(int userId, String password) {
+            this.userId = userId;
+            this.password = password;
+        }
+    }
+}
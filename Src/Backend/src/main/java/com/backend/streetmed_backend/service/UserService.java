@@ -10,6 +10,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @Transactional
@@ -25,12 +26,21 @@ public class UserService {
 
     @Transactional
     public User createUser(User user) {
+        return createUserWithHashedPassword(user, passwordHash.hashPassword(user.getPassword()));
+    }
+
+    /**
+     * Create a user whose password was already hashed (see {@link #hashPasswordAsync(String)});
+     * the password on {@code user} is ignored
+     */
+    @Transactional
+    public User createUserWithHashedPassword(User user, String hashedPassword) {
         validateNewUser(user);
         // Create new user with hashed password
         User newUser = new User();
         newUser.setUsername(user.getUsername());
         newUser.setEmail(user.getEmail());
-        newUser.setPassword(passwordHash.hashPassword(user.getPassword()));
+        newUser.setPassword(hashedPassword);
         newUser.setPhone(user.getPhone());
         newUser.setRole(user.getRole());
 
@@ -58,6 +68,38 @@ public class UserService {
         return passwordHash.verifyPassword(plainTextPassword, hashedPassword);
     }
 
+    /**
+     * Verify on the password hashing pool without holding the caller's thread
+     */
+    public CompletableFuture<Boolean> verifyUserPasswordAsync(String plainTextPassword, String hashedPassword) {
+        return passwordHash.verifyAsync(plainTextPassword, hashedPassword);
+    }
+
+    /**
+     * Hash on the password hashing pool without holding the caller's thread
+     */
+    public CompletableFuture<String> hashPasswordAsync(String plainTextPassword) {
+        return passwordHash.hashAsync(plainTextPassword);
+    }
+
+    public boolean passwordNeedsRehash(String hashedPassword) {
+        return passwordHash.needsRehash(hashedPassword);
+    }
+
+    /**
+     * Replace a just-verified hash made with an outdated BCrypt cost by one made at the current cost.
+     * Skipped if the password was changed in the meantime.
+     */
+    @Transactional
+    public void replacePasswordHash(Integer userId, String verifiedHash, String newHash) {
+        userRepository.findById(userId).ifPresent(user -> {
+            if (verifiedHash.equals(user.getPassword())) {
+                user.setPassword(newHash);
+                userRepository.save(user);
+            }
+        });
+    }
+
     @Transactional(readOnly = true)
     public User findByEmail(String email) {
         return userRepository.findByEmail(email)
@@ -110,16 +152,6 @@ public class UserService {
         userRepository.deleteById(userId);
     }
 
-    @Transactional
-    public void migrateAllPasswordsToHashed() {
-        List<User> users = userRepository.findAll();
-        for (User user : users) {
-            String hashedPassword = passwordHash.hashPassword(user.getPassword());
-            user.setPassword(hashedPassword);
-            userRepository.save(user);
-        }
-    }
-
     // New methods for profile management
 
     @Transactional
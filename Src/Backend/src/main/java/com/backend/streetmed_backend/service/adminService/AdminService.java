@@ -5,6 +5,7 @@ import com.backend.streetmed_backend.entity.user_entity.User;
 import com.backend.streetmed_backend.entity.user_entity.UserMetadata;
 import com.backend.streetmed_backend.entity.user_entity.VolunteerSubRole;
 import com.backend.streetmed_backend.service.EmailService;
+import com.backend.streetmed_backend.service.PasswordMigrationJob;
 import com.backend.streetmed_backend.service.UserService;
 import com.backend.streetmed_backend.service.volunteerService.VolunteerSubRoleService;
 import com.backend.streetmed_backend.util.ResponseUtil;
@@ -31,14 +32,17 @@ public class AdminService {
     private final UserService userService;
     private final VolunteerSubRoleService volunteerSubRoleService;
     private final EmailService emailService;
+    private final PasswordMigrationJob passwordMigrationJob;
 
     @Autowired
     public AdminService(UserService userService,
                         VolunteerSubRoleService volunteerSubRoleService,
-                        EmailService emailService) {
+                        EmailService emailService,
+                        PasswordMigrationJob passwordMigrationJob) {
         this.userService = userService;
         this.volunteerSubRoleService = volunteerSubRoleService;
         this.emailService = emailService;
+        this.passwordMigrationJob = passwordMigrationJob;
     }
 
     /**
@@ -356,6 +360,63 @@ public class AdminService {
         }
     }
 
+    /**
+     * Starts the plain-text password migration in the background
+     */
+    public ResponseEntity<Map<String, Object>> startPasswordMigration(PasswordMigrationRequest request) {
+        try {
+            // Validate authentication
+            if (!isAuthenticated(request.getAuthStatus())) {
+                return ResponseUtil.unauthorized();
+            }
+
+            // Validate admin access
+            validateAdminAccess(request.getAdminUsername());
+
+            if (!passwordMigrationJob.start()) {
+                return ResponseUtil.conflict("Password migration is already running");
+            }
+            logger.info("Password migration started by admin {}", request.getAdminUsername());
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("data", passwordMigrationJob.getStatus());
+
+            return ResponseUtil.success("Password migration started", response);
+
+        } catch (SecurityException e) {
+            return ResponseUtil.forbidden(e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error starting password migration: {}", e.getMessage());
+            return ResponseUtil.internalError(e.getMessage());
+        }
+    }
+
+    /**
+     * Gets the progress of the password migration
+     */
+    public ResponseEntity<Map<String, Object>> getPasswordMigrationStatus(PasswordMigrationRequest request) {
+        try {
+            // Validate authentication
+            if (!isAuthenticated(request.getAuthStatus())) {
+                return ResponseUtil.unauthorized();
+            }
+
+            // Validate admin access
+            validateAdminAccess(request.getAdminUsername());
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("data", passwordMigrationJob.getStatus());
+
+            return ResponseUtil.successData(response);
+
+        } catch (SecurityException e) {
+            return ResponseUtil.forbidden(e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error retrieving password migration status: {}", e.getMessage());
+            return ResponseUtil.internalError(e.getMessage());
+        }
+    }
+
     // Private helper methods
 
     private boolean isAuthenticated(String authStatus) {
@@ -465,18 +526,13 @@ public class AdminService {
         // Save user (UserService will handle password hashing)
         User savedUser = userService.createUser(newUser);
 
-        // Send email notification if email exists
+        // Send email notification if email exists; queued in the email outbox as part of this transaction
         if (!isNullOrEmpty(savedUser.getEmail()) && !savedUser.getEmail().equals(savedUser.getUsername())) {
-            try {
-                emailService.sendNewUserCredentials(
-                        savedUser.getEmail(),
-                        savedUser.getUsername(),
-                        passwordForEmail
-                );
-            } catch (Exception e) {
-                logger.error("Failed to send credentials email to {}: {}",
-                        savedUser.getEmail(), e.getMessage());
-            }
+            emailService.sendNewUserCredentials(
+                    savedUser.getEmail(),
+                    savedUser.getUsername(),
+                    passwordForEmail
+            );
         }
 
         logger.info("New user {} created by admin {}", savedUser.getUsername(), adminUsername);
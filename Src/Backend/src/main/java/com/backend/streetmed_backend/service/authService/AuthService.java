@@ -1,5 +1,6 @@
 package com.backend.streetmed_backend.service.authService;
 
+import com.backend.streetmed_backend.config.AppMetrics;
 import com.backend.streetmed_backend.dto.auth.*;
 import com.backend.streetmed_backend.entity.user_entity.User;
 import com.backend.streetmed_backend.entity.user_entity.UserMetadata;
@@ -9,6 +10,8 @@ import com.backend.streetmed_backend.service.UserService;
 import com.backend.streetmed_backend.service.volunteerService.VolunteerSubRoleService;
 import com.backend.streetmed_backend.util.RequestResponseUtil;
 import com.backend.streetmed_backend.util.ResponseUtil;
+import io.micrometer.core.instrument.Timer;
+import org.hibernate.Hibernate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -22,6 +25,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.Executor;
 
 @Service
@@ -35,85 +39,101 @@ public class AuthService {
     private final TLSService tlsService;
     private final RequestResponseUtil requestResponseUtil;
     private final Executor authExecutor;
+    private final AppMetrics appMetrics;
 
     @Autowired
     public AuthService(UserService userService,
                        VolunteerSubRoleService volunteerSubRoleService,
                        TLSService tlsService,
                        RequestResponseUtil requestResponseUtil,
-                       @Qualifier("authExecutor") Executor authExecutor) {
+                       @Qualifier("authExecutor") Executor authExecutor,
+                       AppMetrics appMetrics) {
         this.userService = userService;
         this.volunteerSubRoleService = volunteerSubRoleService;
         this.tlsService = tlsService;
         this.requestResponseUtil = requestResponseUtil;
         this.authExecutor = authExecutor;
+        this.appMetrics = appMetrics;
     }
 
     /**
-     * Register a new user
+     * Register a new user. The password is hashed on the hashing pool and the user
+     * is saved on the auth executor once the hash is ready.
      */
-    public ResponseEntity<?> register(RegisterRequest request) {
-        try {
-            Map<String, String> userData = request.getUserData();
-
-            // Validate required fields
-            if (isNullOrEmpty(userData.get("username")) || isNullOrEmpty(userData.get("password"))) {
-                return requestResponseUtil.buildEncryptedResponse(request.getSessionId(),
-                        ResponseUtil.badRequest("Missing required fields"));
-            }
-
-            // Build user entity
-            User newUser = buildUserFromRegistration(userData);
-
-            // Create user
-            User savedUser = userService.createUser(newUser);
-
-            // Build response
-            Map<String, Object> response = new HashMap<>();
-            response.put("userId", savedUser.getUserId());
-            response.put("secure", request.isSecure());
-
-            return requestResponseUtil.buildEncryptedResponse(request.getSessionId(),
-                    ResponseUtil.success("User registered successfully", response));
-
-        } catch (Exception e) {
-            logger.error("Error processing registration: {}", e.getMessage(), e);
-            return requestResponseUtil.buildEncryptedResponse(request.getSessionId(),
-                    ResponseUtil.badRequest(e.getMessage()));
+    public CompletableFuture<ResponseEntity<?>> register(RegisterRequest request) {
+        // Validate required fields
+        if (isNullOrEmpty(request.getUsername()) || isNullOrEmpty(request.getPassword())) {
+            return CompletableFuture.completedFuture(requestResponseUtil.buildEncryptedResponse(
+                    request.getSessionId(), ResponseUtil.badRequest("Missing required fields")));
         }
+
+        // Build user entity
+        User newUser = buildUserFromRegistration(request);
+
+        return userService.hashPasswordAsync(request.getPassword())
+                .<ResponseEntity<?>>thenApplyAsync(hashedPassword -> {
+                    // Create user
+                    User savedUser = userService.createUserWithHashedPassword(newUser, hashedPassword);
+
+                    // Build response
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("userId", savedUser.getUserId());
+                    response.put("secure", request.isSecure());
+
+                    return requestResponseUtil.buildEncryptedResponse(request.getSessionId(),
+                            ResponseUtil.success("User registered successfully", response));
+                }, authExecutor)
+                .exceptionally(e -> {
+                    Throwable cause = unwrap(e);
+                    logger.error("Error processing registration: {}", cause.getMessage(), cause);
+                    return requestResponseUtil.buildEncryptedResponse(request.getSessionId(),
+                            ResponseUtil.badRequest(cause.getMessage()));
+                });
     }
 
     /**
-     * User login
+     * User login. The user is looked up on the calling thread; the password is verified on the
+     * hashing pool and the session is built on the auth executor once the result is in.
      */
-    public ResponseEntity<?> login(LoginRequest request) {
+    public CompletableFuture<ResponseEntity<?>> login(LoginRequest request) {
+        Timer.Sample sample = appMetrics.start();
         try {
-            Map<String, String> credentials = request.getCredentials();
-
-            String usernameOrEmail = credentials.get("username");
-            String password = credentials.get("password");
+            String usernameOrEmail = request.getUsername();
+            String password = request.getPassword();
 
             // Validate credentials
             if (isNullOrEmpty(usernameOrEmail) || isNullOrEmpty(password)) {
-                return requestResponseUtil.buildEncryptedResponse(request.getSessionId(),
-                        ResponseUtil.badRequest("Missing credentials"));
+                return CompletableFuture.completedFuture(appMetrics.stop(sample, "auth.login", AppMetrics.NO_ROLE,
+                        requestResponseUtil.buildEncryptedResponse(request.getSessionId(),
+                                ResponseUtil.badRequest("Missing credentials"))));
             }
 
             // Find user
             User user = findUserByUsernameOrEmail(usernameOrEmail);
+            if (user == null) {
+                return CompletableFuture.completedFuture(invalidCredentials(sample, request));
+            }
+            // The response is built outside this transaction
+            Hibernate.initialize(user.getMetadata());
 
             // Verify password and process login
-            if (user != null && userService.verifyUserPassword(password, user.getPassword())) {
-                return processSuccessfulLogin(user, request);
-            } else {
-                return requestResponseUtil.buildEncryptedResponse(request.getSessionId(),
-                        ResponseUtil.unauthorized("Invalid credentials"));
-            }
+            String storedHash = user.getPassword();
+            return userService.verifyUserPasswordAsync(password, storedHash)
+                    .<ResponseEntity<?>>thenApplyAsync(matches -> {
+                        if (!matches) {
+                            return invalidCredentials(sample, request);
+                        }
+                        // Bring hashes made with an older BCrypt cost up to date while we have the password
+                        if (userService.passwordNeedsRehash(storedHash)) {
+                            rehashInBackground(user.getUserId(), password, storedHash);
+                        }
+                        return appMetrics.stop(sample, "auth.login", user.getRole(),
+                                processSuccessfulLogin(user, request));
+                    }, authExecutor)
+                    .exceptionally(e -> loginError(sample, request, unwrap(e)));
 
         } catch (Exception e) {
-            logger.error("Error processing login: {}", e.getMessage(), e);
-            return requestResponseUtil.buildEncryptedResponse(request.getSessionId(),
-                    ResponseUtil.internalError(e.getMessage()));
+            return CompletableFuture.completedFuture(loginError(sample, request, e));
         }
     }
 
@@ -128,9 +148,8 @@ public class AuthService {
                         ResponseUtil.unauthorized("Invalid or expired auth token"));
             }
 
-            Map<String, String> updateData = request.getUpdateData();
-            String userId = updateData.get("userId");
-            String newUsername = updateData.get("newUsername");
+            String userId = request.getUserId();
+            String newUsername = request.getNewUsername();
 
             // Validate input
             if (isNullOrEmpty(userId) || isNullOrEmpty(newUsername)) {
@@ -173,10 +192,9 @@ public class AuthService {
                         ResponseUtil.unauthorized("Invalid or expired auth token"));
             }
 
-            Map<String, String> updateData = request.getUpdateData();
-            String userId = updateData.get("userId");
-            String currentPassword = updateData.get("currentPassword");
-            String newPhone = updateData.get("newPhone");
+            String userId = request.getUserId();
+            String currentPassword = request.getCurrentPassword();
+            String newPhone = request.getNewPhone();
 
             // Validate input
             if (isNullOrEmpty(userId) || isNullOrEmpty(currentPassword) || isNullOrEmpty(newPhone)) {
@@ -227,10 +245,9 @@ public class AuthService {
                         ResponseUtil.unauthorized("Invalid or expired auth token"));
             }
 
-            Map<String, String> updateData = request.getUpdateData();
-            String userId = updateData.get("userId");
-            String currentPassword = updateData.get("currentPassword");
-            String newPassword = updateData.get("newPassword");
+            String userId = request.getUserId();
+            String currentPassword = request.getCurrentPassword();
+            String newPassword = request.getNewPassword();
 
             // Validate input
             if (isNullOrEmpty(userId) || isNullOrEmpty(currentPassword) || isNullOrEmpty(newPassword)) {
@@ -279,10 +296,9 @@ public class AuthService {
                         ResponseUtil.unauthorized("Invalid or expired auth token"));
             }
 
-            Map<String, String> updateData = request.getUpdateData();
-            String userId = updateData.get("userId");
-            String currentPassword = updateData.get("currentPassword");
-            String newEmail = updateData.get("newEmail");
+            String userId = request.getUserId();
+            String currentPassword = request.getCurrentPassword();
+            String newEmail = request.getNewEmail();
 
             // Validate input
             if (isNullOrEmpty(userId) || isNullOrEmpty(currentPassword) || isNullOrEmpty(newEmail)) {
@@ -382,18 +398,18 @@ public class AuthService {
         return str == null || str.trim().isEmpty();
     }
 
-    private User buildUserFromRegistration(Map<String, String> userData) {
+    private User buildUserFromRegistration(RegisterRequest userData) {
         User newUser = new User();
-        newUser.setUsername(userData.get("username"));
+        newUser.setUsername(userData.getUsername());
 
-        String email = userData.get("email");
+        String email = userData.getEmail();
         if (!isNullOrEmpty(email)) {
             newUser.setEmail(email);
         }
 
-        newUser.setPassword(userData.get("password"));
+        newUser.setPassword(userData.getPassword());
 
-        String phone = userData.get("phone");
+        String phone = userData.getPhone();
         if (!isNullOrEmpty(phone)) {
             newUser.setPhone(phone);
         }
@@ -403,12 +419,12 @@ public class AuthService {
         // Build metadata
         UserMetadata metadata = new UserMetadata();
 
-        String firstName = userData.get("firstName");
+        String firstName = userData.getFirstName();
         if (!isNullOrEmpty(firstName)) {
             metadata.setFirstName(firstName);
         }
 
-        String lastName = userData.get("lastName");
+        String lastName = userData.getLastName();
         if (!isNullOrEmpty(lastName)) {
             metadata.setLastName(lastName);
         }
@@ -426,9 +442,43 @@ public class AuthService {
         }
     }
 
+    private ResponseEntity<?> invalidCredentials(Timer.Sample sample, LoginRequest request) {
+        return appMetrics.stop(sample, "auth.login", AppMetrics.NO_ROLE,
+                requestResponseUtil.buildEncryptedResponse(request.getSessionId(),
+                        ResponseUtil.unauthorized("Invalid credentials")));
+    }
+
+    private ResponseEntity<?> loginError(Timer.Sample sample, LoginRequest request, Throwable e) {
+        logger.error("Error processing login: {}", e.getMessage(), e);
+        return appMetrics.stop(sample, "auth.login", AppMetrics.NO_ROLE,
+                requestResponseUtil.buildEncryptedResponse(request.getSessionId(),
+                        ResponseUtil.internalError(e.getMessage())));
+    }
+
+    /**
+     * Best effort: the new hash is made on the hashing pool and written from there, so no
+     * executor slot is needed. When the pool is busy the rehash is skipped until the next login.
+     */
+    private void rehashInBackground(Integer userId, String password, String storedHash) {
+        userService.hashPasswordAsync(password)
+                .thenAccept(newHash -> userService.replacePasswordHash(userId, storedHash, newHash))
+                .exceptionally(e -> {
+                    logger.warn("Skipped password rehash for user {}: {}", userId, unwrap(e).getMessage());
+                    return null;
+                });
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    }
+
     private ResponseEntity<?> processSuccessfulLogin(User user, LoginRequest request) {
-        // Update last login asynchronously
-        CompletableFuture.runAsync(() -> userService.updateLastLogin(user.getUserId()), authExecutor);
+        // Update last login asynchronously; skipped if the auth executor is saturated
+        try {
+            CompletableFuture.runAsync(() -> userService.updateLastLogin(user.getUserId()), authExecutor);
+        } catch (RuntimeException e) {
+            logger.warn("Skipped last-login update for user {}: {}", user.getUserId(), e.getMessage());
+        }
 
         // Generate auth token
         String authToken = UUID.randomUUID().toString();
@@ -0,0 +1,142 @@
+package com.backend.streetmed_backend.service.cargoService;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk inventory update, one result per input line in input order
+ */
+public class BulkUpdateReport {
+
+    public enum LineStatus {
+        UPDATED,   // written
+        REJECTED,  // invalid, unknown item, duplicate or conflicting line; not written
+        SKIPPED,   // valid, but not written because the all-or-nothing update was rejected
+        FAILED     // valid, but the database write failed and the update was rolled back
+    }
+
+    private final boolean allOrNothing;
+    private final List<LineResult> lines = new ArrayList<>();
+    private boolean applied;
+
+    BulkUpdateReport(boolean allOrNothing) {
+        this.allOrNothing = allOrNothing;
+    }
+
+    public boolean isAllOrNothing() {
+        return allOrNothing;
+    }
+
+    /**
+     * Whether anything was written
+     */
+    public boolean isApplied() {
+        return applied;
+    }
+
+    void setApplied(boolean applied) {
+        this.applied = applied;
+    }
+
+    public int getTotal() {
+        return lines.size();
+    }
+
+    public long getUpdated() {
+        return count(LineStatus.UPDATED);
+    }
+
+    public long getRejected() {
+        return count(LineStatus.REJECTED);
+    }
+
+    public List<LineResult> getLines() {
+        return lines;
+    }
+
+    LineResult add(InventoryUpdate update, int lineNumber) {
+        LineResult result = new LineResult(lineNumber, update);
+        lines.add(result);
+        return result;
+    }
+
+    private long count(LineStatus status) {
+        return lines.stream().filter(line -> line.status == status).count();
+    }
+
+    public static class LineResult {
+        private final int line;
+        private Integer itemId;
+        private final String name;
+        private final String size;
+        private final Integer quantity;
+        private LineStatus status;
+        private String message;
+        private Integer previousQuantity;
+
+        LineResult(int line, InventoryUpdate update) {
+            this.line = line;
+            this.itemId = update.getItemId();
+            this.name = update.getName();
+            this.size = update.getSize();
+            this.quantity = update.getQuantity();
+        }
+
+        public int getLine() {
+            return line;
+        }
+
+        public Integer getItemId() {
+            return itemId;
+        }
+
+        void setItemId(Integer itemId) {
+            this.itemId = itemId;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getSize() {
+            return size;
+        }
+
+        public Integer getQuantity() {
+            return quantity;
+        }
+
+        public LineStatus getStatus() {
+            return status;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        /**
+         * Stock of the item or size before the update (null for a new size)
+         */
+        public Integer getPreviousQuantity() {
+            return previousQuantity;
+        }
+
+        void setPreviousQuantity(Integer previousQuantity) {
+            this.previousQuantity = previousQuantity;
+        }
+
+        boolean isPending() {
+            return status == null;
+        }
+
+        void reject(String message) {
+            this.status = LineStatus.REJECTED;
+            this.message = message;
+        }
+
+        void mark(LineStatus status, String message) {
+            this.status = status;
+            this.message = message;
+        }
+    }
+}
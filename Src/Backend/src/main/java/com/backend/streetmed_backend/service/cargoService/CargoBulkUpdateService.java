@@ -0,0 +1,434 @@
+package com.backend.streetmed_backend.service.cargoService;
+
+import com.backend.streetmed_backend.entity.CargoItem;
+import com.backend.streetmed_backend.repository.Cargo.CargoItemName;
+import com.backend.streetmed_backend.repository.Cargo.CargoItemRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk stock updates (post-donation restocks, stock takes) in one transaction and a handful of
+ * statements per {@value #ROWS_PER_STATEMENT} rows: the affected item rows are locked in id order,
+ * loaded with their sizes in one IN query, every line is checked against them, and the changes
+ * go out as multi-row statements (one size delete, one size upsert, one CASE update of the item
+ * totals). Invalid lines are reported and skipped, or with allOrNothing nothing is written at all.
+ */
+@Service
+public class CargoBulkUpdateService {
+    private static final Logger logger = LoggerFactory.getLogger(CargoBulkUpdateService.class);
+
+    // Rows per multi-row statement; keeps each statement well under max_allowed_packet
+    static final int ROWS_PER_STATEMENT = 500;
+
+    private final CargoItemRepository cargoItemRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CargoContentCache contentCache;
+    private final CargoStockIndex stockIndex;
+    private final int maxLines;
+
+    @Autowired
+    public CargoBulkUpdateService(CargoItemRepository cargoItemRepository,
+                                  JdbcTemplate jdbcTemplate,
+                                  TransactionTemplate transactionTemplate,
+                                  CargoContentCache contentCache,
+                                  CargoStockIndex stockIndex,
+                                  @Value("${cargo.bulk-update.max-lines:5000}") int maxLines) {
+        this.cargoItemRepository = cargoItemRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.contentCache = contentCache;
+        this.stockIndex = stockIndex;
+        this.maxLines = maxLines;
+    }
+
+    /**
+     * Apply a bulk update
+     *
+     * @param updates The lines, in input order
+     * @param allOrNothing Write nothing unless every line is valid
+     * @return A result for every line
+     */
+    public BulkUpdateReport apply(List<InventoryUpdate> updates, boolean allOrNothing) {
+        if (updates == null || updates.isEmpty()) {
+            throw new IllegalArgumentException("No inventory updates given");
+        }
+        if (updates.size() > maxLines) {
+            throw new IllegalArgumentException("Too many inventory updates: at most " + maxLines + " lines per request");
+        }
+
+        BulkUpdateReport report = new BulkUpdateReport(allOrNothing);
+        List<BulkUpdateReport.LineResult> results = new ArrayList<>(updates.size());
+        for (int i = 0; i < updates.size(); i++) {
+            InventoryUpdate update = updates.get(i);
+            int lineNumber = update.getLineNumber() > 0 ? update.getLineNumber() : i + 1;
+            results.add(report.add(update, lineNumber));
+        }
+        validateLines(updates, results);
+
+        Set<Integer> itemIds = new TreeSet<>();
+        for (int i = 0; i < updates.size(); i++) {
+            if (results.get(i).isPending()) {
+                itemIds.add(updates.get(i).getItemId());
+            }
+        }
+        if (itemIds.isEmpty()) {
+            return report;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!write(updates, results, itemIds, allOrNothing)) {
+                    status.setRollbackOnly();
+                }
+            });
+        } catch (DataAccessException e) {
+            logger.error("Bulk inventory update rolled back: {}", e.getMessage());
+            for (BulkUpdateReport.LineResult result : results) {
+                if (result.getStatus() == BulkUpdateReport.LineStatus.UPDATED || result.isPending()) {
+                    result.mark(BulkUpdateReport.LineStatus.FAILED, "Update rolled back: database error");
+                }
+            }
+            return report;
+        }
+
+        Set<Integer> updatedIds = new HashSet<>();
+        for (BulkUpdateReport.LineResult result : results) {
+            if (result.getStatus() == BulkUpdateReport.LineStatus.UPDATED) {
+                updatedIds.add(result.getItemId());
+            }
+        }
+        if (!updatedIds.isEmpty()) {
+            report.setApplied(true);
+            contentCache.invalidateCatalog();
+            stockIndex.refresh(updatedIds);
+            logger.info("Bulk inventory update: {} of {} lines applied to {} items",
+                    report.getUpdated(), report.getTotal(), updatedIds.size());
+        }
+        return report;
+    }
+
+    /**
+     * Read updates from a CSV file with a header row. Columns (any order, case-insensitive):
+     * itemId (or id), name, size, quantity (or qty); either itemId or name identifies the item.
+     */
+    public List<InventoryUpdate> parseCsv(InputStream content) throws IOException {
+        List<InventoryUpdate> updates = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(content, StandardCharsets.UTF_8))) {
+            Map<String, Integer> columns = null;
+            String row;
+            int lineNumber = 0;
+            while ((row = reader.readLine()) != null) {
+                lineNumber++;
+                if (lineNumber == 1 && row.startsWith("\uFEFF")) {
+                    row = row.substring(1); // Excel's UTF-8 byte order mark
+                }
+                if (row.isBlank()) {
+                    continue;
+                }
+                List<String> fields = splitCsvRow(row);
+                if (columns == null) {
+                    columns = headerColumns(fields);
+                    continue;
+                }
+                if (updates.size() >= maxLines) {
+                    throw new IllegalArgumentException("Too many inventory updates: at most " + maxLines + " lines per file");
+                }
+                updates.add(toUpdate(fields, columns, lineNumber));
+            }
+        }
+        if (updates.isEmpty()) {
+            throw new IllegalArgumentException("The file has no inventory lines");
+        }
+        return updates;
+    }
+
+    /**
+     * Checks that need no item data: required fields, names, and duplicate lines
+     */
+    private void validateLines(List<InventoryUpdate> updates, List<BulkUpdateReport.LineResult> results) {
+        Map<String, List<Integer>> idsByName = null;
+        Map<String, Integer> firstLineByKey = new HashMap<>();
+
+        for (int i = 0; i < updates.size(); i++) {
+            InventoryUpdate update = updates.get(i);
+            BulkUpdateReport.LineResult result = results.get(i);
+            if (update.getParseError() != null) {
+                result.reject(update.getParseError());
+                continue;
+            }
+
+            if (update.getItemId() == null && update.getName() != null && !update.getName().isBlank()) {
+                if (idsByName == null) {
+                    idsByName = loadIdsByName();
+                }
+                List<Integer> matches = idsByName.getOrDefault(normalizeName(update.getName()), List.of());
+                if (matches.size() != 1) {
+                    result.reject(matches.isEmpty() ? "No item named '" + update.getName().trim() + "'"
+                            : "Several items are named '" + update.getName().trim() + "'; use itemId");
+                    continue;
+                }
+                update.setItemId(matches.get(0));
+                result.setItemId(matches.get(0));
+            }
+
+            if (update.getItemId() == null) {
+                result.reject("itemId or name is required");
+            } else if (update.getQuantity() == null) {
+                result.reject("quantity is required");
+            } else if (update.getQuantity() < 0) {
+                result.reject("Quantity cannot be negative");
+            } else {
+                update.setSize(normalizeSize(update.getSize()));
+                String key = update.getItemId() + "\u0000" + (update.getSize() != null ? update.getSize() : "");
+                Integer firstLine = firstLineByKey.putIfAbsent(key, result.getLine());
+                if (firstLine != null) {
+                    result.reject("Duplicate of line " + firstLine);
+                }
+            }
+        }
+    }
+
+    /**
+     * Lock and load the items, check the remaining lines against them and write the changes
+     *
+     * @return false if nothing may be written (all-or-nothing with a rejected line)
+     */
+    private boolean write(List<InventoryUpdate> updates, List<BulkUpdateReport.LineResult> results,
+                          Set<Integer> itemIds, boolean allOrNothing) {
+        // Lock the item rows in id order, the same order reservations take them in
+        String placeholders = itemIds.stream().map(id -> "?").collect(Collectors.joining(","));
+        jdbcTemplate.queryForList("SELECT id FROM cargo_items WHERE id IN (" + placeholders + ") ORDER BY id FOR UPDATE",
+                Integer.class, itemIds.toArray());
+        Map<Integer, CargoItem> items = new HashMap<>();
+        for (CargoItem item : cargoItemRepository.findWithSizesByIdIn(itemIds)) {
+            items.put(item.getId(), item);
+        }
+
+        Set<Integer> itemsWithSizeLines = new HashSet<>();
+        for (int i = 0; i < updates.size(); i++) {
+            if (results.get(i).isPending() && updates.get(i).getSize() != null) {
+                itemsWithSizeLines.add(updates.get(i).getItemId());
+            }
+        }
+
+        // Resulting size quantities and explicit totals per item
+        Map<Integer, Map<String, Integer>> newSizes = new TreeMap<>();
+        Map<Integer, Integer> newTotals = new TreeMap<>();
+        for (int i = 0; i < updates.size(); i++) {
+            InventoryUpdate update = updates.get(i);
+            BulkUpdateReport.LineResult result = results.get(i);
+            if (!result.isPending()) {
+                continue;
+            }
+            CargoItem item = items.get(update.getItemId());
+            if (item == null) {
+                result.reject("Item not found");
+            } else if (update.getSize() == null) {
+                if (itemsWithSizeLines.contains(item.getId())) {
+                    result.reject("Conflicts with size lines for the same item; its total is recalculated from the sizes");
+                } else {
+                    result.setPreviousQuantity(item.getQuantity());
+                    newTotals.put(item.getId(), update.getQuantity());
+                }
+            } else {
+                result.setPreviousQuantity(item.getSizeQuantities().get(update.getSize()));
+                newSizes.computeIfAbsent(item.getId(), id -> new TreeMap<>(item.getSizeQuantities()))
+                        .compute(update.getSize(), (size, old) -> update.getQuantity() > 0 ? update.getQuantity() : null);
+            }
+        }
+
+        boolean anyRejected = results.stream().anyMatch(r -> r.getStatus() == BulkUpdateReport.LineStatus.REJECTED);
+        if (allOrNothing && anyRejected) {
+            for (BulkUpdateReport.LineResult result : results) {
+                if (result.isPending()) {
+                    result.mark(BulkUpdateReport.LineStatus.SKIPPED, "Not applied: other lines were rejected");
+                }
+            }
+            return false;
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> sizeUpserts = new ArrayList<>();
+        List<Object[]> sizeDeletes = new ArrayList<>();
+        for (Map.Entry<Integer, Map<String, Integer>> entry : newSizes.entrySet()) {
+            Integer itemId = entry.getKey();
+            Map<String, Integer> before = items.get(itemId).getSizeQuantities();
+            Map<String, Integer> after = entry.getValue();
+            for (String size : new TreeSet<>(before.keySet())) {
+                if (!after.containsKey(size)) {
+                    sizeDeletes.add(new Object[]{itemId, size});
+                }
+            }
+            for (Map.Entry<String, Integer> size : after.entrySet()) {
+                if (!size.getValue().equals(before.get(size.getKey()))) {
+                    sizeUpserts.add(new Object[]{itemId, size.getKey(), size.getValue()});
+                }
+            }
+            // As for single size updates: the total follows the sizes while the item has any
+            if (!after.isEmpty()) {
+                newTotals.put(itemId, after.values().stream().mapToInt(Integer::intValue).sum());
+            }
+        }
+        List<Object[]> totalUpdates = new ArrayList<>();
+        for (Map.Entry<Integer, Integer> entry : newTotals.entrySet()) {
+            totalUpdates.add(new Object[]{entry.getKey(), entry.getValue()});
+        }
+
+        for (List<Object[]> rows : chunks(sizeDeletes)) {
+            jdbcTemplate.update("DELETE FROM cargo_item_sizes WHERE (cargo_item_id, size) IN ("
+                    + repeat("(?, ?)", rows.size(), ", ") + ")", flatten(rows));
+        }
+        for (List<Object[]> rows : chunks(sizeUpserts)) {
+            jdbcTemplate.update("INSERT INTO cargo_item_sizes (cargo_item_id, size, quantity) VALUES "
+                    + repeat("(?, ?, ?)", rows.size(), ", ")
+                    + " ON DUPLICATE KEY UPDATE quantity = VALUES(quantity)", flatten(rows));
+        }
+        for (List<Object[]> rows : chunks(totalUpdates)) {
+            List<Object> args = new ArrayList<>(Arrays.asList(flatten(rows)));
+            args.add(now);
+            for (Object[] row : rows) {
+                args.add(row[0]);
+            }
+            jdbcTemplate.update("UPDATE cargo_items SET quantity = CASE id " + repeat("WHEN ? THEN ?", rows.size(), " ")
+                    + " END, updated_at = ? WHERE id IN (" + repeat("?", rows.size(), ", ") + ")", args.toArray());
+        }
+
+        for (BulkUpdateReport.LineResult result : results) {
+            if (result.isPending()) {
+                result.mark(BulkUpdateReport.LineStatus.UPDATED, null);
+            }
+        }
+        return true;
+    }
+
+    private static List<List<Object[]>> chunks(List<Object[]> rows) {
+        List<List<Object[]>> chunks = new ArrayList<>();
+        for (int from = 0; from < rows.size(); from += ROWS_PER_STATEMENT) {
+            chunks.add(rows.subList(from, Math.min(from + ROWS_PER_STATEMENT, rows.size())));
+        }
+        return chunks;
+    }
+
+    private static Object[] flatten(List<Object[]> rows) {
+        return rows.stream().flatMap(Arrays::stream).toArray();
+    }
+
+    private static String repeat(String placeholder, int count, String separator) {
+        return String.join(separator, Collections.nCopies(count, placeholder));
+    }
+
+    private Map<String, List<Integer>> loadIdsByName() {
+        Map<String, List<Integer>> idsByName = new HashMap<>();
+        for (CargoItemName item : cargoItemRepository.findAllNames()) {
+            idsByName.computeIfAbsent(normalizeName(item.getName()), k -> new ArrayList<>()).add(item.getId());
+        }
+        return idsByName;
+    }
+
+    private static Map<String, Integer> headerColumns(List<String> header) {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String column = header.get(i).trim().toLowerCase(Locale.ROOT).replace("_", "").replace(" ", "");
+            switch (column) {
+                case "itemid", "id" -> columns.putIfAbsent("itemId", i);
+                case "name", "item", "itemname" -> columns.putIfAbsent("name", i);
+                case "size" -> columns.putIfAbsent("size", i);
+                case "quantity", "qty" -> columns.putIfAbsent("quantity", i);
+                default -> { }
+            }
+        }
+        if (!columns.containsKey("quantity") || (!columns.containsKey("itemId") && !columns.containsKey("name"))) {
+            throw new IllegalArgumentException("The header row must have a quantity column and an itemId or name column");
+        }
+        return columns;
+    }
+
+    private static InventoryUpdate toUpdate(List<String> fields, Map<String, Integer> columns, int lineNumber) {
+        InventoryUpdate update = new InventoryUpdate();
+        update.setLineNumber(lineNumber);
+        update.setName(blankToNull(field(fields, columns.get("name"))));
+        update.setSize(blankToNull(field(fields, columns.get("size"))));
+        String itemId = blankToNull(field(fields, columns.get("itemId")));
+        String quantity = blankToNull(field(fields, columns.get("quantity")));
+        // Report every bad column of the row, not just the last one checked
+        List<String> errors = new ArrayList<>();
+        try {
+            update.setItemId(itemId != null ? Integer.valueOf(itemId) : null);
+        } catch (NumberFormatException e) {
+            errors.add("itemId is not a number: " + itemId);
+        }
+        try {
+            update.setQuantity(quantity != null ? Integer.valueOf(quantity) : null);
+        } catch (NumberFormatException e) {
+            errors.add("quantity is not a whole number: " + quantity);
+        }
+        if (!errors.isEmpty()) {
+            update.setParseError(String.join("; ", errors));
+        }
+        return update;
+    }
+
+    private static String field(List<String> fields, Integer index) {
+        return index != null && index < fields.size() ? fields.get(index) : null;
+    }
+
+    /**
+     * Split one CSV row; quoted fields may contain commas and doubled quotes
+     */
+    private static List<String> splitCsvRow(String row) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < row.length(); i++) {
+            char c = row.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < row.length() && row.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private static String normalizeSize(String size) {
+        return blankToNull(size);
+    }
+
+    private static String normalizeName(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,241 @@
+package com.backend.streetmed_backend.service.cargoService;
+
+import com.backend.streetmed_backend.entity.CargoItem;
+import com.backend.streetmed_backend.repository.Cargo.CargoItemName;
+import com.backend.streetmed_backend.repository.Cargo.CargoItemRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory index of cargo item names, so order lines can be matched to inventory without a
+ * LIKE scan per line. Lookup mirrors the old case-insensitive "name contains" search: an exact
+ * name wins, otherwise the lowest item id whose name contains the query (found via trigrams).
+ * The index is loaded on first use and kept current by CargoItemService after each commit.
+ * Changes made on other instances are picked up by a periodic reload, and a name the index does
+ * not know is looked up in the table before it is reported as missing. The outcome of that
+ * lookup is remembered per name: a match until the next reload, a miss for a short TTL, so a
+ * custom item name repeated on many orders costs one table scan rather than one per line.
+ */
+@Component
+public class CargoCatalogIndex {
+    private static final Logger logger = LoggerFactory.getLogger(CargoCatalogIndex.class);
+
+    private static final int MAX_DATABASE_LOOKUPS = 10_000;
+
+    private final CargoItemRepository cargoItemRepository;
+    private final long missTtlMillis;
+
+    // Authoritative id -> name map; snapshots are rebuilt from it on local changes and reloads
+    private final Map<Integer, String> names = new HashMap<>();
+    private volatile Snapshot snapshot;
+    // Table lookups for names the snapshot does not match, keyed by normalized name
+    private final Map<String, DatabaseLookup> databaseLookups = new ConcurrentHashMap<>();
+
+    @Autowired
+    public CargoCatalogIndex(CargoItemRepository cargoItemRepository,
+                             @Value("${cargo.catalog-index.miss-ttl-ms:60000}") long missTtlMillis) {
+        this.cargoItemRepository = cargoItemRepository;
+        this.missTtlMillis = missTtlMillis;
+    }
+
+    /**
+     * Find the id of the catalog item matching an order line name
+     */
+    public Optional<Integer> resolve(String name) {
+        if (name == null) {
+            return Optional.empty();
+        }
+        String query = normalize(name);
+        Integer id = currentSnapshot().lookup(query);
+        if (id != null) {
+            return Optional.of(id);
+        }
+        DatabaseLookup cached = databaseLookups.get(query);
+        if (cached != null && cached.validUntilMillis > System.currentTimeMillis()) {
+            return Optional.ofNullable(cached.id);
+        }
+        // The item may have been added on another instance since the last reload
+        return resolveFromDatabase(name, query);
+    }
+
+    /**
+     * Add an item or pick up its new name
+     */
+    public synchronized void put(Integer id, String name) {
+        if (snapshot == null) {
+            return; // not loaded yet; the first lookup reads the table
+        }
+        names.put(id, normalize(name));
+        snapshot = new Snapshot(names);
+        databaseLookups.clear();
+    }
+
+    public synchronized void remove(Integer id) {
+        if (snapshot == null) {
+            return;
+        }
+        if (names.remove(id) != null) {
+            snapshot = new Snapshot(names);
+            databaseLookups.clear();
+        }
+    }
+
+    /**
+     * Reload the whole index from the database
+     */
+    public synchronized void refresh() {
+        names.clear();
+        for (CargoItemName item : cargoItemRepository.findAllNames()) {
+            names.put(item.getId(), normalize(item.getName()));
+        }
+        snapshot = new Snapshot(names);
+        databaseLookups.clear();
+        logger.info("Cargo catalog index loaded with {} items", names.size());
+    }
+
+    /**
+     * Periodic reload, so items added, renamed or removed on other instances are seen;
+     * skipped until the index has been loaded
+     */
+    @Scheduled(fixedDelayString = "${cargo.catalog-index.refresh-interval-ms:300000}",
+            initialDelayString = "${cargo.catalog-index.refresh-interval-ms:300000}")
+    public void scheduledRefresh() {
+        if (snapshot == null) {
+            return;
+        }
+        try {
+            refresh();
+        } catch (Exception e) {
+            logger.error("Cargo catalog index reload failed: {}", e.getMessage(), e);
+        }
+    }
+
+    // Same rule as the snapshot: an exact name wins, otherwise the lowest id containing the name.
+    // A match is not added to the snapshot, which would mean a rebuild per lookup; the next
+    // reload indexes it, and until then the remembered lookup answers for the name.
+    private Optional<Integer> resolveFromDatabase(String name, String query) {
+        CargoItem exact = null;
+        CargoItem contains = null;
+        for (CargoItem item : cargoItemRepository.findByNameContainingIgnoreCase(name.trim())) {
+            if (normalize(item.getName()).equals(query) && (exact == null || item.getId() < exact.getId())) {
+                exact = item;
+            }
+            if (contains == null || item.getId() < contains.getId()) {
+                contains = item;
+            }
+        }
+        CargoItem match = exact != null ? exact : contains;
+        if (databaseLookups.size() >= MAX_DATABASE_LOOKUPS) {
+            databaseLookups.clear();
+        }
+        if (match == null) {
+            databaseLookups.put(query, new DatabaseLookup(null, System.currentTimeMillis() + missTtlMillis));
+            return Optional.empty();
+        }
+        logger.debug("Cargo item {} ({}) was missing from the catalog index", match.getId(), match.getName());
+        databaseLookups.put(query, new DatabaseLookup(match.getId(), Long.MAX_VALUE));
+        return Optional.of(match.getId());
+    }
+
+    private Snapshot currentSnapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    refresh();
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    private static String normalize(String name) {
+        return name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static class DatabaseLookup {
+        final Integer id;
+        final long validUntilMillis;
+
+        DatabaseLookup(Integer id, long validUntilMillis) {
+            this.id = id;
+            this.validUntilMillis = validUntilMillis;
+        }
+    }
+
+    /**
+     * Immutable view used by readers; rebuilt on writes, which only happen on admin edits
+     */
+    private static class Snapshot {
+        private final TreeMap<Integer, String> byId;
+        private final Map<String, Integer> exact = new HashMap<>();
+        private final Map<String, List<Integer>> trigrams = new HashMap<>();
+
+        Snapshot(Map<Integer, String> names) {
+            this.byId = new TreeMap<>(names);
+            // Ascending id order keeps every posting list sorted
+            for (Map.Entry<Integer, String> entry : byId.entrySet()) {
+                Integer id = entry.getKey();
+                String name = entry.getValue();
+                exact.putIfAbsent(name, id);
+                for (String gram : trigramsOf(name)) {
+                    List<Integer> ids = trigrams.computeIfAbsent(gram, k -> new ArrayList<>());
+                    if (ids.isEmpty() || !ids.get(ids.size() - 1).equals(id)) {
+                        ids.add(id);
+                    }
+                }
+            }
+        }
+
+        Integer lookup(String query) {
+            Integer exactId = exact.get(query);
+            if (exactId != null) {
+                return exactId;
+            }
+
+            if (query.length() < 3) {
+                // Too short for trigrams; the catalog is small enough to walk
+                for (Map.Entry<Integer, String> entry : byId.entrySet()) {
+                    if (entry.getValue().contains(query)) {
+                        return entry.getKey();
+                    }
+                }
+                return null;
+            }
+
+            // Candidates must contain every trigram of the query; walk the rarest one
+            List<Integer> candidates = null;
+            for (String gram : trigramsOf(query)) {
+                List<Integer> ids = trigrams.get(gram);
+                if (ids == null) {
+                    return null;
+                }
+                if (candidates == null || ids.size() < candidates.size()) {
+                    candidates = ids;
+                }
+            }
+            for (Integer id : candidates) {
+                if (byId.get(id).contains(query)) {
+                    return id;
+                }
+            }
+            return null;
+        }
+
+        private static Set<String> trigramsOf(String text) {
+            Set<String> grams = new HashSet<>();
+            for (int i = 0; i + 3 <= text.length(); i++) {
+                grams.add(text.substring(i, i + 3));
+            }
+            return grams;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.backend.streetmed_backend.service.cargoService;
+
+import com.backend.streetmed_backend.util.ByteWeightedLruCache;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * One byte-bounded LRU for the hottest public cargo payloads: the serialized item catalog
+ * (GET /api/cargo/items) and image bodies (GET /api/cargo/images/{id}).
+ * Images never change under an id, so their entries are only dropped when the image is deleted.
+ * The catalog is invalidated by CargoItemService after every committed stock or item change;
+ * a version number stops a load that raced with a change from caching the old catalog, and the
+ * TTL bounds staleness from changes made by other instances.
+ */
+@Component
+public class CargoContentCache {
+
+    private static final String CATALOG_KEY = "catalog";
+
+    private final ObjectMapper objectMapper;
+    private final ByteWeightedLruCache<String, CachedContent> cache;
+    private final boolean enabled;
+    private final long catalogTtlNanos;
+
+    private long catalogVersion;
+
+    @Autowired
+    public CargoContentCache(ObjectMapper objectMapper,
+                             @Value("${cargo.cache.enabled:true}") boolean enabled,
+                             @Value("${cargo.cache.max-bytes:33554432}") long maxBytes,
+                             @Value("${cargo.cache.max-entry-bytes:1048576}") long maxEntryBytes,
+                             @Value("${cargo.cache.catalog-ttl-seconds:60}") long catalogTtlSeconds) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.cache = new ByteWeightedLruCache<>(maxBytes, maxEntryBytes, content -> content.getData().length);
+        this.catalogTtlNanos = TimeUnit.SECONDS.toNanos(catalogTtlSeconds);
+    }
+
+    /**
+     * The catalog as JSON, loaded and serialized on a miss
+     */
+    public CachedContent getCatalog(Supplier<?> loader) {
+        CachedContent cached = enabled ? cache.get(CATALOG_KEY) : null;
+        if (cached != null && System.nanoTime() - cached.getCreatedAtNanos() < catalogTtlNanos) {
+            return cached;
+        }
+
+        long version;
+        synchronized (this) {
+            version = catalogVersion;
+        }
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(loader.get());
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Error serializing cargo catalog", e);
+        }
+        CachedContent content = new CachedContent(json, "application/json", etagOf(json), System.currentTimeMillis());
+        if (enabled) {
+            synchronized (this) {
+                if (catalogVersion == version) {
+                    cache.put(CATALOG_KEY, content);
+                }
+            }
+        }
+        return content;
+    }
+
+    public synchronized void invalidateCatalog() {
+        catalogVersion++;
+        cache.invalidate(CATALOG_KEY);
+    }
+
+    /**
+     * A cached image body, keyed by the image id and the requested variant (null for the original)
+     */
+    public CachedContent getImage(Integer imageId, ImageVariant variant) {
+        return enabled ? cache.get(imageKey(imageId, variant)) : null;
+    }
+
+    /**
+     * @return false if caching is off or the image is too large to cache
+     */
+    public boolean putImage(Integer imageId, ImageVariant variant, CachedContent content) {
+        return enabled && cache.put(imageKey(imageId, variant), content);
+    }
+
+    /**
+     * Whether an image of this size would be cached
+     */
+    public boolean accepts(Long size) {
+        return enabled && size != null && size <= cache.getMaxEntryWeight();
+    }
+
+    /**
+     * Drop every cached body of the given images, whatever the variant
+     */
+    public void invalidateImages(Collection<Integer> imageIds) {
+        for (Integer imageId : imageIds) {
+            String prefix = "image:" + imageId + ":";
+            cache.invalidateIf(key -> key.startsWith(prefix));
+        }
+    }
+
+    public ByteWeightedLruCache<String, CachedContent> getCache() {
+        return cache;
+    }
+
+    private static String imageKey(Integer imageId, ImageVariant variant) {
+        return "image:" + imageId + ":" + (variant != null ? variant.getKey() : "original");
+    }
+
+    private static String etagOf(byte[] data) {
+        byte[] digest = ImageStore.sha256().digest(data);
+        // 128 bits is plenty to tell catalog versions apart
+        return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+    }
+
+    /**
+     * A response body with the validators needed to answer conditional requests
+     */
+    public static class CachedContent {
+        private final byte[] data;
+        private final String contentType;
+        private final String etag;
+        private final long lastModified;
+        private final long createdAtNanos = System.nanoTime();
+
+        public CachedContent(byte[] data, String contentType, String etag, long lastModified) {
+            this.data = data;
+            this.contentType = contentType;
+            this.etag = etag;
+            this.lastModified = lastModified;
+        }
+
+        public byte[] getData() {
+            return data;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public long getLastModified() {
+            return lastModified;
+        }
+
+        long getCreatedAtNanos() {
+            return createdAtNanos;
+        }
+    }
+}
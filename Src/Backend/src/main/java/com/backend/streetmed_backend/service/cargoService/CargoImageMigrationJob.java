@@ -0,0 +1,155 @@
+package com.backend.streetmed_backend.service.cargoService;
+
+import com.backend.streetmed_backend.entity.CargoImage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One-time move of image bytes from the cargo_images.data column into the filesystem store.
+ * Rows are taken in id order, one at a time so only one blob is in memory; each file is written
+ * before its row is switched over (and the blob emptied), so an interrupted run loses nothing and
+ * simply continues with the rows that still have no storage key.
+ */
+@Service
+public class CargoImageMigrationJob {
+    private static final Logger logger = LoggerFactory.getLogger(CargoImageMigrationJob.class);
+
+    private static final String PAGE_SQL =
+            "SELECT id FROM cargo_images WHERE storage_key IS NULL AND id > ? ORDER BY id LIMIT ?";
+    // Only switch the row if nothing else migrated or replaced it meanwhile
+    private static final String SWITCH_SQL =
+            "UPDATE cargo_images SET storage_key = ?, content_hash = ?, size = ?, data = ? " +
+            "WHERE id = ? AND storage_key IS NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final DatabaseImageStore databaseStore;
+    private final FileSystemImageStore fileSystemStore;
+    private final int pageSize;
+    private final boolean runOnStartup;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile long migrated;
+    private volatile long failed;
+    private volatile long bytesMoved;
+    private volatile int lastImageId;
+
+    @Autowired
+    public CargoImageMigrationJob(JdbcTemplate jdbcTemplate,
+                                  TransactionTemplate transactionTemplate,
+                                  DatabaseImageStore databaseStore,
+                                  FileSystemImageStore fileSystemStore,
+                                  @Value("${cargo.image.migration.page-size:100}") int pageSize,
+                                  @Value("${cargo.image.migration.run-on-startup:false}") boolean runOnStartup) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.databaseStore = databaseStore;
+        this.fileSystemStore = fileSystemStore;
+        this.pageSize = pageSize;
+        this.runOnStartup = runOnStartup;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void runIfConfigured() {
+        if (runOnStartup) {
+            start();
+        }
+    }
+
+    /**
+     * Start the migration in the background
+     * @return false if it is already running
+     */
+    public boolean start() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        Thread worker = new Thread(() -> {
+            try {
+                run();
+            } catch (Exception e) {
+                logger.error("Cargo image migration stopped: {}", e.getMessage(), e);
+            } finally {
+                running.set(false);
+            }
+        }, "CargoImageMigration");
+        worker.setDaemon(true);
+        worker.start();
+        return true;
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new HashMap<>();
+        status.put("running", running.get());
+        status.put("migrated", migrated);
+        status.put("failed", failed);
+        status.put("bytesMoved", bytesMoved);
+        status.put("lastImageId", lastImageId);
+        status.put("directory", fileSystemStore.getRoot().toString());
+        return status;
+    }
+
+    private void run() {
+        migrated = 0;
+        failed = 0;
+        bytesMoved = 0;
+        lastImageId = 0;
+        long start = System.currentTimeMillis();
+        logger.info("Cargo image migration started, target directory {}", fileSystemStore.getRoot());
+
+        while (true) {
+            List<Integer> ids = jdbcTemplate.queryForList(PAGE_SQL, Integer.class, lastImageId, pageSize);
+            if (ids.isEmpty()) {
+                break;
+            }
+            for (Integer id : ids) {
+                migrate(id);
+                lastImageId = id;
+            }
+            logger.info("Cargo image migration: {} migrated, {} failed, {} bytes moved", migrated, failed, bytesMoved);
+        }
+
+        logger.info("Cargo image migration completed: {} migrated, {} failed in {} ms",
+                migrated, failed, System.currentTimeMillis() - start);
+    }
+
+    private void migrate(Integer id) {
+        try {
+            byte[] data = databaseStore.readData(id);
+            CargoImage moved = new CargoImage();
+            // The file is stored in the transaction that switches the row (see FileSystemImageStore)
+            Integer updated = transactionTemplate.execute(status -> {
+                try {
+                    fileSystemStore.store(moved, new ByteArrayInputStream(data != null ? data : new byte[0]));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return jdbcTemplate.update(SWITCH_SQL, moved.getStorageKey(), moved.getContentHash(),
+                        moved.getSize(), moved.getData(), id);
+            });
+            if (updated != null && updated == 1) {
+                migrated++;
+                bytesMoved += moved.getSize();
+            }
+        } catch (IOException | RuntimeException e) {
+            // Left in the table; the image is still served from there
+            failed++;
+            logger.error("Could not migrate cargo image {}: {}", id, e.getMessage());
+        }
+    }
+}
@@ -1,23 +1,91 @@
 package com.backend.streetmed_backend.service.cargoService;
 
+import com.backend.streetmed_backend.config.AppMetrics;
 import com.backend.streetmed_backend.entity.CargoImage;
+import com.backend.streetmed_backend.repository.Cargo.CargoImageInfo;
 import com.backend.streetmed_backend.repository.Cargo.CargoImageRepository;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
 
+/**
+ * Cargo image storage and variants.
+ * Originals are stored with their EXIF, XMP and text metadata removed (see {@link ImageMetadata}).
+ * After an upload commits, its thumbnail and medium variants are generated on the bounded
+ * imageProcessingExecutor and saved as cargo_images rows pointing at the original (variant_of).
+ * A periodic sweep queues originals that still have no variants: uploads the pool rejected,
+ * work lost to a restart, and images stored before variants existed.
+ */
 @Service
 public class CargoImageService {
+    private static final Logger logger = LoggerFactory.getLogger(CargoImageService.class);
+
+    private static final String VARIANT_CONTENT_TYPE = "image/jpeg";
+
     private final CargoImageRepository imageRepository;
+    private final DatabaseImageStore databaseStore;
+    private final FileSystemImageStore fileSystemStore;
+    private final ImageStore uploadStore;
+    private final ImageResizer imageResizer;
+    private final Executor imageProcessingExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final AppMetrics appMetrics;
+    private final CargoContentCache contentCache;
+    private final boolean variantsEnabled;
+    private final int sweepBatchSize;
+
+    // Originals queued or being processed, so the sweep does not queue them twice
+    private final Set<Integer> inFlight = ConcurrentHashMap.newKeySet();
 
     @Autowired
-    public CargoImageService(CargoImageRepository imageRepository) {
+    public CargoImageService(CargoImageRepository imageRepository,
+                             DatabaseImageStore databaseStore,
+                             FileSystemImageStore fileSystemStore,
+                             ImageResizer imageResizer,
+                             @Qualifier("imageProcessingExecutor") Executor imageProcessingExecutor,
+                             TransactionTemplate transactionTemplate,
+                             AppMetrics appMetrics,
+                             CargoContentCache contentCache,
+                             @Value("${cargo.image.store:database}") String uploadStoreName,
+                             @Value("${cargo.image.variants.enabled:true}") boolean variantsEnabled,
+                             @Value("${cargo.image.variants.sweep-batch-size:50}") int sweepBatchSize) {
         this.imageRepository = imageRepository;
+        this.databaseStore = databaseStore;
+        this.fileSystemStore = fileSystemStore;
+        this.uploadStore = fileSystemStore.getName().equalsIgnoreCase(uploadStoreName) ? fileSystemStore : databaseStore;
+        this.imageResizer = imageResizer;
+        this.imageProcessingExecutor = imageProcessingExecutor;
+        this.transactionTemplate = transactionTemplate;
+        this.appMetrics = appMetrics;
+        this.contentCache = contentCache;
+        this.variantsEnabled = variantsEnabled;
+        this.sweepBatchSize = sweepBatchSize;
     }
 
     @Transactional
@@ -25,30 +93,214 @@ public class CargoImageService {
         CargoImage image = new CargoImage();
         image.setFilename(file.getOriginalFilename());
         image.setContentType(file.getContentType());
-        image.setData(file.getBytes());
-        image.setSize(file.getSize());
+        // Camera and GPS metadata never reaches storage; the upload size limit bounds the copy
+        byte[] content = ImageMetadata.strip(file.getBytes());
+        uploadStore.store(image, new ByteArrayInputStream(content));
         image.setUploadDate(LocalDateTime.now());
         image.setCargoItemId(cargoItemId);
+        image.setProcessingStatus(CargoImage.ProcessingStatus.PENDING);
 
-        return imageRepository.save(image);
+        CargoImage savedImage = imageRepository.save(image);
+        afterCommit(() -> queueProcessing(savedImage.getId()));
+        return savedImage;
     }
 
-    public CargoImage getImage(Integer imageId) {
-        return imageRepository.findById(imageId)
+    /**
+     * Image metadata without loading its content
+     */
+    public CargoImageInfo getImageInfo(Integer imageId) {
+        return imageRepository.findInfoById(imageId)
                 .orElseThrow(() -> new RuntimeException("Image not found with ID: " + imageId));
     }
 
+    /**
+     * Metadata of a generated variant; empty until the original has been processed
+     */
+    public Optional<CargoImageInfo> findVariantInfo(Integer imageId, ImageVariant variant) {
+        return imageRepository.findInfoByVariantOfAndVariant(imageId, variant.getKey());
+    }
+
+    /**
+     * The image content from whichever store holds it
+     */
+    public Resource openImage(CargoImageInfo image) {
+        return storeFor(image).load(image);
+    }
+
     public Optional<CargoImage> findByCargoItemId(Integer cargoItemId) {
         return imageRepository.findByCargoItemId(cargoItemId);
     }
 
     @Transactional
     public void deleteImage(Integer imageId) {
+        Optional<CargoImageInfo> image = imageRepository.findInfoById(imageId);
+        List<CargoImageInfo> variants = imageRepository.findInfoByVariantOfIn(List.of(imageId));
+        deleteVariants(variants);
         imageRepository.deleteById(imageId);
+        image.ifPresent(info -> storeFor(info).delete(info));
+        afterCommit(() -> contentCache.invalidateImages(List.of(imageId)));
     }
 
     @Transactional
     public void deleteByCargoItemId(Integer cargoItemId) {
+        List<CargoImageInfo> images = imageRepository.findInfoByCargoItemId(cargoItemId);
+        if (!images.isEmpty()) {
+            deleteVariants(imageRepository.findInfoByVariantOfIn(
+                    images.stream().map(CargoImageInfo::getId).collect(Collectors.toList())));
+        }
         imageRepository.deleteByCargoItemId(cargoItemId);
+        images.forEach(info -> storeFor(info).delete(info));
+        List<Integer> imageIds = images.stream().map(CargoImageInfo::getId).collect(Collectors.toList());
+        afterCommit(() -> contentCache.invalidateImages(imageIds));
+    }
+
+    /**
+     * Queue a batch of originals that have no variants yet
+     */
+    @Scheduled(fixedDelayString = "${cargo.image.variants.sweep-interval-ms:60000}")
+    public void queueUnprocessed() {
+        if (!variantsEnabled) {
+            return;
+        }
+        List<Integer> ids = imageRepository.findUnprocessedIds(CargoImage.ProcessingStatus.PENDING,
+                PageRequest.of(0, sweepBatchSize));
+        for (Integer id : ids) {
+            if (!queueProcessing(id)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * @return false if the pool is full (the image stays pending for the next sweep)
+     */
+    private boolean queueProcessing(Integer imageId) {
+        if (!variantsEnabled || !inFlight.add(imageId)) {
+            return true;
+        }
+        try {
+            imageProcessingExecutor.execute(() -> {
+                try {
+                    processImage(imageId);
+                } finally {
+                    inFlight.remove(imageId);
+                }
+            });
+            return true;
+        } catch (RuntimeException e) {
+            inFlight.remove(imageId);
+            logger.debug("Image {} left for the next sweep: {}", imageId, e.getMessage());
+            return false;
+        }
+    }
+
+    private void processImage(Integer imageId) {
+        Timer.Sample sample = appMetrics.start();
+        Optional<CargoImageInfo> found = imageRepository.findInfoById(imageId);
+        if (found.isEmpty()) {
+            appMetrics.stop(sample, "cargo.image.process", AppMetrics.NO_ROLE, "client_error");
+            return;
+        }
+        CargoImageInfo original = found.get();
+
+        ImageResizer.ProcessedImage processed;
+        try (InputStream content = openImage(original).getInputStream()) {
+            processed = imageResizer.resize(content.readAllBytes());
+        } catch (IllegalArgumentException e) {
+            markProcessed(imageId, CargoImage.ProcessingStatus.SKIPPED, sample, e.getMessage());
+            return;
+        } catch (IOException | RuntimeException e) {
+            // Left as is; the original is still served for every variant
+            markProcessed(imageId, CargoImage.ProcessingStatus.FAILED, sample, e.getMessage());
+            return;
+        }
+        if (processed == null) {
+            markProcessed(imageId, CargoImage.ProcessingStatus.SKIPPED, sample, "format not readable");
+            return;
+        }
+
+        try {
+            // Variant files are stored in the transaction that saves their rows (see FileSystemImageStore)
+            Boolean saved = transactionTemplate.execute(status -> {
+                int updated = imageRepository.updateProcessing(imageId, CargoImage.ProcessingStatus.READY,
+                        processed.getWidth(), processed.getHeight());
+                if (updated == 0) {
+                    // Deleted while it was being processed
+                    return false;
+                }
+                List<CargoImage> variants = new ArrayList<>();
+                for (Map.Entry<ImageVariant, ImageResizer.EncodedVariant> entry : processed.getVariants().entrySet()) {
+                    variants.add(newVariant(original, entry.getKey(), entry.getValue()));
+                }
+                imageRepository.saveAll(variants);
+                return true;
+            });
+            appMetrics.stop(sample, "cargo.image.process", AppMetrics.NO_ROLE,
+                    Boolean.TRUE.equals(saved) ? "success" : "client_error");
+            logger.debug("Image {} ({}x{}) processed into {} variants",
+                    imageId, processed.getWidth(), processed.getHeight(), processed.getVariants().size());
+        } catch (RuntimeException e) {
+            markProcessed(imageId, CargoImage.ProcessingStatus.FAILED, sample, e.getMessage());
+        }
+    }
+
+    private CargoImage newVariant(CargoImageInfo original, ImageVariant variant,
+                                  ImageResizer.EncodedVariant encoded) {
+        CargoImage image = new CargoImage();
+        image.setFilename(baseName(original.getFilename()) + "-" + variant.getKey() + ".jpg");
+        image.setContentType(VARIANT_CONTENT_TYPE);
+        try {
+            uploadStore.store(image, new ByteArrayInputStream(encoded.getData()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        image.setUploadDate(LocalDateTime.now());
+        image.setWidth(encoded.getWidth());
+        image.setHeight(encoded.getHeight());
+        image.setVariantOf(original.getId());
+        image.setVariant(variant.getKey());
+        return image;
+    }
+
+    private void markProcessed(Integer imageId, CargoImage.ProcessingStatus status, Timer.Sample sample, String reason) {
+        logger.warn("Image {} not processed ({}): {}", imageId, status, reason);
+        imageRepository.updateProcessing(imageId, status, null, null);
+        appMetrics.stop(sample, "cargo.image.process", AppMetrics.NO_ROLE,
+                status == CargoImage.ProcessingStatus.FAILED ? "server_error" : "client_error");
+    }
+
+    private void deleteVariants(List<CargoImageInfo> variants) {
+        if (variants.isEmpty()) {
+            return;
+        }
+        List<Integer> variantIds = variants.stream().map(CargoImageInfo::getId).collect(Collectors.toList());
+        imageRepository.deleteAllByIdInBatch(variantIds);
+        variants.forEach(info -> storeFor(info).delete(info));
+        afterCommit(() -> contentCache.invalidateImages(variantIds));
+    }
+
+    private ImageStore storeFor(CargoImageInfo image) {
+        return image.getStorageKey() != null ? fileSystemStore : databaseStore;
+    }
+
+    private static String baseName(String filename) {
+        if (filename == null || filename.isBlank()) {
+            return "image";
+        }
+        int dot = filename.lastIndexOf('.');
+        return dot > 0 ? filename.substring(0, dot) : filename;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
     }
-}
\ No newline at end of file
+}
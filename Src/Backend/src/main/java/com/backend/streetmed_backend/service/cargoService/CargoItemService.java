@@ -6,27 +6,72 @@ import com.backend.streetmed_backend.repository.Cargo.CargoItemRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 
 @Service
 @Transactional
 public class CargoItemService {
     private final CargoItemRepository cargoItemRepository;
     private final CargoImageService cargoImageService;
+    private final JdbcTemplate jdbcTemplate;
+    private final CargoCatalogIndex catalogIndex;
+    private final CargoContentCache contentCache;
+    private final CargoStockIndex stockIndex;
+    private final CargoBulkUpdateService bulkUpdateService;
     private final Logger logger = LoggerFactory.getLogger(CargoItemService.class);
 
+    /*
+     * Conditional decrement used for every reservation line. The size row is joined only when a
+     * size is given; the stock check is against that size's quantity, or against the item total
+     * for items without sizes. Zero affected rows means the line could not be reserved.
+     */
+    private static final String RESERVE_SQL =
+            "UPDATE cargo_items c " +
+            "LEFT JOIN cargo_item_sizes s ON s.cargo_item_id = c.id AND s.size = ? " +
+            "SET c.quantity = c.quantity - ?, s.quantity = s.quantity - ?, c.updated_at = ? " +
+            "WHERE c.id = ? AND c.is_available = true " +
+            "AND (CASE WHEN ? IS NULL THEN c.quantity ELSE s.quantity END) >= ?";
+
+    /*
+     * Relative increment used to give reserved stock back. Like RESERVE_SQL it never writes an
+     * absolute value, so a reservation committing in between is not overwritten. A sized line
+     * only matches when the item still has that size.
+     */
+    private static final String RELEASE_SQL =
+            "UPDATE cargo_items c " +
+            "LEFT JOIN cargo_item_sizes s ON s.cargo_item_id = c.id AND s.size = ? " +
+            "SET c.quantity = c.quantity + ?, s.quantity = s.quantity + ?, c.updated_at = ? " +
+            "WHERE c.id = ? AND (? IS NULL OR s.cargo_item_id IS NOT NULL)";
+
     @Autowired
     public CargoItemService(CargoItemRepository cargoItemRepository,
-                            CargoImageService cargoImageService) {
+                            CargoImageService cargoImageService,
+                            JdbcTemplate jdbcTemplate,
+                            CargoCatalogIndex catalogIndex,
+                            CargoContentCache contentCache,
+                            CargoStockIndex stockIndex,
+                            CargoBulkUpdateService bulkUpdateService) {
         this.cargoItemRepository = cargoItemRepository;
         this.cargoImageService = cargoImageService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.catalogIndex = catalogIndex;
+        this.contentCache = contentCache;
+        this.stockIndex = stockIndex;
+        this.bulkUpdateService = bulkUpdateService;
     }
 
     public CargoItem createItem(CargoItem item, MultipartFile image) throws IOException {
@@ -43,11 +88,17 @@ public class CargoItemService {
 
         item.setCreatedAt(LocalDateTime.now());
         item.setUpdatedAt(LocalDateTime.now());
-        return cargoItemRepository.save(item);
+        CargoItem savedItem = cargoItemRepository.save(item);
+        afterCommit(() -> {
+            catalogIndex.put(savedItem.getId(), savedItem.getName());
+            contentCache.invalidateCatalog();
+            stockIndex.refresh(List.of(savedItem.getId()));
+        });
+        return savedItem;
     }
 
     public CargoItem updateItem(Integer id, CargoItem updatedItem, MultipartFile image) throws IOException {
-        CargoItem existingItem = cargoItemRepository.findById(id)
+        CargoItem existingItem = cargoItemRepository.findWithSizesById(id)
                 .orElseThrow(() -> new RuntimeException("Item not found"));
 
         // Validate the updated item
@@ -120,7 +171,13 @@ public class CargoItemService {
         }
 
         existingItem.setUpdatedAt(LocalDateTime.now());
-        return cargoItemRepository.save(existingItem);
+        CargoItem savedItem = cargoItemRepository.save(existingItem);
+        afterCommit(() -> {
+            catalogIndex.put(savedItem.getId(), savedItem.getName());
+            contentCache.invalidateCatalog();
+            stockIndex.refresh(List.of(savedItem.getId()));
+        });
+        return savedItem;
     }
 
     /**
@@ -142,11 +199,8 @@ public class CargoItemService {
         item.setQuantity(quantity);
         item.setUpdatedAt(LocalDateTime.now());
 
-        // Check low stock threshold
-        if (item.getMinQuantity() != null && quantity <= item.getMinQuantity()) {
-            logger.warn("Item {} has reached low stock threshold: {}", item.getName(), quantity);
-        }
-
+        // Threshold crossings are reported by the low-stock index
+        afterStockChange(List.of(id));
         return cargoItemRepository.save(item);
     }
 
@@ -157,7 +211,7 @@ public class CargoItemService {
             );
         }
 
-        CargoItem item = cargoItemRepository.findById(id)
+        CargoItem item = cargoItemRepository.findWithSizesById(id)
                 .orElseThrow(() -> new RuntimeException("Item not found"));
 
         item.updateSizeQuantity(size, quantity);
@@ -170,6 +224,7 @@ public class CargoItemService {
         }
 
         cargoItemRepository.save(item);
+        afterStockChange(List.of(id));
     }
 
     /**
@@ -188,7 +243,7 @@ public class CargoItemService {
     }
 
     public boolean checkSizeAvailability(Integer id, String size, Integer requestedQuantity) {
-        CargoItem item = cargoItemRepository.findById(id)
+        CargoItem item = cargoItemRepository.findWithSizesById(id)
                 .orElseThrow(() -> new RuntimeException("Item not found"));
 
         return item.getIsAvailable() && item.isAvailableInSize(size, requestedQuantity);
@@ -206,6 +261,11 @@ public class CargoItemService {
         }
 
         cargoItemRepository.delete(item);
+        afterCommit(() -> {
+            catalogIndex.remove(id);
+            contentCache.invalidateCatalog();
+            stockIndex.refresh(List.of(id));
+        });
     }
 
     // Query methods
@@ -213,6 +273,14 @@ public class CargoItemService {
         return cargoItemRepository.findAll();
     }
 
+    /**
+     * All items as serialized JSON with its ETag, served from the content cache
+     */
+    @Transactional(readOnly = true)
+    public CargoContentCache.CachedContent getCatalog() {
+        return contentCache.getCatalog(cargoItemRepository::findAll);
+    }
+
     public List<CargoItem> getAvailableItems() {
         return cargoItemRepository.findByIsAvailableTrue();
     }
@@ -221,8 +289,22 @@ public class CargoItemService {
         return cargoItemRepository.findByCategoryAndIsAvailableTrue(category);
     }
 
+    /**
+     * Items at or below their minimum quantity, looked up from the low-stock index
+     * (the table is scanned only until the index has loaded)
+     */
     public List<CargoItem> getLowStockItems() {
-        return cargoItemRepository.findLowStockItems();
+        if (!stockIndex.isLoaded()) {
+            return cargoItemRepository.findLowStockItems();
+        }
+        List<Integer> ids = new ArrayList<>();
+        for (CargoStockIndex.StockLevel level : stockIndex.getLowStock()) {
+            ids.add(level.getItemId());
+        }
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return cargoItemRepository.findWithSizesByIdIn(ids);
     }
 
     public List<CargoItem> searchItems(String name) {
@@ -233,24 +315,59 @@ public class CargoItemService {
         return cargoItemRepository.findItemsBySize(size);
     }
 
-    // Batch operations
-    @Transactional
-    public void batchUpdateQuantities(List<Map<String, Object>> updates) {
-        for (Map<String, Object> update : updates) {
-            Integer itemId = (Integer) update.get("itemId");
-            Integer quantity = (Integer) update.get("quantity");
-            String size = (String) update.get("size");
-
-            try {
-                if (size != null) {
-                    updateSizeQuantity(itemId, size, quantity);
-                } else {
-                    updateQuantity(itemId, quantity);
-                }
-            } catch (Exception e) {
-                logger.error("Failed to update item {}: {}", itemId, e.getMessage());
+    /**
+     * Match order line names to catalog items through the in-memory name index.
+     * Names without a catalog match are left out of the result.
+     *
+     * @param names The item names as entered on the order
+     * @return The matched items (sizes loaded) keyed by the given name
+     */
+    public Map<String, CargoItem> resolveByNames(Collection<String> names) {
+        Map<String, Integer> idsByName = new HashMap<>();
+        for (String name : names) {
+            catalogIndex.resolve(name).ifPresent(id -> idsByName.put(name, id));
+        }
+        if (idsByName.isEmpty()) {
+            return new HashMap<>();
+        }
+
+        Map<Integer, CargoItem> itemsById = new HashMap<>();
+        for (CargoItem item : cargoItemRepository.findWithSizesByIdIn(new HashSet<>(idsByName.values()))) {
+            itemsById.put(item.getId(), item);
+        }
+
+        Map<String, CargoItem> resolved = new HashMap<>();
+        for (Map.Entry<String, Integer> entry : idsByName.entrySet()) {
+            CargoItem item = itemsById.get(entry.getValue());
+            if (item != null) {
+                resolved.put(entry.getKey(), item);
             }
         }
+        return resolved;
+    }
+
+    // Batch operations
+    /**
+     * Set the stock of many items and sizes at once; runs in its own transaction, see CargoBulkUpdateService
+     *
+     * @param updates The update lines, in input order
+     * @param allOrNothing Write nothing unless every line is valid
+     * @return A result for every line
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkUpdateReport batchUpdateQuantities(List<InventoryUpdate> updates, boolean allOrNothing) {
+        return bulkUpdateService.apply(updates, allOrNothing);
+    }
+
+    /**
+     * Bulk update from an uploaded CSV file (header row with itemId or name, size, quantity)
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkUpdateReport batchUpdateFromCsv(MultipartFile file, boolean allOrNothing) throws IOException {
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("No file uploaded");
+        }
+        return bulkUpdateService.apply(bulkUpdateService.parseCsv(file.getInputStream()), allOrNothing);
     }
 
     // Inventory management methods
@@ -263,62 +380,144 @@ public class CargoItemService {
      */
     @Transactional
     public void reserveItems(Integer id, Integer quantity) {
-        if (quantity <= 0) {
-            throw new IllegalArgumentException("Reserve quantity must be positive");
-        }
+        reserveAll(List.of(new InventoryReservation(id, null, null, quantity)));
+    }
 
-        CargoItem item = cargoItemRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Item not found"));
+    @Transactional
+    public void reserveSizedItem(Integer id, String size, Integer quantity) {
+        reserveAll(List.of(new InventoryReservation(id, null, size, quantity)));
+    }
 
-        if (!checkAvailability(id, quantity)) {
-            throw new RuntimeException("Insufficient quantity available for item ID: " + id);
+    /**
+     * Reserve every line in one JDBC batch of conditional updates.
+     * Each statement only decrements stock that is actually there, so two concurrent orders can
+     * never both take the last unit; if any line cannot be satisfied the whole reservation fails
+     * and the surrounding transaction rolls back the lines already taken.
+     *
+     * @param reservations The lines to reserve
+     */
+    @Transactional
+    public void reserveAll(List<InventoryReservation> reservations) {
+        if (reservations.isEmpty()) {
+            return;
         }
-
-        // Reduce the available quantity
-        int newQuantity = item.getQuantity() - quantity;
-        if (newQuantity < 0) {
-            throw new RuntimeException("Cannot reserve more items than available");
+        for (InventoryReservation reservation : reservations) {
+            if (reservation.getQuantity() <= 0) {
+                throw new IllegalArgumentException("Reserve quantity must be positive");
+            }
         }
 
-        item.setQuantity(newQuantity);
-        item.setUpdatedAt(LocalDateTime.now());
+        // Update rows in a fixed order so concurrent orders lock them in the same sequence
+        List<InventoryReservation> ordered = new ArrayList<>(reservations);
+        ordered.sort(Comparator.comparing(InventoryReservation::getItemId)
+                .thenComparing(InventoryReservation::getSize, Comparator.nullsFirst(Comparator.naturalOrder())));
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[] updated = jdbcTemplate.batchUpdate(RESERVE_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                InventoryReservation reservation = ordered.get(i);
+                ps.setString(1, reservation.getSize());
+                ps.setInt(2, reservation.getQuantity());
+                ps.setInt(3, reservation.getQuantity());
+                ps.setTimestamp(4, now);
+                ps.setInt(5, reservation.getItemId());
+                ps.setString(6, reservation.getSize());
+                ps.setInt(7, reservation.getQuantity());
+            }
 
-        // Check low stock threshold
-        if (item.getMinQuantity() != null && item.getQuantity() <= item.getMinQuantity()) {
-            logger.warn("Item {} has reached low stock threshold: {}", item.getName(), item.getQuantity());
-        }
+            @Override
+            public int getBatchSize() {
+                return ordered.size();
+            }
+        });
 
-        cargoItemRepository.save(item);
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                InventoryReservation failed = ordered.get(i);
+                if (!cargoItemRepository.existsById(failed.getItemId())) {
+                    throw new RuntimeException("Item not found");
+                }
+                logger.warn("Reservation of {} x{} rejected: insufficient stock", failed.describe(), failed.getQuantity());
+                throw new RuntimeException("Insufficient quantity available for: " + failed.describe());
+            }
+        }
+        afterStockChange(ordered.stream().map(InventoryReservation::getItemId).distinct().toList());
     }
 
+    /**
+     * Give reserved stock back, e.g. when an order is cancelled, in one JDBC batch of relative updates.
+     * Lines for items or sizes that no longer exist are skipped.
+     *
+     * @param releases The lines to put back
+     */
     @Transactional
-    public void reserveSizedItem(Integer id, String size, Integer quantity) {
-        if (quantity <= 0) {
-            throw new IllegalArgumentException("Reserve quantity must be positive");
+    public void releaseAll(List<InventoryReservation> releases) {
+        if (releases.isEmpty()) {
+            return;
         }
-
-        CargoItem item = cargoItemRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Item not found"));
-
-        if (!checkSizeAvailability(id, size, quantity)) {
-            throw new RuntimeException("Insufficient quantity available for size: " + size);
+        for (InventoryReservation release : releases) {
+            if (release.getQuantity() <= 0) {
+                throw new IllegalArgumentException("Release quantity must be positive");
+            }
         }
 
-        Map<String, Integer> sizes = item.getSizeQuantities();
-        int currentQty = sizes.getOrDefault(size, 0);
-        int newQty = currentQty - quantity;
+        // Same lock order as reserveAll
+        List<InventoryReservation> ordered = new ArrayList<>(releases);
+        ordered.sort(Comparator.comparing(InventoryReservation::getItemId)
+                .thenComparing(InventoryReservation::getSize, Comparator.nullsFirst(Comparator.naturalOrder())));
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[] updated = jdbcTemplate.batchUpdate(RELEASE_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                InventoryReservation release = ordered.get(i);
+                ps.setString(1, release.getSize());
+                ps.setInt(2, release.getQuantity());
+                ps.setInt(3, release.getQuantity());
+                ps.setTimestamp(4, now);
+                ps.setInt(5, release.getItemId());
+                ps.setString(6, release.getSize());
+            }
 
-        if (newQty < 0) {
-            throw new RuntimeException("Cannot reserve more items than available for size: " + size);
-        }
+            @Override
+            public int getBatchSize() {
+                return ordered.size();
+            }
+        });
 
-        sizes.put(size, newQty);
-        item.setSizeQuantities(sizes);
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                logger.warn("Release of {} x{} skipped: item or size no longer exists",
+                        ordered.get(i).describe(), ordered.get(i).getQuantity());
+            }
+        }
+        afterStockChange(ordered.stream().map(InventoryReservation::getItemId).distinct().toList());
+    }
 
-        // Update total quantity
-        int total = sizes.values().stream().mapToInt(Integer::intValue).sum();
-        item.setQuantity(total);
+    /**
+     * After commit: drop the cached catalog and re-check the items against their thresholds
+     */
+    private void afterStockChange(Collection<Integer> itemIds) {
+        afterCommit(() -> {
+            contentCache.invalidateCatalog();
+            stockIndex.refresh(itemIds);
+        });
+    }
 
-        cargoItemRepository.save(item);
+    /**
+     * Run an index or cache update once the current transaction commits (immediately if there is none)
+     */
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,181 @@
+package com.backend.streetmed_backend.service.cargoService;
+
+import com.backend.streetmed_backend.repository.Cargo.CargoItemRepository;
+import com.backend.streetmed_backend.repository.Cargo.CargoStockLevel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * In-memory stock levels of every cargo item, with the set of items at or below their minimum
+ * quantity (same rule as findLowStockItems: quantity <= minQuantity and available).
+ * CargoItemService hands over the ids it changed after each commit; their current figures are
+ * re-read on the single StockEvents thread, so refreshes apply in commit order, and a
+ * {@link LowStockEvent} is published only when an item crosses its threshold.
+ * A periodic full reconcile picks up changes made by other instances or missed refreshes.
+ */
+@Component
+public class CargoStockIndex {
+    private static final Logger logger = LoggerFactory.getLogger(CargoStockIndex.class);
+
+    private final CargoItemRepository cargoItemRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Executor stockEventExecutor;
+
+    private final Map<Integer, StockLevel> levels = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    @Autowired
+    public CargoStockIndex(CargoItemRepository cargoItemRepository,
+                           ApplicationEventPublisher eventPublisher,
+                           @Qualifier("stockEventExecutor") Executor stockEventExecutor) {
+        this.cargoItemRepository = cargoItemRepository;
+        this.eventPublisher = eventPublisher;
+        this.stockEventExecutor = stockEventExecutor;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        submit(this::reconcile);
+    }
+
+    /**
+     * Re-read the given items in the background and publish any threshold crossings
+     */
+    public void refresh(Collection<Integer> itemIds) {
+        if (itemIds.isEmpty()) {
+            return;
+        }
+        List<Integer> ids = new ArrayList<>(itemIds);
+        submit(() -> apply(ids, cargoItemRepository.findStockLevelsByIdIn(ids)));
+    }
+
+    @Scheduled(fixedDelayString = "${cargo.low-stock.reconcile-interval-ms:300000}",
+               initialDelayString = "${cargo.low-stock.reconcile-interval-ms:300000}")
+    public void scheduledReconcile() {
+        submit(this::reconcile);
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Items currently at or below their minimum quantity, lowest stock first
+     */
+    public List<StockLevel> getLowStock() {
+        List<StockLevel> low = new ArrayList<>();
+        for (StockLevel level : levels.values()) {
+            if (level.isLow()) {
+                low.add(level);
+            }
+        }
+        low.sort(Comparator.comparing(StockLevel::getQuantity).thenComparing(StockLevel::getItemId));
+        return low;
+    }
+
+    private void reconcile() {
+        List<CargoStockLevel> rows = cargoItemRepository.findAllStockLevels();
+        Set<Integer> ids = new HashSet<>(levels.keySet());
+        for (CargoStockLevel row : rows) {
+            ids.add(row.getId());
+        }
+        // Items loaded for the first time are a baseline, not a crossing
+        apply(ids, rows);
+        if (!loaded) {
+            loaded = true;
+            logger.info("Low-stock index loaded: {} items, {} low", levels.size(), getLowStock().size());
+        }
+    }
+
+    // Only ever runs on the StockEvents thread
+    private void apply(Collection<Integer> ids, List<CargoStockLevel> rows) {
+        Set<Integer> missing = new HashSet<>(ids);
+        for (CargoStockLevel row : rows) {
+            missing.remove(row.getId());
+            StockLevel next = new StockLevel(row);
+            StockLevel previous = levels.put(row.getId(), next);
+            boolean wasLow = previous != null ? previous.isLow() : !loaded && next.isLow();
+            if (wasLow != next.isLow()) {
+                LowStockEvent event = new LowStockEvent(next.isLow() ? LowStockEvent.Type.LOW
+                        : LowStockEvent.Type.RECOVERED, next);
+                logger.info("Stock {}: {} at {} (minimum {})", event.getType(), next.getName(),
+                        next.getQuantity(), next.getMinQuantity());
+                eventPublisher.publishEvent(event);
+            }
+        }
+        // Deleted items simply leave the index
+        missing.forEach(levels::remove);
+    }
+
+    private void submit(Runnable task) {
+        try {
+            stockEventExecutor.execute(() -> {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    logger.error("Low-stock index update failed: {}", e.getMessage(), e);
+                }
+            });
+        } catch (RuntimeException e) {
+            // The next reconcile brings the index up to date
+            logger.warn("Low-stock index update dropped: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Immutable stock figures of one item
+     */
+    public static class StockLevel {
+        private final Integer itemId;
+        private final String name;
+        private final Integer quantity;
+        private final Integer minQuantity;
+        private final boolean low;
+
+        StockLevel(CargoStockLevel row) {
+            this.itemId = row.getId();
+            this.name = row.getName();
+            this.quantity = row.getQuantity() != null ? row.getQuantity() : 0;
+            this.minQuantity = row.getMinQuantity();
+            this.low = Boolean.TRUE.equals(row.getIsAvailable())
+                    && minQuantity != null && quantity <= minQuantity;
+        }
+
+        public Integer getItemId() {
+            return itemId;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Integer getQuantity() {
+            return quantity;
+        }
+
+        public Integer getMinQuantity() {
+            return minQuantity;
+        }
+
+        public boolean isLow() {
+            return low;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.backend.streetmed_backend.service.cargoService;
+
+import com.backend.streetmed_backend.entity.CargoImage;
+import com.backend.streetmed_backend.repository.Cargo.CargoImageInfo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.ZoneId;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Images kept in the LONGBLOB column of cargo_images (the original storage).
+ * The blob is only queried when the response body is written, so metadata lookups and
+ * 304 responses never load it.
+ */
+@Component
+public class DatabaseImageStore implements ImageStore {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public DatabaseImageStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public String getName() {
+        return "database";
+    }
+
+    @Override
+    public void store(CargoImage image, InputStream content) throws IOException {
+        byte[] data = content.readAllBytes();
+        image.setData(data);
+        image.setSize((long) data.length);
+        image.setContentHash(HexFormat.of().formatHex(ImageStore.sha256().digest(data)));
+        image.setStorageKey(null);
+    }
+
+    @Override
+    public Resource load(CargoImageInfo image) {
+        return new BlobResource(image);
+    }
+
+    @Override
+    public void delete(CargoImageInfo image) {
+        // The bytes went with the row
+    }
+
+    byte[] readData(Integer imageId) throws FileNotFoundException {
+        List<byte[]> rows = jdbcTemplate.query("SELECT data FROM cargo_images WHERE id = ?",
+                (rs, rowNum) -> rs.getBytes(1), imageId);
+        if (rows.isEmpty()) {
+            throw new FileNotFoundException("Image not found with ID: " + imageId);
+        }
+        return rows.get(0);
+    }
+
+    private class BlobResource extends AbstractResource {
+        private final CargoImageInfo image;
+
+        BlobResource(CargoImageInfo image) {
+            this.image = image;
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return new ByteArrayInputStream(readData(image.getId()));
+        }
+
+        @Override
+        public long contentLength() throws IOException {
+            return image.getSize() != null ? image.getSize() : super.contentLength();
+        }
+
+        @Override
+        public long lastModified() {
+            return image.getUploadDate().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        }
+
+        @Override
+        public String getFilename() {
+            return image.getFilename();
+        }
+
+        @Override
+        public String getDescription() {
+            return "cargo image " + image.getId() + " [database]";
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.backend.streetmed_backend.service.cargoService;
+
+import com.backend.streetmed_backend.entity.CargoImage;
+import com.backend.streetmed_backend.repository.Cargo.CargoImageInfo;
+import com.backend.streetmed_backend.repository.Cargo.CargoImageRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+/**
+ * Images kept as files named by the SHA-256 of their content, under
+ * cargo.image.directory/ab/cd/abcd.... Identical uploads share one file, files never change
+ * once written, and they are served straight from disk (sendfile where the connector supports it).
+ * Because files are shared, a delete can see no committed row for a file that an upload still in
+ * flight is about to reference. store() therefore keeps its upload's copy until the storing
+ * transaction commits and puts the file back if it was deleted meanwhile; the existence check and
+ * restore, and the reference count and delete, run under the same per-key lock.
+ */
+@Component
+public class FileSystemImageStore implements ImageStore {
+    private static final Logger logger = LoggerFactory.getLogger(FileSystemImageStore.class);
+
+    private static final byte[] NO_DATA = new byte[0];
+    private static final int LOCK_STRIPES = 64;
+
+    private final CargoImageRepository imageRepository;
+    private final Path root;
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    @Autowired
+    public FileSystemImageStore(CargoImageRepository imageRepository,
+                                @Value("${cargo.image.directory:./data/cargo-images}") String directory) {
+        this.imageRepository = imageRepository;
+        this.root = Paths.get(directory).toAbsolutePath().normalize();
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "filesystem";
+    }
+
+    /**
+     * Call inside the transaction that saves the row, so the file is protected until it commits
+     */
+    @Override
+    public void store(CargoImage image, InputStream content) throws IOException {
+        Path tmpDir = root.resolve("tmp");
+        Files.createDirectories(tmpDir);
+        Path tmp = Files.createTempFile(tmpDir, "upload-", ".part");
+        boolean keepUntilCommit = false;
+        try {
+            MessageDigest digest = ImageStore.sha256();
+            long size;
+            try (InputStream in = new DigestInputStream(content, digest);
+                 OutputStream out = Files.newOutputStream(tmp)) {
+                size = in.transferTo(out);
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path target = path(hash);
+            publishIfMissing(hash, tmp, target);
+
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        try {
+                            // A delete that ran before this row was visible may have removed the file
+                            if (status == STATUS_COMMITTED) {
+                                publishIfMissing(hash, tmp, target);
+                            }
+                        } catch (IOException e) {
+                            logger.error("Could not restore image file {}: {}", hash, e.getMessage());
+                        } finally {
+                            deleteQuietly(tmp);
+                        }
+                    }
+                });
+                keepUntilCommit = true;
+            }
+
+            image.setStorageKey(hash);
+            image.setContentHash(hash);
+            image.setSize(size);
+            // The column is NOT NULL in existing schemas
+            image.setData(NO_DATA);
+        } finally {
+            if (!keepUntilCommit) {
+                deleteQuietly(tmp);
+            }
+        }
+    }
+
+    @Override
+    public Resource load(CargoImageInfo image) {
+        return new FileSystemResource(path(image.getStorageKey()));
+    }
+
+    /**
+     * Delete the file once no row refers to it, after the deleting transaction commits
+     */
+    @Override
+    public void delete(CargoImageInfo image) {
+        String key = image.getStorageKey();
+        if (key == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deleteIfUnreferenced(key);
+                }
+            });
+        } else {
+            deleteIfUnreferenced(key);
+        }
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    Path path(String key) {
+        if (key == null || !key.matches("[0-9a-f]{64}")) {
+            throw new IllegalArgumentException("Invalid image storage key");
+        }
+        return root.resolve(key.substring(0, 2)).resolve(key.substring(2, 4)).resolve(key);
+    }
+
+    private void deleteIfUnreferenced(String key) {
+        try {
+            synchronized (lockFor(key)) {
+                if (imageRepository.countByStorageKey(key) == 0) {
+                    Files.deleteIfExists(path(key));
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("Could not delete image file {}: {}", key, e.getMessage());
+        }
+    }
+
+    /**
+     * Copy the upload into place unless the content is already stored; the upload itself is kept
+     */
+    private void publishIfMissing(String key, Path upload, Path target) throws IOException {
+        synchronized (lockFor(key)) {
+            if (Files.exists(target)) {
+                return;
+            }
+            Files.createDirectories(target.getParent());
+            Path copy = Files.createTempFile(upload.getParent(), "publish-", ".part");
+            try {
+                Files.copy(upload, copy, StandardCopyOption.REPLACE_EXISTING);
+                moveIntoPlace(copy, target);
+            } finally {
+                Files.deleteIfExists(copy);
+            }
+        }
+    }
+
+    private Object lockFor(String key) {
+        return locks[(key.hashCode() & 0x7fffffff) % LOCK_STRIPES];
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Could not delete temporary file {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static void moveIntoPlace(Path tmp, Path target) throws IOException {
+        try {
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            try {
+                Files.move(tmp, target);
+            } catch (FileAlreadyExistsException alreadyStored) {
+                // Same content stored concurrently
+            }
+        } catch (FileAlreadyExistsException alreadyStored) {
+            // Same content stored concurrently
+        }
+    }
+}
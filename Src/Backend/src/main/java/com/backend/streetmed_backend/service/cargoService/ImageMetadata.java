@@ -0,0 +1,285 @@
+package com.backend.streetmed_backend.service.cargoService;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+/**
+ * Reads the EXIF orientation of JPEG and PNG uploads and removes their metadata without
+ * re-encoding the pixels. Camera, GPS, XMP, IPTC and comment data is dropped; the JFIF, ICC
+ * profile and Adobe segments are kept because they affect how the pixels are decoded, and the
+ * orientation is written back as a one-entry EXIF block so the original still displays upright.
+ * Other formats, and files too damaged to walk, are returned unchanged.
+ */
+final class ImageMetadata {
+
+    static final int NORMAL = 1;
+
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final byte[] EXIF_HEADER = {'E', 'x', 'i', 'f', 0, 0};
+    private static final int ORIENTATION_TAG = 0x0112;
+
+    private static final int APP0 = 0xE0;
+    private static final int APP1 = 0xE1;
+    private static final int APP2 = 0xE2;
+    private static final int APP14 = 0xEE;
+    private static final int APP15 = 0xEF;
+    private static final int COM = 0xFE;
+    private static final int SOS = 0xDA;
+    private static final int EOI = 0xD9;
+
+    // Ancillary PNG chunks that carry text, timestamps or EXIF
+    private static final Set<String> PNG_METADATA_CHUNKS = Set.of("eXIf", "tEXt", "zTXt", "iTXt", "tIME");
+
+    private ImageMetadata() {
+    }
+
+    /**
+     * EXIF orientation (1-8), or {@link #NORMAL} when there is none
+     */
+    static int orientation(byte[] data) {
+        byte[] exif = isJpeg(data) ? jpegExif(data) : isPng(data) ? pngExif(data) : null;
+        int orientation = exif != null ? tiffOrientation(exif) : NORMAL;
+        return orientation >= 1 && orientation <= 8 ? orientation : NORMAL;
+    }
+
+    /**
+     * The same image with its metadata removed
+     */
+    static byte[] strip(byte[] data) {
+        if (isJpeg(data)) {
+            byte[] stripped = stripJpeg(data);
+            return stripped != null ? stripped : data;
+        }
+        if (isPng(data)) {
+            byte[] stripped = stripPng(data);
+            return stripped != null ? stripped : data;
+        }
+        return data;
+    }
+
+    private static boolean isJpeg(byte[] data) {
+        return data.length > 3 && (data[0] & 0xFF) == 0xFF && (data[1] & 0xFF) == 0xD8;
+    }
+
+    private static boolean isPng(byte[] data) {
+        return data.length > PNG_SIGNATURE.length
+                && Arrays.equals(data, 0, PNG_SIGNATURE.length, PNG_SIGNATURE, 0, PNG_SIGNATURE.length);
+    }
+
+    /**
+     * TIFF block of the first EXIF APP1 segment
+     */
+    private static byte[] jpegExif(byte[] data) {
+        int pos = 2;
+        while (pos + 4 <= data.length && (data[pos] & 0xFF) == 0xFF) {
+            int marker = data[pos + 1] & 0xFF;
+            if (marker == SOS || marker == EOI) {
+                return null;
+            }
+            int end = pos + 2 + u16(data, pos + 2, true);
+            if (end > data.length) {
+                return null;
+            }
+            if (marker == APP1 && startsWith(data, pos + 4, end, EXIF_HEADER)) {
+                return Arrays.copyOfRange(data, pos + 4 + EXIF_HEADER.length, end);
+            }
+            pos = end;
+        }
+        return null;
+    }
+
+    /**
+     * Copy of the JPEG without APP1/APP3-APP13/APP15 and comment segments,
+     * or null if the segment structure is broken
+     */
+    private static byte[] stripJpeg(byte[] data) {
+        int orientation = orientation(data);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length);
+        out.write(data, 0, 2);
+        boolean orientationWritten = orientation == NORMAL;
+        int pos = 2;
+        while (pos + 2 <= data.length) {
+            if ((data[pos] & 0xFF) != 0xFF) {
+                return null;
+            }
+            int marker = data[pos + 1] & 0xFF;
+            if (marker == 0xFF) {
+                pos++; // fill byte
+                continue;
+            }
+            // The replacement EXIF goes right after JFIF, which has to stay the first segment
+            if (!orientationWritten && marker != APP0) {
+                byte[] exif = orientationExif(orientation);
+                out.write(0xFF);
+                out.write(APP1);
+                writeU16(out, exif.length + 2);
+                out.write(exif, 0, exif.length);
+                orientationWritten = true;
+            }
+            if (marker == SOS || marker == EOI) {
+                out.write(data, pos, data.length - pos);
+                return out.toByteArray();
+            }
+            if (marker == 0x01 || (marker >= 0xD0 && marker <= 0xD7)) {
+                out.write(data, pos, 2);
+                pos += 2;
+                continue;
+            }
+            if (pos + 4 > data.length) {
+                return null;
+            }
+            int end = pos + 2 + u16(data, pos + 2, true);
+            if (end > data.length || end < pos + 4) {
+                return null;
+            }
+            boolean keep = marker == APP0 || marker == APP2 || marker == APP14
+                    || ((marker < APP0 || marker > APP15) && marker != COM);
+            if (keep) {
+                out.write(data, pos, end - pos);
+            }
+            pos = end;
+        }
+        return null;
+    }
+
+    /**
+     * Payload of the first eXIf chunk
+     */
+    private static byte[] pngExif(byte[] data) {
+        int pos = PNG_SIGNATURE.length;
+        while (pos + 12 <= data.length) {
+            long length = u32(data, pos, true);
+            if (length > data.length - pos - 12) {
+                return null;
+            }
+            String type = new String(data, pos + 4, 4, StandardCharsets.ISO_8859_1);
+            if (type.equals("eXIf")) {
+                return Arrays.copyOfRange(data, pos + 8, pos + 8 + (int) length);
+            }
+            pos += 12 + (int) length;
+        }
+        return null;
+    }
+
+    private static byte[] stripPng(byte[] data) {
+        int orientation = orientation(data);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length);
+        out.write(data, 0, PNG_SIGNATURE.length);
+        int pos = PNG_SIGNATURE.length;
+        while (pos + 12 <= data.length) {
+            long length = u32(data, pos, true);
+            if (length > data.length - pos - 12) {
+                return null;
+            }
+            int end = pos + 12 + (int) length;
+            String type = new String(data, pos + 4, 4, StandardCharsets.ISO_8859_1);
+            if (type.equals("IDAT") && orientation != NORMAL) {
+                // eXIf has to come before the image data, and holds the TIFF block without the JPEG header
+                byte[] exif = orientationExif(orientation);
+                writePngChunk(out, "eXIf", Arrays.copyOfRange(exif, EXIF_HEADER.length, exif.length));
+                orientation = NORMAL;
+            }
+            if (!PNG_METADATA_CHUNKS.contains(type)) {
+                out.write(data, pos, end - pos);
+            }
+            if (type.equals("IEND")) {
+                return out.toByteArray();
+            }
+            pos = end;
+        }
+        return null;
+    }
+
+    private static void writePngChunk(ByteArrayOutputStream out, String type, byte[] payload) {
+        byte[] typeBytes = type.getBytes(StandardCharsets.ISO_8859_1);
+        writeU32(out, payload.length);
+        out.write(typeBytes, 0, typeBytes.length);
+        out.write(payload, 0, payload.length);
+        CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(payload);
+        writeU32(out, crc.getValue());
+    }
+
+    /**
+     * "Exif\0\0" followed by a big-endian TIFF header and an IFD holding only the orientation
+     */
+    private static byte[] orientationExif(int orientation) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(32);
+        out.write(EXIF_HEADER, 0, EXIF_HEADER.length);
+        out.write('M');
+        out.write('M');
+        writeU16(out, 42);
+        writeU32(out, 8);           // IFD0 right after the header
+        writeU16(out, 1);           // one entry
+        writeU16(out, ORIENTATION_TAG);
+        writeU16(out, 3);           // SHORT
+        writeU32(out, 1);
+        writeU16(out, orientation);
+        writeU16(out, 0);           // value padding
+        writeU32(out, 0);           // no next IFD
+        return out.toByteArray();
+    }
+
+    /**
+     * Orientation tag of IFD0 in a TIFF block, or NORMAL
+     */
+    private static int tiffOrientation(byte[] tiff) {
+        if (tiff.length < 8) {
+            return NORMAL;
+        }
+        boolean bigEndian;
+        if (tiff[0] == 'M' && tiff[1] == 'M') {
+            bigEndian = true;
+        } else if (tiff[0] == 'I' && tiff[1] == 'I') {
+            bigEndian = false;
+        } else {
+            return NORMAL;
+        }
+        long ifd = u32(tiff, 4, bigEndian);
+        if (ifd < 8 || ifd + 2 > tiff.length) {
+            return NORMAL;
+        }
+        int count = u16(tiff, (int) ifd, bigEndian);
+        for (int i = 0; i < count; i++) {
+            int entry = (int) ifd + 2 + i * 12;
+            if (entry + 12 > tiff.length) {
+                return NORMAL;
+            }
+            if (u16(tiff, entry, bigEndian) == ORIENTATION_TAG && u16(tiff, entry + 2, bigEndian) == 3) {
+                return u16(tiff, entry + 8, bigEndian);
+            }
+        }
+        return NORMAL;
+    }
+
+    private static boolean startsWith(byte[] data, int from, int to, byte[] prefix) {
+        return to - from >= prefix.length
+                && Arrays.equals(data, from, from + prefix.length, prefix, 0, prefix.length);
+    }
+
+    private static int u16(byte[] data, int pos, boolean bigEndian) {
+        int a = data[pos] & 0xFF;
+        int b = data[pos + 1] & 0xFF;
+        return bigEndian ? (a << 8) | b : (b << 8) | a;
+    }
+
+    private static long u32(byte[] data, int pos, boolean bigEndian) {
+        long high = u16(data, bigEndian ? pos : pos + 2, bigEndian);
+        long low = u16(data, bigEndian ? pos + 2 : pos, bigEndian);
+        return (high << 16) | low;
+    }
+
+    private static void writeU16(ByteArrayOutputStream out, int value) {
+        out.write((value >> 8) & 0xFF);
+        out.write(value & 0xFF);
+    }
+
+    private static void writeU32(ByteArrayOutputStream out, long value) {
+        writeU16(out, (int) ((value >> 16) & 0xFFFF));
+        writeU16(out, (int) (value & 0xFFFF));
+    }
+}
@@ -0,0 +1,240 @@
+package com.backend.streetmed_backend.service.cargoService;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Decodes an uploaded image with javax.imageio and encodes each {@link ImageVariant} as JPEG.
+ * The EXIF orientation is applied to the pixels before scaling, since the variants carry no
+ * metadata; the encoder writes pixels only, so EXIF (camera, GPS location) does not reach them.
+ * Large sources are subsampled while decoding, so memory use is bounded by the variant sizes
+ * rather than the upload, and images over max-pixels are refused.
+ */
+@Component
+public class ImageResizer {
+
+    private final long maxPixels;
+    private final float jpegQuality;
+
+    public ImageResizer(@Value("${cargo.image.variants.max-pixels:40000000}") long maxPixels,
+                        @Value("${cargo.image.variants.jpeg-quality:0.8}") float jpegQuality) {
+        this.maxPixels = maxPixels;
+        this.jpegQuality = jpegQuality;
+    }
+
+    /**
+     * Resize an image into every variant
+     *
+     * @return null if no installed ImageIO reader understands the format
+     * @throws IllegalArgumentException if the image has more pixels than allowed
+     * @throws IOException if the image cannot be decoded or encoded
+     */
+    public ProcessedImage resize(byte[] data) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(data))) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    throw new IllegalArgumentException("Image too large to process: " + width + "x" + height);
+                }
+
+                // Decode at no less than twice the largest variant; the rest is done by scale()
+                int largest = 0;
+                for (ImageVariant variant : ImageVariant.values()) {
+                    largest = Math.max(largest, variant.getMaxDimension());
+                }
+                int subsampling = Math.max(1, Math.max(width, height) / (2 * largest));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                int orientation = ImageMetadata.orientation(data);
+                BufferedImage decoded = orient(reader.read(0, param), orientation);
+                if (orientation >= 5) {
+                    // Rotated a quarter turn: the displayed image is height x width
+                    int stored = width;
+                    width = height;
+                    height = stored;
+                }
+
+                Map<ImageVariant, EncodedVariant> variants = new EnumMap<>(ImageVariant.class);
+                for (ImageVariant variant : ImageVariant.values()) {
+                    double ratio = Math.min(1.0, (double) variant.getMaxDimension() / Math.max(width, height));
+                    int targetWidth = Math.max(1, (int) Math.round(width * ratio));
+                    int targetHeight = Math.max(1, (int) Math.round(height * ratio));
+                    BufferedImage scaled = scale(decoded, targetWidth, targetHeight);
+                    variants.put(variant, new EncodedVariant(encodeJpeg(scaled), targetWidth, targetHeight));
+                }
+                return new ProcessedImage(width, height, variants);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Turn and mirror the decoded pixels the way a viewer would for the EXIF orientation (1-8)
+     */
+    private static BufferedImage orient(BufferedImage source, int orientation) {
+        if (orientation <= ImageMetadata.NORMAL || orientation > 8) {
+            return source;
+        }
+        int w = source.getWidth();
+        int h = source.getHeight();
+        AffineTransform transform;
+        switch (orientation) {
+            case 2: // mirrored
+                transform = new AffineTransform(-1, 0, 0, 1, w, 0);
+                break;
+            case 3: // upside down
+                transform = new AffineTransform(-1, 0, 0, -1, w, h);
+                break;
+            case 4: // mirrored vertically
+                transform = new AffineTransform(1, 0, 0, -1, 0, h);
+                break;
+            case 5: // transposed
+                transform = new AffineTransform(0, 1, 1, 0, 0, 0);
+                break;
+            case 6: // turned 90 clockwise
+                transform = new AffineTransform(0, 1, -1, 0, h, 0);
+                break;
+            case 7: // transversed
+                transform = new AffineTransform(0, -1, -1, 0, h, w);
+                break;
+            default: // turned 90 counter-clockwise
+                transform = new AffineTransform(0, -1, 1, 0, 0, w);
+                break;
+        }
+        boolean quarterTurn = orientation >= 5;
+        BufferedImage oriented = new BufferedImage(quarterTurn ? h : w, quarterTurn ? w : h,
+                source.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = oriented.createGraphics();
+        try {
+            graphics.drawImage(source, transform, null);
+        } finally {
+            graphics.dispose();
+        }
+        return oriented;
+    }
+
+    /**
+     * Downscale in halving steps (a single bicubic pass from far above the target aliases),
+     * drawing onto white so transparent areas do not turn black in the JPEG
+     */
+    private static BufferedImage scale(BufferedImage source, int targetWidth, int targetHeight) {
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            BufferedImage next = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = next.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.setColor(Color.WHITE);
+                graphics.fillRect(0, 0, width, height);
+                graphics.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = next;
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    private byte[] encodeJpeg(BufferedImage image) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("jpeg");
+        if (!writers.hasNext()) {
+            throw new IOException("No JPEG encoder available");
+        }
+        ImageWriter writer = writers.next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Dimensions of the original and its encoded variants
+     */
+    public static class ProcessedImage {
+        private final int width;
+        private final int height;
+        private final Map<ImageVariant, EncodedVariant> variants;
+
+        ProcessedImage(int width, int height, Map<ImageVariant, EncodedVariant> variants) {
+            this.width = width;
+            this.height = height;
+            this.variants = variants;
+        }
+
+        public int getWidth() {
+            return width;
+        }
+
+        public int getHeight() {
+            return height;
+        }
+
+        public Map<ImageVariant, EncodedVariant> getVariants() {
+            return variants;
+        }
+    }
+
+    public static class EncodedVariant {
+        private final byte[] data;
+        private final int width;
+        private final int height;
+
+        EncodedVariant(byte[] data, int width, int height) {
+            this.data = data;
+            this.width = width;
+            this.height = height;
+        }
+
+        public byte[] getData() {
+            return data;
+        }
+
+        public int getWidth() {
+            return width;
+        }
+
+        public int getHeight() {
+            return height;
+        }
+    }
+}
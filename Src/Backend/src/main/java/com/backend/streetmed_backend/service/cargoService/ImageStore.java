@@ -0,0 +1,54 @@
+package com.backend.streetmed_backend.service.cargoService;
+
+import com.backend.streetmed_backend.entity.CargoImage;
+import com.backend.streetmed_backend.repository.Cargo.CargoImageInfo;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Where cargo image bytes live. The database store keeps them in cargo_images.data; the
+ * filesystem store keeps one content-addressed file per distinct image. New uploads go to the
+ * store named by cargo.image.store, and each row is read from the store that holds it.
+ */
+public interface ImageStore {
+
+    String getName();
+
+    /**
+     * Write the content and record its location, hash and size on the image (the caller saves it)
+     */
+    void store(CargoImage image, InputStream content) throws IOException;
+
+    /**
+     * The image content; nothing is read until the resource is opened
+     */
+    Resource load(CargoImageInfo image);
+
+    /**
+     * Release the content of an image whose row has been deleted
+     */
+    void delete(CargoImageInfo image);
+
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * ETag for an image: the content hash, or id and upload time for rows stored before hashes were kept
+     */
+    static String etag(CargoImageInfo image) {
+        if (image.getContentHash() != null) {
+            return "\"" + image.getContentHash() + "\"";
+        }
+        String uploaded = String.valueOf(image.getUploadDate());
+        return "\"" + image.getId() + "-" + Integer.toHexString(uploaded.hashCode()) + "\"";
+    }
+}
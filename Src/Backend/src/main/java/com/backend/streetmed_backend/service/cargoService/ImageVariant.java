@@ -0,0 +1,44 @@
+package com.backend.streetmed_backend.service.cargoService;
+
+/**
+ * Resized copies generated for every uploaded cargo image, requested with ?variant=.
+ * Each fits in a square of maxDimension pixels (never upscaled) and is re-encoded as JPEG.
+ */
+public enum ImageVariant {
+    THUMBNAIL("thumb", 160),
+    MEDIUM("medium", 640);
+
+    private final String key;
+    private final int maxDimension;
+
+    ImageVariant(String key, int maxDimension) {
+        this.key = key;
+        this.maxDimension = maxDimension;
+    }
+
+    /**
+     * Name used in the ?variant= parameter and the cargo_images.variant column
+     */
+    public String getKey() {
+        return key;
+    }
+
+    public int getMaxDimension() {
+        return maxDimension;
+    }
+
+    /**
+     * The variant for a request parameter; null means the original
+     */
+    public static ImageVariant fromParameter(String value) {
+        if (value == null || value.isBlank() || "original".equalsIgnoreCase(value)) {
+            return null;
+        }
+        for (ImageVariant variant : values()) {
+            if (variant.key.equalsIgnoreCase(value) || variant.name().equalsIgnoreCase(value)) {
+                return variant;
+            }
+        }
+        throw new IllegalArgumentException("Unknown image variant: " + value);
+    }
+}
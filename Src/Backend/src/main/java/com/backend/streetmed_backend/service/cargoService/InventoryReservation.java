@@ -0,0 +1,46 @@
+package com.backend.streetmed_backend.service.cargoService;
+
+/**
+ * One line of an inventory reservation: take {@code quantity} units of a cargo item,
+ * optionally from a specific size.
+ */
+public class InventoryReservation {
+    private final Integer itemId;
+    private final String itemName;
+    private final String size;
+    private final int quantity;
+
+    public InventoryReservation(Integer itemId, String itemName, String size, int quantity) {
+        this.itemId = itemId;
+        this.itemName = itemName;
+        this.size = size;
+        this.quantity = quantity;
+    }
+
+    public Integer getItemId() {
+        return itemId;
+    }
+
+    public String getItemName() {
+        return itemName;
+    }
+
+    /**
+     * Size to reserve from, or null for items without sizes
+     */
+    public String getSize() {
+        return size;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    /**
+     * Label used in error messages, e.g. "Gloves (Size: M)"
+     */
+    public String describe() {
+        String label = itemName != null ? itemName : "item ID " + itemId;
+        return size != null ? label + " (Size: " + size + ")" : label;
+    }
+}
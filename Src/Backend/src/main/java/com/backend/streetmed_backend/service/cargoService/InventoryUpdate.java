@@ -0,0 +1,81 @@
+package com.backend.streetmed_backend.service.cargoService;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * One line of a bulk inventory update: set the stock of a cargo item, or of one of its sizes,
+ * to {@code quantity}. The item is given by id or, for spreadsheet uploads, by exact name.
+ * Setting a size to 0 removes it, as a single size update does.
+ */
+public class InventoryUpdate {
+    private Integer itemId;
+    private String name;
+    private String size;
+    private Integer quantity;
+
+    // Set by the CSV reader: source line number and any error parsing the row
+    private int lineNumber;
+    private String parseError;
+
+    public InventoryUpdate() {
+    }
+
+    public InventoryUpdate(Integer itemId, String size, Integer quantity) {
+        this.itemId = itemId;
+        this.size = size;
+        this.quantity = quantity;
+    }
+
+    public Integer getItemId() {
+        return itemId;
+    }
+
+    public void setItemId(Integer itemId) {
+        this.itemId = itemId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Size to set, or null to set the item total
+     */
+    public String getSize() {
+        return size;
+    }
+
+    public void setSize(String size) {
+        this.size = size;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    @JsonIgnore
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    void setLineNumber(int lineNumber) {
+        this.lineNumber = lineNumber;
+    }
+
+    @JsonIgnore
+    public String getParseError() {
+        return parseError;
+    }
+
+    void setParseError(String parseError) {
+        this.parseError = parseError;
+    }
+}
@@ -0,0 +1,89 @@
+package com.backend.streetmed_backend.service.cargoService;
+
+import com.backend.streetmed_backend.repository.User.UserRepository;
+import com.backend.streetmed_backend.service.EmailService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Collects low-stock crossings and sends one daily email per recipient with the day's
+ * crossings and every item still low. Recipients are cargo.low-stock.digest-recipients or,
+ * when that is empty, every admin with an email address. Nothing is sent on a quiet day.
+ */
+@Component
+public class LowStockDigest {
+    private static final Logger logger = LoggerFactory.getLogger(LowStockDigest.class);
+
+    private static final int MAX_PENDING_EVENTS = 1000;
+
+    private final CargoStockIndex stockIndex;
+    private final EmailService emailService;
+    private final UserRepository userRepository;
+    private final List<String> configuredRecipients;
+
+    private final Deque<LowStockEvent> pending = new ArrayDeque<>();
+
+    @Autowired
+    public LowStockDigest(CargoStockIndex stockIndex,
+                          EmailService emailService,
+                          UserRepository userRepository,
+                          @Value("${cargo.low-stock.digest-recipients:}") String recipients) {
+        this.stockIndex = stockIndex;
+        this.emailService = emailService;
+        this.userRepository = userRepository;
+        this.configuredRecipients = Arrays.stream(recipients.split(","))
+                .map(String::trim)
+                .filter(recipient -> !recipient.isEmpty())
+                .toList();
+    }
+
+    @EventListener
+    public synchronized void onLowStock(LowStockEvent event) {
+        if (pending.size() >= MAX_PENDING_EVENTS) {
+            pending.removeFirst();
+        }
+        pending.addLast(event);
+    }
+
+    @Scheduled(cron = "${cargo.low-stock.digest-cron:0 0 7 * * *}")
+    public void sendDigest() {
+        List<LowStockEvent> events;
+        synchronized (this) {
+            events = new ArrayList<>(pending);
+            pending.clear();
+        }
+        List<CargoStockIndex.StockLevel> lowStock = stockIndex.getLowStock();
+        if (events.isEmpty() && lowStock.isEmpty()) {
+            return;
+        }
+
+        Set<String> recipients = new LinkedHashSet<>(configuredRecipients);
+        if (recipients.isEmpty()) {
+            recipients.addAll(userRepository.findEmailsByRole("ADMIN"));
+        }
+        if (recipients.isEmpty()) {
+            logger.warn("Low-stock digest not sent: no recipients ({} items low)", lowStock.size());
+            return;
+        }
+        for (String recipient : recipients) {
+            try {
+                emailService.sendLowStockDigest(recipient, lowStock, events);
+            } catch (RuntimeException e) {
+                logger.error("Could not queue low-stock digest for {}: {}", recipient, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.backend.streetmed_backend.service.cargoService;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * An item crossed its minimum quantity: LOW when stock fell to or below it,
+ * RECOVERED when it rose back above it (or the item stopped being available)
+ */
+public class LowStockEvent {
+
+    public enum Type {
+        LOW, RECOVERED
+    }
+
+    private final Type type;
+    private final Integer itemId;
+    private final String name;
+    private final Integer quantity;
+    private final Integer minQuantity;
+    private final LocalDateTime occurredAt;
+
+    public LowStockEvent(Type type, CargoStockIndex.StockLevel level) {
+        this.type = type;
+        this.itemId = level.getItemId();
+        this.name = level.getName();
+        this.quantity = level.getQuantity();
+        this.minQuantity = level.getMinQuantity();
+        this.occurredAt = LocalDateTime.now();
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Integer getItemId() {
+        return itemId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public Integer getMinQuantity() {
+        return minQuantity;
+    }
+
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("type", type.name());
+        map.put("itemId", itemId);
+        map.put("name", name);
+        map.put("quantity", quantity);
+        map.put("minQuantity", minQuantity);
+        map.put("occurredAt", occurredAt.toString());
+        return map;
+    }
+}
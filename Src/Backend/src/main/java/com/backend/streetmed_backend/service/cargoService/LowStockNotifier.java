@@ -0,0 +1,199 @@
+package com.backend.streetmed_backend.service.cargoService;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Pushes low-stock threshold crossings to admin dashboards over Server-Sent Events.
+ * A new subscriber first receives a "snapshot" event with every item currently low, then one
+ * "low-stock" event per crossing. A comment line every heartbeat interval keeps proxies from
+ * closing idle streams and detects clients that went away.
+ * Each subscriber has its own queue of pending events, drained on the lowStockSseExecutor, so
+ * publishing only enqueues and a slow client holds up no one but itself. A client that falls
+ * more than {@value #MAX_PENDING_EVENTS} events behind is disconnected; it reconnects and starts
+ * over from a fresh snapshot.
+ */
+@Component
+public class LowStockNotifier {
+    private static final Logger logger = LoggerFactory.getLogger(LowStockNotifier.class);
+
+    static final int MAX_PENDING_EVENTS = 100;
+
+    private final CargoStockIndex stockIndex;
+    private final Executor sseExecutor;
+    private final long timeoutMillis;
+    private final int maxSubscribers;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    public LowStockNotifier(CargoStockIndex stockIndex,
+                            @Qualifier("lowStockSseExecutor") Executor sseExecutor,
+                            @Value("${cargo.low-stock.sse-timeout-ms:1800000}") long timeoutMillis,
+                            @Value("${cargo.low-stock.sse-max-subscribers:50}") int maxSubscribers) {
+        this.stockIndex = stockIndex;
+        this.sseExecutor = sseExecutor;
+        this.timeoutMillis = timeoutMillis;
+        this.maxSubscribers = maxSubscribers;
+    }
+
+    /**
+     * One open stream and the events waiting to be sent on it
+     */
+    private static final class Subscriber {
+        final SseEmitter emitter;
+        // Guarded by this
+        final Deque<SseEmitter.SseEventBuilder> pending = new ArrayDeque<>();
+        // Guarded by this: the snapshot is queued, so events may go out
+        boolean started;
+        // Guarded by this: a drain task is scheduled or running
+        boolean draining;
+        volatile boolean closed;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+
+    /**
+     * Open a stream for one dashboard; clients reconnect when it times out
+     */
+    public SseEmitter subscribe() {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new RuntimeException("Too many low-stock subscribers, please try again later");
+        }
+        Subscriber subscriber = new Subscriber(newEmitter());
+        subscriber.emitter.onCompletion(() -> close(subscriber));
+        subscriber.emitter.onTimeout(() -> close(subscriber));
+        subscriber.emitter.onError(e -> close(subscriber));
+
+        // Registered before the snapshot is taken, so no crossing falls between the two. Crossings
+        // that arrive meanwhile wait in the queue and go out after the snapshot; one the snapshot
+        // already reflects is simply repeated.
+        subscribers.add(subscriber);
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("loaded", stockIndex.isLoaded());
+        snapshot.put("items", stockIndex.getLowStock());
+        synchronized (subscriber) {
+            subscriber.pending.addFirst(SseEmitter.event().name("snapshot").data(snapshot, MediaType.APPLICATION_JSON));
+            subscriber.started = true;
+            subscriber.draining = true;
+        }
+        scheduleDrain(subscriber);
+        return subscriber.emitter;
+    }
+
+    @EventListener
+    public void onLowStock(LowStockEvent event) {
+        Map<String, Object> data = event.toMap();
+        broadcast(() -> SseEmitter.event().name("low-stock").data(data, MediaType.APPLICATION_JSON));
+    }
+
+    @Scheduled(fixedDelayString = "${cargo.low-stock.sse-heartbeat-ms:25000}")
+    public void heartbeat() {
+        broadcast(() -> SseEmitter.event().comment("keep-alive"));
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    // Tests replace the emitter to watch what is sent
+    SseEmitter newEmitter() {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    // A builder is consumed by the send, so each subscriber gets its own
+    private void broadcast(Supplier<SseEmitter.SseEventBuilder> event) {
+        for (Subscriber subscriber : subscribers) {
+            boolean overflow = false;
+            boolean schedule = false;
+            synchronized (subscriber) {
+                if (subscriber.closed) {
+                    continue;
+                }
+                if (subscriber.pending.size() >= MAX_PENDING_EVENTS) {
+                    overflow = true;
+                } else {
+                    subscriber.pending.addLast(event.get());
+                    if (subscriber.started && !subscriber.draining) {
+                        subscriber.draining = true;
+                        schedule = true;
+                    }
+                }
+            }
+            if (overflow) {
+                logger.warn("Low-stock subscriber is {} events behind, disconnecting it", MAX_PENDING_EVENTS);
+                drop(subscriber);
+            } else if (schedule) {
+                scheduleDrain(subscriber);
+            }
+        }
+    }
+
+    private void scheduleDrain(Subscriber subscriber) {
+        try {
+            sseExecutor.execute(() -> drain(subscriber));
+        } catch (RuntimeException e) {
+            logger.warn("Low-stock stream executor is busy, disconnecting a subscriber: {}", e.getMessage());
+            drop(subscriber);
+        }
+    }
+
+    /**
+     * Send the subscriber's pending events in order; only one drain runs per subscriber at a time
+     */
+    private void drain(Subscriber subscriber) {
+        while (true) {
+            SseEmitter.SseEventBuilder next;
+            synchronized (subscriber) {
+                next = subscriber.closed ? null : subscriber.pending.pollFirst();
+                if (next == null) {
+                    subscriber.draining = false;
+                    return;
+                }
+            }
+            try {
+                subscriber.emitter.send(next);
+            } catch (IOException | IllegalStateException e) {
+                drop(subscriber);
+                return;
+            }
+        }
+    }
+
+    private void close(Subscriber subscriber) {
+        subscriber.closed = true;
+        subscribers.remove(subscriber);
+    }
+
+    private void drop(Subscriber subscriber) {
+        close(subscriber);
+        synchronized (subscriber) {
+            subscriber.pending.clear();
+        }
+        try {
+            subscriber.emitter.complete();
+        } catch (RuntimeException e) {
+            logger.debug("Low-stock stream already closed: {}", e.getMessage());
+        }
+    }
+}
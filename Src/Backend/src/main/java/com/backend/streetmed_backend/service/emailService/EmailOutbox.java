@@ -0,0 +1,86 @@
+package com.backend.streetmed_backend.service.emailService;
+
+import com.backend.streetmed_backend.entity.email_entity.EmailOutboxMessage;
+import com.backend.streetmed_backend.repository.Email.EmailOutboxRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write side of the email outbox.
+ * Messages are inserted in the caller's transaction, so they are only sent if the business
+ * change that triggered them commits; {@link EmailOutboxDispatcher} delivers them.
+ * An identical message (same recipient, subject and body) queued again within the
+ * de-duplication window is dropped.
+ */
+@Service
+public class EmailOutbox {
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutbox.class);
+
+    private final EmailOutboxRepository outboxRepository;
+    private final long dedupWindowMinutes;
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong deduplicated = new AtomicLong();
+
+    @Autowired
+    public EmailOutbox(EmailOutboxRepository outboxRepository,
+                       @Value("${email.outbox.dedup-window-minutes:10}") long dedupWindowMinutes) {
+        this.outboxRepository = outboxRepository;
+        this.dedupWindowMinutes = dedupWindowMinutes;
+    }
+
+    /**
+     * Queue a plain-text email
+     * @return false if an identical message was queued within the de-duplication window
+     */
+    @Transactional(propagation = Propagation.REQUIRED)
+    public boolean enqueue(String recipient, String subject, String body) {
+        if (recipient == null || recipient.isBlank()) {
+            throw new RuntimeException("Email recipient is required");
+        }
+        String dedupKey = dedupKey(recipient, subject, body);
+        if (dedupWindowMinutes > 0 && outboxRepository.existsByDedupKeyAndCreatedAtAfter(
+                dedupKey, LocalDateTime.now().minusMinutes(dedupWindowMinutes))) {
+            deduplicated.incrementAndGet();
+            logger.info("Skipping duplicate email \"{}\" to: {}", subject, recipient);
+            return false;
+        }
+        outboxRepository.save(new EmailOutboxMessage(recipient, subject, body, dedupKey));
+        enqueued.incrementAndGet();
+        return true;
+    }
+
+    public long getEnqueuedCount() {
+        return enqueued.get();
+    }
+
+    public long getDeduplicatedCount() {
+        return deduplicated.get();
+    }
+
+    static String dedupKey(String recipient, String subject, String body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(recipient.trim().toLowerCase().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(String.valueOf(subject).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(String.valueOf(body).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 not available", e);
+        }
+    }
+}
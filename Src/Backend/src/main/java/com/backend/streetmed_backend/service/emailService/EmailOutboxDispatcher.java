@@ -0,0 +1,318 @@
+package com.backend.streetmed_backend.service.emailService;
+
+import com.backend.streetmed_backend.entity.email_entity.EmailOutboxMessage;
+import com.backend.streetmed_backend.repository.Email.EmailOutboxRepository;
+import jakarta.mail.internet.AddressException;
+import jakarta.mail.internet.InternetAddress;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers queued {@link EmailOutboxMessage}s.
+ * Each poll claims up to batch-size due rows with SELECT ... FOR UPDATE SKIP LOCKED, so several
+ * instances can drain the table without sending a message twice, and leases them as SENDING.
+ * The batch goes to one {@code JavaMailSender.send(...)} call, which opens a single SMTP
+ * connection for all of its messages. Failed messages are retried with exponential backoff and
+ * jitter until max-attempts, then marked FAILED. A lease that expires (the instance died while
+ * sending) makes the row due again. The body is cleared once a message is SENT or FAILED, and
+ * both are purged after the retention period.
+ */
+@Service
+public class EmailOutboxDispatcher {
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxDispatcher.class);
+
+    private static final String CLAIM_SQL =
+            "SELECT id, recipient, subject, body, dedup_key, attempts FROM email_outbox " +
+            "WHERE status IN ('PENDING', 'SENDING') AND next_attempt_at <= ? " +
+            "ORDER BY next_attempt_at, id LIMIT ? FOR UPDATE SKIP LOCKED";
+    private static final String LEASE_SQL =
+            "UPDATE email_outbox SET status = 'SENDING', attempts = attempts + 1, next_attempt_at = ? WHERE id = ?";
+    // The body is dropped once sent: some messages carry one-time codes or initial passwords
+    private static final String SENT_SQL =
+            "UPDATE email_outbox SET status = 'SENT', sent_at = ?, body = NULL, last_error = ? WHERE id = ?";
+    private static final String RETRY_SQL =
+            "UPDATE email_outbox SET status = 'PENDING', next_attempt_at = ?, last_error = ? WHERE id = ?";
+    // A message that will never be sent needs its body even less
+    private static final String FAILED_SQL =
+            "UPDATE email_outbox SET status = 'FAILED', next_attempt_at = ?, body = NULL, last_error = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EmailOutboxRepository outboxRepository;
+    private final EmailOutbox emailOutbox;
+    private final JavaMailSender mailSender;
+
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final long leaseMillis;
+    private final int retentionDays;
+
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong duplicatesInBatch = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong sendNanos = new AtomicLong();
+    private volatile int lastBatchSize;
+    private volatile long lastBatchMillis;
+
+    @Autowired
+    public EmailOutboxDispatcher(JdbcTemplate jdbcTemplate,
+                                 TransactionTemplate transactionTemplate,
+                                 EmailOutboxRepository outboxRepository,
+                                 EmailOutbox emailOutbox,
+                                 JavaMailSender mailSender,
+                                 @Value("${email.outbox.batch-size:50}") int batchSize,
+                                 @Value("${email.outbox.max-attempts:6}") int maxAttempts,
+                                 @Value("${email.outbox.initial-backoff-ms:30000}") long initialBackoffMillis,
+                                 @Value("${email.outbox.max-backoff-ms:3600000}") long maxBackoffMillis,
+                                 @Value("${email.outbox.lease-ms:300000}") long leaseMillis,
+                                 @Value("${email.outbox.retention-days:7}") int retentionDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.outboxRepository = outboxRepository;
+        this.emailOutbox = emailOutbox;
+        this.mailSender = mailSender;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.leaseMillis = leaseMillis;
+        this.retentionDays = retentionDays;
+    }
+
+    /**
+     * Send due messages until the outbox has none left or a batch comes back short
+     */
+    @Scheduled(fixedDelayString = "${email.outbox.poll-interval-ms:2000}")
+    public void dispatch() {
+        try {
+            int claimed;
+            do {
+                claimed = dispatchBatch();
+            } while (claimed == batchSize);
+        } catch (Exception e) {
+            logger.error("Email outbox dispatch failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Claim, send and record one batch
+     * @return number of messages claimed
+     */
+    public int dispatchBatch() {
+        List<OutboxRow> batch = claim();
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        long start = System.nanoTime();
+
+        List<Object[]> sentUpdates = new ArrayList<>();
+        List<Object[]> retryUpdates = new ArrayList<>();
+        List<Object[]> failedUpdates = new ArrayList<>();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        // Drop repeats of the same message and reject unusable addresses before opening the connection
+        Map<String, OutboxRow> unique = new LinkedHashMap<>();
+        for (OutboxRow row : batch) {
+            if (unique.containsKey(row.dedupKey)) {
+                duplicatesInBatch.incrementAndGet();
+                sentUpdates.add(new Object[]{now, "Duplicate of message " + unique.get(row.dedupKey).id, row.id});
+                continue;
+            }
+            try {
+                new InternetAddress(row.recipient, true).validate();
+            } catch (AddressException e) {
+                failed.incrementAndGet();
+                logger.error("Email {} to {} has an invalid address, not retrying", row.id, row.recipient);
+                failedUpdates.add(new Object[]{now, truncate("Invalid address: " + e.getMessage()), row.id});
+                continue;
+            }
+            unique.put(row.dedupKey, row);
+        }
+
+        Map<SimpleMailMessage, OutboxRow> messages = new IdentityHashMap<>();
+        for (OutboxRow row : unique.values()) {
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setTo(row.recipient);
+            message.setSubject(row.subject);
+            message.setText(row.body);
+            messages.put(message, row);
+        }
+
+        Map<OutboxRow, Exception> failures = new HashMap<>();
+        if (!messages.isEmpty()) {
+            try {
+                mailSender.send(messages.keySet().toArray(new SimpleMailMessage[0]));
+            } catch (MailSendException e) {
+                Map<Object, Exception> failedMessages = e.getFailedMessages();
+                if (failedMessages.isEmpty()) {
+                    messages.values().forEach(row -> failures.put(row, e));
+                } else {
+                    failedMessages.forEach((message, cause) -> {
+                        OutboxRow row = messages.get(message);
+                        if (row != null) {
+                            failures.put(row, cause);
+                        }
+                    });
+                }
+            } catch (MailException e) {
+                // Authentication or configuration problem: nothing in the batch was sent
+                messages.values().forEach(row -> failures.put(row, e));
+            }
+        }
+
+        for (OutboxRow row : messages.values()) {
+            Exception cause = failures.get(row);
+            if (cause == null) {
+                sent.incrementAndGet();
+                sentUpdates.add(new Object[]{now, null, row.id});
+            } else if (row.attempts >= maxAttempts) {
+                failed.incrementAndGet();
+                logger.error("Giving up on email {} to {} after {} attempts: {}",
+                        row.id, row.recipient, row.attempts, cause.getMessage());
+                failedUpdates.add(new Object[]{now, truncate(cause.getMessage()), row.id});
+            } else {
+                retried.incrementAndGet();
+                LocalDateTime nextAttempt = LocalDateTime.now().plusNanos(
+                        TimeUnit.MILLISECONDS.toNanos(backoffMillis(row.attempts)));
+                logger.warn("Email {} to {} failed (attempt {}), retrying at {}: {}",
+                        row.id, row.recipient, row.attempts, nextAttempt, cause.getMessage());
+                retryUpdates.add(new Object[]{Timestamp.valueOf(nextAttempt), truncate(cause.getMessage()), row.id});
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!sentUpdates.isEmpty()) {
+                jdbcTemplate.batchUpdate(SENT_SQL, sentUpdates);
+            }
+            if (!retryUpdates.isEmpty()) {
+                jdbcTemplate.batchUpdate(RETRY_SQL, retryUpdates);
+            }
+            if (!failedUpdates.isEmpty()) {
+                jdbcTemplate.batchUpdate(FAILED_SQL, failedUpdates);
+            }
+        });
+
+        long elapsed = System.nanoTime() - start;
+        sendNanos.addAndGet(elapsed);
+        batches.incrementAndGet();
+        lastBatchSize = batch.size();
+        lastBatchMillis = TimeUnit.NANOSECONDS.toMillis(elapsed);
+        logger.info("Email outbox batch: {} claimed, {} sent, {} failed in {} ms",
+                batch.size(), messages.size() - failures.size(), failures.size(), lastBatchMillis);
+        return batch.size();
+    }
+
+    /**
+     * Remove sent and failed messages past the retention period
+     */
+    @Scheduled(fixedDelay = 3600000)
+    public void purgeFinishedMessages() {
+        int removed = outboxRepository.deleteByStatusInAndCreatedAtBefore(
+                EnumSet.of(EmailOutboxMessage.Status.SENT, EmailOutboxMessage.Status.FAILED),
+                LocalDateTime.now().minusDays(retentionDays));
+        if (removed > 0) {
+            logger.info("Purged {} sent or failed emails from the outbox", removed);
+        }
+    }
+
+    /**
+     * Delivery counters and throughput for monitoring
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new HashMap<>();
+        long sentCount = sent.get();
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(sendNanos.get());
+        metrics.put("pending", outboxRepository.countByStatusIn(
+                EnumSet.of(EmailOutboxMessage.Status.PENDING, EmailOutboxMessage.Status.SENDING)));
+        metrics.put("enqueued", emailOutbox.getEnqueuedCount());
+        metrics.put("sent", sentCount);
+        metrics.put("retried", retried.get());
+        metrics.put("failed", failed.get());
+        metrics.put("deduplicated", emailOutbox.getDeduplicatedCount() + duplicatesInBatch.get());
+        metrics.put("batches", batches.get());
+        metrics.put("lastBatchSize", lastBatchSize);
+        metrics.put("lastBatchMillis", lastBatchMillis);
+        metrics.put("messagesPerSecond", elapsedMillis == 0 ? 0 : sentCount * 1000 / elapsedMillis);
+        return metrics;
+    }
+
+    private List<OutboxRow> claim() {
+        List<OutboxRow> claimed = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<OutboxRow> rows = jdbcTemplate.query(CLAIM_SQL,
+                    (rs, rowNum) -> new OutboxRow(rs.getLong("id"), rs.getString("recipient"),
+                            rs.getString("subject"), rs.getString("body"), rs.getString("dedup_key"),
+                            rs.getInt("attempts") + 1),
+                    Timestamp.valueOf(now), batchSize);
+            if (!rows.isEmpty()) {
+                Timestamp leaseUntil = Timestamp.valueOf(now.plusNanos(TimeUnit.MILLISECONDS.toNanos(leaseMillis)));
+                List<Object[]> leases = new ArrayList<>(rows.size());
+                for (OutboxRow row : rows) {
+                    leases.add(new Object[]{leaseUntil, row.id});
+                }
+                jdbcTemplate.batchUpdate(LEASE_SQL, leases);
+            }
+            return rows;
+        });
+        return claimed != null ? claimed : List.of();
+    }
+
+    // initial * 2^(attempt-1), capped, with up to 50% jitter so retries from one outage spread out
+    private long backoffMillis(int attempt) {
+        long delay = initialBackoffMillis << Math.min(attempt - 1, 20);
+        delay = Math.min(delay, maxBackoffMillis);
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    private static String truncate(String error) {
+        if (error == null) {
+            return null;
+        }
+        return error.length() <= 500 ? error : error.substring(0, 500);
+    }
+
+    private static class OutboxRow {
+        final long id;
+        final String recipient;
+        final String subject;
+        final String body;
+        final String dedupKey;
+        final int attempts; // including the one being made
+
+        OutboxRow(long id, String recipient, String subject, String body, String dedupKey, int attempts) {
+            this.id = id;
+            this.recipient = recipient;
+            this.subject = subject;
+            this.body = body;
+            this.dedupKey = dedupKey;
+            this.attempts = attempts;
+        }
+    }
+}
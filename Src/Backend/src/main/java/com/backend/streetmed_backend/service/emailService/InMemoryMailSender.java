@@ -0,0 +1,124 @@
+package com.backend.streetmed_backend.service.emailService;
+
+import jakarta.mail.Address;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stand-in for the SMTP server when email.transport=fake (local runs and tests).
+ * Replaces the auto-configured sender: messages are logged and kept in memory instead of
+ * being delivered, and recipients added with {@link #failFor(String)} fail the way a
+ * rejected SMTP recipient does, to exercise the outbox retries.
+ */
+@Component
+@ConditionalOnProperty(name = "email.transport", havingValue = "fake")
+public class InMemoryMailSender extends JavaMailSenderImpl {
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryMailSender.class);
+
+    private static final int MAX_KEPT = 1000;
+
+    private final List<SentMessage> sentMessages = new ArrayList<>();
+    private final Set<String> failingRecipients = ConcurrentHashMap.newKeySet();
+
+    public InMemoryMailSender() {
+        logger.warn("email.transport=fake: emails are recorded in memory and not delivered");
+    }
+
+    @Override
+    protected void doSend(MimeMessage[] mimeMessages, Object[] originalMessages) throws MailException {
+        Map<Object, Exception> failedMessages = new LinkedHashMap<>();
+        for (int i = 0; i < mimeMessages.length; i++) {
+            Object original = originalMessages != null ? originalMessages[i] : mimeMessages[i];
+            try {
+                SentMessage message = toSentMessage(mimeMessages[i]);
+                if (message.recipients.stream().anyMatch(failingRecipients::contains)) {
+                    throw new MessagingException("550 Recipient rejected by fake transport");
+                }
+                record(message);
+                logger.info("Fake transport accepted \"{}\" for {}", message.subject, message.recipients);
+            } catch (MessagingException | IOException e) {
+                failedMessages.put(original, e);
+            }
+        }
+        if (!failedMessages.isEmpty()) {
+            throw new MailSendException(failedMessages);
+        }
+    }
+
+    public List<SentMessage> getSentMessages() {
+        synchronized (sentMessages) {
+            return new ArrayList<>(sentMessages);
+        }
+    }
+
+    public void clear() {
+        synchronized (sentMessages) {
+            sentMessages.clear();
+        }
+        failingRecipients.clear();
+    }
+
+    /**
+     * Reject every message to this address until {@link #clear()}
+     */
+    public void failFor(String recipient) {
+        failingRecipients.add(recipient);
+    }
+
+    private void record(SentMessage message) {
+        synchronized (sentMessages) {
+            if (sentMessages.size() >= MAX_KEPT) {
+                sentMessages.remove(0);
+            }
+            sentMessages.add(message);
+        }
+    }
+
+    private static SentMessage toSentMessage(MimeMessage mimeMessage) throws MessagingException, IOException {
+        Address[] addresses = mimeMessage.getAllRecipients();
+        List<String> recipients = addresses == null ? List.of()
+                : Arrays.stream(addresses).map(Address::toString).toList();
+        Object content = mimeMessage.getContent();
+        return new SentMessage(recipients, mimeMessage.getSubject(), content != null ? content.toString() : null);
+    }
+
+    public static class SentMessage {
+        private final List<String> recipients;
+        private final String subject;
+        private final String body;
+
+        SentMessage(List<String> recipients, String subject, String body) {
+            this.recipients = recipients;
+            this.subject = subject;
+            this.body = body;
+        }
+
+        public List<String> getRecipients() {
+            return recipients;
+        }
+
+        public String getSubject() {
+            return subject;
+        }
+
+        public String getBody() {
+            return body;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.backend.streetmed_backend.service.orderService;
 
+import com.backend.streetmed_backend.config.AppMetrics;
 import com.backend.streetmed_backend.entity.order_entity.Order;
 import com.backend.streetmed_backend.entity.order_entity.OrderAssignment;
 import com.backend.streetmed_backend.entity.order_entity.OrderAssignment.AssignmentStatus;
@@ -13,7 +14,10 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -23,12 +27,15 @@ public class OrderAssignmentService {
 
     private final OrderAssignmentRepository orderAssignmentRepository;
     private final OrderRepository orderRepository;
+    private final AppMetrics appMetrics;
 
     @Autowired
     public OrderAssignmentService(OrderAssignmentRepository orderAssignmentRepository,
-                                  OrderRepository orderRepository) {
+                                  OrderRepository orderRepository,
+                                  AppMetrics appMetrics) {
         this.orderAssignmentRepository = orderAssignmentRepository;
         this.orderRepository = orderRepository;
+        this.appMetrics = appMetrics;
     }
 
     /**
@@ -36,6 +43,10 @@ public class OrderAssignmentService {
      */
     @Transactional
     public OrderAssignment acceptOrder(Integer orderId, Integer volunteerId, Integer roundId) {
+        return appMetrics.time("order.accept", "VOLUNTEER", () -> assignOrder(orderId, volunteerId, roundId));
+    }
+
+    private OrderAssignment assignOrder(Integer orderId, Integer volunteerId, Integer roundId) {
         // Check if order exists
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found"));
@@ -235,6 +246,34 @@ public class OrderAssignmentService {
         return orderAssignmentRepository.findActiveAssignmentForOrder(orderId);
     }
 
+    /**
+     * Get the active assignment of each order in one query, keyed by order ID.
+     * Mirrors getOrderAssignment: the most recently accepted non-cancelled assignment wins.
+     */
+    @Transactional(readOnly = true)
+    public Map<Integer, OrderAssignment> getOrderAssignments(Collection<Integer> orderIds) {
+        Map<Integer, OrderAssignment> byOrder = new HashMap<>();
+        if (orderIds.isEmpty()) {
+            return byOrder;
+        }
+
+        for (OrderAssignment assignment : orderAssignmentRepository.findByOrderIdIn(orderIds)) {
+            if (assignment.isCancelled()) {
+                continue;
+            }
+            byOrder.merge(assignment.getOrderId(), assignment, (current, candidate) ->
+                    isAcceptedLater(candidate, current) ? candidate : current);
+        }
+        return byOrder;
+    }
+
+    private boolean isAcceptedLater(OrderAssignment candidate, OrderAssignment current) {
+        if (candidate.getAcceptedAt() == null) {
+            return false;
+        }
+        return current.getAcceptedAt() == null || candidate.getAcceptedAt().isAfter(current.getAcceptedAt());
+    }
+
     @Transactional(readOnly = true)
     public List<OrderAssignment> getAllAssignments(Integer volunteerId) {
         return orderAssignmentRepository.findByVolunteerId(volunteerId);
@@ -0,0 +1,244 @@
+package com.backend.streetmed_backend.service.orderService;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams the orders table as NDJSON or CSV.
+ * Rows are read from a forward-only, streaming result set (one order with its items and active
+ * assignment joined server-side) and written straight to the output stream, so only the order
+ * currently being written is held in memory.
+ */
+@Service
+public class OrderExportService {
+    private static final Logger logger = LoggerFactory.getLogger(OrderExportService.class);
+
+    public enum ExportFormat {
+        NDJSON,
+        CSV
+    }
+
+    private static final String EXPORT_SQL =
+            "SELECT o.order_id, o.request_time, o.status, o.order_type, o.user_id, o.round_id, " +
+            "o.delivery_address, o.phone_number, o.notes, " +
+            "oi.item_name, oi.quantity AS item_quantity, oi.size AS item_size, oi.is_custom, " +
+            "a.volunteer_id AS assigned_volunteer_id, a.status AS assignment_status " +
+            "FROM orders o " +
+            "LEFT JOIN order_items oi ON oi.order_id = o.order_id " +
+            "LEFT JOIN order_assignments a ON a.assignment_id = (" +
+            "  SELECT a2.assignment_id FROM order_assignments a2 " +
+            "  WHERE a2.order_id = o.order_id AND a2.status <> 'CANCELLED' " +
+            "  ORDER BY a2.accepted_at DESC LIMIT 1) " +
+            "WHERE (? IS NULL OR o.status = ?) " +
+            "AND (? IS NULL OR o.round_id = ?) " +
+            "AND (? IS NULL OR o.request_time >= ?) " +
+            "AND (? IS NULL OR o.request_time < ?) " +
+            "ORDER BY o.request_time DESC, o.order_id DESC, oi.item_id";
+
+    private static final String CSV_HEADER = "orderId,requestTime,status,orderType,userId,roundId," +
+            "deliveryAddress,phoneNumber,notes,items,assignedVolunteerId,assignmentStatus\n";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public OrderExportService(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Write every order matching the optional filters to the output stream
+     * @return number of orders written
+     */
+    public long exportOrders(OutputStream out, ExportFormat format, String status, Integer roundId,
+                             LocalDateTime from, LocalDateTime to) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        JsonGenerator json = format == ExportFormat.NDJSON ? objectMapper.getFactory().createGenerator(writer) : null;
+        if (json != null) {
+            json.setRootValueSeparator(null);
+        } else {
+            writer.write(CSV_HEADER);
+        }
+
+        OrderRowWriter rowWriter = new OrderRowWriter(writer, json);
+        Timestamp fromTs = from != null ? Timestamp.valueOf(from) : null;
+        Timestamp toTs = to != null ? Timestamp.valueOf(to) : null;
+
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(EXPORT_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            // MySQL Connector/J streams rows one at a time instead of buffering the whole result
+            ps.setFetchSize(Integer.MIN_VALUE);
+            ps.setString(1, status);
+            ps.setString(2, status);
+            ps.setObject(3, roundId);
+            ps.setObject(4, roundId);
+            ps.setTimestamp(5, fromTs);
+            ps.setTimestamp(6, fromTs);
+            ps.setTimestamp(7, toTs);
+            ps.setTimestamp(8, toTs);
+            return ps;
+        }, rowWriter);
+
+        rowWriter.flushCurrent();
+        if (json != null) {
+            json.flush();
+        }
+        writer.flush();
+
+        logger.info("Exported {} orders as {}", rowWriter.written, format);
+        return rowWriter.written;
+    }
+
+    /**
+     * Collapses consecutive result rows of the same order (one per item) into one output record
+     */
+    private static class OrderRowWriter implements RowCallbackHandler {
+        private final Writer writer;
+        private final JsonGenerator json;
+
+        private Integer currentOrderId;
+        private final List<String[]> items = new ArrayList<>();
+        private Object[] orderColumns;
+        private long written;
+
+        OrderRowWriter(Writer writer, JsonGenerator json) {
+            this.writer = writer;
+            this.json = json;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            int orderId = rs.getInt("order_id");
+            if (currentOrderId == null || currentOrderId != orderId) {
+                flushCurrent();
+                currentOrderId = orderId;
+                Timestamp requestTime = rs.getTimestamp("request_time");
+                orderColumns = new Object[]{
+                        orderId,
+                        requestTime != null ? requestTime.toLocalDateTime().toString() : null,
+                        rs.getString("status"),
+                        rs.getString("order_type"),
+                        rs.getObject("user_id"),
+                        rs.getObject("round_id"),
+                        rs.getString("delivery_address"),
+                        rs.getString("phone_number"),
+                        rs.getString("notes"),
+                        rs.getObject("assigned_volunteer_id"),
+                        rs.getString("assignment_status")
+                };
+            }
+
+            String itemName = rs.getString("item_name");
+            if (itemName != null) {
+                items.add(new String[]{
+                        itemName,
+                        rs.getString("item_quantity"),
+                        rs.getString("item_size"),
+                        rs.getBoolean("is_custom") ? "true" : "false"
+                });
+            }
+        }
+
+        void flushCurrent() {
+            if (currentOrderId == null) {
+                return;
+            }
+            try {
+                if (json != null) {
+                    writeJson();
+                } else {
+                    writeCsv();
+                }
+            } catch (IOException e) {
+                // Client went away or the stream broke; abort the query
+                throw new UncheckedIOException(e);
+            }
+            written++;
+            items.clear();
+            currentOrderId = null;
+        }
+
+        private void writeJson() throws IOException {
+            json.writeStartObject();
+            json.writeObjectField("orderId", orderColumns[0]);
+            json.writeObjectField("requestTime", orderColumns[1]);
+            json.writeObjectField("status", orderColumns[2]);
+            json.writeObjectField("orderType", orderColumns[3]);
+            json.writeObjectField("userId", orderColumns[4]);
+            json.writeObjectField("roundId", orderColumns[5]);
+            json.writeObjectField("deliveryAddress", orderColumns[6]);
+            json.writeObjectField("phoneNumber", orderColumns[7]);
+            json.writeObjectField("notes", orderColumns[8]);
+            json.writeArrayFieldStart("orderItems");
+            for (String[] item : items) {
+                json.writeStartObject();
+                json.writeStringField("itemName", item[0]);
+                json.writeNumberField("quantity", Integer.parseInt(item[1]));
+                json.writeStringField("size", item[2]);
+                json.writeBooleanField("isCustom", Boolean.parseBoolean(item[3]));
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+            json.writeObjectField("assignedVolunteerId", orderColumns[9]);
+            json.writeObjectField("assignmentStatus", orderColumns[10]);
+            json.writeEndObject();
+            json.writeRaw('\n');
+        }
+
+        private void writeCsv() throws IOException {
+            StringBuilder itemSummary = new StringBuilder();
+            for (String[] item : items) {
+                if (itemSummary.length() > 0) {
+                    itemSummary.append("; ");
+                }
+                itemSummary.append(item[0]).append(" x").append(item[1]);
+                if (item[2] != null) {
+                    itemSummary.append(" (").append(item[2]).append(")");
+                }
+            }
+
+            for (int i = 0; i < 9; i++) {
+                writeCsvField(orderColumns[i]);
+                writer.write(',');
+            }
+            writeCsvField(itemSummary.toString());
+            writer.write(',');
+            writeCsvField(orderColumns[9]);
+            writer.write(',');
+            writeCsvField(orderColumns[10]);
+            writer.write('\n');
+        }
+
+        private void writeCsvField(Object value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            String text = value.toString();
+            if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(text.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(text);
+            }
+        }
+    }
+}
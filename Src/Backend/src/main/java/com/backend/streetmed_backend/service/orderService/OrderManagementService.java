@@ -21,7 +21,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.Comparator;
+import java.time.format.DateTimeParseException;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -31,6 +31,10 @@ public class OrderManagementService {
 
     private static final Logger logger = LoggerFactory.getLogger(OrderManagementService.class);
 
+    // Largest keyset page read from the orders table at once
+    private static final int DEFAULT_ORDERS_PAGE_SIZE = 100;
+    private static final int MAX_ORDERS_PAGE_SIZE = 200;
+
     private final OrderService orderService;
     private final OrderAssignmentService orderAssignmentService;
     private final RoundCapacityService roundCapacityService;
@@ -102,7 +106,8 @@ public class OrderManagementService {
                     orderInfo.put("waitingHours", waitingHours);
                     orderInfo.put("priority", calculatePriority(waitingHours));
                     orderInfo.put("deliveryAddress", order.getDeliveryAddress());
-                    orderInfo.put("items", order.getOrderItems());
+                    // Copy inside the transaction; the collection is lazy
+                    orderInfo.put("items", new ArrayList<>(order.getOrderItems()));
                     orderInfo.put("status", order.getStatus());
                     orderInfo.put("phoneNumber", order.getPhoneNumber());
                     orderInfo.put("notes", order.getNotes());
@@ -289,7 +294,8 @@ public class OrderManagementService {
     }
 
     /**
-     * Get all orders (Admin and Volunteer can view, but with different permissions)
+     * Get a page of orders, most recent first (Admin and Volunteer can view, but with different permissions).
+     * Without a limit the page holds 100 orders; follow nextCursor for more, or use the export for everything.
      */
     @Transactional(readOnly = true)
     public ResponseEntity<Map<String, Object>> getAllOrders(GetAllOrdersRequest request) {
@@ -303,39 +309,53 @@ public class OrderManagementService {
         }
 
         try {
-            // Both roles see all orders
-            List<Order> allOrders = orderRepository.findAll();
-
-            // Sort by request time (most recent first)
-            allOrders.sort(Comparator.comparing(Order::getRequestTime).reversed());
-
-            // Convert to response format
-            List<Map<String, Object>> ordersList = new ArrayList<>();
-            for (Order order : allOrders) {
-                Map<String, Object> orderData = new HashMap<>();
-                orderData.put("orderId", order.getOrderId());
-                orderData.put("status", order.getStatus());
-                orderData.put("requestTime", order.getRequestTime());
-                orderData.put("orderType", order.getOrderType());
-                orderData.put("userId", order.getUserId());
-                orderData.put("deliveryAddress", order.getDeliveryAddress());
-                orderData.put("phoneNumber", order.getPhoneNumber());
-                orderData.put("notes", order.getNotes());
-                orderData.put("roundId", order.getRoundId());
-
-                // Add order items
-                if (order.getOrderItems() != null) {
-                    orderData.put("orderItems", order.getOrderItems());
+            int pageSize = request.getLimit() != null
+                    ? Math.max(1, Math.min(request.getLimit(), MAX_ORDERS_PAGE_SIZE))
+                    : DEFAULT_ORDERS_PAGE_SIZE;
+
+            LocalDateTime cursorTime = null;
+            Integer cursorId = null;
+            if (request.getCursor() != null && !request.getCursor().isEmpty()) {
+                // Cursors are "<requestTime>_<orderId>" as returned in nextCursor
+                String invalidCursor = "Invalid cursor; pass the nextCursor value from the previous page";
+                int separator = request.getCursor().lastIndexOf('_');
+                if (separator < 0) {
+                    return ResponseUtil.badRequest(invalidCursor);
+                }
+                try {
+                    cursorTime = LocalDateTime.parse(request.getCursor().substring(0, separator));
+                    cursorId = Integer.valueOf(request.getCursor().substring(separator + 1));
+                } catch (DateTimeParseException | NumberFormatException e) {
+                    logger.warn("Rejected malformed orders cursor '{}': {}", request.getCursor(), e.getMessage());
+                    return ResponseUtil.badRequest(invalidCursor);
                 }
+            }
 
-                // Add assignment info if exists
-                Optional<OrderAssignment> assignment = orderAssignmentService.getOrderAssignment(order.getOrderId());
-                if (assignment.isPresent()) {
-                    orderData.put("assignedVolunteerId", assignment.get().getVolunteerId());
-                    orderData.put("assignmentStatus", assignment.get().getStatus());
+            // One keyset page, most recent first; the full list is only available from /api/orders/export
+            List<Integer> orderIds = orderRepository.findOrderIdsPage(
+                    request.getStatus(), request.getRoundId(), request.getFrom(), request.getTo(),
+                    cursorTime, cursorId, PageRequest.of(0, pageSize));
+            List<Map<String, Object>> ordersList = new ArrayList<>(orderIds.size());
+            String nextCursor = null;
+            if (!orderIds.isEmpty()) {
+                Map<Integer, Order> ordersById = new HashMap<>();
+                for (Order order : orderRepository.findAllWithItemsByIdIn(orderIds)) {
+                    ordersById.put(order.getOrderId(), order);
                 }
+                Map<Integer, OrderAssignment> assignments = orderAssignmentService.getOrderAssignments(orderIds);
 
-                ordersList.add(orderData);
+                Order last = null;
+                for (Integer orderId : orderIds) {
+                    Order order = ordersById.get(orderId);
+                    if (order == null) {
+                        continue;
+                    }
+                    ordersList.add(toOrderData(order, assignments.get(orderId)));
+                    last = order;
+                }
+                if (last != null && orderIds.size() == pageSize) {
+                    nextCursor = last.getRequestTime() + "_" + last.getOrderId();
+                }
             }
 
             Map<String, Object> responseData = new HashMap<>();
@@ -343,6 +363,8 @@ public class OrderManagementService {
             responseData.put("orders", ordersList);
             responseData.put("total", ordersList.size());
             responseData.put("userRole", request.getUserRole()); // Include role for frontend
+            responseData.put("nextCursor", nextCursor);
+            responseData.put("hasMore", nextCursor != null);
 
             return ResponseUtil.successData(responseData);
 
@@ -351,4 +373,30 @@ public class OrderManagementService {
             return ResponseUtil.internalError("Failed to fetch orders: " + e.getMessage());
         }
     }
+
+    private Map<String, Object> toOrderData(Order order, OrderAssignment assignment) {
+        Map<String, Object> orderData = new HashMap<>();
+        orderData.put("orderId", order.getOrderId());
+        orderData.put("status", order.getStatus());
+        orderData.put("requestTime", order.getRequestTime());
+        orderData.put("orderType", order.getOrderType());
+        orderData.put("userId", order.getUserId());
+        orderData.put("deliveryAddress", order.getDeliveryAddress());
+        orderData.put("phoneNumber", order.getPhoneNumber());
+        orderData.put("notes", order.getNotes());
+        orderData.put("roundId", order.getRoundId());
+
+        // Add order items
+        if (order.getOrderItems() != null) {
+            orderData.put("orderItems", order.getOrderItems());
+        }
+
+        // Add assignment info if exists
+        if (assignment != null) {
+            orderData.put("assignedVolunteerId", assignment.getVolunteerId());
+            orderData.put("assignmentStatus", assignment.getStatus());
+        }
+
+        return orderData;
+    }
 }
\ No newline at end of file
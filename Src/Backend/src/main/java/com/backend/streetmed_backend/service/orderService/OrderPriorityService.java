@@ -71,7 +71,7 @@ public class OrderPriorityService {
                 waitingHours,
                 priority,
                 order.getDeliveryAddress(),
-                order.getOrderItems(),
+                new ArrayList<>(order.getOrderItems()),
                 order.getStatus(),
                 lockStatus,
                 estimatedRoundDate,
@@ -0,0 +1,145 @@
+package com.backend.streetmed_backend.service.orderService;
+
+import com.backend.streetmed_backend.entity.order_entity.OrderRateLimit;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+
+/**
+ * Write-behind queue for order_rate_limits audit rows.
+ * Order creation only enqueues; a scheduled task drains the queue and inserts the rows in JDBC
+ * batches. When the queue is full the row is written inline so no audit entry is lost.
+ * A batch that fails goes back to the head of the queue for the next flush; after repeated
+ * failures it is written row by row, and only the rows that still fail are dropped (and logged).
+ */
+@Component
+public class OrderRateLimitAuditWriter {
+    private static final Logger logger = LoggerFactory.getLogger(OrderRateLimitAuditWriter.class);
+
+    private static final int QUEUE_CAPACITY = 10_000;
+    private static final int BATCH_SIZE = 200;
+    // Failed flushes of the head batch before it is written row by row
+    private static final int MAX_BATCH_ATTEMPTS = 5;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO order_rate_limits (user_id, ip_address, request_timestamp, order_id) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BlockingDeque<OrderRateLimit> queue = new LinkedBlockingDeque<>(QUEUE_CAPACITY);
+    // Only touched by flush(), which the scheduler never runs concurrently with itself
+    private int failedAttempts = 0;
+
+    @Autowired
+    public OrderRateLimitAuditWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Queue an audit row for the next flush
+     */
+    public void enqueue(OrderRateLimit record) {
+        if (!queue.offer(record)) {
+            logger.warn("Rate limit audit queue full, writing record inline");
+            insert(List.of(record));
+        }
+    }
+
+    /**
+     * Drain the queue in batches (every second)
+     */
+    @Scheduled(fixedDelay = 1000)
+    public synchronized void flush() {
+        List<OrderRateLimit> batch = new ArrayList<>(BATCH_SIZE);
+        while (queue.drainTo(batch, BATCH_SIZE) > 0) {
+            try {
+                insert(batch);
+                failedAttempts = 0;
+            } catch (Exception e) {
+                failedAttempts++;
+                if (failedAttempts < MAX_BATCH_ATTEMPTS) {
+                    logger.warn("Failed to write {} rate limit audit rows (attempt {}), retrying on the next flush: {}",
+                            batch.size(), failedAttempts, e.getMessage());
+                    requeue(batch);
+                    return;
+                }
+                // The database may be down or one row may be bad; find out row by row
+                failedAttempts = 0;
+                insertEach(batch);
+            }
+            batch.clear();
+        }
+    }
+
+    @PreDestroy
+    public synchronized void flushOnShutdown() {
+        List<OrderRateLimit> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        for (int from = 0; from < remaining.size(); from += BATCH_SIZE) {
+            List<OrderRateLimit> batch = remaining.subList(from, Math.min(from + BATCH_SIZE, remaining.size()));
+            try {
+                insert(batch);
+            } catch (Exception e) {
+                insertEach(batch);
+            }
+        }
+    }
+
+    public int pending() {
+        return queue.size();
+    }
+
+    /**
+     * Put a failed batch back at the head of the queue, oldest row first
+     */
+    private void requeue(List<OrderRateLimit> batch) {
+        int lost = 0;
+        for (int i = batch.size() - 1; i >= 0; i--) {
+            if (!queue.offerFirst(batch.get(i))) {
+                lost++;
+            }
+        }
+        if (lost > 0) {
+            logger.error("Rate limit audit queue full, lost {} audit rows that failed to write", lost);
+        }
+    }
+
+    private void insertEach(List<OrderRateLimit> records) {
+        for (OrderRateLimit record : records) {
+            try {
+                insert(List.of(record));
+            } catch (Exception e) {
+                logger.error("Dropping rate limit audit row user={} ip={} order={} at {}: {}",
+                        record.getUserId(), record.getIpAddress(), record.getOrderId(),
+                        record.getRequestTimestamp(), e.getMessage());
+            }
+        }
+    }
+
+    private void insert(List<OrderRateLimit> records) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, records, records.size(), (ps, record) -> {
+            if (record.getUserId() != null) {
+                ps.setInt(1, record.getUserId());
+            } else {
+                ps.setNull(1, Types.INTEGER);
+            }
+            ps.setString(2, record.getIpAddress());
+            ps.setTimestamp(3, Timestamp.valueOf(record.getRequestTimestamp()));
+            if (record.getOrderId() != null) {
+                ps.setInt(4, record.getOrderId());
+            } else {
+                ps.setNull(4, Types.INTEGER);
+            }
+        });
+    }
+}
@@ -6,12 +6,28 @@ import com.backend.streetmed_backend.repository.Order.OrderRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+/**
+ * Order rate limits per user and per guest IP.
+ * In the default "memory" mode the hourly limits are answered from an in-memory sliding window
+ * (rebuilt from order_rate_limits at startup) and audit rows are written behind the request.
+ * The check takes the order's slot in the window atomically and gives it back if the order's
+ * transaction does not commit, so concurrent orders from one user cannot all pass the check.
+ * Set order.rate-limit.mode=database to count straight from the table, e.g. when several
+ * instances must share one limit.
+ */
 @Service
 @Transactional
 public class OrderRateLimitService {
@@ -23,14 +39,45 @@ public class OrderRateLimitService {
     private static final int MAX_GUEST_ORDERS_PER_HOUR = 2;
     private static final int MAX_PENDING_GUEST_ORDERS = 3;
 
+    private static final long WINDOW_MILLIS = 60 * 60 * 1000L;
+    private static final int MAX_TRACKED_KEYS = 50_000;
+
     private final OrderRateLimitRepository rateLimitRepository;
     private final OrderRepository orderRepository;
+    private final OrderRateLimitAuditWriter auditWriter;
+    private final SlidingWindowCounter hourlyOrders = new SlidingWindowCounter(
+            WINDOW_MILLIS, Math.max(MAX_ORDERS_PER_HOUR, MAX_GUEST_ORDERS_PER_HOUR), MAX_TRACKED_KEYS);
+
+    private final boolean databaseMode;
+    // Until the window is rebuilt from the table, checks fall back to the database
+    private volatile boolean windowLoaded = false;
 
     @Autowired
     public OrderRateLimitService(OrderRateLimitRepository rateLimitRepository,
-                                 OrderRepository orderRepository) {
+                                 OrderRepository orderRepository,
+                                 OrderRateLimitAuditWriter auditWriter,
+                                 @Value("${order.rate-limit.mode:memory}") String mode) {
         this.rateLimitRepository = rateLimitRepository;
         this.orderRepository = orderRepository;
+        this.auditWriter = auditWriter;
+        this.databaseMode = "database".equalsIgnoreCase(mode);
+    }
+
+    /**
+     * Rebuild the in-memory window from the last hour of audit rows. Orders committed while the
+     * rows load are already in the window; merging skips their rows instead of dropping them.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadWindow() {
+        if (databaseMode) {
+            return;
+        }
+        for (OrderRateLimit record : rateLimitRepository.findSince(LocalDateTime.now().minusHours(1))) {
+            String key = record.getUserId() != null ? userKey(record.getUserId()) : ipKey(record.getIpAddress());
+            hourlyOrders.merge(key, toMillis(record.getRequestTimestamp()));
+        }
+        windowLoaded = true;
+        logger.info("Order rate limit window loaded for {} keys", hourlyOrders.size());
     }
 
     /**
@@ -38,22 +85,28 @@ public class OrderRateLimitService {
      */
     @Transactional
     public void checkUserRateLimit(Integer userId) {
-        LocalDateTime oneHourAgo = LocalDateTime.now().minusHours(1);
-
         // Check hourly rate limit
-        Long ordersLastHour = rateLimitRepository.countByUserIdSince(userId, oneHourAgo);
-        if (ordersLastHour >= MAX_ORDERS_PER_HOUR) {
-            throw new RateLimitExceededException(
-                    String.format("Rate limit exceeded: Maximum %d orders per hour", MAX_ORDERS_PER_HOUR)
-            );
+        String hourlyMessage = String.format("Rate limit exceeded: Maximum %d orders per hour", MAX_ORDERS_PER_HOUR);
+        WindowSlot slot = null;
+        if (useWindow()) {
+            slot = acquireSlot(userKey(userId), MAX_ORDERS_PER_HOUR, hourlyMessage);
+        } else if (rateLimitRepository.countByUserIdSince(userId, LocalDateTime.now().minusHours(1)) >= MAX_ORDERS_PER_HOUR) {
+            throw new RateLimitExceededException(hourlyMessage);
         }
 
-        // Check pending orders limit
-        Long pendingOrders = orderRepository.countByUserIdAndStatus(userId, "PENDING");
-        if (pendingOrders >= MAX_PENDING_ORDERS_PER_USER) {
-            throw new RateLimitExceededException(
-                    String.format("Maximum pending orders limit reached: %d orders", MAX_PENDING_ORDERS_PER_USER)
-            );
+        try {
+            // Check pending orders limit
+            Long pendingOrders = orderRepository.countByUserIdAndStatus(userId, "PENDING");
+            if (pendingOrders >= MAX_PENDING_ORDERS_PER_USER) {
+                throw new RateLimitExceededException(
+                        String.format("Maximum pending orders limit reached: %d orders", MAX_PENDING_ORDERS_PER_USER)
+                );
+            }
+        } catch (RuntimeException e) {
+            if (slot != null) {
+                slot.release();
+            }
+            throw e;
         }
     }
 
@@ -66,22 +119,28 @@ public class OrderRateLimitService {
             throw new IllegalArgumentException("IP address is required for guest orders");
         }
 
-        LocalDateTime oneHourAgo = LocalDateTime.now().minusHours(1);
-
         // Check hourly rate limit for IP
-        Long ordersLastHour = rateLimitRepository.countByIpAddressSince(ipAddress, oneHourAgo);
-        if (ordersLastHour >= MAX_GUEST_ORDERS_PER_HOUR) {
-            throw new RateLimitExceededException(
-                    String.format("Guest rate limit exceeded: Maximum %d orders per hour", MAX_GUEST_ORDERS_PER_HOUR)
-            );
+        String hourlyMessage = String.format("Guest rate limit exceeded: Maximum %d orders per hour", MAX_GUEST_ORDERS_PER_HOUR);
+        WindowSlot slot = null;
+        if (useWindow()) {
+            slot = acquireSlot(ipKey(ipAddress), MAX_GUEST_ORDERS_PER_HOUR, hourlyMessage);
+        } else if (rateLimitRepository.countByIpAddressSince(ipAddress, LocalDateTime.now().minusHours(1)) >= MAX_GUEST_ORDERS_PER_HOUR) {
+            throw new RateLimitExceededException(hourlyMessage);
         }
 
-        // Check pending orders limit for IP
-        Long pendingOrders = orderRepository.countPendingOrdersByIpAddress(ipAddress);
-        if (pendingOrders >= MAX_PENDING_GUEST_ORDERS) {
-            throw new RateLimitExceededException(
-                    String.format("Maximum pending orders limit reached for guests: %d orders", MAX_PENDING_GUEST_ORDERS)
-            );
+        try {
+            // Check pending orders limit for IP
+            Long pendingOrders = orderRepository.countPendingOrdersByIpAddress(ipAddress);
+            if (pendingOrders >= MAX_PENDING_GUEST_ORDERS) {
+                throw new RateLimitExceededException(
+                        String.format("Maximum pending orders limit reached for guests: %d orders", MAX_PENDING_GUEST_ORDERS)
+                );
+            }
+        } catch (RuntimeException e) {
+            if (slot != null) {
+                slot.release();
+            }
+            throw e;
         }
     }
 
@@ -91,16 +150,32 @@ public class OrderRateLimitService {
     @Transactional
     public void recordOrderCreation(Integer userId, String ipAddress, Integer orderId) {
         OrderRateLimit rateLimit;
+        String key;
 
         if (userId != null && userId != -1) {
             // Record for registered user
             rateLimit = new OrderRateLimit(userId, orderId);
+            key = userKey(userId);
         } else {
             // Record for guest (IP-based)
             rateLimit = new OrderRateLimit(ipAddress, orderId);
+            key = ipKey(ipAddress);
         }
 
-        rateLimitRepository.save(rateLimit);
+        if (databaseMode) {
+            rateLimitRepository.save(rateLimit);
+        } else {
+            // The check already holds the order's slot once the window is loaded; before that the
+            // order is counted here. Either way it is audited only once committed.
+            boolean countHere = !windowLoaded;
+            long timestamp = toMillis(rateLimit.getRequestTimestamp());
+            runAfterCommit(() -> {
+                if (countHere) {
+                    hourlyOrders.merge(key, timestamp);
+                }
+                auditWriter.enqueue(rateLimit);
+            });
+        }
         logger.debug("Recorded order creation for rate limiting: userId={}, ip={}, orderId={}",
                 userId, ipAddress, orderId);
     }
@@ -115,6 +190,88 @@ public class OrderRateLimitService {
         logger.info("Cleaned up rate limit records older than {}", threeDaysAgo);
     }
 
+    /**
+     * Evict idle keys from the in-memory window (every 5 minutes)
+     */
+    @Scheduled(fixedDelay = 300000)
+    public void evictIdleWindows() {
+        int removed = hourlyOrders.evictExpired(System.currentTimeMillis());
+        if (removed > 0) {
+            logger.debug("Evicted {} idle rate limit windows", removed);
+        }
+    }
+
+    private boolean useWindow() {
+        return !databaseMode && windowLoaded;
+    }
+
+    /**
+     * Take a slot in the hourly window, to be given back unless the surrounding transaction commits
+     */
+    private WindowSlot acquireSlot(String key, int limit, String message) {
+        long now = System.currentTimeMillis();
+        if (!hourlyOrders.tryAcquire(key, now, limit)) {
+            throw new RateLimitExceededException(message);
+        }
+        WindowSlot slot = new WindowSlot(key, now);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        slot.release();
+                    }
+                }
+            });
+        }
+        return slot;
+    }
+
+    private static String userKey(Integer userId) {
+        return "u:" + userId;
+    }
+
+    private static String ipKey(String ipAddress) {
+        return "ip:" + ipAddress;
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * An event taken in the hourly window; released at most once, whichever path gets there first
+     */
+    private final class WindowSlot {
+        private final String key;
+        private final long timestampMillis;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        WindowSlot(String key, long timestampMillis) {
+            this.key = key;
+            this.timestampMillis = timestampMillis;
+        }
+
+        void release() {
+            if (released.compareAndSet(false, true)) {
+                hourlyOrders.release(key, timestampMillis);
+            }
+        }
+    }
+
     /**
      * Custom exception for rate limit violations
      */
@@ -1,4 +1,5 @@
 package com.backend.streetmed_backend.service.orderService;
+import com.backend.streetmed_backend.config.AppMetrics;
 import com.backend.streetmed_backend.entity.CargoItem;
 import com.backend.streetmed_backend.entity.order_entity.Order;
 import com.backend.streetmed_backend.entity.order_entity.OrderAssignment;
@@ -10,6 +11,7 @@ import com.backend.streetmed_backend.repository.Order.OrderRepository;
 import com.backend.streetmed_backend.repository.Rounds.RoundsRepository;
 import com.backend.streetmed_backend.repository.User.UserRepository;
 import com.backend.streetmed_backend.service.cargoService.CargoItemService;
+import com.backend.streetmed_backend.service.cargoService.InventoryReservation;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -29,6 +31,7 @@ public class OrderService {
     private final RoundsRepository roundsRepository;
     private static final java.util.logging.Logger logger = java.util.logging.Logger.getLogger(OrderService.class.getName());
     private final OrderRateLimitService rateLimitService;
+    private final AppMetrics appMetrics;
 
     @Autowired
     private OrderRoundAssignmentService orderRoundAssignmentService;
@@ -40,7 +43,8 @@ public class OrderService {
                         RoundsRepository roundsRepository,
                         OrderAssignmentService orderAssignmentService,
                         OrderAssignmentRepository orderAssignmentRepository,
-                        OrderRateLimitService rateLimitService) {
+                        OrderRateLimitService rateLimitService,
+                        AppMetrics appMetrics) {
         this.orderRepository = orderRepository;
         this.userRepository = userRepository;
         this.cargoItemService = cargoItemService;
@@ -48,6 +52,7 @@ public class OrderService {
         this.orderAssignmentService = orderAssignmentService;
         this.orderAssignmentRepository = orderAssignmentRepository;
         this.rateLimitService = rateLimitService;
+        this.appMetrics = appMetrics;
     }
 
     /**
@@ -55,9 +60,7 @@ public class OrderService {
      */
     @Transactional(readOnly = true)
     public List<Order> getOrdersForRound(Integer roundId) {
-        List<Order> orders = orderRepository.findByRoundId(roundId);
-        orders.forEach(order -> order.getOrderItems().size()); // Force initialization
-        return orders;
+        return orderRepository.findWithItemsByRoundId(roundId);
     }
 
     /**
@@ -88,6 +91,11 @@ public class OrderService {
      */
     @Transactional
     public Order createOrder(Order order, List<OrderItem> items, String clientIpAddress) {
+        String role = order.getUserId() == GUEST_USER_ID ? "GUEST" : "CLIENT";
+        return appMetrics.time("order.create", role, () -> placeOrder(order, items, clientIpAddress));
+    }
+
+    private Order placeOrder(Order order, List<OrderItem> items, String clientIpAddress) {
 
         // Rate limiting checks
         if (order.getUserId() != GUEST_USER_ID) {
@@ -122,23 +130,28 @@ public class OrderService {
         List<OrderItem> inventoryItems = new ArrayList<>();
         List<OrderItem> customItems = new ArrayList<>();
 
+        // Match every non-custom line against the catalog index in one pass
+        Set<String> requestedNames = new HashSet<>();
+        for (OrderItem item : items) {
+            if (item.getIsCustom() == null || !item.getIsCustom()) {
+                requestedNames.add(item.getItemName());
+            }
+        }
+        Map<String, CargoItem> cargoByName = cargoItemService.resolveByNames(requestedNames);
+
         for (OrderItem item : items) {
             // Check if this is marked as a custom item or if item exists in inventory
             if (item.getIsCustom() != null && item.getIsCustom()) {
                 // This is explicitly marked as custom
                 customItems.add(item);
+            } else if (!cargoByName.containsKey(item.getItemName())) {
+                // Item not in inventory - treat as custom
+                item.setIsCustom(true);
+                customItems.add(item);
             } else {
-                // Check if item exists in inventory
-                List<CargoItem> matchingItems = cargoItemService.searchItems(item.getItemName());
-                if (matchingItems.isEmpty()) {
-                    // Item not in inventory - treat as custom
-                    item.setIsCustom(true);
-                    customItems.add(item);
-                } else {
-                    // Item exists in inventory
-                    item.setIsCustom(false);
-                    inventoryItems.add(item);
-                }
+                // Item exists in inventory
+                item.setIsCustom(false);
+                inventoryItems.add(item);
             }
         }
 
@@ -157,42 +170,32 @@ public class OrderService {
                         itemInventoryMap.get(itemName).getOrDefault(sizeKey, 0) + quantity);
             }
 
-            // Check inventory availability and reserve items
+            // Build one reservation line per item and size
+            List<InventoryReservation> reservations = new ArrayList<>();
             for (Map.Entry<String, Map<String, Integer>> itemEntry : itemInventoryMap.entrySet()) {
                 String itemName = itemEntry.getKey();
-                Map<String, Integer> sizeQuantities = itemEntry.getValue();
-
-                // We know the item exists because we checked earlier
-                List<CargoItem> matchingItems = cargoItemService.searchItems(itemName);
-                CargoItem cargoItem = matchingItems.get(0);
+                CargoItem cargoItem = cargoByName.get(itemName);
 
                 // Check if this item has sizes in inventory
                 boolean itemHasSizes = cargoItem.getSizeQuantities() != null && !cargoItem.getSizeQuantities().isEmpty();
 
-                for (Map.Entry<String, Integer> sizeEntry : sizeQuantities.entrySet()) {
+                for (Map.Entry<String, Integer> sizeEntry : itemEntry.getValue().entrySet()) {
                     String sizeKey = sizeEntry.getKey();
-                    int requestedQuantity = sizeEntry.getValue();
-
                     if ("NO_SIZE".equals(sizeKey)) {
                         // Regular item without size - use normal inventory
-                        if (!cargoItem.isAvailableInQuantity(requestedQuantity)) {
-                            throw new RuntimeException("Insufficient quantity available for: " + itemName);
-                        }
-                        // Reserve the inventory (temporarily reduce quantity)
-                        cargoItemService.reserveItems(cargoItem.getId(), requestedQuantity);
+                        reservations.add(new InventoryReservation(cargoItem.getId(), itemName, null, sizeEntry.getValue()));
                     } else {
                         // Sized item - use size-specific inventory
                         if (!itemHasSizes) {
                             throw new RuntimeException("Item " + itemName + " does not have size options");
                         }
-                        if (!cargoItemService.checkSizeAvailability(cargoItem.getId(), sizeKey, requestedQuantity)) {
-                            throw new RuntimeException("Insufficient quantity available for: " + itemName + " (Size: " + sizeKey + ")");
-                        }
-                        // Reserve from size-specific inventory
-                        cargoItemService.reserveSizedItem(cargoItem.getId(), sizeKey, requestedQuantity);
+                        reservations.add(new InventoryReservation(cargoItem.getId(), itemName, sizeKey, sizeEntry.getValue()));
                     }
                 }
             }
+
+            // Reserve everything at once; any short line fails the order and rolls back the rest
+            cargoItemService.reserveAll(reservations);
         }
 
         // Add information about custom items to notes if present
@@ -260,7 +263,7 @@ public class OrderService {
      * Get a specific order with permission checking
      */
     public Order getOrder(Integer orderId, Integer userId, String userRole) {
-        Order order = orderRepository.findById(orderId)
+        Order order = orderRepository.findWithItemsByOrderId(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found"));
 
         // Allow access to guest orders for volunteers only
@@ -425,41 +428,28 @@ public class OrderService {
                     itemInventoryMap.get(itemName).getOrDefault(sizeKey, 0) + quantity);
         }
 
-        // Restore inventory
+        // Restore inventory with relative updates, so concurrent reservations are not overwritten
+        Map<String, CargoItem> cargoByName = cargoItemService.resolveByNames(itemInventoryMap.keySet());
+        List<InventoryReservation> releases = new ArrayList<>();
         for (Map.Entry<String, Map<String, Integer>> itemEntry : itemInventoryMap.entrySet()) {
             String itemName = itemEntry.getKey();
-            Map<String, Integer> sizeQuantities = itemEntry.getValue();
 
             // Find the cargo item by name
-            List<CargoItem> matchingItems = cargoItemService.searchItems(itemName);
-            if (!matchingItems.isEmpty()) {
-                CargoItem cargoItem = matchingItems.get(0);
-
-                for (Map.Entry<String, Integer> sizeEntry : sizeQuantities.entrySet()) {
-                    String sizeKey = sizeEntry.getKey();
-                    int quantity = sizeEntry.getValue();
+            CargoItem cargoItem = cargoByName.get(itemName);
+            if (cargoItem == null) {
+                continue;
+            }
 
-                    if ("NO_SIZE".equals(sizeKey)) {
-                        // Regular item without size - restore to normal inventory
-                        cargoItemService.updateQuantity(
-                                cargoItem.getId(),
-                                cargoItem.getQuantity() + quantity
-                        );
-                    } else {
-                        // Sized item - restore to size-specific inventory
-                        Map<String, Integer> currentSizes = cargoItem.getSizeQuantities();
-                        if (currentSizes != null && currentSizes.containsKey(sizeKey)) {
-                            cargoItemService.updateSizeQuantity(
-                                    cargoItem.getId(),
-                                    sizeKey,
-                                    currentSizes.get(sizeKey) + quantity
-                            );
-                        }
-                    }
-                }
+            for (Map.Entry<String, Integer> sizeEntry : itemEntry.getValue().entrySet()) {
+                String sizeKey = sizeEntry.getKey();
+                // Regular item without size - restore to normal inventory; sized item - to that size
+                String size = "NO_SIZE".equals(sizeKey) ? null : sizeKey;
+                releases.add(new InventoryReservation(cargoItem.getId(), itemName, size, sizeEntry.getValue()));
             }
         }
+        cargoItemService.releaseAll(releases);
     }
+
     /**
      * Validate that a user exists
      */
@@ -0,0 +1,99 @@
+package com.backend.streetmed_backend.service.orderService;
+
+import com.backend.streetmed_backend.entity.order_entity.Order;
+import com.backend.streetmed_backend.entity.order_entity.OrderAssignment;
+import com.backend.streetmed_backend.entity.order_entity.OrderAssignment.AssignmentStatus;
+import com.backend.streetmed_backend.repository.Order.OrderAssignmentRepository;
+import com.backend.streetmed_backend.repository.Order.OrderRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Read model for the volunteer "round board" (the orders of one round as seen by one volunteer).
+ * The whole board is built from two set-based queries - orders joined with their items, then
+ * every assignment for those orders - instead of one or two assignment lookups per order.
+ */
+@Service
+@Transactional(readOnly = true)
+public class RoundBoardService {
+
+    private final OrderRepository orderRepository;
+    private final OrderAssignmentRepository orderAssignmentRepository;
+
+    @Autowired
+    public RoundBoardService(OrderRepository orderRepository,
+                             OrderAssignmentRepository orderAssignmentRepository) {
+        this.orderRepository = orderRepository;
+        this.orderAssignmentRepository = orderAssignmentRepository;
+    }
+
+    /**
+     * Build the list of active orders in a round, flagged with the given volunteer's assignment
+     * or whether another volunteer already holds the order
+     */
+    public List<Map<String, Object>> getRoundBoard(Integer roundId, Integer volunteerId) {
+        List<Order> roundOrders = orderRepository.findActiveOrdersWithItemsByRoundId(roundId);
+        if (roundOrders.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<Integer> orderIds = new ArrayList<>(roundOrders.size());
+        for (Order order : roundOrders) {
+            orderIds.add(order.getOrderId());
+        }
+
+        // Index assignments by order: this volunteer's own assignment, and the latest active one
+        Map<Integer, OrderAssignment> myAssignments = new HashMap<>();
+        Map<Integer, OrderAssignment> activeAssignments = new HashMap<>();
+        for (OrderAssignment assignment : orderAssignmentRepository.findByOrderIdIn(orderIds)) {
+            Integer orderId = assignment.getOrderId();
+            if (assignment.getVolunteerId().equals(volunteerId)) {
+                myAssignments.put(orderId, assignment);
+            }
+            if (assignment.getStatus() != AssignmentStatus.CANCELLED) {
+                activeAssignments.merge(orderId, assignment, RoundBoardService::latestAccepted);
+            }
+        }
+
+        List<Map<String, Object>> orderList = new ArrayList<>(roundOrders.size());
+        for (Order order : roundOrders) {
+            Map<String, Object> orderInfo = new HashMap<>();
+            orderInfo.put("orderId", order.getOrderId());
+            orderInfo.put("status", order.getStatus());
+            orderInfo.put("deliveryAddress", order.getDeliveryAddress());
+            orderInfo.put("phoneNumber", order.getPhoneNumber());
+            orderInfo.put("notes", order.getNotes());
+            orderInfo.put("requestTime", order.getRequestTime());
+            orderInfo.put("items", order.getOrderItems());
+
+            OrderAssignment mine = myAssignments.get(order.getOrderId());
+            if (mine != null) {
+                orderInfo.put("myAssignment", true);
+                orderInfo.put("assignmentStatus", mine.getStatus());
+                orderInfo.put("assignmentId", mine.getAssignmentId());
+            } else {
+                orderInfo.put("assignedToOther", activeAssignments.containsKey(order.getOrderId()));
+            }
+
+            orderList.add(orderInfo);
+        }
+
+        return orderList;
+    }
+
+    private static OrderAssignment latestAccepted(OrderAssignment a, OrderAssignment b) {
+        LocalDateTime aTime = a.getAcceptedAt();
+        LocalDateTime bTime = b.getAcceptedAt();
+        if (aTime == null) {
+            return b;
+        }
+        if (bTime == null) {
+            return a;
+        }
+        return bTime.isAfter(aTime) ? b : a;
+    }
+}
@@ -0,0 +1,274 @@
+package com.backend.streetmed_backend.service.orderService;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Per-key sliding-window event counter held in memory.
+ * Each key keeps at most {@code maxEventsPerKey} timestamps (enough to decide any limit up to
+ * that size), and updates are serialized per lock stripe rather than globally.
+ * {@link #tryAcquire} checks the limit and takes a slot under the same lock, so concurrent
+ * requests for one key cannot all pass the check. Past {@code maxKeys} keys, the least recently
+ * used ones are evicted (CLOCK over a creation-order queue); keys whose window has emptied are
+ * dropped by {@link #evictExpired}.
+ */
+public class SlidingWindowCounter {
+    private static final int STRIPES = 64;
+
+    private final long windowMillis;
+    private final int maxEventsPerKey;
+    private final int maxKeys;
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+    private final Object[] locks = new Object[STRIPES];
+    // Windows in creation order; removed windows stay queued until passed over or compacted away
+    private final Queue<Window> evictionQueue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    // Only one thread evicts at a time; the others go ahead while the cap is briefly exceeded
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    public SlidingWindowCounter(long windowMillis, int maxEventsPerKey, int maxKeys) {
+        this.windowMillis = windowMillis;
+        this.maxEventsPerKey = maxEventsPerKey;
+        this.maxKeys = maxKeys;
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * Events of one key, guarded by the key's stripe lock
+     */
+    private static final class Window {
+        final String key;
+        final ArrayDeque<Long> events;
+        // Set when an event is added, cleared when the evictor passes the key over
+        boolean referenced;
+
+        Window(String key, int capacity) {
+            this.key = key;
+            this.events = new ArrayDeque<>(capacity);
+        }
+    }
+
+    /**
+     * Number of events for the key inside the window ending at {@code nowMillis}
+     */
+    public int count(String key, long nowMillis) {
+        synchronized (lockFor(key)) {
+            Window window = windows.get(key);
+            if (window == null) {
+                return 0;
+            }
+            prune(window, nowMillis);
+            if (window.events.isEmpty()) {
+                windows.remove(key, window);
+                return 0;
+            }
+            return window.events.size();
+        }
+    }
+
+    /**
+     * Record an event at {@code nowMillis} if the key has fewer than {@code limit} events in the window
+     * @return whether the event was recorded
+     */
+    public boolean tryAcquire(String key, long nowMillis, int limit) {
+        Window created = null;
+        synchronized (lockFor(key)) {
+            Window window = windows.get(key);
+            if (window != null) {
+                prune(window, nowMillis);
+                if (window.events.size() >= limit) {
+                    return false;
+                }
+            } else {
+                window = newWindow(key);
+                created = window;
+            }
+            window.events.addLast(nowMillis);
+            trim(window);
+            window.referenced = true;
+        }
+        if (created != null) {
+            enqueue(created);
+        }
+        return true;
+    }
+
+    /**
+     * Give back an event taken by {@link #tryAcquire}, e.g. when the request it allowed failed
+     */
+    public void release(String key, long timestampMillis) {
+        synchronized (lockFor(key)) {
+            Window window = windows.get(key);
+            if (window != null && window.events.removeLastOccurrence(timestampMillis) && window.events.isEmpty()) {
+                windows.remove(key, window);
+            }
+        }
+    }
+
+    /**
+     * Add an event recorded elsewhere (e.g. loaded from the audit table), unless the key already
+     * holds an event at that exact time
+     */
+    public void merge(String key, long timestampMillis) {
+        Window created = null;
+        synchronized (lockFor(key)) {
+            Window window = windows.get(key);
+            if (window == null) {
+                window = newWindow(key);
+                created = window;
+            } else if (window.events.contains(timestampMillis)) {
+                return;
+            }
+            if (window.events.isEmpty() || window.events.peekLast() <= timestampMillis) {
+                window.events.addLast(timestampMillis);
+            } else {
+                // Loaded rows can arrive out of order; the deque is at most maxEventsPerKey long
+                Long[] sorted = window.events.toArray(new Long[0]);
+                sorted = Arrays.copyOf(sorted, sorted.length + 1);
+                sorted[sorted.length - 1] = timestampMillis;
+                Arrays.sort(sorted);
+                window.events.clear();
+                window.events.addAll(Arrays.asList(sorted));
+            }
+            trim(window);
+            window.referenced = true;
+        }
+        if (created != null) {
+            enqueue(created);
+        }
+    }
+
+    /**
+     * Drop events that have left the window and the keys left empty
+     * @return number of keys removed
+     */
+    public int evictExpired(long nowMillis) {
+        int removed = 0;
+        for (Map.Entry<String, Window> entry : windows.entrySet()) {
+            synchronized (lockFor(entry.getKey())) {
+                Window window = entry.getValue();
+                prune(window, nowMillis);
+                // Only remove the window that was checked, not one a concurrent update put in its place
+                if (window.events.isEmpty() && windows.remove(entry.getKey(), window)) {
+                    removed++;
+                }
+            }
+        }
+        // Drop removed windows from the eviction queue once they make up most of it
+        if (queued.get() > 2 * windows.size() + 64) {
+            compactEvictionQueue();
+        }
+        return removed;
+    }
+
+    public int size() {
+        return windows.size();
+    }
+
+    // Caller holds the key's stripe lock
+    private Window newWindow(String key) {
+        Window window = new Window(key, maxEventsPerKey);
+        windows.put(key, window);
+        return window;
+    }
+
+    private void enqueue(Window window) {
+        evictionQueue.offer(window);
+        queued.incrementAndGet();
+        if (windows.size() > maxKeys) {
+            evictOverCap();
+        }
+    }
+
+    /**
+     * Evict down to 90% of the cap, so a steady stream of new keys at the cap pays for the
+     * eviction once per batch rather than once per key. Windows are taken from the head of the
+     * queue; one updated since it was last passed over goes back to the tail instead.
+     */
+    private void evictOverCap() {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            int excess = windows.size() - maxKeys * 9 / 10;
+            // Every window gets at most one second chance, so two turns of the queue always suffice
+            int budget = 2 * queued.get();
+            int evicted = 0;
+            while (evicted < excess && budget-- > 0) {
+                Window window = evictionQueue.poll();
+                if (window == null) {
+                    break;
+                }
+                synchronized (lockFor(window.key)) {
+                    if (!isLive(window)) {
+                        queued.decrementAndGet();
+                    } else if (window.referenced) {
+                        window.referenced = false;
+                        evictionQueue.offer(window);
+                    } else {
+                        queued.decrementAndGet();
+                        windows.remove(window.key, window);
+                        evicted++;
+                    }
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * One turn of the queue, keeping live windows in order and dropping the rest
+     */
+    private void compactEvictionQueue() {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            for (int remaining = queued.get(); remaining > 0; remaining--) {
+                Window window = evictionQueue.poll();
+                if (window == null) {
+                    break;
+                }
+                if (isLive(window)) {
+                    evictionQueue.offer(window);
+                } else {
+                    queued.decrementAndGet();
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private void prune(Window window, long nowMillis) {
+        long cutoff = nowMillis - windowMillis;
+        ArrayDeque<Long> events = window.events;
+        while (!events.isEmpty() && events.peekFirst() <= cutoff) {
+            events.pollFirst();
+        }
+    }
+
+    // Only the newest events matter for the limit check
+    private void trim(Window window) {
+        while (window.events.size() > maxEventsPerKey) {
+            window.events.pollFirst();
+        }
+    }
+
+    private boolean isLive(Window window) {
+        return windows.get(window.key) == window;
+    }
+
+    private Object lockFor(String key) {
+        return locks[(key.hashCode() & 0x7fffffff) % STRIPES];
+    }
+}
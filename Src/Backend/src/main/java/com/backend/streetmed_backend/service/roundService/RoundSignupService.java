@@ -1,11 +1,13 @@
 package com.backend.streetmed_backend.service.roundService;
 
+import com.backend.streetmed_backend.config.AppMetrics;
 import com.backend.streetmed_backend.entity.rounds_entity.Rounds;
 import com.backend.streetmed_backend.entity.rounds_entity.RoundSignup;
 import com.backend.streetmed_backend.entity.user_entity.User;
 import com.backend.streetmed_backend.entity.user_entity.UserMetadata;
 import com.backend.streetmed_backend.entity.user_entity.VolunteerSubRole;
 import com.backend.streetmed_backend.repository.Order.OrderRepository;
+import com.backend.streetmed_backend.repository.Rounds.RoundCount;
 import com.backend.streetmed_backend.repository.Rounds.RoundsRepository;
 import com.backend.streetmed_backend.repository.Rounds.RoundSignupRepository;
 import com.backend.streetmed_backend.repository.User.UserRepository;
@@ -21,7 +23,6 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
-import java.util.concurrent.CompletableFuture;
 
 @Service
 @Transactional
@@ -31,6 +32,7 @@ public class RoundSignupService {
     private final UserRepository userRepository;
     private final VolunteerSubRoleRepository volunteerSubRoleRepository;
     private final EmailService emailService;
+    private final AppMetrics appMetrics;
     private final Random random = new Random();
     private static final Logger logger = LoggerFactory.getLogger(RoundSignupService.class);
 
@@ -45,12 +47,14 @@ public class RoundSignupService {
                               RoundSignupRepository roundSignupRepository,
                               UserRepository userRepository,
                               VolunteerSubRoleRepository volunteerSubRoleRepository,
-                              EmailService emailService) {
+                              EmailService emailService,
+                              AppMetrics appMetrics) {
         this.roundsRepository = roundsRepository;
         this.roundSignupRepository = roundSignupRepository;
         this.userRepository = userRepository;
         this.volunteerSubRoleRepository = volunteerSubRoleRepository;
         this.emailService = emailService;
+        this.appMetrics = appMetrics;
     }
 
     /**
@@ -140,28 +144,15 @@ public class RoundSignupService {
             runLotteryForRound(signup.getRoundId());
         }
 
-        // Notify the user - send email if enabled
-        try {
-            User user = userRepository.findById(signup.getUserId()).orElse(null);
-            if (user != null && user.getEmail() != null && emailService.isEmailServiceEnabled()) {
-                Map<String, Object> emailData = new HashMap<>();
-                emailData.put("roundTitle", round.getTitle());
-                emailData.put("startTime", round.getStartTime());
-                emailData.put("location", round.getLocation());
-                emailData.put("action", "removed by administrator");
-
-                // Send email notification in a non-blocking way
-                CompletableFuture.runAsync(() -> {
-                    try {
-                        emailService.sendRoundCancellationEmail(user.getEmail(), emailData);
-                    } catch (Exception e) {
-                        logger.error("Failed to send removal notification email to {}: {}",
-                                user.getEmail(), e.getMessage());
-                    }
-                });
-            }
-        } catch (Exception e) {
-            logger.error("Error notifying user {} about removal: {}", signup.getUserId(), e.getMessage());
+        // Notify the user - queued in the email outbox as part of this transaction if enabled
+        User user = userRepository.findById(signup.getUserId()).orElse(null);
+        if (user != null && emailService.canEmail(user.getEmail())) {
+            Map<String, Object> emailData = new HashMap<>();
+            emailData.put("roundTitle", round.getTitle());
+            emailData.put("startTime", round.getStartTime());
+            emailData.put("location", round.getLocation());
+            emailData.put("action", "removed by administrator");
+            emailService.sendRoundCancellationEmail(user.getEmail(), emailData);
         }
     }
 
@@ -219,10 +210,24 @@ public class RoundSignupService {
     public List<Map<String, Object>> getVolunteerSignups(Integer userId) {
         List<RoundSignup> signups = roundSignupRepository.findByUserId(userId);
         List<Map<String, Object>> result = new ArrayList<>();
+        if (signups.isEmpty()) {
+            return result;
+        }
+
+        // Load all signed-up rounds and their order counts in one query each
+        Set<Integer> roundIds = new HashSet<>();
+        for (RoundSignup signup : signups) {
+            roundIds.add(signup.getRoundId());
+        }
+        Map<Integer, Rounds> roundsById = new HashMap<>();
+        for (Rounds round : roundsRepository.findAllById(roundIds)) {
+            roundsById.put(round.getRoundId(), round);
+        }
+        Map<Integer, Long> orderCounts = RoundCount.toMap(orderRepository.countByRoundIds(roundIds));
 
         for (RoundSignup signup : signups) {
             try {
-                Rounds round = roundsRepository.findById(signup.getRoundId()).orElse(null);
+                Rounds round = roundsById.get(signup.getRoundId());
                 if (round != null) {
                     // Skip cancelled rounds
                     if ("CANCELED".equals(round.getStatus()) || "CANCELLED".equals(round.getStatus())) {
@@ -241,7 +246,7 @@ public class RoundSignupService {
                     roundInfo.put("status", round.getStatus());
 
                     // Add actual order count
-                    long actualOrderCount = orderRepository.countByRoundId(round.getRoundId());
+                    long actualOrderCount = orderCounts.getOrDefault(round.getRoundId(), 0L);
                     roundInfo.put("currentOrderCount", actualOrderCount);
                     roundInfo.put("orderCapacity", round.getOrderCapacity() != null ? round.getOrderCapacity() : 20);
 
@@ -293,6 +298,10 @@ public class RoundSignupService {
      */
     @Transactional
     public RoundSignup signupForRound(Integer roundId, Integer userId, String requestedRole) {
+        return appMetrics.time("round.signup", "VOLUNTEER", () -> signup(roundId, userId, requestedRole));
+    }
+
+    private RoundSignup signup(Integer roundId, Integer userId, String requestedRole) {
         Rounds round = roundsRepository.findById(roundId)
                 .orElseThrow(() -> new RuntimeException("Round not found"));
 
@@ -337,23 +346,15 @@ public class RoundSignupService {
 
         RoundSignup savedSignup = roundSignupRepository.save(signup);
 
-        // Send confirmation email
-        if (emailService.isEmailServiceEnabled() && user.getEmail() != null) {
+        // Send confirmation email; queued in the email outbox as part of this transaction
+        if (emailService.canEmail(user.getEmail())) {
             String status = savedSignup.getStatus();
             Map<String, Object> emailData = new HashMap<>();
             emailData.put("roundTitle", round.getTitle());
             emailData.put("startTime", round.getStartTime());
             emailData.put("location", round.getLocation());
             emailData.put("status", status);
-
-            // Send email notification in a non-blocking way
-            CompletableFuture.runAsync(() -> {
-                try {
-                    emailService.sendRoundSignupConfirmationEmail(user.getEmail(), emailData);
-                } catch (Exception e) {
-                    logger.error("Failed to send signup confirmation email to {}: {}", user.getEmail(), e.getMessage());
-                }
-            });
+            emailService.sendRoundSignupConfirmationEmail(user.getEmail(), emailData);
         }
 
         return savedSignup;
@@ -429,6 +430,10 @@ public class RoundSignupService {
      */
     @Transactional
     public List<RoundSignup> runLotteryForRound(Integer roundId) {
+        return appMetrics.time("round.lottery", "ADMIN", () -> runLottery(roundId));
+    }
+
+    private List<RoundSignup> runLottery(Integer roundId) {
         Rounds round = roundsRepository.findById(roundId)
                 .orElseThrow(() -> new RuntimeException("Round not found"));
 
@@ -453,26 +458,14 @@ public class RoundSignupService {
             roundSignupRepository.save(signup);
             selectedSignups.add(signup);
 
-            // Send confirmation email
-            try {
-                User user = userRepository.findById(signup.getUserId()).orElse(null);
-                if (user != null && user.getEmail() != null && emailService.isEmailServiceEnabled()) {
-                    Map<String, Object> emailData = new HashMap<>();
-                    emailData.put("roundTitle", round.getTitle());
-                    emailData.put("startTime", round.getStartTime());
-                    emailData.put("location", round.getLocation());
-
-                    // Send email notification in a non-blocking way
-                    CompletableFuture.runAsync(() -> {
-                        try {
-                            emailService.sendLotteryWinEmail(user.getEmail(), emailData);
-                        } catch (Exception e) {
-                            logger.error("Failed to send lottery win email to {}: {}", user.getEmail(), e.getMessage());
-                        }
-                    });
-                }
-            } catch (Exception e) {
-                logger.error("Error notifying user {} about lottery selection: {}", signup.getUserId(), e.getMessage());
+            // Send confirmation email; queued in the email outbox as part of this transaction
+            User user = userRepository.findById(signup.getUserId()).orElse(null);
+            if (user != null && emailService.canEmail(user.getEmail())) {
+                Map<String, Object> emailData = new HashMap<>();
+                emailData.put("roundTitle", round.getTitle());
+                emailData.put("startTime", round.getStartTime());
+                emailData.put("location", round.getLocation());
+                emailService.sendLotteryWinEmail(user.getEmail(), emailData);
             }
         }
 
@@ -4,6 +4,7 @@ import com.backend.streetmed_backend.entity.rounds_entity.Rounds;
 import com.backend.streetmed_backend.entity.rounds_entity.RoundSignup;
 import com.backend.streetmed_backend.entity.user_entity.User;
 import com.backend.streetmed_backend.repository.Order.OrderRepository;
+import com.backend.streetmed_backend.repository.Rounds.RoundCount;
 import com.backend.streetmed_backend.repository.Rounds.RoundsRepository;
 import com.backend.streetmed_backend.repository.Rounds.RoundSignupRepository;
 import com.backend.streetmed_backend.repository.User.UserRepository;
@@ -22,7 +23,6 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.CompletableFuture;
 
 @Service
 @Transactional
@@ -181,25 +181,14 @@ public class RoundsService {
             signup.setUpdatedAt(LocalDateTime.now());
             roundSignupRepository.save(signup);
 
-            // Notify user about cancellation
-            try {
-                User user = userRepository.findById(signup.getUserId()).orElse(null);
-                if (user != null && user.getEmail() != null && emailService.isEmailServiceEnabled()) {
-                    Map<String, Object> emailData = new HashMap<>();
-                    emailData.put("roundTitle", round.getTitle());
-                    emailData.put("startTime", round.getStartTime());
-                    emailData.put("location", round.getLocation());
-                    // Send email notification in a non-blocking way
-                    CompletableFuture.runAsync(() -> {
-                        try {
-                            emailService.sendRoundCancellationEmail(user.getEmail(), emailData);
-                        } catch (Exception e) {
-                            logger.error("Failed to send round cancellation email to {}: {}", user.getEmail(), e.getMessage());
-                        }
-                    });
-                }
-            } catch (Exception e) {
-                logger.error("Error notifying user {} about round cancellation: {}", signup.getUserId(), e.getMessage());
+            // Notify user about cancellation; queued in the email outbox as part of this transaction
+            User user = userRepository.findById(signup.getUserId()).orElse(null);
+            if (user != null && emailService.canEmail(user.getEmail())) {
+                Map<String, Object> emailData = new HashMap<>();
+                emailData.put("roundTitle", round.getTitle());
+                emailData.put("startTime", round.getStartTime());
+                emailData.put("location", round.getLocation());
+                emailService.sendRoundCancellationEmail(user.getEmail(), emailData);
             }
         }
 
@@ -413,6 +402,15 @@ public class RoundsService {
      */
     private List<Map<String, Object>> enrichRoundsWithCounts(List<Rounds> rounds) {
         List<Map<String, Object>> enrichedRounds = new java.util.ArrayList<>();
+        if (rounds.isEmpty()) {
+            return enrichedRounds;
+        }
+
+        // Fetch participant and order counts for every round in two grouped queries
+        List<Integer> roundIds = rounds.stream().map(Rounds::getRoundId).toList();
+        Map<Integer, Long> participantCounts =
+                RoundCount.toMap(roundSignupRepository.countConfirmedVolunteersByRound(roundIds));
+        Map<Integer, Long> orderCounts = RoundCount.toMap(orderRepository.countByRoundIds(roundIds));
 
         for (Rounds round : rounds) {
             Map<String, Object> roundData = new HashMap<>();
@@ -429,11 +427,11 @@ public class RoundsService {
             roundData.put("updatedAt", round.getUpdatedAt());
 
             // Add participant count
-            long confirmedParticipants = roundSignupRepository.countConfirmedVolunteersForRound(round.getRoundId());
+            long confirmedParticipants = participantCounts.getOrDefault(round.getRoundId(), 0L);
             roundData.put("currentParticipants", confirmedParticipants);
 
             // Add order count
-            long orderCount = orderRepository.countByRoundId(round.getRoundId());
+            long orderCount = orderCounts.getOrDefault(round.getRoundId(), 0L);
             roundData.put("currentOrderCount", orderCount);
 
             enrichedRounds.add(roundData);
@@ -0,0 +1,154 @@
+package com.backend.streetmed_backend.util;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * LRU cache bounded by the total weight (bytes) of its values rather than the number of entries.
+ * Values heavier than maxEntryWeight are never stored, so one large payload cannot flush the
+ * whole cache. Access order is kept by a LinkedHashMap under a single lock; the cache is meant
+ * for a few thousand entries at most, where the lock is not a bottleneck.
+ */
+public class ByteWeightedLruCache<K, V> {
+    private final long maxWeight;
+    private final long maxEntryWeight;
+    private final ToLongFunction<V> weigher;
+
+    private final LinkedHashMap<K, Weighted<V>> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long weight;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ByteWeightedLruCache(long maxWeight, long maxEntryWeight, ToLongFunction<V> weigher) {
+        this.maxWeight = maxWeight;
+        this.maxEntryWeight = Math.min(maxEntryWeight, maxWeight);
+        this.weigher = weigher;
+    }
+
+    public V get(K key) {
+        Weighted<V> entry;
+        synchronized (this) {
+            entry = entries.get(key);
+        }
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.value;
+    }
+
+    /**
+     * Store a value, evicting least recently used entries to make room
+     *
+     * @return false if the value is too heavy to cache
+     */
+    public boolean put(K key, V value) {
+        long valueWeight = weigher.applyAsLong(value);
+        if (valueWeight > maxEntryWeight) {
+            return false;
+        }
+        synchronized (this) {
+            Weighted<V> previous = entries.put(key, new Weighted<>(value, valueWeight));
+            if (previous != null) {
+                weight -= previous.weight;
+            }
+            weight += valueWeight;
+            Iterator<Weighted<V>> eldest = entries.values().iterator();
+            while (weight > maxWeight && eldest.hasNext()) {
+                weight -= eldest.next().weight;
+                eldest.remove();
+                evictions.increment();
+            }
+        }
+        puts.increment();
+        return true;
+    }
+
+    public synchronized void invalidate(K key) {
+        Weighted<V> removed = entries.remove(key);
+        if (removed != null) {
+            weight -= removed.weight;
+        }
+    }
+
+    /**
+     * Remove every entry whose key matches
+     */
+    public synchronized void invalidateIf(Predicate<K> matches) {
+        List<K> keys = new ArrayList<>();
+        for (K key : entries.keySet()) {
+            if (matches.test(key)) {
+                keys.add(key);
+            }
+        }
+        keys.forEach(this::invalidate);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        weight = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long weight() {
+        return weight;
+    }
+
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+
+    public long getMaxEntryWeight() {
+        return maxEntryWeight;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getPuts() {
+        return puts.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("entries", size());
+        snapshot.put("weightBytes", weight());
+        snapshot.put("maxWeightBytes", maxWeight);
+        snapshot.put("hits", getHits());
+        snapshot.put("misses", getMisses());
+        snapshot.put("evictions", getEvictions());
+        return snapshot;
+    }
+
+    private static class Weighted<V> {
+        final V value;
+        final long weight;
+
+        Weighted(V value, long weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+}
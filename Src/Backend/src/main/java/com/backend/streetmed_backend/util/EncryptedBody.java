@@ -0,0 +1,23 @@
+package com.backend.streetmed_backend.util;
+
+/**
+ * Response body to be encrypted for a session on the way out.
+ * Built by {@link RequestResponseUtil} and written by {@link EncryptedJsonMessageConverter}.
+ */
+public class EncryptedBody {
+    private final String sessionId;
+    private final Object payload;
+
+    public EncryptedBody(String sessionId, Object payload) {
+        this.sessionId = sessionId;
+        this.payload = payload;
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    public Object getPayload() {
+        return payload;
+    }
+}
@@ -0,0 +1,159 @@
+package com.backend.streetmed_backend.util;
+
+import com.backend.streetmed_backend.config.AppMetrics;
+import com.backend.streetmed_backend.security.EncryptionUtil;
+import com.backend.streetmed_backend.security.SecurityManager;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.security.GeneralSecurityException;
+import java.util.List;
+
+/**
+ * Streaming codec for session-encrypted JSON.
+ * Requests: body (Base64 text) -> Base64 decoder -> AES-GCM -> Jackson -> typed DTO.
+ * Responses: Jackson -> AES-GCM -> Base64 encoder -> servlet output stream.
+ * No intermediate String or byte[] copy of the payload is built. Bodies without a usable
+ * session key are handled as ordinary JSON; once the session has a key, plain JSON is rejected (400).
+ * Encrypted bodies are timed as security.decrypt / security.encrypt (including the JSON mapping,
+ * which runs inside the cipher stream).
+ */
+@Component
+public class EncryptedJsonMessageConverter implements HttpMessageConverter<Object> {
+    private static final Logger logger = LoggerFactory.getLogger(EncryptedJsonMessageConverter.class);
+
+    private static final String SESSION_HEADER = "X-Session-ID";
+    private static final List<MediaType> SUPPORTED_MEDIA_TYPES = List.of(MediaType.TEXT_PLAIN, MediaType.APPLICATION_JSON);
+
+    private final SecurityManager securityManager;
+    private final EncryptionUtil encryptionUtil;
+    private final ObjectMapper objectMapper;
+    private final AppMetrics appMetrics;
+
+    @Autowired
+    public EncryptedJsonMessageConverter(SecurityManager securityManager, EncryptionUtil encryptionUtil,
+                                         ObjectMapper objectMapper, AppMetrics appMetrics) {
+        this.securityManager = securityManager;
+        this.encryptionUtil = encryptionUtil;
+        this.objectMapper = objectMapper;
+        this.appMetrics = appMetrics;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return clazz.isAnnotationPresent(EncryptedPayload.class) && supports(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        return EncryptedBody.class.isAssignableFrom(clazz) && supports(mediaType);
+    }
+
+    @Override
+    public List<MediaType> getSupportedMediaTypes() {
+        return SUPPORTED_MEDIA_TYPES;
+    }
+
+    @Override
+    public Object read(Class<?> clazz, HttpInputMessage inputMessage) throws IOException, HttpMessageNotReadableException {
+        String sessionId = inputMessage.getHeaders().getFirst(SESSION_HEADER);
+        PushbackInputStream body = new PushbackInputStream(inputMessage.getBody(), 1);
+
+        SecretKey key = sessionKey(sessionId);
+        if (key == null) {
+            return objectMapper.readValue(body, clazz);
+        }
+        // Base64 never starts with '{'. Once the session has a key, a plain JSON body is refused
+        // rather than accepted, so a client cannot step around the encryption.
+        if (startsWithJson(body)) {
+            logger.warn("Rejected unencrypted request body for session {}", sessionId);
+            throw new HttpMessageNotReadableException("Request body must be encrypted for this session", inputMessage);
+        }
+
+        Timer.Sample sample = appMetrics.start();
+        try (InputStream plain = encryptionUtil.decryptingStream(body, key)) {
+            Object value = objectMapper.readValue(plain, clazz);
+            appMetrics.stop(sample, "security.decrypt", AppMetrics.NO_ROLE, "success");
+            return value;
+        } catch (GeneralSecurityException | IOException e) {
+            appMetrics.stop(sample, "security.decrypt", AppMetrics.NO_ROLE, "error");
+            logger.warn("Failed to decrypt request body for session {}: {}", sessionId, e.getMessage());
+            throw new HttpMessageNotReadableException("Could not decrypt request body", e, inputMessage);
+        }
+    }
+
+    @Override
+    public void write(Object value, MediaType contentType, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        EncryptedBody body = (EncryptedBody) value;
+        SecretKey key = sessionKey(body.getSessionId());
+
+        // Headers are committed once the body stream is opened, so set the content type first
+        if (key == null) {
+            // Session expired between building and writing the response; fall back to plain JSON
+            outputMessage.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            objectMapper.writeValue(StreamUtils.nonClosing(outputMessage.getBody()), body.getPayload());
+            return;
+        }
+
+        outputMessage.getHeaders().setContentType(MediaType.TEXT_PLAIN);
+        OutputStream out = StreamUtils.nonClosing(outputMessage.getBody());
+        Timer.Sample sample = appMetrics.start();
+        String outcome = "error";
+        try (OutputStream encrypted = encryptionUtil.encryptingStream(out, key)) {
+            objectMapper.writeValue(encrypted, body.getPayload());
+            outcome = "success";
+        } catch (GeneralSecurityException e) {
+            throw new HttpMessageNotWritableException("Could not encrypt response body", e);
+        } finally {
+            appMetrics.stop(sample, "security.encrypt", AppMetrics.NO_ROLE, outcome);
+        }
+    }
+
+    private SecretKey sessionKey(String sessionId) {
+        if (sessionId == null || sessionId.isEmpty()) {
+            return null;
+        }
+        return securityManager.getSessionKey(sessionId);
+    }
+
+    private static boolean supports(MediaType mediaType) {
+        if (mediaType == null) {
+            return true;
+        }
+        for (MediaType supported : SUPPORTED_MEDIA_TYPES) {
+            if (supported.isCompatibleWith(mediaType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean startsWithJson(PushbackInputStream in) throws IOException {
+        int first = in.read();
+        while (first == ' ' || first == '\n' || first == '\r' || first == '\t') {
+            first = in.read();
+        }
+        if (first == -1) {
+            return false;
+        }
+        in.unread(first);
+        return first == '{' || first == '[';
+    }
+}
@@ -0,0 +1,15 @@
+package com.backend.streetmed_backend.util;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a request DTO whose body may arrive encrypted with the caller's ECDH session key
+ * (X-Session-ID header). Such bodies are read by {@link EncryptedJsonMessageConverter}.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface EncryptedPayload {
+}
@@ -1,9 +1,6 @@
 package com.backend.streetmed_backend.util;
 
 import com.backend.streetmed_backend.security.SecurityManager;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -13,50 +10,18 @@ import java.util.Map;
 
 /**
  * Utility class for handling encrypted request/response operations
- * Centralizes encryption/decryption logic used across controllers
+ * Responses for sessions with a key are wrapped in {@link EncryptedBody} and encrypted while they
+ * are serialized by {@link EncryptedJsonMessageConverter}; request DTOs marked with
+ * {@link EncryptedPayload} are decrypted by the same converter.
  */
 @Component
 public class RequestResponseUtil {
 
-    private static final Logger logger = LoggerFactory.getLogger(RequestResponseUtil.class);
-
     private final SecurityManager securityManager;
-    private final ObjectMapper objectMapper;
 
     @Autowired
-    public RequestResponseUtil(SecurityManager securityManager, ObjectMapper objectMapper) {
+    public RequestResponseUtil(SecurityManager securityManager) {
         this.securityManager = securityManager;
-        this.objectMapper = objectMapper;
-    }
-
-    /**
-     * Parses the request body with encryption support
-     *
-     * @param sessionId The session ID for encryption
-     * @param body The request body
-     * @param logPrefix Prefix for logging
-     * @return Parsed map of request data
-     * @throws Exception if parsing fails
-     */
-    public Map<String, String> parseRequestBody(String sessionId, String body, String logPrefix) throws Exception {
-        if (sessionId != null && !sessionId.isEmpty()) {
-            try {
-                logger.info("Received encrypted {} request for session: {}", logPrefix, sessionId);
-                String decryptedBody = securityManager.decrypt(sessionId, body);
-                Map<String, String> data = objectMapper.readValue(decryptedBody, Map.class);
-                logger.info("Decrypted {} request", logPrefix);
-                return data;
-            } catch (IllegalStateException e) {
-                logger.warn("Session key not found for {}: {}, trying to parse as regular JSON", logPrefix, e.getMessage());
-                try {
-                    return objectMapper.readValue(body, Map.class);
-                } catch (Exception jsonEx) {
-                    throw new RuntimeException("Failed to parse request as JSON after decryption failed for " + logPrefix, jsonEx);
-                }
-            }
-        } else {
-            return objectMapper.readValue(body, Map.class);
-        }
     }
 
     /**
@@ -69,12 +34,7 @@ public class RequestResponseUtil {
      */
     public ResponseEntity<?> buildResponse(String sessionId, Object response, HttpStatus status) {
         if (sessionId != null && !sessionId.isEmpty() && securityManager.getSessionKey(sessionId) != null) {
-            try {
-                String encryptedResponse = securityManager.encrypt(sessionId, objectMapper.writeValueAsString(response));
-                return ResponseEntity.status(status).body(encryptedResponse);
-            } catch (Exception e) {
-                logger.error("Error encrypting response: {}", e.getMessage());
-            }
+            return ResponseEntity.status(status).body(new EncryptedBody(sessionId, response));
         }
         return ResponseEntity.status(status).body(response);
     }
@@ -88,16 +48,10 @@ public class RequestResponseUtil {
      */
     public ResponseEntity<?> buildEncryptedResponse(String sessionId, ResponseEntity<Map<String, Object>> responseEntity) {
         if (sessionId != null && !sessionId.isEmpty() && securityManager.getSessionKey(sessionId) != null) {
-            try {
-                String encryptedResponse = securityManager.encrypt(sessionId,
-                        objectMapper.writeValueAsString(responseEntity.getBody()));
-                return ResponseEntity.status(responseEntity.getStatusCode()).body(encryptedResponse);
-            } catch (Exception e) {
-                logger.error("Error encrypting response: {}", e.getMessage());
-            }
+            return ResponseEntity.status(responseEntity.getStatusCode())
+                    .headers(responseEntity.getHeaders())
+                    .body(new EncryptedBody(sessionId, responseEntity.getBody()));
         }
         return responseEntity;
     }
-
-
-}
\ No newline at end of file
+}
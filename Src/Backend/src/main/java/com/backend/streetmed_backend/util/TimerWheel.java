@@ -0,0 +1,88 @@
+package com.backend.streetmed_backend.util;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Hashed timer wheel for expiring keys without scanning the whole key space.
+ * A key is dropped into the slot of its deadline tick; each {@link #advance(long)} call only
+ * visits the slots for the ticks that have passed since the previous call. Cancellation is
+ * lazy: callers re-check the key's current deadline when it comes back from advance, so
+ * rescheduling a key simply schedules it again.
+ */
+public class TimerWheel<K> {
+    private final long tickMillis;
+    private final List<Entry<K>>[] slots;
+    private volatile long lastTick;
+
+    @SuppressWarnings("unchecked")
+    public TimerWheel(long tickMillis, int slotCount, long nowMillis) {
+        this.tickMillis = tickMillis;
+        this.slots = new List[slotCount];
+        for (int i = 0; i < slotCount; i++) {
+            slots[i] = new ArrayList<>();
+        }
+        this.lastTick = nowMillis / tickMillis;
+    }
+
+    /**
+     * Schedule the key to come due at the given time
+     */
+    public void schedule(K key, long deadlineMillis) {
+        long tick = Math.max(deadlineMillis / tickMillis, lastTick + 1);
+        List<Entry<K>> slot = slots[(int) (tick % slots.length)];
+        synchronized (slot) {
+            slot.add(new Entry<>(key, deadlineMillis));
+        }
+    }
+
+    /**
+     * Move the wheel to {@code nowMillis}
+     * @return keys whose deadline has passed (possibly stale; the caller decides)
+     */
+    public synchronized List<K> advance(long nowMillis) {
+        long currentTick = nowMillis / tickMillis;
+        List<K> due = new ArrayList<>();
+        // A full turn visits every slot once, so never walk more than that
+        long from = Math.max(lastTick + 1, currentTick - slots.length + 1);
+        for (long tick = from; tick <= currentTick; tick++) {
+            List<Entry<K>> slot = slots[(int) (tick % slots.length)];
+            synchronized (slot) {
+                Iterator<Entry<K>> it = slot.iterator();
+                while (it.hasNext()) {
+                    Entry<K> entry = it.next();
+                    if (entry.deadlineMillis <= nowMillis) {
+                        due.add(entry.key);
+                        it.remove();
+                    }
+                }
+            }
+        }
+        lastTick = currentTick;
+        return due;
+    }
+
+    /**
+     * Number of scheduled entries, including stale ones not yet reached
+     */
+    public int size() {
+        int total = 0;
+        for (List<Entry<K>> slot : slots) {
+            synchronized (slot) {
+                total += slot.size();
+            }
+        }
+        return total;
+    }
+
+    private static class Entry<K> {
+        final K key;
+        final long deadlineMillis;
+
+        Entry(K key, long deadlineMillis) {
+            this.key = key;
+            this.deadlineMillis = deadlineMillis;
+        }
+    }
+}
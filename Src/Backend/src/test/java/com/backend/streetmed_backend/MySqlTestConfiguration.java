@@ -0,0 +1,20 @@
+package com.backend.streetmed_backend;
+
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.testcontainers.containers.MySQLContainer;
+
+/**
+ * MySQL for tests that depend on MySQL behaviour (multi-table updates, row locks, query counts).
+ * Import it and annotate the test with {@code @Testcontainers(disabledWithoutDocker = true)}.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class MySqlTestConfiguration {
+
+    @Bean
+    @ServiceConnection
+    MySQLContainer<?> mysqlContainer() {
+        return new MySQLContainer<>("mysql:8.0");
+    }
+}
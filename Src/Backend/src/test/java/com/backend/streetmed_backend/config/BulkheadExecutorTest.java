@@ -0,0 +1,63 @@
+package com.backend.streetmed_backend.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkheadExecutorTest {
+
+    private final ExecutorService threads = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        threads.shutdownNow();
+    }
+
+    @Test
+    void nestedSubmissionDoesNotWaitForAPermit() throws Exception {
+        BulkheadExecutor bulkhead = new BulkheadExecutor(threads, new Semaphore(1), 200);
+
+        // The outer task holds the only permit while it waits for the inner one
+        CompletableFuture<String> result = CompletableFuture.supplyAsync(
+                () -> CompletableFuture.supplyAsync(() -> "done", bulkhead).join(), bulkhead);
+
+        assertEquals("done", result.get(5, TimeUnit.SECONDS));
+        awaitPermits(bulkhead, 1);
+    }
+
+    @Test
+    void outerSubmissionIsRejectedWhenNoPermitFreesUp() throws Exception {
+        BulkheadExecutor bulkhead = new BulkheadExecutor(threads, new Semaphore(1), 50);
+        CountDownLatch release = new CountDownLatch(1);
+        bulkhead.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        RuntimeException rejected = assertThrows(RuntimeException.class, () -> bulkhead.execute(() -> { }));
+        assertEquals("Server is too busy, please try again later", rejected.getMessage());
+
+        release.countDown();
+        awaitPermits(bulkhead, 1);
+        CompletableFuture.runAsync(() -> { }, bulkhead).get(5, TimeUnit.SECONDS);
+    }
+
+    private static void awaitPermits(BulkheadExecutor bulkhead, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (bulkhead.availablePermits() != expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, bulkhead.availablePermits());
+    }
+}
@@ -0,0 +1,53 @@
+package com.backend.streetmed_backend.config;
+
+import com.backend.streetmed_backend.MySqlTestConfiguration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "email.transport=fake",
+        "security.metrics.scrape-username=scraper",
+        "security.metrics.scrape-password=scrape-secret"
+})
+@Import(MySqlTestConfiguration.class)
+@Testcontainers(disabledWithoutDocker = true)
+class PrometheusScrapeTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private AppMetrics appMetrics;
+
+    @Test
+    void scrapeExposesOperationTimers() {
+        appMetrics.time("test.scrape", AppMetrics.NO_ROLE, () -> true);
+
+        ResponseEntity<String> response = restTemplate.withBasicAuth("scraper", "scrape-secret")
+                .getForEntity("/actuator/prometheus", String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertTrue(response.getBody().contains("app_operation_seconds"));
+        assertTrue(response.getBody().contains("endpoint=\"test.scrape\""));
+    }
+
+    @Test
+    void metricsRequireCredentialsButHealthDoesNot() {
+        assertEquals(HttpStatus.UNAUTHORIZED,
+                restTemplate.getForEntity("/actuator/prometheus", String.class).getStatusCode());
+        assertEquals(HttpStatus.UNAUTHORIZED,
+                restTemplate.getForEntity("/actuator/metrics", String.class).getStatusCode());
+        assertEquals(HttpStatus.UNAUTHORIZED, restTemplate.withBasicAuth("scraper", "wrong")
+                .getForEntity("/actuator/prometheus", String.class).getStatusCode());
+        assertEquals(HttpStatus.OK, restTemplate.getForEntity("/actuator/health", String.class).getStatusCode());
+    }
+}
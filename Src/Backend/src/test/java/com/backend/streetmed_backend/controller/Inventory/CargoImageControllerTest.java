@@ -0,0 +1,137 @@
+package com.backend.streetmed_backend.controller.Inventory;
+
+import com.backend.streetmed_backend.config.AppMetrics;
+import com.backend.streetmed_backend.repository.Cargo.CargoImageInfo;
+import com.backend.streetmed_backend.service.cargoService.CargoContentCache;
+import com.backend.streetmed_backend.service.cargoService.CargoImageService;
+import com.backend.streetmed_backend.service.cargoService.ImageVariant;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class CargoImageControllerTest {
+
+    private static final int IMAGE_ID = 5;
+    private static final String HASH = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08";
+    private static final LocalDateTime UPLOADED = LocalDateTime.of(2026, 3, 1, 12, 0);
+
+    private final CargoImageService imageService = mock(CargoImageService.class);
+    private final CargoImageInfo image = mock(CargoImageInfo.class);
+    private final byte[] content = new byte[1000];
+
+    CargoImageControllerTest() {
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        when(image.getId()).thenReturn(IMAGE_ID);
+        when(image.getContentType()).thenReturn("image/jpeg");
+        when(image.getSize()).thenReturn((long) content.length);
+        when(image.getUploadDate()).thenReturn(UPLOADED);
+        when(image.getContentHash()).thenReturn(HASH);
+        when(imageService.getImageInfo(IMAGE_ID)).thenReturn(image);
+        when(imageService.findVariantInfo(eq(IMAGE_ID), any(ImageVariant.class))).thenReturn(Optional.empty());
+        when(imageService.openImage(image)).thenAnswer(invocation -> new ByteArrayResource(content));
+    }
+
+    @Test
+    void fullGetCarriesValidatorsAndCaching() throws Exception {
+        mockMvc(false).perform(get("/api/cargo/images/{id}", IMAGE_ID))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + HASH + "\""))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=86400, public"))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andExpect(content().bytes(content));
+    }
+
+    @Test
+    void rangeRequestIsAnsweredWithPartialContent() throws Exception {
+        MvcResult result = mockMvc(false).perform(get("/api/cargo/images/{id}", IMAGE_ID)
+                        .header(HttpHeaders.RANGE, "bytes=10-19"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 10-19/1000"))
+                .andReturn();
+
+        assertArrayEquals(Arrays.copyOfRange(content, 10, 20), result.getResponse().getContentAsByteArray());
+    }
+
+    @Test
+    void matchingEtagIsNotModifiedWithoutReadingTheContent() throws Exception {
+        mockMvc(false).perform(get("/api/cargo/images/{id}", IMAGE_ID)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"other\", W/\"" + HASH + "\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + HASH + "\""))
+                .andExpect(content().bytes(new byte[0]));
+
+        verify(imageService, never()).openImage(any());
+    }
+
+    @Test
+    void otherEtagServesTheImage() throws Exception {
+        mockMvc(false).perform(get("/api/cargo/images/{id}", IMAGE_ID)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"other\""))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(content));
+    }
+
+    @Test
+    void unchangedSinceIsNotModified() throws Exception {
+        String later = DateTimeFormatter.RFC_1123_DATE_TIME.format(
+                UPLOADED.atZone(ZoneId.systemDefault()).plusHours(1).withZoneSameInstant(ZoneOffset.UTC));
+        String earlier = DateTimeFormatter.RFC_1123_DATE_TIME.format(
+                UPLOADED.atZone(ZoneId.systemDefault()).minusHours(1).withZoneSameInstant(ZoneOffset.UTC));
+
+        MockMvc mockMvc = mockMvc(false);
+        mockMvc.perform(get("/api/cargo/images/{id}", IMAGE_ID).header(HttpHeaders.IF_MODIFIED_SINCE, later))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/cargo/images/{id}", IMAGE_ID).header(HttpHeaders.IF_MODIFIED_SINCE, earlier))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void missingVariantFallsBackToTheOriginalWithoutCaching() throws Exception {
+        mockMvc(true).perform(get("/api/cargo/images/{id}", IMAGE_ID).param("variant", "thumb"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andExpect(content().bytes(content));
+    }
+
+    @Test
+    void cachedImageServesRangesAndValidators() throws Exception {
+        MockMvc mockMvc = mockMvc(true);
+        mockMvc.perform(get("/api/cargo/images/{id}", IMAGE_ID))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/cargo/images/{id}", IMAGE_ID).header(HttpHeaders.RANGE, "bytes=990-"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 990-999/1000"));
+        mockMvc.perform(get("/api/cargo/images/{id}", IMAGE_ID).header(HttpHeaders.IF_NONE_MATCH, "\"" + HASH + "\""))
+                .andExpect(status().isNotModified());
+
+        verify(imageService, times(1)).openImage(image);
+    }
+
+    private MockMvc mockMvc(boolean cacheEnabled) {
+        CargoContentCache contentCache = new CargoContentCache(new ObjectMapper(), cacheEnabled, 1 << 20, 1 << 16, 60);
+        CargoImageController controller = new CargoImageController(imageService,
+                new AppMetrics(new SimpleMeterRegistry()), contentCache, 86400);
+        return MockMvcBuilders.standaloneSetup(controller).build();
+    }
+}
@@ -0,0 +1,62 @@
+package com.backend.streetmed_backend.loadtest;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Load run shared by the platform and virtual-thread execution mode tests. Each level drives
+ * GET /api/volunteer/application/status/{email} (one indexed read through readOnlyExecutor)
+ * and logs p50/p99 latency and throughput; 5xx responses, including "Server is too busy"
+ * rejections, count as failures. Run with -Dloadtest=true (optionally -Dloadtest.seconds=N).
+ */
+abstract class ExecutionModeLoadTestSupport {
+    private static final Logger logger = LoggerFactory.getLogger(ExecutionModeLoadTestSupport.class);
+
+    private static final int[] CLIENT_LEVELS = {50, 200, 1000};
+
+    @LocalServerPort
+    private int port;
+
+    abstract String mode();
+
+    @Test
+    void applicationStatusUnderLoad() throws InterruptedException {
+        Duration duration = Duration.ofSeconds(Long.getLong("loadtest.seconds", 20));
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        AtomicLong sequence = new AtomicLong();
+
+        List<LoadGenerator.Result> results = new ArrayList<>();
+        for (int clients : CLIENT_LEVELS) {
+            LoadGenerator.Result result = LoadGenerator.run(mode(), clients, Duration.ofSeconds(5), duration, () -> {
+                URI uri = URI.create("http://localhost:" + port + "/api/volunteer/application/status/load"
+                        + sequence.incrementAndGet() % 1000 + "@example.com");
+                HttpResponse<Void> response = client.send(HttpRequest.newBuilder(uri)
+                                .timeout(Duration.ofSeconds(30)).GET().build(),
+                        HttpResponse.BodyHandlers.discarding());
+                return response.statusCode() < 500;
+            });
+            logger.info("{}", result);
+            results.add(result);
+        }
+
+        for (LoadGenerator.Result result : results) {
+            assertTrue(result.getRequests() > 0, "no requests completed: " + result);
+        }
+    }
+}
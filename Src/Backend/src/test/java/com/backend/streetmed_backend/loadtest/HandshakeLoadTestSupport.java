@@ -0,0 +1,156 @@
+package com.backend.streetmed_backend.loadtest;
+
+import com.backend.streetmed_backend.security.ClientAuthenticationService;
+import com.backend.streetmed_backend.security.EcdhKeyPairPool;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Handshakes per second shared by the pooled and unpooled ECDH load tests. Every load client
+ * runs initiate-handshake followed by complete-handshake, signing both requests as its own
+ * registered client, and each full handshake is one recorded request. Logs p50/p99 latency,
+ * handshakes per second and the key pair pool counters per level.
+ * Run with -Dloadtest=true (optionally -Dloadtest.seconds=N).
+ */
+abstract class HandshakeLoadTestSupport {
+    private static final Logger logger = LoggerFactory.getLogger(HandshakeLoadTestSupport.class);
+
+    private static final int[] CLIENT_LEVELS = {10, 50, 200};
+    private static final int CLIENT_KEYS = 64;
+    private static final String CLIENT_SECRET = "load-test-secret";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicInteger clientIds = new AtomicInteger();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ClientAuthenticationService clientAuthService;
+
+    @Autowired
+    private EcdhKeyPairPool keyPairPool;
+
+    abstract String mode();
+
+    @Test
+    void handshakesUnderLoad() throws Exception {
+        Duration duration = Duration.ofSeconds(Long.getLong("loadtest.seconds", 20));
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        // Client key generation is not what is measured, so a fixed set is reused
+        List<String> clientPublicKeys = clientPublicKeys();
+
+        List<LoadGenerator.Result> results = new ArrayList<>();
+        for (int clients : CLIENT_LEVELS) {
+            ThreadLocal<SignedClient> signedClient = ThreadLocal.withInitial(this::registerClient);
+            LoadGenerator.Result result = LoadGenerator.run(mode(), clients, Duration.ofSeconds(5), duration, () -> {
+                SignedClient signer = signedClient.get();
+                HttpResponse<String> initiated = client.send(signer.sign(HttpRequest.newBuilder(
+                                uri("/api/security/initiate-handshake")))
+                        .timeout(Duration.ofSeconds(30)).GET().build(), HttpResponse.BodyHandlers.ofString());
+                if (initiated.statusCode() != 200) {
+                    return false;
+                }
+                String sessionId = objectMapper.readTree(initiated.body()).get("sessionId").asText();
+                String clientPublicKey = clientPublicKeys.get(Math.floorMod(sessionId.hashCode(), CLIENT_KEYS));
+
+                String body = objectMapper.createObjectNode()
+                        .put("sessionId", sessionId)
+                        .put("clientPublicKey", clientPublicKey)
+                        .toString();
+                HttpResponse<String> completed = client.send(signer.sign(HttpRequest.newBuilder(
+                                uri("/api/security/complete-handshake")))
+                        .timeout(Duration.ofSeconds(30))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body)).build(), HttpResponse.BodyHandlers.ofString());
+                if (completed.statusCode() != 200) {
+                    return false;
+                }
+                JsonNode status = objectMapper.readTree(completed.body()).get("status");
+                return status != null && "success".equals(status.asText());
+            });
+            logger.info("{} pool={}", result, keyPairPool.getMetrics());
+            results.add(result);
+        }
+
+        for (LoadGenerator.Result result : results) {
+            assertTrue(result.getRequests() > 0, "no handshakes completed: " + result);
+            assertEquals(0, result.getFailures(), "failed handshakes: " + result);
+        }
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static List<String> clientPublicKeys() throws GeneralSecurityException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < CLIENT_KEYS; i++) {
+            keys.add(Base64.getEncoder().encodeToString(generator.generateKeyPair().getPublic().getEncoded()));
+        }
+        return keys;
+    }
+
+    private SignedClient registerClient() {
+        String clientId = "load-test-" + mode() + "-" + clientIds.incrementAndGet();
+        clientAuthService.registerClient(clientId, CLIENT_SECRET);
+        return new SignedClient(clientId);
+    }
+
+    /**
+     * One load client's identity. Timestamps only move forward, so two requests in the same
+     * millisecond never carry the same signature and are not rejected as replays.
+     */
+    private static final class SignedClient {
+        private final String clientId;
+        private final Mac mac;
+        private long lastTimestamp;
+
+        SignedClient(String clientId) {
+            this.clientId = clientId;
+            try {
+                mac = Mac.getInstance("HmacSHA256");
+                mac.init(new SecretKeySpec(CLIENT_SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HmacSHA256 not available", e);
+            }
+        }
+
+        HttpRequest.Builder sign(HttpRequest.Builder request) {
+            long timestamp = Math.max(System.currentTimeMillis(), lastTimestamp + 1);
+            lastTimestamp = timestamp;
+            byte[] signature = mac.doFinal((clientId + ":" + timestamp).getBytes(StandardCharsets.UTF_8));
+            return request.header("X-Client-ID", clientId)
+                    .header("X-Timestamp", Long.toString(timestamp))
+                    .header("X-Signature", Base64.getEncoder().encodeToString(signature));
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.backend.streetmed_backend.loadtest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Closed-loop load for the load tests: every client sends its next request as soon as the previous
+ * one answers. Requests started during the warm-up are not recorded; after it, each latency is
+ * kept so the result can report exact percentiles.
+ */
+public final class LoadGenerator {
+
+    /**
+     * One request; returns false for a failed or rejected response
+     */
+    @FunctionalInterface
+    public interface Request {
+        boolean send() throws Exception;
+    }
+
+    private LoadGenerator() {
+    }
+
+    public static Result run(String name, int clients, Duration warmup, Duration duration, Request request)
+            throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<ClientStats>> futures = new ArrayList<>();
+        long[] window = new long[2];
+        try {
+            for (int i = 0; i < clients; i++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    ClientStats stats = new ClientStats();
+                    long recordFrom = window[0];
+                    long end = window[1];
+                    long now;
+                    while ((now = System.nanoTime()) < end) {
+                        boolean ok;
+                        try {
+                            ok = request.send();
+                        } catch (Exception e) {
+                            ok = false;
+                        }
+                        long finished = System.nanoTime();
+                        if (now >= recordFrom) {
+                            stats.record(finished - now, ok);
+                        }
+                    }
+                    return stats;
+                }));
+            }
+            window[0] = System.nanoTime() + warmup.toNanos();
+            window[1] = window[0] + duration.toNanos();
+            start.countDown(); // publishes window to the clients
+
+            ClientStats total = new ClientStats();
+            for (Future<ClientStats> future : futures) {
+                try {
+                    total.add(future.get());
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Load client failed", e.getCause());
+                }
+            }
+            return total.toResult(name, clients, duration);
+        } finally {
+            pool.shutdownNow();
+            pool.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    public static final class Result {
+        private final String name;
+        private final int clients;
+        private final long requests;
+        private final long failures;
+        private final double p50Millis;
+        private final double p99Millis;
+        private final double throughput;
+
+        Result(String name, int clients, long requests, long failures,
+               double p50Millis, double p99Millis, double throughput) {
+            this.name = name;
+            this.clients = clients;
+            this.requests = requests;
+            this.failures = failures;
+            this.p50Millis = p50Millis;
+            this.p99Millis = p99Millis;
+            this.throughput = throughput;
+        }
+
+        public long getRequests() {
+            return requests;
+        }
+
+        public long getFailures() {
+            return failures;
+        }
+
+        public double getP50Millis() {
+            return p50Millis;
+        }
+
+        public double getP99Millis() {
+            return p99Millis;
+        }
+
+        public double getThroughput() {
+            return throughput;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-10s clients=%5d requests=%8d failed=%7d p50=%8.2f ms p99=%8.2f ms %9.1f req/s",
+                    name, clients, requests, failures, p50Millis, p99Millis, throughput);
+        }
+    }
+
+    private static final class ClientStats {
+        private long[] latencies = new long[1024];
+        private int count;
+        private long failures;
+
+        void record(long nanos, boolean ok) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+            if (!ok) {
+                failures++;
+            }
+        }
+
+        void add(ClientStats other) {
+            for (int i = 0; i < other.count; i++) {
+                record(other.latencies[i], true);
+            }
+            failures += other.failures;
+        }
+
+        Result toResult(String name, int clients, Duration duration) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            return new Result(name, clients, count, failures, percentile(sorted, 0.50), percentile(sorted, 0.99),
+                    count / (duration.toNanos() / 1e9));
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1e6;
+        }
+    }
+}
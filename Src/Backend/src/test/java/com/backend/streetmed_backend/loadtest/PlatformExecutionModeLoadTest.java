@@ -0,0 +1,22 @@
+package com.backend.streetmed_backend.loadtest;
+
+import com.backend.streetmed_backend.MySqlTestConfiguration;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "email.transport=fake",
+        "spring.threads.virtual.enabled=false"
+})
+@Import(MySqlTestConfiguration.class)
+@Testcontainers(disabledWithoutDocker = true)
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class PlatformExecutionModeLoadTest extends ExecutionModeLoadTestSupport {
+
+    @Override
+    String mode() {
+        return "platform";
+    }
+}
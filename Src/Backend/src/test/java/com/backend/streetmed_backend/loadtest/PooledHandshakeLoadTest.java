@@ -0,0 +1,23 @@
+package com.backend.streetmed_backend.loadtest;
+
+import com.backend.streetmed_backend.MySqlTestConfiguration;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "email.transport=fake",
+        "security.ecdh.pool.min-size=8",
+        "security.ecdh.pool.max-size=256"
+})
+@Import(MySqlTestConfiguration.class)
+@Testcontainers(disabledWithoutDocker = true)
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class PooledHandshakeLoadTest extends HandshakeLoadTestSupport {
+
+    @Override
+    String mode() {
+        return "pooled";
+    }
+}
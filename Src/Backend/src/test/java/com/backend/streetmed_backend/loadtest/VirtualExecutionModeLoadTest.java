@@ -0,0 +1,25 @@
+package com.backend.streetmed_backend.loadtest;
+
+import com.backend.streetmed_backend.MySqlTestConfiguration;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "email.transport=fake",
+        "spring.threads.virtual.enabled=true"
+})
+@Import(MySqlTestConfiguration.class)
+@Testcontainers(disabledWithoutDocker = true)
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+@EnabledForJreRange(min = JRE.JAVA_21)
+class VirtualExecutionModeLoadTest extends ExecutionModeLoadTestSupport {
+
+    @Override
+    String mode() {
+        return "virtual";
+    }
+}
@@ -0,0 +1,200 @@
+package com.backend.streetmed_backend.repository;
+
+import com.backend.streetmed_backend.MySqlTestConfiguration;
+import com.backend.streetmed_backend.entity.CargoItem;
+import com.backend.streetmed_backend.entity.order_entity.Order;
+import com.backend.streetmed_backend.entity.order_entity.OrderItem;
+import com.backend.streetmed_backend.repository.Cargo.CargoItemRepository;
+import com.backend.streetmed_backend.repository.Order.OrderRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Statement and loaded-entity counts for the repository methods behind each endpoint, so a
+ * change of fetch plan (summary / detail / inventory graph) shows up as a test failure
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(MySqlTestConfiguration.class)
+@Testcontainers(disabledWithoutDocker = true)
+class EntityGraphFetchPlanTest {
+
+    private static final int ITEMS_PER_ORDER = 3;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private CargoItemRepository cargoItemRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    // Order status updates and assignment (OrderManagementService) lock the order without its items
+    @Test
+    void lockingAnOrderLeavesItsItemsUnloaded() {
+        Order saved = saveOrder(null, 42);
+        Statistics statistics = reset();
+
+        Order order = orderRepository.findByIdWithLock(saved.getOrderId()).orElseThrow();
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getEntityLoadCount());
+        assertFalse(Hibernate.isInitialized(order.getOrderItems()));
+    }
+
+    // Order lookups that return the items to the client (OrderService.getOrder)
+    @Test
+    void orderDetailJoinsItsItems() {
+        Order saved = saveOrder(null, 42);
+        Statistics statistics = reset();
+
+        Order order = orderRepository.findWithItemsByOrderId(saved.getOrderId()).orElseThrow();
+        int items = order.getOrderItems().size();
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(1 + ITEMS_PER_ORDER, statistics.getEntityLoadCount());
+        assertEquals(ITEMS_PER_ORDER, items);
+    }
+
+    // GET /api/orders/user/{userId} (OrderController.getUserOrders)
+    @Test
+    void userOrdersLoadWithTheirItemsInOneStatement() {
+        int userId = 7001;
+        for (int i = 0; i < 20; i++) {
+            saveOrder(null, userId);
+        }
+        Statistics statistics = reset();
+
+        List<Order> orders = orderRepository.findByUserIdOrderByRequestTimeDesc(userId);
+        int items = orders.stream().mapToInt(o -> o.getOrderItems().size()).sum();
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(20 + 20 * ITEMS_PER_ORDER, statistics.getEntityLoadCount());
+        assertEquals(20, orders.size());
+        assertEquals(20 * ITEMS_PER_ORDER, items);
+    }
+
+    // Round capacity and assignment checks (summary graph) versus the round order list (detail graph)
+    @Test
+    void roundOrdersLoadItemsOnlyWhenAskedFor() {
+        int roundId = 880_001;
+        for (int i = 0; i < 10; i++) {
+            saveOrder(roundId, 42);
+        }
+
+        Statistics statistics = reset();
+        List<Order> summaries = orderRepository.findByRoundId(roundId);
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(10, statistics.getEntityLoadCount());
+        assertTrue(summaries.stream().noneMatch(o -> Hibernate.isInitialized(o.getOrderItems())));
+
+        statistics = reset();
+        List<Order> details = orderRepository.findWithItemsByRoundId(roundId);
+        details.forEach(o -> o.getOrderItems().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(10 + 10 * ITEMS_PER_ORDER, statistics.getEntityLoadCount());
+    }
+
+    // Stock edits and reservations (CargoItemService) read the size quantities with the item
+    @Test
+    void inventoryGraphJoinsSizeQuantities() {
+        CargoItem saved = saveCargoItem("Jacket", Map.of("S", 2, "M", 3, "L", 4));
+        Statistics statistics = reset();
+
+        CargoItem item = cargoItemRepository.findWithSizesById(saved.getId()).orElseThrow();
+        int sizes = item.getSizeQuantities().size();
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getEntityLoadCount());
+        assertEquals(3, sizes);
+
+        statistics = reset();
+        CargoItem plain = cargoItemRepository.findById(saved.getId()).orElseThrow();
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertFalse(Hibernate.isInitialized(plain.getSizeQuantities()));
+    }
+
+    // GET /api/cargo/items on a catalog cache miss, and batch reservation lookups
+    @Test
+    void catalogListingsLoadSizesInOneStatement() {
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < 15; i++) {
+            ids.add(saveCargoItem("Hat " + i, Map.of("S", 1, "M", 1)).getId());
+        }
+
+        Statistics statistics = reset();
+        List<CargoItem> all = cargoItemRepository.findAll();
+        all.forEach(item -> item.getSizeQuantities().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(all.size(), statistics.getEntityLoadCount());
+
+        statistics = reset();
+        List<CargoItem> batch = cargoItemRepository.findWithSizesByIdIn(Set.copyOf(ids));
+        batch.forEach(item -> item.getSizeQuantities().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(15, statistics.getEntityLoadCount());
+    }
+
+    /**
+     * Flush pending inserts, empty the persistence context and zero the counters
+     */
+    private Statistics reset() {
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        return statistics;
+    }
+
+    private Order saveOrder(Integer roundId, int userId) {
+        Order order = new Order();
+        order.setUserId(userId);
+        order.setRoundId(roundId);
+        order.setItemName("Socks");
+        order.setQuantity(ITEMS_PER_ORDER);
+        order.setStatus("PENDING");
+        order.setRequestTime(LocalDateTime.now());
+        order.setDeliveryAddress("Forbes Ave");
+        for (int i = 0; i < ITEMS_PER_ORDER; i++) {
+            OrderItem item = new OrderItem();
+            item.setItemName("Socks");
+            item.setQuantity(1);
+            item.setSize(String.valueOf(i));
+            order.addOrderItem(item);
+        }
+        return entityManager.persist(order);
+    }
+
+    private CargoItem saveCargoItem(String name, Map<String, Integer> sizes) {
+        CargoItem item = new CargoItem();
+        item.setName(name + " " + System.nanoTime());
+        item.setQuantity(sizes.values().stream().mapToInt(Integer::intValue).sum());
+        item.setMinQuantity(0);
+        item.setSizeQuantities(new HashMap<>(sizes));
+        item.setCreatedAt(LocalDateTime.now());
+        return entityManager.persist(item);
+    }
+}
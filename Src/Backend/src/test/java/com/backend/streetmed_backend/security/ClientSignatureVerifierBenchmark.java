@@ -0,0 +1,108 @@
+package com.backend.streetmed_backend.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cost of checking one client signature: the old check (Mac.getInstance and a new key per
+ * request, Base64 string comparison) against ClientSignatureVerifier (per-thread Mac, constant
+ * time byte comparison, replay cache). The verifier cycles through a fixed set of signed
+ * requests, so after the first pass they are replays; those still pay the full HMAC check and
+ * the cache lookup, which is the work every request does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClientSignatureVerifierBenchmark {
+
+    private static final String CLIENT = "street-med-frontend-prod";
+    private static final String SECRET = "production-client-secret";
+    private static final String SHARED_KEY = "street-med-client-authentication-key";
+    private static final int REQUESTS = 4096;
+
+    private final AtomicInteger next = new AtomicInteger();
+    private ClientSignatureVerifier verifier;
+    private long[] timestamps;
+    private String[] clientSignatures;
+    private String[] sharedSignatures;
+
+    @Setup
+    public void setUp() throws GeneralSecurityException {
+        verifier = new ClientSignatureVerifier(SHARED_KEY, true);
+        verifier.registerClient(CLIENT, SECRET);
+
+        long now = System.currentTimeMillis();
+        timestamps = new long[REQUESTS];
+        clientSignatures = new String[REQUESTS];
+        sharedSignatures = new String[REQUESTS];
+        for (int i = 0; i < REQUESTS; i++) {
+            timestamps[i] = now + i;
+            clientSignatures[i] = sign(SECRET, CLIENT + ":" + timestamps[i]);
+            sharedSignatures[i] = sign(SHARED_KEY, CLIENT + ":" + timestamps[i]);
+        }
+    }
+
+    @Benchmark
+    public boolean legacy() throws GeneralSecurityException {
+        int i = next.getAndIncrement() & (REQUESTS - 1);
+        String data = CLIENT + ":" + timestamps[i];
+        Mac hmac = Mac.getInstance("HmacSHA256");
+        SecretKeySpec secretKey = new SecretKeySpec(SHARED_KEY.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+        hmac.init(secretKey);
+        byte[] hash = hmac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+        return Base64.getEncoder().encodeToString(hash).equals(sharedSignatures[i]);
+    }
+
+    @Benchmark
+    public boolean verifier() {
+        int i = next.getAndIncrement() & (REQUESTS - 1);
+        return verifier.verify(CLIENT, timestamps[i], clientSignatures[i]);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean legacyFourThreads() throws GeneralSecurityException {
+        return legacy();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean verifierFourThreads() {
+        return verifier();
+    }
+
+    private static String sign(String secret, String data) throws GeneralSecurityException {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return Base64.getEncoder().encodeToString(mac.doFinal(data.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ClientSignatureVerifierBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
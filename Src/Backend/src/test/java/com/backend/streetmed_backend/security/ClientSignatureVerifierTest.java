@@ -0,0 +1,177 @@
+package com.backend.streetmed_backend.security;
+
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClientSignatureVerifierTest {
+
+    private static final String CLIENT = "street-med-frontend-local";
+    private static final String SECRET = "local-development-secret";
+    private static final String SHARED_KEY = "shared-authentication-key";
+
+    private final ClientSignatureVerifier verifier = new ClientSignatureVerifier(SHARED_KEY, true);
+
+    ClientSignatureVerifierTest() {
+        verifier.registerClient(CLIENT, SECRET);
+    }
+
+    @Test
+    void replayedSignatureIsRejected() throws Exception {
+        long timestamp = System.currentTimeMillis();
+        String signature = sign(SECRET, CLIENT, timestamp);
+
+        assertTrue(verifier.verify(CLIENT, timestamp, signature));
+        assertFalse(verifier.verify(CLIENT, timestamp, signature));
+
+        assertEquals(1L, verifier.getMetrics().get("verified"));
+        assertEquals(1L, verifier.getMetrics().get("replays"));
+    }
+
+    @Test
+    void respelledSignatureIsNotAcceptedAsANewRequest() throws Exception {
+        long timestamp = System.currentTimeMillis();
+        String signature = sign(SECRET, CLIENT, timestamp);
+        assertTrue(verifier.verify(CLIENT, timestamp, signature));
+
+        // Both spellings decode to the same HMAC as the captured one
+        String unpadded = signature.replace("=", "");
+        assertArrayEquals(Base64.getDecoder().decode(signature), Base64.getDecoder().decode(unpadded));
+        String lowBitsFlipped = withLastDataCharFlipped(signature);
+        assertArrayEquals(Base64.getDecoder().decode(signature), Base64.getDecoder().decode(lowBitsFlipped));
+
+        assertFalse(verifier.verify(CLIENT, timestamp, unpadded));
+        assertFalse(verifier.verify(CLIENT, timestamp, lowBitsFlipped));
+        assertEquals(2L, verifier.getMetrics().get("rejected"));
+    }
+
+    @Test
+    void requestSignedWithTheOtherKeyIsStillAReplay() throws Exception {
+        long timestamp = System.currentTimeMillis();
+
+        assertTrue(verifier.verify(CLIENT, timestamp, sign(SECRET, CLIENT, timestamp)));
+        assertFalse(verifier.verify(CLIENT, timestamp, sign(SHARED_KEY, CLIENT, timestamp)));
+        assertEquals(1L, verifier.getMetrics().get("replays"));
+    }
+
+    @Test
+    void freshTimestampIsAcceptedAfterAReplay() throws Exception {
+        long timestamp = System.currentTimeMillis();
+        String signature = sign(SECRET, CLIENT, timestamp);
+        assertTrue(verifier.verify(CLIENT, timestamp, signature));
+        assertFalse(verifier.verify(CLIENT, timestamp, signature));
+
+        assertTrue(verifier.verify(CLIENT, timestamp + 1, sign(SECRET, CLIENT, timestamp + 1)));
+    }
+
+    @Test
+    void forgedSignatureIsNotRecorded() throws Exception {
+        long timestamp = System.currentTimeMillis();
+
+        assertFalse(verifier.verify(CLIENT, timestamp, sign("wrong-secret", CLIENT, timestamp)));
+        assertFalse(verifier.verify(CLIENT, timestamp, "not base64!"));
+
+        assertEquals(2L, verifier.getMetrics().get("rejected"));
+        assertEquals(0, verifier.getMetrics().get("replayCacheSize"));
+        // The forgeries did not use up the real signature
+        assertTrue(verifier.verify(CLIENT, timestamp, sign(SECRET, CLIENT, timestamp)));
+    }
+
+    @Test
+    void sharedKeySignatureIsReplayCheckedToo() throws Exception {
+        long timestamp = System.currentTimeMillis();
+        String signature = sign(SHARED_KEY, CLIENT, timestamp);
+
+        assertTrue(verifier.verify(CLIENT, timestamp, signature));
+        assertFalse(verifier.verify(CLIENT, timestamp, signature));
+
+        ClientSignatureVerifier ownKeyOnly = new ClientSignatureVerifier(SHARED_KEY, false);
+        ownKeyOnly.registerClient(CLIENT, SECRET);
+        assertFalse(ownKeyOnly.verify(CLIENT, timestamp, signature));
+    }
+
+    @Test
+    void concurrentReplaysAreAcceptedOnce() throws Exception {
+        long timestamp = System.currentTimeMillis();
+        String signature = sign(SECRET, CLIENT, timestamp);
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return verifier.verify(CLIENT, timestamp, signature);
+                }));
+            }
+            start.countDown();
+
+            int accepted = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get()) {
+                    accepted++;
+                }
+            }
+            assertEquals(1, accepted);
+            assertEquals(31L, verifier.getMetrics().get("replays"));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void replayCacheForgetsBucketsOnlyOnceTheRingWraps() {
+        ReplayCache cache = new ReplayCache(1000, 100, 10);
+        long timestamp = 50_000;
+
+        assertTrue(cache.markIfNew(CLIENT, timestamp));
+        assertFalse(cache.markIfNew(CLIENT, timestamp));
+        assertTrue(cache.markIfNew("other-client", timestamp));
+
+        // 22 slots; a request one full ring later reuses the slot and drops the old entries
+        long wrapped = timestamp + 22 * 100;
+        assertTrue(cache.markIfNew(CLIENT, wrapped));
+        // The old window is gone, so its timestamp can no longer be recorded at all
+        assertFalse(cache.markIfNew(CLIENT, timestamp + 1));
+    }
+
+    @Test
+    void fullReplayBucketRejectsNewEntries() {
+        ReplayCache cache = new ReplayCache(1000, 100, 2);
+
+        assertTrue(cache.markIfNew(CLIENT, 1000));
+        assertTrue(cache.markIfNew(CLIENT, 1001));
+        assertFalse(cache.markIfNew(CLIENT, 1002));
+        assertTrue(cache.markIfNew(CLIENT, 1100));
+        assertEquals(3, cache.size());
+    }
+
+    /**
+     * Flip an unused low bit of the last Base64 character before the padding
+     */
+    private static String withLastDataCharFlipped(String signature) {
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/";
+        int last = signature.indexOf('=') - 1;
+        char flipped = alphabet.charAt(alphabet.indexOf(signature.charAt(last)) ^ 1);
+        return signature.substring(0, last) + flipped + signature.substring(last + 1);
+    }
+
+    private static String sign(String secret, String clientId, long timestamp) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        byte[] signature = mac.doFinal((clientId + ":" + timestamp).getBytes(StandardCharsets.UTF_8));
+        return Base64.getEncoder().encodeToString(signature);
+    }
+}
@@ -0,0 +1,37 @@
+package com.backend.streetmed_backend.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CodeHasherTest {
+
+    @Test
+    void hashDependsOnTheKey() {
+        CodeHasher first = new CodeHasher("first-key");
+        CodeHasher second = new CodeHasher("second-key");
+
+        assertEquals(first.hash("123456"), new CodeHasher("first-key").hash("123456"));
+        assertNotEquals(first.hash("123456"), second.hash("123456"));
+        assertEquals(64, first.hash("123456").length());
+    }
+
+    @Test
+    void unconfiguredKeyIsRandomPerInstance() {
+        CodeHasher hasher = new CodeHasher("");
+
+        assertFalse(hasher.isConfigured());
+        assertTrue(new CodeHasher("key").isConfigured());
+        assertNotEquals(hasher.hash("123456"), new CodeHasher(" ").hash("123456"));
+    }
+
+    @Test
+    void matchesOnlyTheHashedCode() {
+        CodeHasher hasher = new CodeHasher("key");
+        String stored = hasher.hash("123456");
+
+        assertTrue(hasher.matches(stored, "123456"));
+        assertFalse(hasher.matches(stored, "123457"));
+        assertFalse(new CodeHasher("other").matches(stored, "123456"));
+    }
+}
@@ -0,0 +1,44 @@
+package com.backend.streetmed_backend.security;
+
+import com.backend.streetmed_backend.entity.user_entity.AuthToken;
+import com.backend.streetmed_backend.repository.User.AuthTokenRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DatabaseTokenStoreTest {
+
+    private final AuthTokenRepository repository = mock(AuthTokenRepository.class);
+    private final DatabaseTokenStore store = new DatabaseTokenStore(repository, 60, 0);
+
+    @Test
+    void rowIsKeyedByTheHashOfTheToken() {
+        store.store("raw-token", 7, "ADMIN");
+
+        ArgumentCaptor<AuthToken> saved = ArgumentCaptor.forClass(AuthToken.class);
+        verify(repository).save(saved.capture());
+        assertEquals(TokenStore.hash("raw-token"), saved.getValue().getTokenHash());
+        assertNotEquals("raw-token", saved.getValue().getTokenHash());
+    }
+
+    @Test
+    void lookupAndRemovalGoByTheHash() {
+        String hash = TokenStore.hash("raw-token");
+        when(repository.findById(hash)).thenReturn(Optional.of(
+                new AuthToken(hash, 7, "ADMIN", LocalDateTime.now().plusMinutes(5))));
+
+        TokenStore.TokenRecord record = store.find("raw-token");
+        assertNotNull(record);
+        assertEquals(7, record.getUserId());
+        assertEquals("ADMIN", record.getRole());
+
+        store.remove("raw-token");
+        verify(repository).deleteById(hash);
+        verify(repository, never()).findById("raw-token");
+    }
+}
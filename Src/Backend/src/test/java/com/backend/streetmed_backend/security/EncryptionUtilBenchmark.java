@@ -0,0 +1,110 @@
+package com.backend.streetmed_backend.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AES-GCM encrypt/decrypt of 256 B, 4 KB and 64 KB payloads: the old implementation (new
+ * SecureRandom and Cipher.getInstance per call, IV and ciphertext copied through a ByteBuffer)
+ * against EncryptionUtil (per-thread Cipher, shared SecureRandom, IV and ciphertext in one buffer).
+ * The main method runs with the gc profiler, so allocation per call is reported as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EncryptionUtilBenchmark {
+
+    private static final int GCM_IV_LENGTH = 12;
+    private static final int GCM_TAG_LENGTH = 128;
+
+    @Param({"256", "4096", "65536"})
+    public int payloadBytes;
+
+    private final EncryptionUtil encryptionUtil = new EncryptionUtil();
+    private SecretKey key;
+    private String plaintext;
+    private String ciphertext;
+
+    @Setup
+    public void setUp() {
+        byte[] keyBytes = new byte[32];
+        new SecureRandom().nextBytes(keyBytes);
+        key = new SecretKeySpec(keyBytes, "AES");
+        // JSON-like ASCII, so the byte count matches the character count
+        StringBuilder json = new StringBuilder("{\"items\":[");
+        while (json.length() < payloadBytes - 2) {
+            json.append("{\"id\":42,\"name\":\"Socks\"},");
+        }
+        json.setLength(payloadBytes - 2);
+        plaintext = json.append("]}").toString();
+        ciphertext = encryptionUtil.encrypt(plaintext, key);
+    }
+
+    @Benchmark
+    public String encryptLegacy() throws Exception {
+        byte[] dataBytes = plaintext.getBytes(StandardCharsets.UTF_8);
+        byte[] iv = new byte[GCM_IV_LENGTH];
+        new SecureRandom().nextBytes(iv);
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(GCM_TAG_LENGTH, iv));
+        byte[] encryptedData = cipher.doFinal(dataBytes);
+        ByteBuffer byteBuffer = ByteBuffer.allocate(iv.length + encryptedData.length);
+        byteBuffer.put(iv);
+        byteBuffer.put(encryptedData);
+        return Base64.getEncoder().encodeToString(byteBuffer.array());
+    }
+
+    @Benchmark
+    public String encrypt() {
+        return encryptionUtil.encrypt(plaintext, key);
+    }
+
+    @Benchmark
+    public String decryptLegacy() throws Exception {
+        ByteBuffer byteBuffer = ByteBuffer.wrap(Base64.getDecoder().decode(ciphertext));
+        byte[] iv = new byte[GCM_IV_LENGTH];
+        byteBuffer.get(iv);
+        byte[] cipherText = new byte[byteBuffer.remaining()];
+        byteBuffer.get(cipherText);
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(GCM_TAG_LENGTH, iv));
+        return new String(cipher.doFinal(cipherText), StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public String decrypt() {
+        return encryptionUtil.decrypt(ciphertext, key);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(EncryptionUtilBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
@@ -0,0 +1,62 @@
+package com.backend.streetmed_backend.security;
+
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EncryptionUtilTest {
+
+    private final EncryptionUtil encryptionUtil = new EncryptionUtil();
+    private final SecretKey key = new SecretKeySpec(new byte[32], "AES");
+
+    @Test
+    void oneShotCallsWhileAStreamIsOpenDoNotCorruptIt() throws Exception {
+        ByteArrayOutputStream sink = new ByteArrayOutputStream();
+        try (OutputStream out = encryptionUtil.encryptingStream(sink, key)) {
+            out.write("{\"first\":".getBytes(StandardCharsets.UTF_8));
+            // A serializer writing into the stream may encrypt a field on the same thread
+            String field = encryptionUtil.encrypt("nested", key);
+            assertEquals("nested", encryptionUtil.decrypt(field, key));
+            out.write("\"second\"}".getBytes(StandardCharsets.UTF_8));
+        }
+
+        String body = sink.toString(StandardCharsets.US_ASCII);
+        assertEquals("{\"first\":\"second\"}", encryptionUtil.decrypt(body, key));
+    }
+
+    @Test
+    void decryptingStreamSurvivesOneShotCallsWhileReading() throws Exception {
+        String body = encryptionUtil.encrypt("x".repeat(10_000), key);
+
+        try (InputStream in = encryptionUtil.decryptingStream(
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.US_ASCII)), key)) {
+            byte[] head = in.readNBytes(100);
+            encryptionUtil.decrypt(encryptionUtil.encrypt("other", key), key);
+            byte[] rest = in.readAllBytes();
+            assertEquals(10_000, head.length + rest.length);
+        }
+    }
+
+    @Test
+    void streamAndOneShotFormatsAreInterchangeable() throws Exception {
+        ByteArrayOutputStream sink = new ByteArrayOutputStream();
+        try (OutputStream out = encryptionUtil.encryptingStream(sink, key)) {
+            out.write("payload".getBytes(StandardCharsets.UTF_8));
+        }
+        assertEquals("payload", encryptionUtil.decrypt(sink.toString(StandardCharsets.US_ASCII), key));
+
+        String encrypted = encryptionUtil.encrypt("payload", key);
+        try (InputStream in = encryptionUtil.decryptingStream(
+                new ByteArrayInputStream(encrypted.getBytes(StandardCharsets.US_ASCII)), key)) {
+            assertEquals("payload", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+}
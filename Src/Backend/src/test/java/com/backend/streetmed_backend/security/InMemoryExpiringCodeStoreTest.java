@@ -0,0 +1,74 @@
+package com.backend.streetmed_backend.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryExpiringCodeStoreTest {
+
+    private static final long TTL = 60_000;
+
+    private final InMemoryExpiringCodeStore store = new InMemoryExpiringCodeStore(new CodeHasher(""), 3, 1000);
+
+    @Test
+    void reissuingACodeDoesNotResetFailedAttempts() {
+        store.put("otp", "user@example.com", "111111", null, TTL);
+        assertEquals(ExpiringCodeStore.Status.INVALID, store.verify("otp", "user@example.com", "000000").getStatus());
+        assertEquals(ExpiringCodeStore.Status.INVALID, store.verify("otp", "user@example.com", "000001").getStatus());
+
+        store.put("otp", "user@example.com", "222222", null, TTL);
+        ExpiringCodeStore.Verification third = store.verify("otp", "user@example.com", "000002");
+        assertEquals(ExpiringCodeStore.Status.LOCKED, third.getStatus());
+
+        // Still locked after another re-issue, even with the right code
+        store.put("otp", "user@example.com", "333333", null, TTL);
+        assertEquals(ExpiringCodeStore.Status.LOCKED, store.verify("otp", "user@example.com", "333333").getStatus());
+    }
+
+    @Test
+    void validCodeResetsTheAttemptCount() {
+        store.put("otp", "user@example.com", "111111", null, TTL);
+        store.verify("otp", "user@example.com", "000000");
+        assertTrue(store.verify("otp", "user@example.com", "111111").isValid());
+
+        store.put("otp", "user@example.com", "222222", null, TTL);
+        assertEquals(2, store.verify("otp", "user@example.com", "000000").getRemainingAttempts());
+    }
+
+    @Test
+    void concurrentConsumeHandsTheDataOutOnce() throws Exception {
+        store.put("reset", "token", null, "42:user@example.com", TTL);
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return store.consume("reset", "token");
+                }));
+            }
+            start.countDown();
+
+            int consumed = 0;
+            for (Future<String> result : results) {
+                if (result.get(10, TimeUnit.SECONDS) != null) {
+                    consumed++;
+                }
+            }
+            assertEquals(1, consumed);
+            assertNull(store.find("reset", "token"));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.backend.streetmed_backend.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashTest {
+
+    private PasswordHash passwordHash;
+
+    @BeforeEach
+    void setUp() {
+        passwordHash = new PasswordHash(10, 100, 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordHash.shutdown();
+    }
+
+    @Test
+    void verifyAsyncCompletesWithoutBlockingTheCaller() throws Exception {
+        String hash = passwordHash.hashAsync("secret").get(10, TimeUnit.SECONDS);
+
+        CompletableFuture<Boolean> matches = passwordHash.verifyAsync("secret", hash);
+        CompletableFuture<Boolean> mismatches = passwordHash.verifyAsync("wrong", hash);
+
+        assertTrue(matches.get(10, TimeUnit.SECONDS));
+        assertFalse(mismatches.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void rehashesOnlyHashesWithALowerCost() {
+        assertTrue(passwordHash.needsRehash(new BCryptPasswordEncoder(4).encode("secret")));
+        assertFalse(passwordHash.needsRehash(new BCryptPasswordEncoder(10).encode("secret")));
+        // Made by an instance calibrated higher: keep it rather than downgrade
+        assertFalse(passwordHash.needsRehash(new BCryptPasswordEncoder(11).encode("secret")));
+        assertFalse(passwordHash.needsRehash("plain-text"));
+    }
+
+    @Test
+    void fullQueueFailsTheFutureInsteadOfThrowing() {
+        String hash = new BCryptPasswordEncoder(10).encode("secret");
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        CompletableFuture<?> last = null;
+        for (int i = 0; i < threads + 8; i++) {
+            last = passwordHash.verifyAsync("secret", hash);
+        }
+
+        assertTrue(last.isCompletedExceptionally());
+    }
+}
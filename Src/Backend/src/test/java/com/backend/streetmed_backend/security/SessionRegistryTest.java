@@ -0,0 +1,69 @@
+package com.backend.streetmed_backend.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionRegistryTest {
+
+    private final SessionRegistry registry = new SessionRegistry(10);
+
+    @Test
+    void evictionAtTheCapSparesSessionsUsedSinceTheyWereCreated() {
+        for (int i = 0; i < 10; i++) {
+            registry.getOrCreate("s" + i);
+        }
+        registry.get("s0");
+        registry.get("s1");
+
+        registry.getOrCreate("s10");
+
+        // Down to 90% of the cap: the two oldest unused sessions go first
+        assertEquals(9, registry.size());
+        assertNotNull(registry.get("s0"));
+        assertNotNull(registry.get("s1"));
+        assertNull(registry.get("s2"));
+        assertNull(registry.get("s3"));
+        assertNotNull(registry.get("s4"));
+        assertNotNull(registry.get("s10"));
+    }
+
+    @Test
+    void evictionSkipsSessionsThatWereAlreadyRemoved() {
+        for (int i = 0; i < 10; i++) {
+            registry.getOrCreate("s" + i);
+        }
+        registry.remove("s0");
+        registry.remove("s1");
+        registry.getOrCreate("s10");
+        registry.getOrCreate("s11");
+
+        registry.getOrCreate("s12");
+
+        assertEquals(9, registry.size());
+        assertNull(registry.get("s2"));
+        assertNull(registry.get("s3"));
+        assertNotNull(registry.get("s4"));
+        assertNotNull(registry.get("s12"));
+    }
+
+    @Test
+    void removedSessionIsRecreatedEmpty() {
+        registry.getOrCreate("s").setClientId("client");
+        registry.remove("s");
+
+        assertNull(registry.get("s"));
+        assertNull(registry.getOrCreate("s").getClientId());
+        assertEquals(1, registry.size());
+    }
+
+    @Test
+    void sweepKeepsSessionsThatAreNotIdle() {
+        registry.getOrCreate("s");
+
+        registry.expireIdleSessions();
+
+        assertNotNull(registry.get("s"));
+        assertEquals(0L, registry.getMetrics().get("expirations"));
+    }
+}
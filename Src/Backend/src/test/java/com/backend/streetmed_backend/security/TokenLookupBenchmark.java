@@ -0,0 +1,119 @@
+package com.backend.streetmed_backend.security;
+
+import com.backend.streetmed_backend.entity.user_entity.AuthToken;
+import com.backend.streetmed_backend.repository.User.AuthTokenRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * isAuthenticated/hasRole with 100k live tokens: the old pair of token maps against TLSService
+ * over each TokenStore. The database store is measured with a warm near-cache, which is what
+ * a request sees between refreshes; the repository behind it is a mock.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenLookupBenchmark {
+
+    private static final int TOKENS = 100_000;
+
+    @Param({"memory", "database"})
+    public String store;
+
+    private String[] tokens;
+    private final Map<String, Integer> legacyUsers = new ConcurrentHashMap<>();
+    private final Map<String, String> legacyRoles = new ConcurrentHashMap<>();
+    private TLSService tlsService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        TokenStore tokenStore;
+        if ("database".equals(store)) {
+            AuthTokenRepository repository = mock(AuthTokenRepository.class);
+            LocalDateTime expiresAt = LocalDateTime.now().plusDays(1);
+            when(repository.findById(anyString())).thenAnswer(invocation ->
+                    Optional.of(new AuthToken(invocation.getArgument(0), 1, "VOLUNTEER", expiresAt)));
+            // Storing a token fills the near-cache, and its entries outlive the run
+            tokenStore = new DatabaseTokenStore(repository, 1440, 3600);
+        } else {
+            tokenStore = new InMemoryTokenStore(1440);
+        }
+        tlsService = new TLSService(tokenStore);
+        ReflectionTestUtils.setField(tlsService, "devTokenEnabled", true);
+
+        tokens = new String[TOKENS];
+        for (int i = 0; i < TOKENS; i++) {
+            String token = UUID.randomUUID().toString();
+            String role = i % 10 == 0 ? "ADMIN" : "VOLUNTEER";
+            tokens[i] = token;
+            tlsService.storeToken(token, i, role);
+            legacyUsers.put(token, i);
+            legacyRoles.put(token, role);
+        }
+    }
+
+    private String randomToken() {
+        return tokens[ThreadLocalRandom.current().nextInt(TOKENS)];
+    }
+
+    @Benchmark
+    public boolean isAuthenticatedLegacy() {
+        return legacyUsers.containsKey(randomToken());
+    }
+
+    @Benchmark
+    public boolean isAuthenticated() {
+        return tlsService.isAuthenticated(randomToken(), null);
+    }
+
+    @Benchmark
+    public boolean hasRoleLegacy() {
+        String role = legacyRoles.get(randomToken());
+        return role != null && ("ADMIN".equals(role) || "VOLUNTEER".equals(role));
+    }
+
+    @Benchmark
+    public boolean hasRole() {
+        return tlsService.hasRole(randomToken(), "ADMIN", "VOLUNTEER");
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean isAuthenticatedContended() {
+        return tlsService.isAuthenticated(randomToken(), null);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TokenLookupBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
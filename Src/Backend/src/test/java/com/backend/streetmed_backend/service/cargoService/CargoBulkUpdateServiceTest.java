@@ -0,0 +1,191 @@
+package com.backend.streetmed_backend.service.cargoService;
+
+import com.backend.streetmed_backend.entity.CargoItem;
+import com.backend.streetmed_backend.repository.Cargo.CargoItemRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CargoBulkUpdateServiceTest {
+
+    private final CargoItemRepository repository = mock(CargoItemRepository.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final CargoContentCache contentCache = mock(CargoContentCache.class);
+    private final CargoStockIndex stockIndex = mock(CargoStockIndex.class);
+    private final CargoBulkUpdateService service = new CargoBulkUpdateService(repository, jdbcTemplate,
+            new TransactionTemplate(transactionManager), contentCache, stockIndex, 100);
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        when(repository.findWithSizesByIdIn(anyCollection())).thenReturn(List.of(
+                item(1, Map.of("M", 4, "L", 2)), item(2, Map.of()), item(3, Map.of("S", 1))));
+    }
+
+    @Test
+    void csvColumnsAreMatchedByHeaderInAnyOrder() throws Exception {
+        List<InventoryUpdate> updates = service.parseCsv(csv("\uFEFFQty,Size,Item_Id,Name\n"
+                + "5,M,1,\n"
+                + "\n"
+                + "7,,,\"Socks, wool \"\"grey\"\"\"\n"));
+
+        assertEquals(2, updates.size());
+        assertEquals(1, updates.get(0).getItemId());
+        assertEquals("M", updates.get(0).getSize());
+        assertEquals(5, updates.get(0).getQuantity());
+        assertEquals(2, updates.get(0).getLineNumber());
+        assertNull(updates.get(1).getItemId());
+        assertNull(updates.get(1).getSize());
+        assertEquals("Socks, wool \"grey\"", updates.get(1).getName());
+        assertEquals(4, updates.get(1).getLineNumber());
+    }
+
+    @Test
+    void csvRowWithTwoBadColumnsReportsBoth() throws Exception {
+        List<InventoryUpdate> updates = service.parseCsv(csv("itemId,quantity\nabc,1.5\n"));
+
+        String error = updates.get(0).getParseError();
+        assertTrue(error.contains("itemId is not a number: abc"), error);
+        assertTrue(error.contains("quantity is not a whole number: 1.5"), error);
+    }
+
+    @Test
+    void csvWithoutAQuantityColumnIsRefused() {
+        assertThrows(IllegalArgumentException.class, () -> service.parseCsv(csv("itemId,size\n1,M\n")));
+        assertThrows(IllegalArgumentException.class, () -> service.parseCsv(csv("itemId,quantity\n")));
+    }
+
+    @Test
+    void duplicateAndConflictingLinesAreRejected() {
+        BulkUpdateReport report = service.apply(List.of(
+                new InventoryUpdate(1, "M", 5),
+                new InventoryUpdate(1, " M ", 6),
+                new InventoryUpdate(3, "S", 2),
+                new InventoryUpdate(3, null, 9),
+                new InventoryUpdate(2, null, 8)), false);
+
+        List<BulkUpdateReport.LineResult> lines = report.getLines();
+        assertEquals(BulkUpdateReport.LineStatus.UPDATED, lines.get(0).getStatus());
+        assertEquals(BulkUpdateReport.LineStatus.REJECTED, lines.get(1).getStatus());
+        assertEquals("Duplicate of line 1", lines.get(1).getMessage());
+        assertEquals(BulkUpdateReport.LineStatus.UPDATED, lines.get(2).getStatus());
+        assertEquals(BulkUpdateReport.LineStatus.REJECTED, lines.get(3).getStatus());
+        assertTrue(lines.get(3).getMessage().startsWith("Conflicts with size lines"));
+        assertEquals(BulkUpdateReport.LineStatus.UPDATED, lines.get(4).getStatus());
+        assertTrue(report.isApplied());
+    }
+
+    @Test
+    void changesGoOutAsOneStatementPerKind() {
+        service.apply(List.of(
+                new InventoryUpdate(1, "M", 5),
+                new InventoryUpdate(1, "L", 0),
+                new InventoryUpdate(1, "XL", 3),
+                new InventoryUpdate(3, "S", 6),
+                new InventoryUpdate(2, null, 8)), false);
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate, times(3)).update(sql.capture(), args.capture());
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+
+        assertTrue(sql.getAllValues().get(0).startsWith("DELETE FROM cargo_item_sizes WHERE (cargo_item_id, size) IN ((?, ?))"));
+        assertArrayEquals(new Object[]{1, "L"}, args.getAllValues().get(0));
+
+        assertTrue(sql.getAllValues().get(1).contains("VALUES (?, ?, ?), (?, ?, ?), (?, ?, ?) ON DUPLICATE KEY UPDATE"));
+        assertArrayEquals(new Object[]{1, "M", 5, 1, "XL", 3, 3, "S", 6}, args.getAllValues().get(1));
+
+        assertTrue(sql.getAllValues().get(2).startsWith("UPDATE cargo_items SET quantity = CASE id WHEN ? THEN ? WHEN ? THEN ? WHEN ? THEN ? END"));
+        Object[] totals = args.getAllValues().get(2);
+        assertArrayEquals(new Object[]{1, 8, 2, 8, 3, 6}, Arrays.copyOfRange(totals, 0, 6));
+        assertArrayEquals(new Object[]{1, 2, 3}, Arrays.copyOfRange(totals, 7, 10));
+    }
+
+    @Test
+    void largeUpdatesAreSplitIntoStatementsOfBoundedSize() {
+        List<CargoItem> items = new ArrayList<>();
+        List<InventoryUpdate> updates = new ArrayList<>();
+        int lines = 2 * CargoBulkUpdateService.ROWS_PER_STATEMENT + 1;
+        for (int i = 1; i <= lines; i++) {
+            items.add(item(i, Map.of()));
+            updates.add(new InventoryUpdate(i, null, i));
+        }
+        when(repository.findWithSizesByIdIn(anyCollection())).thenReturn(items);
+        CargoBulkUpdateService wide = new CargoBulkUpdateService(repository, jdbcTemplate,
+                new TransactionTemplate(transactionManager), contentCache, stockIndex, lines);
+
+        BulkUpdateReport report = wide.apply(updates, false);
+
+        assertEquals(lines, report.getUpdated());
+        verify(jdbcTemplate, times(3)).update(startsWith("UPDATE cargo_items"), any(Object[].class));
+    }
+
+    @Test
+    void allOrNothingWritesNothingWhenALineIsRejected() {
+        BulkUpdateReport report = service.apply(List.of(
+                new InventoryUpdate(1, "M", 5),
+                new InventoryUpdate(99, null, 1)), true);
+
+        assertEquals(BulkUpdateReport.LineStatus.SKIPPED, report.getLines().get(0).getStatus());
+        assertEquals(BulkUpdateReport.LineStatus.REJECTED, report.getLines().get(1).getStatus());
+        assertEquals("Item not found", report.getLines().get(1).getMessage());
+        assertFalse(report.isApplied());
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+
+        ArgumentCaptor<TransactionStatus> status = ArgumentCaptor.forClass(TransactionStatus.class);
+        verify(transactionManager).commit(status.capture());
+        assertTrue(status.getValue().isRollbackOnly());
+        verifyNoInteractions(contentCache, stockIndex);
+    }
+
+    @Test
+    void databaseErrorRollsBackEveryLine() {
+        when(jdbcTemplate.update(anyString(), any(Object[].class)))
+                .thenReturn(1)
+                .thenThrow(new DataAccessResourceFailureException("connection lost"));
+
+        BulkUpdateReport report = service.apply(List.of(
+                new InventoryUpdate(1, "M", 5),
+                new InventoryUpdate(2, null, 8),
+                new InventoryUpdate(99, null, 1)), false);
+
+        assertEquals(BulkUpdateReport.LineStatus.FAILED, report.getLines().get(0).getStatus());
+        assertEquals(BulkUpdateReport.LineStatus.FAILED, report.getLines().get(1).getStatus());
+        assertEquals(BulkUpdateReport.LineStatus.REJECTED, report.getLines().get(2).getStatus());
+        assertFalse(report.isApplied());
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+        verifyNoInteractions(contentCache, stockIndex);
+    }
+
+    private static ByteArrayInputStream csv(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static CargoItem item(Integer id, Map<String, Integer> sizes) {
+        CargoItem item = new CargoItem();
+        item.setId(id);
+        item.setName("Item " + id);
+        item.setSizeQuantities(new HashMap<>(sizes));
+        item.setQuantity(sizes.values().stream().mapToInt(Integer::intValue).sum());
+        return item;
+    }
+}
@@ -0,0 +1,131 @@
+package com.backend.streetmed_backend.service.cargoService;
+
+import com.backend.streetmed_backend.entity.CargoItem;
+import com.backend.streetmed_backend.repository.Cargo.CargoItemName;
+import com.backend.streetmed_backend.repository.Cargo.CargoItemRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * Order line matching latency at 50, 500 and 5000 catalog items: the old per-line
+ * findByNameContainingIgnoreCase against CargoCatalogIndex.resolve, for an exact name, a partial
+ * name and a name that is not in the catalog. The repository is a mock that scans the items in
+ * memory, so the legacy numbers are a lower bound: they leave out the round trip and the LIKE scan.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CargoCatalogIndexBenchmark {
+
+    @Param({"50", "500", "5000"})
+    public int items;
+
+    private CargoItemRepository repository;
+    private CargoCatalogIndex index;
+    private String exactName;
+    private String partialName;
+    private final String missingName = "Custom knitted blanket";
+
+    @Setup
+    public void setUp() {
+        List<CargoItem> catalog = new ArrayList<>(items);
+        List<CargoItemName> names = new ArrayList<>(items);
+        for (int i = 1; i <= items; i++) {
+            CargoItem item = new CargoItem();
+            item.setId(i);
+            item.setName("Item " + i + " " + (i % 2 == 0 ? "Winter Gloves" : "Wool Socks"));
+            catalog.add(item);
+            names.add(new CargoItemName() {
+                @Override
+                public Integer getId() {
+                    return item.getId();
+                }
+
+                @Override
+                public String getName() {
+                    return item.getName();
+                }
+            });
+        }
+        exactName = catalog.get(items / 2).getName();
+        partialName = "item " + (items - 1);
+
+        repository = mock(CargoItemRepository.class);
+        when(repository.findAllNames()).thenReturn(names);
+        when(repository.findByNameContainingIgnoreCase(anyString())).thenAnswer(invocation -> {
+            String query = invocation.<String>getArgument(0).toLowerCase(Locale.ROOT);
+            List<CargoItem> matches = new ArrayList<>();
+            for (CargoItem item : catalog) {
+                if (item.getName().toLowerCase(Locale.ROOT).contains(query)) {
+                    matches.add(item);
+                }
+            }
+            return matches;
+        });
+        index = new CargoCatalogIndex(repository, 60_000);
+        index.refresh();
+    }
+
+    private Optional<CargoItem> legacy(String name) {
+        return repository.findByNameContainingIgnoreCase(name.trim()).stream().findFirst();
+    }
+
+    @Benchmark
+    public Optional<CargoItem> exactLegacy() {
+        return legacy(exactName);
+    }
+
+    @Benchmark
+    public Optional<Integer> exactIndex() {
+        return index.resolve(exactName);
+    }
+
+    @Benchmark
+    public Optional<CargoItem> partialLegacy() {
+        return legacy(partialName);
+    }
+
+    @Benchmark
+    public Optional<Integer> partialIndex() {
+        return index.resolve(partialName);
+    }
+
+    @Benchmark
+    public Optional<CargoItem> missingLegacy() {
+        return legacy(missingName);
+    }
+
+    @Benchmark
+    public Optional<Integer> missingIndex() {
+        return index.resolve(missingName);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CargoCatalogIndexBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
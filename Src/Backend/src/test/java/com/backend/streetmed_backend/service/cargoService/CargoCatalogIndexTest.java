@@ -0,0 +1,105 @@
+package com.backend.streetmed_backend.service.cargoService;
+
+import com.backend.streetmed_backend.entity.CargoItem;
+import com.backend.streetmed_backend.repository.Cargo.CargoItemName;
+import com.backend.streetmed_backend.repository.Cargo.CargoItemRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CargoCatalogIndexTest {
+
+    private final CargoItemRepository repository = mock(CargoItemRepository.class);
+    private final CargoCatalogIndex index = new CargoCatalogIndex(repository, 60_000);
+
+    @Test
+    void resolvesExactAndContainedNamesFromTheIndex() {
+        when(repository.findAllNames()).thenReturn(List.of(name(1, "Winter Gloves"), name(2, "Gloves")));
+
+        assertEquals(Optional.of(2), index.resolve(" gloves "));
+        assertEquals(Optional.of(1), index.resolve("winter"));
+        verify(repository, never()).findByNameContainingIgnoreCase(anyString());
+    }
+
+    @Test
+    void missFallsBackToTheDatabaseAndIsRemembered() {
+        when(repository.findAllNames()).thenReturn(List.of(name(1, "Gloves")));
+        when(repository.findByNameContainingIgnoreCase("Socks")).thenReturn(List.of(item(7, "Socks")));
+
+        assertEquals(Optional.of(7), index.resolve("Socks"));
+        assertEquals(Optional.of(7), index.resolve("socks"));
+        verify(repository, times(1)).findByNameContainingIgnoreCase("Socks");
+    }
+
+    @Test
+    void unknownNameStaysUnresolved() {
+        when(repository.findAllNames()).thenReturn(List.of(name(1, "Gloves")));
+        when(repository.findByNameContainingIgnoreCase(anyString())).thenReturn(List.of());
+
+        assertTrue(index.resolve("Custom blanket").isEmpty());
+    }
+
+    @Test
+    void missIsRememberedForTheTtl() {
+        when(repository.findAllNames()).thenReturn(List.of(name(1, "Gloves")));
+        when(repository.findByNameContainingIgnoreCase(anyString())).thenReturn(List.of());
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(index.resolve("Custom blanket").isEmpty());
+        }
+        verify(repository, times(1)).findByNameContainingIgnoreCase("Custom blanket");
+
+        CargoCatalogIndex noMissCache = new CargoCatalogIndex(repository, 0);
+        noMissCache.resolve("Custom blanket");
+        noMissCache.resolve("Custom blanket");
+        verify(repository, times(3)).findByNameContainingIgnoreCase("Custom blanket");
+    }
+
+    @Test
+    void rememberedMissIsDroppedWhenTheItemIsAddedHere() {
+        when(repository.findAllNames()).thenReturn(List.of(name(1, "Gloves")));
+        when(repository.findByNameContainingIgnoreCase(anyString())).thenReturn(List.of());
+        assertTrue(index.resolve("Blanket").isEmpty());
+
+        index.put(9, "Blanket");
+
+        assertEquals(Optional.of(9), index.resolve("Blanket"));
+    }
+
+    @Test
+    void scheduledRefreshPicksUpItemsAddedElsewhere() {
+        when(repository.findAllNames()).thenReturn(List.of(name(1, "Gloves")));
+        index.resolve("Gloves");
+
+        when(repository.findAllNames()).thenReturn(List.of(name(1, "Gloves"), name(3, "Hats")));
+        index.scheduledRefresh();
+
+        assertEquals(Optional.of(3), index.resolve("Hats"));
+        verify(repository, never()).findByNameContainingIgnoreCase(anyString());
+    }
+
+    private static CargoItemName name(Integer id, String name) {
+        return new CargoItemName() {
+            @Override
+            public Integer getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+        };
+    }
+
+    private static CargoItem item(Integer id, String name) {
+        CargoItem item = new CargoItem();
+        item.setId(id);
+        item.setName(name);
+        return item;
+    }
+}
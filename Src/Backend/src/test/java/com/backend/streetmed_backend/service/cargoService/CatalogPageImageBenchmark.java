@@ -0,0 +1,182 @@
+package com.backend.streetmed_backend.service.cargoService;
+
+import com.backend.streetmed_backend.entity.CargoImage;
+import com.backend.streetmed_backend.repository.Cargo.CargoImageInfo;
+import com.backend.streetmed_backend.repository.Cargo.CargoImageRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * Serving the images of one 50-item catalog page from the filesystem store, as the originals
+ * (phone-sized JPEGs) or as the 160px thumbnails. Sample-time mode reports the p0.95 latency of
+ * a whole page; the bytes one page transfers are printed at setup. Files come from the OS page
+ * cache after the first pass, so the difference is mostly bytes copied, not disk reads.
+ * Run the main method (test classpath).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CatalogPageImageBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+
+    @Param({"original", "thumb"})
+    public String variant;
+
+    private Path directory;
+    private FileSystemImageStore store;
+    private final List<CargoImageInfo> page = new ArrayList<>();
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("catalog-page-benchmark");
+        store = new FileSystemImageStore(mock(CargoImageRepository.class), directory.toString());
+        ImageResizer resizer = new ImageResizer(40_000_000L, 0.8f);
+
+        BufferedImage photo = photo(1600, 1200);
+        Random random = new Random(7);
+        long pageBytes = 0;
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            // A few changed pixels give every item its own file in the content-addressed store
+            for (int p = 0; p < 16; p++) {
+                photo.setRGB(random.nextInt(photo.getWidth()), random.nextInt(photo.getHeight()), random.nextInt());
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(photo, "jpeg", out);
+            byte[] original = out.toByteArray();
+            byte[] content = "thumb".equals(variant)
+                    ? resizer.resize(original).getVariants().get(ImageVariant.THUMBNAIL).getData()
+                    : original;
+
+            CargoImage image = new CargoImage();
+            store.store(image, new ByteArrayInputStream(content));
+            page.add(new StoredImage(i, image.getStorageKey(), image.getSize()));
+            pageBytes += content.length;
+        }
+        System.out.printf("%n%s: %d bytes per %d-item page (%d bytes per image)%n",
+                variant, pageBytes, PAGE_SIZE, pageBytes / PAGE_SIZE);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    /**
+     * Stream every image of the page the way the image endpoint does
+     * @return bytes served
+     */
+    @Benchmark
+    public long servePage() throws IOException {
+        long served = 0;
+        for (CargoImageInfo image : page) {
+            try (InputStream in = store.load(image).getInputStream()) {
+                served += in.transferTo(OutputStream.nullOutputStream());
+            }
+        }
+        return served;
+    }
+
+    // Noise keeps the JPEG close to a camera photo in size and decode cost
+    private static BufferedImage photo(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(42);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int shade = (x * 255 / width) ^ random.nextInt(32);
+                image.setRGB(x, y, (shade << 16) | ((y * 255 / height) << 8) | random.nextInt(256));
+            }
+        }
+        return image;
+    }
+
+    private static final class StoredImage implements CargoImageInfo {
+        private final Integer id;
+        private final String storageKey;
+        private final Long size;
+
+        StoredImage(Integer id, String storageKey, Long size) {
+            this.id = id;
+            this.storageKey = storageKey;
+            this.size = size;
+        }
+
+        @Override
+        public Integer getId() {
+            return id;
+        }
+
+        @Override
+        public String getFilename() {
+            return "item-" + id + ".jpg";
+        }
+
+        @Override
+        public String getContentType() {
+            return "image/jpeg";
+        }
+
+        @Override
+        public Long getSize() {
+            return size;
+        }
+
+        @Override
+        public LocalDateTime getUploadDate() {
+            return null;
+        }
+
+        @Override
+        public String getContentHash() {
+            return storageKey;
+        }
+
+        @Override
+        public String getStorageKey() {
+            return storageKey;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CatalogPageImageBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,120 @@
+package com.backend.streetmed_backend.service.cargoService;
+
+import com.backend.streetmed_backend.entity.CargoImage;
+import com.backend.streetmed_backend.repository.Cargo.CargoImageInfo;
+import com.backend.streetmed_backend.repository.Cargo.CargoImageRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class FileSystemImageStoreTest {
+
+    private static final byte[] CONTENT = "same picture".getBytes(StandardCharsets.US_ASCII);
+
+    @TempDir
+    Path directory;
+
+    private final CargoImageRepository repository = mock(CargoImageRepository.class);
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void fileDeletedBeforeTheUploadCommitsIsRestored() throws IOException {
+        FileSystemImageStore store = new FileSystemImageStore(repository, directory.toString());
+        CargoImage existing = new CargoImage();
+        store.store(existing, new ByteArrayInputStream(CONTENT));
+        Path file = store.path(existing.getStorageKey());
+
+        // Upload of the same content; its row is not committed yet
+        List<TransactionSynchronization> upload = inTransaction(
+                () -> store.store(new CargoImage(), new ByteArrayInputStream(CONTENT)));
+
+        // The other row is deleted and commits first, seeing no committed reference
+        when(repository.countByStorageKey(existing.getStorageKey())).thenReturn(0L);
+        store.delete(info(existing.getStorageKey()));
+        assertFalse(Files.exists(file));
+
+        upload.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        assertArrayEquals(CONTENT, Files.readAllBytes(file));
+        assertEquals(0, temporaryFiles());
+    }
+
+    @Test
+    void rolledBackUploadDoesNotRestoreTheFile() throws IOException {
+        FileSystemImageStore store = new FileSystemImageStore(repository, directory.toString());
+        CargoImage image = new CargoImage();
+        List<TransactionSynchronization> upload = inTransaction(
+                () -> store.store(image, new ByteArrayInputStream(CONTENT)));
+        Path file = store.path(image.getStorageKey());
+        assertTrue(Files.exists(file));
+
+        when(repository.countByStorageKey(image.getStorageKey())).thenReturn(0L);
+        store.delete(info(image.getStorageKey()));
+        upload.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertFalse(Files.exists(file));
+        assertEquals(0, temporaryFiles());
+    }
+
+    @Test
+    void referencedFileIsKept() throws IOException {
+        FileSystemImageStore store = new FileSystemImageStore(repository, directory.toString());
+        CargoImage image = new CargoImage();
+        store.store(image, new ByteArrayInputStream(CONTENT));
+
+        when(repository.countByStorageKey(image.getStorageKey())).thenReturn(1L);
+        store.delete(info(image.getStorageKey()));
+
+        assertTrue(Files.exists(store.path(image.getStorageKey())));
+        assertEquals(Long.valueOf(CONTENT.length), image.getSize());
+        assertEquals(0, temporaryFiles());
+    }
+
+    private interface Storing {
+        void run() throws IOException;
+    }
+
+    /**
+     * Run the call with transaction synchronization active and hand back what it registered
+     */
+    private static List<TransactionSynchronization> inTransaction(Storing call) throws IOException {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            call.run();
+            return TransactionSynchronizationManager.getSynchronizations();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static CargoImageInfo info(String storageKey) {
+        CargoImageInfo info = mock(CargoImageInfo.class);
+        when(info.getStorageKey()).thenReturn(storageKey);
+        return info;
+    }
+
+    private long temporaryFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory.resolve("tmp"))) {
+            return files.count();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.backend.streetmed_backend.service.cargoService;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of producing the variants of a phone-sized upload, with and without a quarter-turn
+ * EXIF orientation, and of stripping the metadata from the original. Run the main method
+ * (test classpath); add "-prof gc" to the options to see the allocation rate per upload.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ImageResizerBenchmark {
+
+    @Param({"1600x1200", "4000x3000"})
+    public String size;
+
+    @Param({"1", "6"})
+    public int orientation;
+
+    private ImageResizer resizer;
+    private byte[] upload;
+
+    @Setup
+    public void setUp() throws IOException {
+        String[] dimensions = size.split("x");
+        int width = Integer.parseInt(dimensions[0]);
+        int height = Integer.parseInt(dimensions[1]);
+
+        // Noise keeps the JPEG close to a camera photo in size and decode cost
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(42);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int shade = (x * 255 / width) ^ random.nextInt(32);
+                image.setRGB(x, y, (shade << 16) | ((y * 255 / height) << 8) | random.nextInt(256));
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpeg", out);
+
+        upload = ImageResizerTest.withSegment(out.toByteArray(), ImageResizerTest.exifSegment(orientation));
+        resizer = new ImageResizer(40_000_000L, 0.8f);
+    }
+
+    @Benchmark
+    public ImageResizer.ProcessedImage resize() throws IOException {
+        return resizer.resize(upload);
+    }
+
+    @Benchmark
+    public byte[] stripMetadata() {
+        return ImageMetadata.strip(upload);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ImageResizerBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
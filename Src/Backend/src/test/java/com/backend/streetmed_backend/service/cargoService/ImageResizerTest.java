@@ -0,0 +1,187 @@
+package com.backend.streetmed_backend.service.cargoService;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImageResizerTest {
+
+    private static final String CAMERA_MAKE = "SecretCam";
+
+    private final ImageResizer resizer = new ImageResizer(40_000_000L, 0.9f);
+
+    @Test
+    void appliesExifOrientationBeforeScaling() throws IOException {
+        // Stored landscape, red on the left; orientation 6 means it is shown turned 90 clockwise
+        byte[] jpeg = withSegment(jpeg(halves(400, 200)), exifSegment(6));
+
+        ImageResizer.ProcessedImage processed = resizer.resize(jpeg);
+
+        assertEquals(200, processed.getWidth());
+        assertEquals(400, processed.getHeight());
+        ImageResizer.EncodedVariant medium = processed.getVariants().get(ImageVariant.MEDIUM);
+        assertEquals(200, medium.getWidth());
+        assertEquals(400, medium.getHeight());
+        BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(medium.getData()));
+        assertEquals(200, decoded.getWidth());
+        assertEquals(400, decoded.getHeight());
+        assertTrue(isRed(decoded.getRGB(100, 50)), "left half should now be on top");
+        assertFalse(isRed(decoded.getRGB(100, 350)));
+    }
+
+    @Test
+    void imageWithoutOrientationKeepsItsShape() throws IOException {
+        ImageResizer.ProcessedImage processed = resizer.resize(jpeg(halves(400, 200)));
+
+        assertEquals(400, processed.getWidth());
+        assertEquals(200, processed.getHeight());
+        assertEquals(160, processed.getVariants().get(ImageVariant.THUMBNAIL).getWidth());
+    }
+
+    @Test
+    void stripRemovesJpegMetadataButKeepsOrientation() throws IOException {
+        byte[] jpeg = withSegment(withSegment(jpeg(halves(400, 200)), exifSegment(6)),
+                segment(0xFE, "taken at home".getBytes(StandardCharsets.US_ASCII)));
+
+        byte[] stripped = ImageMetadata.strip(jpeg);
+
+        assertFalse(contains(stripped, CAMERA_MAKE));
+        assertFalse(contains(stripped, "taken at home"));
+        assertEquals(6, ImageMetadata.orientation(stripped));
+        BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(stripped));
+        assertEquals(400, decoded.getWidth());
+        assertEquals(200, decoded.getHeight());
+    }
+
+    @Test
+    void stripRemovesPngTextChunks() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(halves(40, 20), "png", out);
+        byte[] png = withPngText(out.toByteArray(), "Location: 40.44N 79.99W");
+
+        byte[] stripped = ImageMetadata.strip(png);
+
+        assertTrue(contains(png, "40.44N"));
+        assertFalse(contains(stripped, "40.44N"));
+        assertEquals(40, ImageIO.read(new ByteArrayInputStream(stripped)).getWidth());
+    }
+
+    @Test
+    void unknownFormatsAreLeftAlone() {
+        byte[] data = "not an image".getBytes(StandardCharsets.US_ASCII);
+
+        assertSame(data, ImageMetadata.strip(data));
+        assertEquals(ImageMetadata.NORMAL, ImageMetadata.orientation(data));
+    }
+
+    private static BufferedImage halves(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.RED);
+        graphics.fillRect(0, 0, width / 2, height);
+        graphics.setColor(Color.BLUE);
+        graphics.fillRect(width / 2, 0, width - width / 2, height);
+        graphics.dispose();
+        return image;
+    }
+
+    private static boolean isRed(int rgb) {
+        Color color = new Color(rgb);
+        return color.getRed() > 200 && color.getBlue() < 60;
+    }
+
+    private static byte[] jpeg(BufferedImage image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpeg", out);
+        return out.toByteArray();
+    }
+
+    /**
+     * Insert a segment after the JFIF APP0 segment ImageIO writes first
+     */
+    static byte[] withSegment(byte[] jpeg, byte[] segment) {
+        int insertAt = 4 + (((jpeg[4] & 0xFF) << 8) | (jpeg[5] & 0xFF));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(jpeg, 0, insertAt);
+        out.write(segment, 0, segment.length);
+        out.write(jpeg, insertAt, jpeg.length - insertAt);
+        return out.toByteArray();
+    }
+
+    private static byte[] segment(int marker, byte[] payload) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(0xFF);
+        out.write(marker);
+        out.write((payload.length + 2) >> 8);
+        out.write((payload.length + 2) & 0xFF);
+        out.write(payload, 0, payload.length);
+        return out.toByteArray();
+    }
+
+    /**
+     * Little-endian EXIF APP1 with the orientation and a camera make stored after the IFD
+     */
+    static byte[] exifSegment(int orientation) {
+        ByteArrayOutputStream tiff = new ByteArrayOutputStream();
+        tiff.writeBytes("Exif\0\0II".getBytes(StandardCharsets.US_ASCII));
+        writeLe(tiff, 42, 2);
+        writeLe(tiff, 8, 4);
+        writeLe(tiff, 2, 2);
+        // Make (ASCII), value stored at offset 38
+        writeLe(tiff, 0x010F, 2);
+        writeLe(tiff, 2, 2);
+        writeLe(tiff, CAMERA_MAKE.length() + 1, 4);
+        writeLe(tiff, 38, 4);
+        // Orientation (SHORT)
+        writeLe(tiff, 0x0112, 2);
+        writeLe(tiff, 3, 2);
+        writeLe(tiff, 1, 4);
+        writeLe(tiff, orientation, 4);
+        writeLe(tiff, 0, 4);
+        tiff.writeBytes((CAMERA_MAKE + "\0").getBytes(StandardCharsets.US_ASCII));
+        return segment(0xE1, tiff.toByteArray());
+    }
+
+    private static byte[] withPngText(byte[] png, String text) {
+        byte[] payload = ("Comment\0" + text).getBytes(StandardCharsets.ISO_8859_1);
+        byte[] type = "tEXt".getBytes(StandardCharsets.ISO_8859_1);
+        java.util.zip.CRC32 crc = new java.util.zip.CRC32();
+        crc.update(type);
+        crc.update(payload);
+        // After the signature and the 25-byte IHDR chunk
+        int insertAt = 8 + 25;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(png, 0, insertAt);
+        writeBe(out, payload.length);
+        out.writeBytes(type);
+        out.writeBytes(payload);
+        writeBe(out, crc.getValue());
+        out.write(png, insertAt, png.length - insertAt);
+        return out.toByteArray();
+    }
+
+    private static void writeLe(ByteArrayOutputStream out, long value, int bytes) {
+        for (int i = 0; i < bytes; i++) {
+            out.write((int) (value >> (8 * i)) & 0xFF);
+        }
+    }
+
+    private static void writeBe(ByteArrayOutputStream out, long value) {
+        for (int i = 3; i >= 0; i--) {
+            out.write((int) (value >> (8 * i)) & 0xFF);
+        }
+    }
+
+    private static boolean contains(byte[] data, String text) {
+        return new String(data, StandardCharsets.ISO_8859_1).contains(text);
+    }
+}
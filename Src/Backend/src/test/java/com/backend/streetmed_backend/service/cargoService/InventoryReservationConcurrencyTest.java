@@ -0,0 +1,127 @@
+package com.backend.streetmed_backend.service.cargoService;
+
+import com.backend.streetmed_backend.MySqlTestConfiguration;
+import com.backend.streetmed_backend.entity.CargoItem;
+import com.backend.streetmed_backend.repository.Cargo.CargoItemRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = "email.transport=fake")
+@Import(MySqlTestConfiguration.class)
+@Testcontainers(disabledWithoutDocker = true)
+class InventoryReservationConcurrencyTest {
+
+    private static final int THREADS = 16;
+
+    @Autowired
+    private CargoItemService cargoItemService;
+
+    @Autowired
+    private CargoItemRepository cargoItemRepository;
+
+    @Test
+    void concurrentReservationsNeverOversell() throws Exception {
+        CargoItem item = saveItem("Reserve-" + System.nanoTime(), 10, Map.of());
+
+        List<Boolean> results = runConcurrently(THREADS * 2, i -> {
+            cargoItemService.reserveAll(List.of(new InventoryReservation(item.getId(), item.getName(), null, 1)));
+        });
+
+        long reserved = results.stream().filter(ok -> ok).count();
+        assertEquals(10, reserved);
+        assertEquals(0, quantityOf(item.getId()));
+    }
+
+    @Test
+    void concurrentReleasesAreNotLostUnderReservations() throws Exception {
+        CargoItem item = saveItem("Release-" + System.nanoTime(), 5, Map.of("M", 5));
+
+        // Even tasks reserve one unit of size M, odd tasks give one back
+        List<Boolean> results = runConcurrently(THREADS * 2, i -> {
+            InventoryReservation line = new InventoryReservation(item.getId(), item.getName(), "M", 1);
+            if (i % 2 == 0) {
+                cargoItemService.reserveAll(List.of(line));
+            } else {
+                cargoItemService.releaseAll(List.of(line));
+            }
+        });
+
+        long reserved = 0;
+        for (int i = 0; i < results.size(); i += 2) {
+            if (results.get(i)) {
+                reserved++;
+            }
+        }
+        long released = THREADS;
+        CargoItem reloaded = cargoItemRepository.findWithSizesById(item.getId()).orElseThrow();
+        assertEquals(5 + released - reserved, reloaded.getQuantity());
+        assertEquals(5 + released - reserved, reloaded.getSizeQuantities().get("M").longValue());
+    }
+
+    private CargoItem saveItem(String name, int quantity, Map<String, Integer> sizes) {
+        CargoItem item = new CargoItem();
+        item.setName(name);
+        item.setQuantity(quantity);
+        item.setMinQuantity(0);
+        item.setSizeQuantities(new HashMap<>(sizes));
+        item.setCreatedAt(LocalDateTime.now());
+        return cargoItemRepository.save(item);
+    }
+
+    private int quantityOf(Integer id) {
+        return cargoItemRepository.findById(id).orElseThrow().getQuantity();
+    }
+
+    /**
+     * Start every task at once; result i is whether task i completed without an exception
+     */
+    private List<Boolean> runConcurrently(int tasks, IndexedTask task) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int i = 0; i < tasks; i++) {
+                int index = i;
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        task.run(index);
+                        return true;
+                    } catch (RuntimeException e) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+
+            List<Boolean> results = new ArrayList<>();
+            for (Future<Boolean> future : futures) {
+                results.add(future.get(60, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    private interface IndexedTask {
+        void run(int index);
+    }
+}
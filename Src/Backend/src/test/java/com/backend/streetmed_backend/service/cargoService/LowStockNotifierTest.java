@@ -0,0 +1,153 @@
+package com.backend.streetmed_backend.service.cargoService;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class LowStockNotifierTest {
+
+    private final CargoStockIndex stockIndex = mock(CargoStockIndex.class);
+    // Tasks run only when the test says so, standing in for a busy or slow send thread
+    private final List<Runnable> tasks = new ArrayList<>();
+    private final List<RecordingEmitter> emitters = new ArrayList<>();
+    private final LowStockNotifier notifier = new LowStockNotifier(stockIndex, tasks::add, 60_000, 10) {
+        @Override
+        SseEmitter newEmitter() {
+            RecordingEmitter emitter = new RecordingEmitter();
+            emitters.add(emitter);
+            return emitter;
+        }
+    };
+
+    @Test
+    void snapshotGoesOutBeforeCrossingsPublishedWhileItIsTaken() {
+        LowStockEvent crossing = event(7);
+        when(stockIndex.getLowStock()).thenAnswer(invocation -> {
+            notifier.onLowStock(crossing);
+            return List.of();
+        });
+
+        notifier.subscribe();
+        runTasks();
+
+        List<String> sent = emitters.get(0).sent;
+        assertEquals(2, sent.size());
+        assertTrue(sent.get(0).contains("event:snapshot"), sent.get(0));
+        assertTrue(sent.get(1).contains("event:low-stock"), sent.get(1));
+        assertTrue(sent.get(1).contains("itemId=7"), sent.get(1));
+    }
+
+    @Test
+    void publishingOnlyQueuesTheSends() {
+        when(stockIndex.getLowStock()).thenReturn(List.of());
+        notifier.subscribe();
+        notifier.subscribe();
+        runTasks();
+
+        notifier.onLowStock(event(1));
+        notifier.onLowStock(event(2));
+
+        assertEquals(1, emitters.get(0).sent.size());
+        assertEquals(1, emitters.get(1).sent.size());
+        // One drain per subscriber, however many events are waiting
+        assertEquals(2, tasks.size());
+
+        runTasks();
+        for (RecordingEmitter emitter : emitters) {
+            assertEquals(3, emitter.sent.size());
+            assertTrue(emitter.sent.get(1).contains("itemId=1"));
+            assertTrue(emitter.sent.get(2).contains("itemId=2"));
+        }
+    }
+
+    @Test
+    void subscriberTooFarBehindIsDisconnected() {
+        when(stockIndex.getLowStock()).thenReturn(List.of());
+        notifier.subscribe();
+        notifier.subscribe();
+        // The first subscriber's drain never gets to run; the second keeps up
+        Runnable stuck = tasks.remove(0);
+        runTasks();
+
+        for (int i = 0; i < LowStockNotifier.MAX_PENDING_EVENTS; i++) {
+            notifier.onLowStock(event(i));
+            runTasks();
+        }
+
+        assertEquals(1, notifier.getSubscriberCount());
+        assertTrue(emitters.get(0).completed);
+        assertFalse(emitters.get(1).completed);
+        assertEquals(LowStockNotifier.MAX_PENDING_EVENTS + 1, emitters.get(1).sent.size());
+        stuck.run();
+        assertTrue(emitters.get(0).sent.isEmpty());
+    }
+
+    @Test
+    void failedSendDropsOnlyThatSubscriber() {
+        when(stockIndex.getLowStock()).thenReturn(List.of());
+        notifier.subscribe();
+        notifier.subscribe();
+        runTasks();
+        emitters.get(0).failing = true;
+
+        notifier.onLowStock(event(1));
+        runTasks();
+
+        assertEquals(1, notifier.getSubscriberCount());
+        assertTrue(emitters.get(0).completed);
+        assertEquals(2, emitters.get(1).sent.size());
+    }
+
+    @Test
+    void rejectedSendDropsTheSubscriber() {
+        when(stockIndex.getLowStock()).thenReturn(List.of());
+        LowStockNotifier busy = new LowStockNotifier(stockIndex, task -> {
+            throw new IllegalStateException("queue full");
+        }, 60_000, 10);
+
+        busy.subscribe();
+
+        assertEquals(0, busy.getSubscriberCount());
+    }
+
+    private void runTasks() {
+        while (!tasks.isEmpty()) {
+            tasks.remove(0).run();
+        }
+    }
+
+    private static LowStockEvent event(int itemId) {
+        LowStockEvent event = mock(LowStockEvent.class);
+        when(event.toMap()).thenReturn(Map.of("type", "LOW", "itemId", itemId));
+        return event;
+    }
+
+    private static final class RecordingEmitter extends SseEmitter {
+        final List<String> sent = new ArrayList<>();
+        boolean failing;
+        boolean completed;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (failing) {
+                throw new IOException("Broken pipe");
+            }
+            sent.add(builder.build().stream()
+                    .map(part -> String.valueOf(part.getData()))
+                    .collect(Collectors.joining()));
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.backend.streetmed_backend.service.orderService;
+
+import com.backend.streetmed_backend.entity.order_entity.OrderRateLimit;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class OrderRateLimitAuditWriterTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final OrderRateLimitAuditWriter writer = new OrderRateLimitAuditWriter(jdbcTemplate);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void failedBatchIsRetriedOnTheNextFlush() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new DataAccessResourceFailureException("database down"))
+                .thenReturn(new int[0][]);
+        writer.enqueue(new OrderRateLimit(1, 10));
+        writer.enqueue(new OrderRateLimit("10.0.0.1", 11));
+
+        writer.flush();
+        assertEquals(2, writer.pending());
+
+        writer.flush();
+        assertEquals(0, writer.pending());
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), anyCollection(), eq(2), any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void batchThatKeepsFailingIsWrittenRowByRow() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(invocation -> {
+                    if (invocation.<Integer>getArgument(2) > 1) {
+                        throw new DataAccessResourceFailureException("bad row in batch");
+                    }
+                    return new int[0][];
+                });
+        writer.enqueue(new OrderRateLimit(1, 10));
+        writer.enqueue(new OrderRateLimit(2, 11));
+
+        for (int i = 0; i < 5; i++) {
+            writer.flush();
+        }
+
+        assertEquals(0, writer.pending());
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), anyCollection(), eq(1), any(ParameterizedPreparedStatementSetter.class));
+    }
+}
@@ -0,0 +1,134 @@
+package com.backend.streetmed_backend.service.orderService;
+
+import com.backend.streetmed_backend.MySqlTestConfiguration;
+import com.backend.streetmed_backend.entity.order_entity.Order;
+import com.backend.streetmed_backend.entity.order_entity.OrderAssignment;
+import com.backend.streetmed_backend.entity.order_entity.OrderItem;
+import com.backend.streetmed_backend.repository.Order.OrderAssignmentRepository;
+import com.backend.streetmed_backend.repository.Order.OrderRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({MySqlTestConfiguration.class, RoundBoardService.class})
+@Testcontainers(disabledWithoutDocker = true)
+class RoundBoardServiceTest {
+
+    private static final int VOLUNTEER_ID = 7;
+    private static final int OTHER_VOLUNTEER_ID = 8;
+
+    @Autowired
+    private RoundBoardService roundBoardService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderAssignmentRepository orderAssignmentRepository;
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 100, 1000})
+    void boardLoadsInTwoStatementsWhateverTheRoundSize(int orders) {
+        int roundId = 1_000_000 + orders;
+        for (int i = 0; i < orders; i++) {
+            Order order = saveOrder(roundId, i);
+            // Every third order is mine, every third other one is someone else's
+            if (i % 3 == 0) {
+                entityManager.persist(new OrderAssignment(order.getOrderId(), VOLUNTEER_ID));
+            } else if (i % 3 == 1) {
+                entityManager.persist(new OrderAssignment(order.getOrderId(), OTHER_VOLUNTEER_ID));
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = statistics();
+
+        // Baseline: the per-order lookups the board replaced; item loads come on top, batched by
+        // hibernate.default_batch_fetch_size
+        legacyRoundBoard(roundId, VOLUNTEER_ID);
+        long legacyStatements = statistics.getPrepareStatementCount();
+        long myOrders = (orders + 2) / 3;
+        long perOrderLookups = 1 + orders + (orders - myOrders);
+        assertTrue(legacyStatements >= perOrderLookups,
+                "old path ran " + legacyStatements + " statements for " + orders + " orders");
+        entityManager.clear();
+        statistics.clear();
+
+        List<Map<String, Object>> board = roundBoardService.getRoundBoard(roundId, VOLUNTEER_ID);
+
+        assertEquals(2, statistics.getPrepareStatementCount(),
+                "orders with items, then assignments (old path: " + legacyStatements + ")");
+        assertEquals(orders, board.size());
+        long mine = board.stream().filter(o -> Boolean.TRUE.equals(o.get("myAssignment"))).count();
+        long taken = board.stream().filter(o -> Boolean.TRUE.equals(o.get("assignedToOther"))).count();
+        assertEquals((orders + 2) / 3, mine);
+        assertEquals((orders + 1) / 3, taken);
+        for (Map<String, Object> order : board) {
+            assertEquals(2, ((List<?>) order.get("items")).size());
+        }
+    }
+
+    /**
+     * The board as VolunteerRoundsController built it before RoundBoardService: one or two
+     * assignment lookups per order, and the items loaded lazily when the response was written
+     */
+    private void legacyRoundBoard(int roundId, int volunteerId) {
+        for (Order order : orderRepository.findActiveOrdersByRoundId(roundId)) {
+            order.getOrderItems().size();
+            Optional<OrderAssignment> assignment =
+                    orderAssignmentRepository.findByOrderIdAndVolunteerId(order.getOrderId(), volunteerId);
+            if (assignment.isEmpty()) {
+                orderAssignmentRepository.findActiveAssignmentForOrder(order.getOrderId());
+            }
+        }
+    }
+
+    private Order saveOrder(int roundId, int index) {
+        Order order = new Order();
+        order.setUserId(1);
+        order.setRoundId(roundId);
+        order.setItemName("Socks");
+        order.setQuantity(2);
+        order.setStatus("PENDING");
+        order.setRequestTime(LocalDateTime.now().minusMinutes(index));
+        order.setDeliveryAddress(index + " Forbes Ave");
+        for (String size : new String[]{"M", "L"}) {
+            OrderItem item = new OrderItem();
+            item.setItemName("Socks");
+            item.setQuantity(1);
+            item.setSize(size);
+            order.addOrderItem(item);
+        }
+        return entityManager.persist(order);
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        return statistics;
+    }
+}
@@ -0,0 +1,83 @@
+package com.backend.streetmed_backend.service.orderService;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate limit check under contention: the old count-then-record pair against tryAcquire, with
+ * 8 threads spread over a few hot keys or many keys. Events are released right after they are
+ * taken so the limit never fills and every call does the full check-and-record work.
+ * With hot keys the old pair also lets more than the limit through; only the timing is compared here.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class SlidingWindowCounterBenchmark {
+
+    private static final long WINDOW_MILLIS = 60 * 60 * 1000L;
+    private static final int LIMIT = 3;
+
+    @Param({"4", "50000"})
+    public int keys;
+
+    private SlidingWindowCounter counter;
+    private String[] keyNames;
+
+    @Setup
+    public void setUp() {
+        counter = new SlidingWindowCounter(WINDOW_MILLIS, LIMIT, 50_000);
+        keyNames = new String[keys];
+        for (int i = 0; i < keys; i++) {
+            keyNames[i] = "u:" + i;
+        }
+    }
+
+    @Benchmark
+    public boolean countThenRecord() {
+        String key = keyNames[ThreadLocalRandom.current().nextInt(keys)];
+        long now = System.currentTimeMillis();
+        if (counter.count(key, now) >= LIMIT) {
+            return false;
+        }
+        counter.merge(key, now);
+        counter.release(key, now);
+        return true;
+    }
+
+    @Benchmark
+    public boolean tryAcquire() {
+        String key = keyNames[ThreadLocalRandom.current().nextInt(keys)];
+        long now = System.currentTimeMillis();
+        if (!counter.tryAcquire(key, now, LIMIT)) {
+            return false;
+        }
+        counter.release(key, now);
+        return true;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SlidingWindowCounterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
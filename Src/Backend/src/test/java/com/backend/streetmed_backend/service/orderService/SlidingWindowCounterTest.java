@@ -0,0 +1,108 @@
+package com.backend.streetmed_backend.service.orderService;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlidingWindowCounterTest {
+
+    private static final long WINDOW = 60_000;
+
+    @Test
+    void concurrentAcquiresForOneKeyStopAtTheLimit() throws Exception {
+        SlidingWindowCounter counter = new SlidingWindowCounter(WINDOW, 3, 1000);
+        long now = System.currentTimeMillis();
+
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            results.add(pool.submit(() -> {
+                start.await();
+                return counter.tryAcquire("u:1", now, 3);
+            }));
+        }
+        start.countDown();
+        int acquired = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get()) {
+                acquired++;
+            }
+        }
+        pool.shutdown();
+
+        assertEquals(3, acquired);
+        assertEquals(3, counter.count("u:1", now));
+    }
+
+    @Test
+    void releasedSlotCanBeTakenAgain() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(WINDOW, 3, 1000);
+        long now = System.currentTimeMillis();
+        assertTrue(counter.tryAcquire("ip:10.0.0.1", now, 2));
+        assertTrue(counter.tryAcquire("ip:10.0.0.1", now + 1, 2));
+        assertFalse(counter.tryAcquire("ip:10.0.0.1", now + 2, 2));
+
+        counter.release("ip:10.0.0.1", now + 1);
+
+        assertTrue(counter.tryAcquire("ip:10.0.0.1", now + 3, 2));
+        assertFalse(counter.tryAcquire("ip:10.0.0.1", now + 4, 2));
+    }
+
+    @Test
+    void eventsLeaveTheWindow() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(WINDOW, 3, 1000);
+        long now = System.currentTimeMillis();
+        counter.tryAcquire("u:1", now, 1);
+
+        assertFalse(counter.tryAcquire("u:1", now + WINDOW - 1, 1));
+        assertTrue(counter.tryAcquire("u:1", now + WINDOW, 1));
+    }
+
+    @Test
+    void mergeKeepsExistingEventsAndSkipsDuplicates() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(WINDOW, 3, 1000);
+        long now = System.currentTimeMillis();
+        counter.tryAcquire("u:1", now, 3);
+
+        counter.merge("u:1", now);
+        counter.merge("u:1", now - 1000);
+
+        assertEquals(2, counter.count("u:1", now));
+        assertFalse(counter.tryAcquire("u:1", now, 2));
+    }
+
+    @Test
+    void keysOverTheCapEvictTheLeastRecentlyUsed() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(WINDOW, 3, 10);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < 10; i++) {
+            counter.tryAcquire("k" + i, now, 3);
+        }
+        // Over the cap: every key gets its second chance, then the oldest two go
+        counter.tryAcquire("k10", now, 3);
+        assertEquals(9, counter.size());
+        assertEquals(0, counter.count("k0", now));
+        assertEquals(0, counter.count("k1", now));
+
+        // k2 and k3 are used again, so the next eviction passes them over
+        counter.tryAcquire("k2", now, 3);
+        counter.tryAcquire("k3", now, 3);
+        counter.tryAcquire("k11", now, 3);
+        counter.tryAcquire("k12", now, 3);
+
+        assertEquals(9, counter.size());
+        assertEquals(2, counter.count("k2", now));
+        assertEquals(2, counter.count("k3", now));
+        assertEquals(0, counter.count("k4", now));
+        assertEquals(0, counter.count("k5", now));
+        assertEquals(1, counter.count("k12", now));
+    }
+}
@@ -0,0 +1,154 @@
+package com.backend.streetmed_backend.service.roundService;
+
+import com.backend.streetmed_backend.MySqlTestConfiguration;
+import com.backend.streetmed_backend.entity.order_entity.Order;
+import com.backend.streetmed_backend.entity.rounds_entity.RoundSignup;
+import com.backend.streetmed_backend.entity.rounds_entity.Rounds;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The admin rounds page and a volunteer's signup list must cost the same number of statements
+ * however many rounds exist
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = "email.transport=fake")
+@Import(MySqlTestConfiguration.class)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional
+class RoundCountQueriesTest {
+
+    private static final int VOLUNTEER_ID = 4242;
+
+    @Autowired
+    private RoundsService roundsService;
+
+    @Autowired
+    private RoundSignupService roundSignupService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Test
+    void allRoundsWithCountsCostsThreeStatementsWhateverTheHistory() {
+        Rounds counted = saveRound();
+        for (int i = 0; i < 2; i++) {
+            saveSignup(counted, 5000 + i, "CONFIRMED");
+        }
+        saveSignup(counted, 5002, "WAITLISTED");
+        for (int i = 0; i < 3; i++) {
+            saveOrder(counted);
+        }
+        saveRounds(5);
+
+        long few = statementsFor(() -> roundsService.getAllRoundsWithCounts());
+        saveRounds(50);
+        Statistics statistics = reset();
+        List<Map<String, Object>> rounds = roundsService.getAllRoundsWithCounts();
+        long many = statistics.getPrepareStatementCount();
+
+        assertEquals(3, few, "rounds, grouped signup counts, grouped order counts");
+        assertEquals(few, many);
+        Map<String, Object> round = rounds.stream()
+                .filter(r -> counted.getRoundId().equals(r.get("roundId")))
+                .findFirst().orElseThrow();
+        assertEquals(2L, round.get("currentParticipants"));
+        assertEquals(3L, round.get("currentOrderCount"));
+    }
+
+    @Test
+    void volunteerSignupsCostThreeStatementsWhateverTheHistory() {
+        Rounds first = saveRound();
+        saveSignup(first, VOLUNTEER_ID, "CONFIRMED");
+        saveOrder(first);
+        saveOrder(first);
+
+        long few = statementsFor(() -> roundSignupService.getVolunteerSignups(VOLUNTEER_ID));
+        for (int i = 0; i < 40; i++) {
+            saveSignup(saveRound(), VOLUNTEER_ID, "CONFIRMED");
+        }
+        Statistics statistics = reset();
+        List<Map<String, Object>> signups = roundSignupService.getVolunteerSignups(VOLUNTEER_ID);
+        long many = statistics.getPrepareStatementCount();
+
+        assertEquals(3, few, "signups, their rounds, grouped order counts");
+        assertEquals(few, many);
+        assertEquals(41, signups.size());
+        Map<String, Object> signup = signups.stream()
+                .filter(s -> first.getRoundId().equals(s.get("roundId")))
+                .findFirst().orElseThrow();
+        assertEquals(2L, signup.get("currentOrderCount"));
+    }
+
+    private long statementsFor(Runnable action) {
+        Statistics statistics = reset();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    /**
+     * Write pending changes, empty the persistence context and zero the counters
+     */
+    private Statistics reset() {
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        return statistics;
+    }
+
+    private void saveRounds(int count) {
+        for (int i = 0; i < count; i++) {
+            Rounds round = saveRound();
+            saveSignup(round, 6000 + i, "CONFIRMED");
+            saveOrder(round);
+        }
+    }
+
+    private Rounds saveRound() {
+        Rounds round = new Rounds();
+        round.setTitle("Outreach");
+        round.setStartTime(LocalDateTime.now().plusDays(3));
+        round.setEndTime(LocalDateTime.now().plusDays(3).plusHours(3));
+        round.setLocation("Oakland");
+        round.setMaxParticipants(10);
+        entityManager.persist(round);
+        return round;
+    }
+
+    private void saveSignup(Rounds round, int userId, String status) {
+        RoundSignup signup = new RoundSignup(round.getRoundId(), userId, "VOLUNTEER");
+        signup.setStatus(status);
+        entityManager.persist(signup);
+    }
+
+    private void saveOrder(Rounds round) {
+        Order order = new Order();
+        order.setUserId(1);
+        order.setRoundId(round.getRoundId());
+        order.setItemName("Socks");
+        order.setQuantity(1);
+        order.setStatus("PENDING");
+        order.setRequestTime(LocalDateTime.now());
+        order.setDeliveryAddress("Forbes Ave");
+        entityManager.persist(order);
+    }
+}
@@ -0,0 +1,146 @@
+package com.backend.streetmed_backend.util;
+
+import com.backend.streetmed_backend.config.AppMetrics;
+import com.backend.streetmed_backend.dto.auth.RegisterRequest;
+import com.backend.streetmed_backend.security.EncryptionUtil;
+import com.backend.streetmed_backend.security.SecurityManager;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Allocation per request of the session-encrypted body path: the old String pipeline
+ * (JSON string -> encrypt -> Base64 string -> bytes, and the reverse into a Map) against
+ * EncryptedJsonMessageConverter streaming into and out of a typed DTO.
+ * The main method runs with the gc profiler; compare gc.alloc.rate.norm (bytes per operation).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EncryptedJsonMessageConverterBenchmark {
+
+    private static final String SESSION_ID = "benchmark-session";
+
+    // Rows in the response payload: a single record versus an order list
+    @Param({"1", "200"})
+    public int rows;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final EncryptionUtil encryptionUtil = new EncryptionUtil();
+    private SecretKey key;
+    private EncryptedJsonMessageConverter converter;
+
+    private Map<String, Object> responsePayload;
+    private String legacyRequestBody;
+    private byte[] streamingRequestBody;
+
+    @Setup
+    public void setUp() throws IOException {
+        key = new SecretKeySpec(new byte[32], "AES");
+        SecretKey sessionKey = key;
+        SecurityManager securityManager = new SecurityManager(null, encryptionUtil, null, null, null, null, null) {
+            @Override
+            public SecretKey getSessionKey(String sessionId) {
+                return sessionKey;
+            }
+        };
+        converter = new EncryptedJsonMessageConverter(securityManager, encryptionUtil, objectMapper,
+                new AppMetrics(new SimpleMeterRegistry()));
+
+        List<Map<String, Object>> data = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            Map<String, Object> row = new HashMap<>();
+            row.put("orderId", i);
+            row.put("status", "PENDING");
+            row.put("deliveryAddress", i + " Forbes Avenue, Pittsburgh, PA 15213");
+            row.put("notes", "Leave with the front desk, ask for the outreach team");
+            row.put("items", List.of(Map.of("itemName", "Socks", "quantity", 2, "size", "M")));
+            data.add(row);
+        }
+        responsePayload = new HashMap<>();
+        responsePayload.put("status", "success");
+        responsePayload.put("data", data);
+
+        RegisterRequest request = new RegisterRequest();
+        request.setUsername("volunteer42");
+        request.setEmail("volunteer42@example.com");
+        request.setPassword("correct horse battery staple");
+        request.setPhone("412-555-0123");
+        request.setFirstName("Alex");
+        request.setLastName("Doe");
+        String json = objectMapper.writeValueAsString(request);
+        legacyRequestBody = encryptionUtil.encrypt(json, key);
+
+        MockHttpOutputMessage encrypted = new MockHttpOutputMessage();
+        converter.write(new EncryptedBody(SESSION_ID, request), MediaType.TEXT_PLAIN, encrypted);
+        streamingRequestBody = encrypted.getBodyAsBytes();
+    }
+
+    @Benchmark
+    public byte[] writeResponseLegacy() throws IOException {
+        String json = objectMapper.writeValueAsString(responsePayload);
+        String encrypted = encryptionUtil.encrypt(json, key);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(encrypted.getBytes(StandardCharsets.UTF_8));
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] writeResponseStreaming() throws IOException {
+        MockHttpOutputMessage out = new MockHttpOutputMessage();
+        converter.write(new EncryptedBody(SESSION_ID, responsePayload), MediaType.TEXT_PLAIN, out);
+        return out.getBodyAsBytes();
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public Map<String, String> readRequestLegacy() throws IOException {
+        String body = new String(legacyRequestBody.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+        String json = encryptionUtil.decrypt(body, key);
+        return objectMapper.readValue(json, Map.class);
+    }
+
+    @Benchmark
+    public Object readRequestStreaming() throws IOException {
+        MockHttpInputMessage in = new MockHttpInputMessage(streamingRequestBody);
+        in.getHeaders().set("X-Session-ID", SESSION_ID);
+        return converter.read(RegisterRequest.class, in);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(EncryptedJsonMessageConverterBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
@@ -0,0 +1,62 @@
+package com.backend.streetmed_backend.util;
+
+import com.backend.streetmed_backend.config.AppMetrics;
+import com.backend.streetmed_backend.dto.auth.LoginRequest;
+import com.backend.streetmed_backend.security.EncryptionUtil;
+import com.backend.streetmed_backend.security.SecurityManager;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.mock.http.MockHttpInputMessage;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EncryptedJsonMessageConverterTest {
+
+    private static final String KEYED_SESSION = "keyed-session";
+    private static final String LOGIN_JSON = "{\"username\":\"volunteer42\",\"password\":\"secret\"}";
+
+    private final EncryptionUtil encryptionUtil = new EncryptionUtil();
+    private final SecretKey key = new SecretKeySpec(new byte[32], "AES");
+    private final EncryptedJsonMessageConverter converter = new EncryptedJsonMessageConverter(
+            new SecurityManager(null, encryptionUtil, null, null, null, null, null) {
+                @Override
+                public SecretKey getSessionKey(String sessionId) {
+                    return KEYED_SESSION.equals(sessionId) ? key : null;
+                }
+            },
+            encryptionUtil, new ObjectMapper(), new AppMetrics(new SimpleMeterRegistry()));
+
+    @Test
+    void encryptedBodyIsDecrypted() throws IOException {
+        LoginRequest request = read(KEYED_SESSION, encryptionUtil.encrypt(LOGIN_JSON, key));
+
+        assertEquals("volunteer42", request.getUsername());
+    }
+
+    @Test
+    void plainJsonIsRejectedOnceTheSessionHasAKey() {
+        assertThrows(HttpMessageNotReadableException.class, () -> read(KEYED_SESSION, LOGIN_JSON));
+        assertThrows(HttpMessageNotReadableException.class, () -> read(KEYED_SESSION, "  \n" + LOGIN_JSON));
+    }
+
+    @Test
+    void plainJsonIsReadWithoutASessionKey() throws IOException {
+        assertEquals("volunteer42", read(null, LOGIN_JSON).getUsername());
+        assertEquals("volunteer42", read("unknown-session", LOGIN_JSON).getUsername());
+    }
+
+    private LoginRequest read(String sessionId, String body) throws IOException {
+        MockHttpInputMessage in = new MockHttpInputMessage(body.getBytes(StandardCharsets.UTF_8));
+        if (sessionId != null) {
+            in.getHeaders().set("X-Session-ID", sessionId);
+        }
+        return (LoginRequest) converter.read(LoginRequest.class, in);
+    }
+}
@@ -47,21 +47,29 @@ const Admin = ({ onLogout, userData }) => {
         }).length
       );
   
-      // Fetch orders using secure connection - FIX: Use actual role from userData
-      const ordersResp = await secureAxios.get('/api/orders/all', {
-        headers: {
-          "Admin-Username": userData.username,
-          "Authentication-Status": "true",
-          "X-Auth-Token": userData.authToken || '',
-        },
-        params: {
-          authenticated: true,
-          userId: userData.userId,
-          userRole: userData.role || "ADMIN", // FIX: Use actual role instead of hardcoded "VOLUNTEER"
-        },
-      });
-      const orders = ordersResp.data.orders || [];
-      setPendingOrdersCount(orders.filter((o) => o.status === "PENDING").length);
+      // Count pending orders page by page (the endpoint returns one page per request)
+      let pendingCount = 0;
+      let cursor;
+      do {
+        const ordersResp = await secureAxios.get('/api/orders/all', {
+          headers: {
+            "Admin-Username": userData.username,
+            "Authentication-Status": "true",
+            "X-Auth-Token": userData.authToken || '',
+          },
+          params: {
+            authenticated: true,
+            userId: userData.userId,
+            userRole: userData.role || "ADMIN", // FIX: Use actual role instead of hardcoded "VOLUNTEER"
+            status: "PENDING",
+            limit: 200,
+            cursor,
+          },
+        });
+        pendingCount += (ordersResp.data.orders || []).length;
+        cursor = ordersResp.data.nextCursor;
+      } while (cursor);
+      setPendingOrdersCount(pendingCount);
   
       // Fetch volunteer applications using secure connection
       const appsResp = await secureAxios.get('/api/volunteer/pending', {
@@ -98,16 +98,28 @@ const AdminOrders = ({ userData }) => {
       setIsLoading(true);
       setOrdersError('');
       
-      const response = await secureAxios.get('/api/orders/all', {
-        params: {
-          authenticated: true,
-          userId: userData.userId,
-          userRole: "ADMIN"
+      // The endpoint returns one page per request; follow nextCursor to collect every order
+      const fetched = [];
+      let response;
+      let cursor;
+      do {
+        response = await secureAxios.get('/api/orders/all', {
+          params: {
+            authenticated: true,
+            userId: userData.userId,
+            userRole: "ADMIN",
+            limit: 200,
+            cursor
+          }
+        });
+        if (response.data.status !== "success") {
+          break;
         }
-      });
+        fetched.push(...(response.data.orders || []));
+        cursor = response.data.nextCursor;
+      } while (cursor);
       
       if (response.data.status === "success") {
-        const fetched = response.data.orders || [];
         
         // Store ALL orders for stats calculation
         setAllOrders(fetched);